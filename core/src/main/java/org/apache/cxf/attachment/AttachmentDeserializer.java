@@ -60,6 +60,13 @@ public class AttachmentDeserializer {
     public static final int DEFAULT_MAX_HEADER_SIZE = 
         SystemPropertyAction.getInteger("org.apache.cxf.attachment-max-header-size", 300);
 
+    /**
+     * The size of the buffer used to look for the MIME boundaries, which is also
+     * the largest chunk of a part returned by a single read. The default is 16K.
+     */
+    public static final String ATTACHMENT_BUFFER_SIZE = "attachment-buffer-size";
+    public static final int DEFAULT_BUFFER_SIZE = 16 * 1024;
+
     public static final int THRESHOLD = 1024 * 100; //100K (byte unit)
 
     private static final Pattern CONTENT_TYPE_BOUNDARY_PATTERN = Pattern.compile("boundary=\"?([^\";]*)");
@@ -71,7 +78,7 @@ public class AttachmentDeserializer {
 
     private boolean lazyLoading = true;
 
-    private int pbAmount = 2048;
+    private int pbAmount = DEFAULT_BUFFER_SIZE;
     private PushbackInputStream stream;
     private int createCount;
     private int closedCount;
@@ -103,6 +110,7 @@ public class AttachmentDeserializer {
         // Get the maximum Header length from configuration
         maxHeaderLength = MessageUtils.getContextualInteger(message, ATTACHMENT_MAX_HEADER_SIZE,
                                                             DEFAULT_MAX_HEADER_SIZE);
+        pbAmount = MessageUtils.getContextualInteger(message, ATTACHMENT_BUFFER_SIZE, DEFAULT_BUFFER_SIZE);
     }
 
     public void initializeAttachments() throws IOException {
@@ -240,7 +248,7 @@ public class AttachmentDeserializer {
         InputStream origIn = input.getInputStream();
         try (CachedOutputStream out = new CachedOutputStream()) {
             AttachmentUtil.setStreamedAttachmentProperties(message, out);
-            IOUtils.copy(input, out);
+            IOUtils.copy(input, out, pbAmount);
             input.setInputStream(out.getInputStream());
             origIn.close();
         }
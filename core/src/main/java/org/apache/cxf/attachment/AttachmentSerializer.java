@@ -19,12 +19,17 @@
 
 package org.apache.cxf.attachment;
 
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.StringWriter;
 import java.io.Writer;
 import java.net.URLDecoder;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
 import java.nio.charset.StandardCharsets;
 import java.util.Collections;
 import java.util.Iterator;
@@ -33,6 +38,8 @@ import java.util.List;
 import java.util.Map;
 
 import javax.activation.DataHandler;
+import javax.activation.DataSource;
+import javax.activation.FileDataSource;
 
 import org.apache.cxf.common.util.Base64Utility;
 import org.apache.cxf.helpers.IOUtils;
@@ -45,6 +52,7 @@ import org.apache.cxf.message.Message;
 public class AttachmentSerializer {
     // http://tools.ietf.org/html/rfc2387
     private static final String DEFAULT_MULTIPART_TYPE = "multipart/related";
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
 
     private String contentTransferEncoding = "binary";
 
@@ -57,6 +65,7 @@ public class AttachmentSerializer {
     private Map<String, List<String>> rootHeaders = Collections.emptyMap();
     private boolean xop = true;
     private boolean writeOptionalTypeParameters = true;
+    private byte[] copyBuffer;
 
 
     public AttachmentSerializer(Message messageParam) {
@@ -282,7 +291,7 @@ public class AttachmentSerializer {
                         encodeBase64(inputStream, out, IOUtils.DEFAULT_BUFFER_SIZE);
                     }
                 } else {
-                    handler.writeTo(out);
+                    writeContent(handler);
                 }
             }
         }
@@ -294,6 +303,64 @@ public class AttachmentSerializer {
         out.flush();
     }
 
+    /**
+     * Writes the binary content of an attachment. Byte array and file backed
+     * content is written without going through a DataContentHandler, files are
+     * transferred with FileChannel.transferTo if the output is a channel.
+     */
+    private void writeContent(DataHandler handler) throws IOException {
+        DataSource ds = handler.getDataSource();
+        if (ds instanceof ByteDataSource) {
+            ByteDataSource bds = (ByteDataSource)ds;
+            out.write(bds.getData(), bds.getOffset(), bds.getLength());
+        } else if (ds instanceof FileDataSource) {
+            writeFile(((FileDataSource)ds).getFile());
+        } else if (ds instanceof AttachmentDataSource || ds instanceof LazyDataSource) {
+            try (InputStream in = ds.getInputStream()) {
+                copy(in);
+            }
+        } else {
+            handler.writeTo(out);
+        }
+    }
+
+    private void writeFile(File file) throws IOException {
+        try (FileInputStream in = new FileInputStream(file)) {
+            WritableByteChannel target = getOutputChannel();
+            if (target == null) {
+                copy(in);
+                return;
+            }
+            out.flush();
+            FileChannel channel = in.getChannel();
+            long size = channel.size();
+            long pos = 0;
+            while (pos < size) {
+                pos += channel.transferTo(pos, size - pos, target);
+            }
+        }
+    }
+
+    private WritableByteChannel getOutputChannel() {
+        if (out instanceof WritableByteChannel) {
+            return (WritableByteChannel)out;
+        } else if (out instanceof FileOutputStream) {
+            return ((FileOutputStream)out).getChannel();
+        }
+        return null;
+    }
+
+    private void copy(InputStream in) throws IOException {
+        if (copyBuffer == null) {
+            copyBuffer = new byte[COPY_BUFFER_SIZE];
+        }
+        int n = in.read(copyBuffer);
+        while (n != -1) {
+            out.write(copyBuffer, 0, n);
+            n = in.read(copyBuffer);
+        }
+    }
+
     private int encodeBase64(InputStream input, OutputStream output, int bufferSize) throws IOException {
         int avail = input.available();
         if (avail > 262144) {
@@ -55,6 +55,14 @@ public class ByteDataSource implements DataSource {
         this.data = dataParam;
     }
 
+    public int getOffset() {
+        return offset;
+    }
+
+    public int getLength() {
+        return length;
+    }
+
     public void setContentType(String contentTypeParam) {
         this.contentType = contentTypeParam;
     }
@@ -22,7 +22,14 @@ package org.apache.cxf.attachment;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.PushbackInputStream;
+import java.util.Arrays;
 
+/**
+ * Reads the content of a single MIME part up to the next boundary.  Bulk reads
+ * locate the boundary with a Boyer-Moore-Horspool search over the whole buffer
+ * read from the underlying stream, so the bytes of the part are only examined
+ * at the positions the search needs; whatever follows the part is pushed back.
+ */
 public class MimeBodyPartInputStream extends InputStream {
 
     PushbackInputStream inStream;
@@ -32,6 +39,14 @@ public class MimeBodyPartInputStream extends InputStream {
     byte[] boundary;
     byte[] boundaryBuffer;
 
+    /**
+     * Set when the bytes pushed back start with the delimiter of the part,
+     * delimiterLength of them (the boundary and the CRLF in front of it, if any)
+     */
+    private boolean boundaryNext;
+    private int delimiterLength;
+    private int[] skipTable;
+
     private boolean closed;
 
     public MimeBodyPartInputStream(PushbackInputStream inStreamParam,
@@ -58,6 +73,10 @@ public class MimeBodyPartInputStream extends InputStream {
         if (len == 0) {
             return 0;
         }
+        if (boundaryNext) {
+            consumeBoundary();
+            return -1;
+        }
         boolean bufferCreated = false;
         if (len < boundary.length * 2) {
             //buffer is too short to detect boundaries with it.  We'll need to create a larger buffer
@@ -87,6 +106,10 @@ public class MimeBodyPartInputStream extends InputStream {
         len = idx;
 
         int i = processBuffer(b, off, len);
+        if (i == 0 && boundaryNext) {
+            consumeBoundary();
+            return -1;
+        }
         if (bufferCreated && i > 0) {
             // read more than we need, push it back
             if (origLen >= i) {
@@ -94,112 +117,126 @@ public class MimeBodyPartInputStream extends InputStream {
             } else {
                 System.arraycopy(b, 0, buf, origOff, origLen);
                 inStream.unread(b, origLen, i - origLen);
+                // the pushed back data now precedes the delimiter, it will be found again
+                boundaryNext = false;
                 i = origLen;
             }
-        } else if (i == 0 && boundaryFound) {
-            return -1;
         }
-
         return i;
     }
 
-    //Has Data after encountering CRLF
-    private boolean hasData(byte[] b, int initialPointer, int pointer, int off, int len)
-        throws IOException {
-        if (pointer < (off + len)) {
-            return true;
-        } else if (pointer >= 1000000000) {
-            inStream.unread(b, initialPointer, (off + len) - initialPointer);
-            return false;
+    /**
+     * Finds the end of the part data in the buffer.  Everything after the data is
+     * pushed back to the underlying stream: the delimiter and what follows it if
+     * the boundary was found, else the tail of the buffer that may be the start
+     * of a delimiter completed by the next read.
+     *
+     * @return the number of bytes of part data at the start of the buffer
+     */
+    protected int processBuffer(byte[] buffer, int off, int len) throws IOException {
+        int end = off + len;
+        int dataEnd;
+        int idx = indexOfBoundary(buffer, off, end);
+        if (idx != -1) {
+            dataEnd = idx;
+            if (idx - 2 >= off && buffer[idx - 2] == 13 && buffer[idx - 1] == 10) {
+                dataEnd = idx - 2;
+            }
+            boundaryNext = true;
+            delimiterLength = idx + boundary.length - dataEnd;
         } else {
-            int x = inStream.read();
-            if (x != -1) {
-                inStream.unread(x);
-                inStream.unread(b, initialPointer, (off + len) - initialPointer);
-                return false;
+            dataEnd = startOfPartialDelimiter(buffer, off, end);
+            if (dataEnd < end && isEndOfStream()) {
+                dataEnd = end;
             }
-            return true;
         }
+        if (dataEnd < end) {
+            inStream.unread(buffer, dataEnd, end - dataEnd);
+        }
+        return dataEnd - off;
     }
 
-    protected int processBuffer(byte[] buffer, int off, int len) throws IOException {
-        for (int i = off; i < (off + len); i++) {
-            boolean needUnread0d0a = false;
-            int value = buffer[i];
-            int initialI = i;
-            if (value == 13) {
-                if (!hasData(buffer, initialI, initialI + 1, off, len)) {
-                    return initialI - off;
-                }
-                value = buffer[initialI + 1];
-                if (value != 10) {
-                    continue;
-                }
-                if (!hasData(buffer, initialI, initialI + 2, off, len)) {
-                    return initialI - off;
+    /**
+     * Boyer-Moore-Horspool search for the boundary.
+     */
+    private int indexOfBoundary(byte[] buffer, int off, int end) {
+        if (skipTable == null) {
+            skipTable = new int[256];
+            Arrays.fill(skipTable, boundary.length);
+            for (int x = 0; x < boundary.length - 1; x++) {
+                skipTable[boundary[x] & 0xFF] = boundary.length - 1 - x;
+            }
+        }
+        int last = boundary.length - 1;
+        int i = off;
+        while (i + last < end) {
+            byte c = buffer[i + last];
+            if (c == boundary[last]) {
+                int j = last - 1;
+                while (j >= 0 && buffer[i + j] == boundary[j]) {
+                    j--;
                 }
-                value = buffer[initialI + 2];
-                if ((byte) value != boundary[0]) {
-                    i++;
-                    continue;
+                if (j < 0) {
+                    return i;
                 }
-                needUnread0d0a = true;
-                i += 2; //i after this points to boundary[0] element
-            } else if (value != boundary[0]) {
-                continue;
             }
+            i += skipTable[c & 0xFF];
+        }
+        return -1;
+    }
 
-            int boundaryIndex = 0;
-            while ((boundaryIndex < boundary.length) && (value == boundary[boundaryIndex])) {
-                if (!hasData(buffer, initialI, i + 1, off, len)) {
-                    return initialI - off;
-                }
-                value = buffer[++i];
-                boundaryIndex++;
+    /**
+     * Finds where a delimiter (an optional CRLF and the boundary) may start at the
+     * end of the buffer without being complete.
+     */
+    private int startOfPartialDelimiter(byte[] buffer, int off, int end) {
+        int start = end;
+        for (int p = Math.max(off, end - boundary.length + 1); p < end; p++) {
+            if (isBoundaryPrefix(buffer, p, end)) {
+                start = p;
+                break;
             }
-            if (boundaryIndex == boundary.length) {
-                // read the end of line character
-                if (initialI != off) {
-                    i = 1000000000;
-                }
-                if (initialI - off != 0
-                    && !hasData(buffer, initialI, i + 1, off, len)) {
-                    return initialI - off;
-                }
-                boundaryFound = true;
-                int j = i + 1;
-                if (j < len && buffer[j] == 45 && value == 45) {
-                    // Last mime boundary should have a succeeding "--"
-                    // as we are on it, read the terminating CRLF
-                    i += 2;
-                    //last mime boundary
-                }
+        }
+        if (start - 1 >= off && buffer[start - 1] == 13 && start == end) {
+            start--;
+        } else if (start - 2 >= off && buffer[start - 2] == 13 && buffer[start - 1] == 10) {
+            start -= 2;
+        }
+        return start;
+    }
 
-                //boundary matched (may or may not be last mime boundary)
-                int processed = initialI - off;
-                if ((len - ((i - off) + 2)) > 0) {
-                    inStream.unread(buffer, i + 2, len - (i + 2) + off);
-                }
-                return processed;
+    private boolean isBoundaryPrefix(byte[] buffer, int p, int end) {
+        for (int x = 0; p + x < end; x++) {
+            if (buffer[p + x] != boundary[x]) {
+                return false;
             }
+        }
+        return true;
+    }
 
-            // Boundary not found. Restoring bytes skipped.
-            // write first skipped byte, push back the rest
-            if (value != -1) { //pushing back first byte of boundary
-                // Stream might have ended
-                i--;
-            }
-            if (needUnread0d0a) { //Pushing all,  returning 13
-                i = i - boundaryIndex;
-                i--; //for 10
-                value = 13;
-            } else {
-                i = i - boundaryIndex;
-                i++;
-                value = boundary[0];
-            }
+    private boolean isEndOfStream() throws IOException {
+        int x = inStream.read();
+        if (x == -1) {
+            return true;
+        }
+        inStream.unread(x);
+        return false;
+    }
+
+    private void consumeBoundary() throws IOException {
+        for (int x = 0; x < delimiterLength; x++) {
+            inStream.read();
+        }
+        boundaryNext = false;
+        boundaryFound = true;
+        // read the end of line characters, or the "--" of the last mime boundary
+        // and its terminating CRLF
+        int value = inStream.read();
+        int dashNext = inStream.read();
+        if (dashNext == 45 && value == 45) {
+            inStream.read();
+            inStream.read();
         }
-        return len;
     }
 
     public int read() throws IOException {
@@ -207,6 +244,10 @@ public class MimeBodyPartInputStream extends InputStream {
         if (boundaryFound) {
             return -1;
         }
+        if (boundaryNext) {
+            consumeBoundary();
+            return -1;
+        }
 
         // read the next value from stream
         int value = inStream.read();
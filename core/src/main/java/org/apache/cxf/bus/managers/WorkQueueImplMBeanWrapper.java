@@ -73,6 +73,16 @@ public class WorkQueueImplMBeanWrapper implements ManagedComponent {
         return aWorkQueue.getActiveCount();
     }
 
+    @ManagedAttribute(description = "The number of work items rejected by the WorkQueue")
+    public long getRejectedCount() {
+        return aWorkQueue.getRejectedCount();
+    }
+
+    @ManagedAttribute(description = "The number of work items stolen from the queue of another thread")
+    public long getStealCount() {
+        return aWorkQueue.getStealCount();
+    }
+
     @ManagedAttribute(description = "The WorkQueue has nothing to do",
                       persistPolicy = "OnUpdate")
     public boolean isEmpty() {
@@ -37,6 +37,8 @@ import org.apache.cxf.configuration.ConfiguredBeanLocator;
 import org.apache.cxf.management.InstrumentationManager;
 import org.apache.cxf.workqueue.AutomaticWorkQueue;
 import org.apache.cxf.workqueue.AutomaticWorkQueueImpl;
+import org.apache.cxf.workqueue.StealingWorkQueueImpl;
+import org.apache.cxf.workqueue.VirtualThreadWorkQueueImpl;
 import org.apache.cxf.workqueue.WorkQueueManager;
 
 @NoJSR250Annotations(unlessNull = "bus")
@@ -44,6 +46,13 @@ public class WorkQueueManagerImpl implements WorkQueueManager {
 
     public static final String DEFAULT_QUEUE_NAME = "default";
     public static final String DEFAULT_WORKQUEUE_BEAN_NAME = "cxf.default.workqueue";
+    /**
+     * Bus property selecting the implementation of the default work queue when none
+     * is configured: "virtual" runs each work item on a virtual thread (JDK 21+),
+     * "stealing" uses a work-stealing ForkJoinPool.  The stealing queue does not
+     * grow for work items that block, so it only suits short, non-blocking work.
+     */
+    public static final String WORKQUEUE_TYPE_PROPERTY = "org.apache.cxf.workqueue.type";
 
     private static final Logger LOG =
         LogUtils.getL7dLogger(WorkQueueManagerImpl.class);
@@ -197,11 +206,30 @@ public class WorkQueueManagerImpl implements WorkQueueManager {
     }
 
     private AutomaticWorkQueue createAutomaticWorkQueue() {
-        AutomaticWorkQueue q = new AutomaticWorkQueueImpl(DEFAULT_QUEUE_NAME);
+        AutomaticWorkQueue q = createAutomaticWorkQueue(getWorkQueueType(), DEFAULT_QUEUE_NAME);
         addNamedWorkQueue(DEFAULT_QUEUE_NAME, q);
         return q;
     }
 
+    private String getWorkQueueType() {
+        Object type = bus == null ? null : bus.getProperty(WORKQUEUE_TYPE_PROPERTY);
+        return type == null ? null : type.toString();
+    }
+
+    static AutomaticWorkQueue createAutomaticWorkQueue(String type, String name) {
+        if (VirtualThreadWorkQueueImpl.TYPE.equalsIgnoreCase(type)) {
+            if (VirtualThreadWorkQueueImpl.isSupported()) {
+                return new VirtualThreadWorkQueueImpl(name);
+            }
+            LOG.warning("Virtual threads are not supported by this JDK, using the default work queue");
+        } else if (StealingWorkQueueImpl.TYPE.equalsIgnoreCase(type)) {
+            return new StealingWorkQueueImpl(name);
+        } else if (type != null && !type.isEmpty() && !DEFAULT_QUEUE_NAME.equalsIgnoreCase(type)) {
+            LOG.warning("Unknown work queue type " + type + ", using the default work queue");
+        }
+        return new AutomaticWorkQueueImpl(name);
+    }
+
 
     class WQLifecycleListener implements BusLifeCycleListener {
         public void initComplete() {
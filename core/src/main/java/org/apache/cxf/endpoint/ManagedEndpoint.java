@@ -24,11 +24,18 @@ import javax.management.ObjectName;
 
 import org.apache.cxf.Bus;
 import org.apache.cxf.common.util.StringUtils;
+import org.apache.cxf.interceptor.Interceptor;
+import org.apache.cxf.interceptor.OutgoingChainInterceptor;
 import org.apache.cxf.management.ManagedComponent;
 import org.apache.cxf.management.ManagementConstants;
 import org.apache.cxf.management.annotation.ManagedAttribute;
 import org.apache.cxf.management.annotation.ManagedOperation;
 import org.apache.cxf.management.annotation.ManagedResource;
+import org.apache.cxf.message.Message;
+import org.apache.cxf.phase.PhaseChainCache;
+import org.apache.cxf.transport.ChainInitiationObserver;
+import org.apache.cxf.transport.Destination;
+import org.apache.cxf.transport.MessageObserver;
 
 @ManagedResource(componentName = "Endpoint",
                  description = "Responsible for managing server instances.")
@@ -88,6 +95,63 @@ public class ManagedEndpoint implements ManagedComponent, ServerLifeCycleListene
         return state.toString();
     }
 
+    @ManagedAttribute(description = "Number of inbound interceptor chains built")
+    public long getInboundChainBuildCount() {
+        PhaseChainCache cache = getInboundChainCache();
+        return cache == null ? 0 : cache.getChainBuildCount();
+    }
+
+    @ManagedAttribute(description = "Number of inbound interceptor chains cloned from the cached chain")
+    public long getInboundChainCloneCount() {
+        PhaseChainCache cache = getInboundChainCache();
+        return cache == null ? 0 : cache.getChainCloneCount();
+    }
+
+    @ManagedAttribute(description = "Number of inbound interceptor chains copied because "
+                                    + "interceptors were added or removed")
+    public long getInboundChainCopyOnWriteCount() {
+        PhaseChainCache cache = getInboundChainCache();
+        return cache == null ? 0 : cache.getChainCopyOnWriteCount();
+    }
+
+    @ManagedAttribute(description = "Number of outbound interceptor chains built")
+    public long getOutboundChainBuildCount() {
+        PhaseChainCache cache = getOutboundChainCache();
+        return cache == null ? 0 : cache.getChainBuildCount();
+    }
+
+    @ManagedAttribute(description = "Number of outbound interceptor chains cloned from the cached chain")
+    public long getOutboundChainCloneCount() {
+        PhaseChainCache cache = getOutboundChainCache();
+        return cache == null ? 0 : cache.getChainCloneCount();
+    }
+
+    @ManagedAttribute(description = "Number of outbound interceptor chains copied because "
+                                    + "interceptors were added or removed")
+    public long getOutboundChainCopyOnWriteCount() {
+        PhaseChainCache cache = getOutboundChainCache();
+        return cache == null ? 0 : cache.getChainCopyOnWriteCount();
+    }
+
+    private PhaseChainCache getInboundChainCache() {
+        Destination d = server.getDestination();
+        MessageObserver observer = d == null ? null : d.getMessageObserver();
+        if (observer instanceof ChainInitiationObserver) {
+            return ((ChainInitiationObserver)observer).getChainCache();
+        }
+        return null;
+    }
+
+    private PhaseChainCache getOutboundChainCache() {
+        // the responses are sent on the chain set up by the service's OutgoingChainInterceptor
+        for (Interceptor<? extends Message> i : endpoint.getService().getInInterceptors()) {
+            if (i instanceof OutgoingChainInterceptor) {
+                return ((OutgoingChainInterceptor)i).getChainCache();
+            }
+        }
+        return null;
+    }
+
     public ObjectName getObjectName() throws JMException {
         String busId = bus.getId();
         StringBuilder buffer = new StringBuilder();
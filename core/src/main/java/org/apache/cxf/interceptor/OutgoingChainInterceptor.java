@@ -54,6 +54,10 @@ public class OutgoingChainInterceptor extends AbstractPhaseInterceptor<Message>
         super(Phase.POST_INVOKE);
     }
 
+    public PhaseChainCache getChainCache() {
+        return chainCache;
+    }
+
     public void handleMessage(Message message) {
         Exchange ex = message.getExchange();
         BindingOperationInfo binding = ex.getBindingOperationInfo();
@@ -22,16 +22,24 @@ package org.apache.cxf.io;
 import java.io.BufferedOutputStream;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.OutputStream;
 import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
 import java.security.GeneralSecurityException;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -52,6 +60,7 @@ public class CachedOutputStream extends OutputStream {
     private static int defaultThreshold;
     private static long defaultMaxSize;
     private static String defaultCipherTransformation;
+    private static CachedOutputStreamBufferPool defaultBufferPool;
     static {
 
         String s = SystemPropertyAction.getPropertyOrNull("org.apache.cxf.io.CachedOutputStream.OutputDirectory");
@@ -69,6 +78,7 @@ public class CachedOutputStream extends OutputStream {
         setDefaultThreshold(-1);
         setDefaultMaxSize(-1);
         setDefaultCipherTransformation(null);
+        setDefaultBufferPool(null);
     }
 
     protected boolean outputLocked;
@@ -87,6 +97,7 @@ public class CachedOutputStream extends OutputStream {
     private boolean allowDeleteOfFile = true;
     private String cipherTransformation = defaultCipherTransformation;
     private CipherPair ciphers;
+    private CachedOutputStreamBufferPool bufferPool = defaultBufferPool;
 
     private List<CachedOutputStreamCallback> callbacks;
 
@@ -98,9 +109,9 @@ public class CachedOutputStream extends OutputStream {
 
     public CachedOutputStream(long threshold) {
         this.threshold = threshold;
-        currentStream = new LoadingByteArrayOutputStream(2048);
-        inmem = true;
         readBusProperties();
+        currentStream = createMemoryStream(2048);
+        inmem = true;
     }
 
     private void readBusProperties() {
@@ -118,9 +129,20 @@ public class CachedOutputStream extends OutputStream {
             if (v != null) {
                 cipherTransformation = v;
             }
+            v = getBusProperty(b, "bus.io.CachedOutputStream.BufferPool", null);
+            if (v != null) {
+                bufferPool = CachedOutputStreamBufferPool.getPool(v);
+            }
         }
     }
 
+    private OutputStream createMemoryStream(int initialSize) {
+        if (bufferPool != null) {
+            return new PooledBufferOutputStream(bufferPool);
+        }
+        return new LoadingByteArrayOutputStream(initialSize);
+    }
+
     private static String getBusProperty(Bus b, String key, String dflt) {
         String v = (String)b.getProperty(key);
         return v != null ? v : dflt;
@@ -131,6 +153,9 @@ public class CachedOutputStream extends OutputStream {
     }
     public void releaseTempFileHold() {
         allowDeleteOfFile = true;
+        if (inmem && currentStream instanceof PooledBufferOutputStream) {
+            maybeReleaseBuffers(null);
+        }
     }
 
     public void registerCallback(CachedOutputStreamCallback cb) {
@@ -254,6 +279,9 @@ public class CachedOutputStream extends OutputStream {
                     if (copyOldContent && byteOut.size() > 0) {
                         byteOut.writeTo(out);
                     }
+                    if (byteOut instanceof PooledBufferOutputStream && streamList.isEmpty()) {
+                        ((PooledBufferOutputStream)byteOut).release();
+                    }
                 } else {
                     throw new IOException("Unknown format of currentStream");
                 }
@@ -306,6 +334,11 @@ public class CachedOutputStream extends OutputStream {
             } else {
                 throw new IOException("Unknown format of currentStream");
             }
+        } else if (cipherTransformation == null) {
+            // transfer the file content straight into the target channel
+            try (FileChannel fc = FileChannel.open(tempFile.toPath(), StandardOpenOption.READ)) {
+                transferTo(fc, getChannel(out));
+            }
         } else {
             // read the file
             InputStream fin = createInputStream(tempFile);
@@ -313,6 +346,64 @@ public class CachedOutputStream extends OutputStream {
         }
     }
 
+    /**
+     * Writes the cached content into the given channel.  If the content has been
+     * spilled to an unencrypted temp file, FileChannel.transferTo is used so the
+     * data does not need to be copied through the heap.
+     */
+    public void writeCacheTo(WritableByteChannel out) throws IOException {
+        flush();
+        if (!inmem && cipherTransformation == null) {
+            try (FileChannel fc = FileChannel.open(tempFile.toPath(), StandardOpenOption.READ)) {
+                transferTo(fc, out);
+            }
+        } else {
+            writeCacheTo(Channels.newOutputStream(out));
+        }
+    }
+
+    private static WritableByteChannel getChannel(OutputStream out) {
+        if (out instanceof WritableByteChannel) {
+            return (WritableByteChannel)out;
+        } else if (out instanceof FileOutputStream) {
+            return ((FileOutputStream)out).getChannel();
+        }
+        return Channels.newChannel(out);
+    }
+
+    private static void transferTo(FileChannel fc, WritableByteChannel out) throws IOException {
+        transferTo(fc, 0, out);
+    }
+
+    private static void transferTo(FileChannel fc, long pos, WritableByteChannel out) throws IOException {
+        long size = fc.size();
+        while (pos < size) {
+            long n = fc.transferTo(pos, size - pos, out);
+            if (n <= 0) {
+                // no progress, e.g. the target is non-blocking or the file was truncated,
+                // so copy the rest with reads and writes that block or fail instead
+                copy(fc, pos, size, out);
+                return;
+            }
+            pos += n;
+        }
+    }
+
+    private static void copy(FileChannel fc, long pos, long size, WritableByteChannel out)
+        throws IOException {
+        OutputStream os = Channels.newOutputStream(out);
+        ByteBuffer buffer = ByteBuffer.allocate(IOUtils.DEFAULT_BUFFER_SIZE);
+        while (pos < size) {
+            buffer.clear();
+            int n = fc.read(buffer, pos);
+            if (n < 0) {
+                throw new EOFException("The cached file was truncated at " + pos + " of " + size + " bytes");
+            }
+            os.write(buffer.array(), 0, n);
+            pos += n;
+        }
+    }
+
     public void writeCacheTo(StringBuilder out, long limit) throws IOException {
         writeCacheTo(out, StandardCharsets.UTF_8.name(), limit);
     }
@@ -468,6 +559,9 @@ public class CachedOutputStream extends OutputStream {
             currentStream = createOutputStream(tempFile);
             bout.writeTo(currentStream);
             inmem = false;
+            if (bout instanceof PooledBufferOutputStream && streamList.isEmpty()) {
+                ((PooledBufferOutputStream)bout).release();
+            }
             streamList.add(currentStream);
         } catch (Exception ex) {
             //Could be IOException or SecurityException or other issues.
@@ -489,7 +583,11 @@ public class CachedOutputStream extends OutputStream {
     public InputStream getInputStream() throws IOException {
         flush();
         if (inmem) {
-            if (currentStream instanceof LoadingByteArrayOutputStream) {
+            if (currentStream instanceof PooledBufferOutputStream) {
+                InputStream in = new PooledInputStream((PooledBufferOutputStream)currentStream);
+                streamList.add(in);
+                return in;
+            } else if (currentStream instanceof LoadingByteArrayOutputStream) {
                 return ((LoadingByteArrayOutputStream) currentStream).createInputStream();
             } else if (currentStream instanceof ByteArrayOutputStream) {
                 return new ByteArrayInputStream(((ByteArrayOutputStream) currentStream).toByteArray());
@@ -518,6 +616,27 @@ public class CachedOutputStream extends OutputStream {
         }
     }
 
+    /**
+     * Returns a channel to read the cached content.  If the content has been spilled
+     * to an unencrypted temp file, the channel is a FileChannel which can be used for
+     * FileChannel.transferTo or to map the file.  Like the InputStream, the channel
+     * must be closed to allow the temp file to be deleted.
+     */
+    public ReadableByteChannel getReadableChannel() throws IOException {
+        flush();
+        if (inmem || cipherTransformation != null) {
+            return Channels.newChannel(getInputStream());
+        }
+        try {
+            TransferableFileInputStream fileInputStream = new TransferableFileInputStream(tempFile);
+            streamList.add(fileInputStream);
+            // closing the channel closes the stream which releases the temp file
+            return fileInputStream.getChannel();
+        } catch (FileNotFoundException e) {
+            throw new IOException("Cached file was deleted, " + e.toString());
+        }
+    }
+
     private synchronized void deleteTempFile() {
         if (tempFile != null) {
             File file = tempFile;
@@ -527,6 +646,10 @@ public class CachedOutputStream extends OutputStream {
     }
     private boolean maybeDeleteTempFile(Object stream) {
         boolean postClosedInvoked = false;
+        if (inmem && currentStream instanceof PooledBufferOutputStream) {
+            maybeReleaseBuffers(stream);
+            return postClosedInvoked;
+        }
         streamList.remove(stream);
         if (!inmem && tempFile != null && streamList.isEmpty() && allowDeleteOfFile) {
             if (currentStream != null) {
@@ -545,6 +668,19 @@ public class CachedOutputStream extends OutputStream {
         return postClosedInvoked;
     }
 
+    /**
+     * Gives the pooled buffers back once the output is locked and no InputStream
+     * or hold refers to them anymore.  The cached content is gone afterwards, exactly
+     * like the temp file would be deleted at this point.
+     */
+    private void maybeReleaseBuffers(Object stream) {
+        streamList.remove(stream);
+        if (outputLocked && streamList.isEmpty() && allowDeleteOfFile) {
+            ((PooledBufferOutputStream)currentStream).release();
+            currentStream = new LoadingByteArrayOutputStream(1024);
+        }
+    }
+
     public void setOutputDir(File outputDir) throws IOException {
         this.outputDir = outputDir;
     }
@@ -584,6 +720,19 @@ public class CachedOutputStream extends OutputStream {
         defaultThreshold = i;
 
     }
+    /**
+     * Sets the default buffer pool type ("heap" or "direct") used for the in-memory
+     * content.  Passing null reads the
+     * "org.apache.cxf.io.CachedOutputStream.BufferPool" system property, if that is
+     * not set either the content is kept in a plain growing byte[].
+     */
+    public static void setDefaultBufferPool(String type) {
+        if (type == null) {
+            type = SystemPropertyAction.getPropertyOrNull("org.apache.cxf.io.CachedOutputStream.BufferPool");
+        }
+        defaultBufferPool = CachedOutputStreamBufferPool.getPool(type);
+    }
+
     public static void setDefaultCipherTransformation(String n) {
         if (n == null) {
             n = SystemPropertyAction.getPropertyOrNull("org.apache.cxf.io.CachedOutputStream.CipherTransformation");
@@ -630,6 +779,21 @@ public class CachedOutputStream extends OutputStream {
         return in;
     }
 
+    private class PooledInputStream extends PooledBufferOutputStream.ChunkedInputStream {
+        private boolean closed;
+
+        PooledInputStream(PooledBufferOutputStream out) {
+            super(out.createReadViews());
+        }
+
+        public void close() throws IOException {
+            if (!closed) {
+                closed = true;
+                maybeDeleteTempFile(this);
+            }
+        }
+    }
+
     private class TransferableFileInputStream extends FileInputStream implements Transferable {
         private boolean closed;
         private File sourceFile;
@@ -656,9 +820,15 @@ public class CachedOutputStream extends OutputStream {
             boolean transfered = sourceFile.renameTo(destinationFile);
             if (!transfered) {
                 // Data is in memory, or we failed to rename the file, try copying
-                // the stream instead.
-                try (OutputStream out = Files.newOutputStream(destinationFile.toPath())) {
-                    IOUtils.copyAndCloseInput(this, out);
+                // the file channel instead.
+                try (FileChannel out = FileChannel.open(destinationFile.toPath(),
+                                                        StandardOpenOption.CREATE,
+                                                        StandardOpenOption.WRITE,
+                                                        StandardOpenOption.TRUNCATE_EXISTING)) {
+                    FileChannel in = getChannel();
+                    CachedOutputStream.transferTo(in, in.position(), out);
+                } finally {
+                    close();
                 }
             }
         }
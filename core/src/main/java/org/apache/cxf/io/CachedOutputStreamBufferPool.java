@@ -0,0 +1,205 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.io;
+
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.cxf.common.util.SystemPropertyAction;
+
+/**
+ * A shared pool of fixed size buffers used by {@link CachedOutputStream} to hold
+ * its in-memory content when a buffer pool has been configured via the
+ * "bus.io.CachedOutputStream.BufferPool" bus property or the
+ * "org.apache.cxf.io.CachedOutputStream.BufferPool" system property
+ * (values "heap" or "direct").
+ *
+ * Buffers are grouped into size classes.  Each class keeps at most
+ * {@link #getMaxPooledBuffers()} idle buffers, anything beyond that is simply
+ * left to the garbage collector.
+ */
+public final class CachedOutputStreamBufferPool {
+    public static final String HEAP = "heap";
+    public static final String DIRECT = "direct";
+
+    static final int[] SIZE_CLASSES = {4 * 1024, 16 * 1024, 64 * 1024};
+
+    private static final CachedOutputStreamBufferPool HEAP_POOL;
+    private static final CachedOutputStreamBufferPool DIRECT_POOL;
+    static {
+        int max = Integer.parseInt(SystemPropertyAction
+            .getProperty("org.apache.cxf.io.CachedOutputStream.BufferPoolMaxBuffers", "256"));
+        HEAP_POOL = new CachedOutputStreamBufferPool(false, max);
+        DIRECT_POOL = new CachedOutputStreamBufferPool(true, max);
+    }
+
+    private final boolean direct;
+    private final int maxPooledBuffers;
+    private final Queue<ByteBuffer>[] pools;
+    private final AtomicInteger[] pooledCounts;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong released = new AtomicLong();
+    private final AtomicLong discarded = new AtomicLong();
+
+    @SuppressWarnings("unchecked")
+    public CachedOutputStreamBufferPool(boolean direct, int maxPooledBuffers) {
+        this.direct = direct;
+        this.maxPooledBuffers = maxPooledBuffers;
+        pools = new Queue[SIZE_CLASSES.length];
+        pooledCounts = new AtomicInteger[SIZE_CLASSES.length];
+        for (int x = 0; x < SIZE_CLASSES.length; x++) {
+            pools[x] = new ConcurrentLinkedQueue<>();
+            pooledCounts[x] = new AtomicInteger();
+        }
+    }
+
+    /**
+     * Returns the shared pool for the given type ("heap" or "direct"), or null
+     * if the type is null or empty.
+     */
+    public static CachedOutputStreamBufferPool getPool(String type) {
+        if (type == null || type.isEmpty()) {
+            return null;
+        }
+        if (HEAP.equalsIgnoreCase(type)) {
+            return HEAP_POOL;
+        } else if (DIRECT.equalsIgnoreCase(type)) {
+            return DIRECT_POOL;
+        }
+        throw new IllegalArgumentException("Unknown CachedOutputStream buffer pool type: " + type);
+    }
+
+    /**
+     * Obtains a cleared buffer of the smallest size class that is at least minSize,
+     * or of the largest size class if minSize exceeds it.
+     */
+    public ByteBuffer acquire(int minSize) {
+        int idx = sizeClass(minSize);
+        ByteBuffer buffer = pools[idx].poll();
+        if (buffer != null) {
+            pooledCounts[idx].decrementAndGet();
+            hits.incrementAndGet();
+            buffer.clear();
+            return buffer;
+        }
+        misses.incrementAndGet();
+        return direct ? ByteBuffer.allocateDirect(SIZE_CLASSES[idx]) : ByteBuffer.allocate(SIZE_CLASSES[idx]);
+    }
+
+    /**
+     * Returns a buffer previously obtained from {@link #acquire(int)}.  The caller
+     * must not use the buffer afterwards.
+     */
+    public void release(ByteBuffer buffer) {
+        int idx = indexOf(buffer.capacity());
+        if (idx == -1 || buffer.isDirect() != direct) {
+            discarded.incrementAndGet();
+            return;
+        }
+        if (pooledCounts[idx].incrementAndGet() > maxPooledBuffers) {
+            pooledCounts[idx].decrementAndGet();
+            discarded.incrementAndGet();
+            return;
+        }
+        pools[idx].offer(buffer);
+        released.incrementAndGet();
+    }
+
+    public boolean isDirect() {
+        return direct;
+    }
+
+    public int getMaxPooledBuffers() {
+        return maxPooledBuffers;
+    }
+
+    /**
+     * @return the number of idle buffers currently held by the pool
+     */
+    public int getPooledBuffers() {
+        int count = 0;
+        for (AtomicInteger i : pooledCounts) {
+            count += i.get();
+        }
+        return count;
+    }
+
+    /**
+     * @return the number of bytes held by idle buffers in the pool
+     */
+    public long getPooledBytes() {
+        long count = 0;
+        for (int x = 0; x < SIZE_CLASSES.length; x++) {
+            count += (long)pooledCounts[x].get() * SIZE_CLASSES[x];
+        }
+        return count;
+    }
+
+    /**
+     * @return the number of acquisitions served from the pool
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * @return the number of acquisitions that required a new allocation
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * @return the number of buffers returned to the pool
+     */
+    public long getReleased() {
+        return released.get();
+    }
+
+    /**
+     * @return the number of buffers not retained because the pool was full
+     */
+    public long getDiscarded() {
+        return discarded.get();
+    }
+
+    static int sizeClass(int minSize) {
+        for (int x = 0; x < SIZE_CLASSES.length; x++) {
+            if (minSize <= SIZE_CLASSES[x]) {
+                return x;
+            }
+        }
+        return SIZE_CLASSES.length - 1;
+    }
+
+    private static int indexOf(int capacity) {
+        for (int x = 0; x < SIZE_CLASSES.length; x++) {
+            if (capacity == SIZE_CLASSES[x]) {
+                return x;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,271 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.io;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ByteArrayOutputStream that stores its content in a list of buffers obtained from
+ * a {@link CachedOutputStreamBufferPool} instead of a single growing byte[].  The
+ * buffers are given back to the pool by {@link #release()}.
+ *
+ * The inherited buf field is unused, all the ByteArrayOutputStream methods are
+ * overridden to work across the chunks.
+ */
+class PooledBufferOutputStream extends ByteArrayOutputStream implements CopyingOutputStream {
+    private static final int COPY_BUFFER_SIZE = 4096;
+
+    private final CachedOutputStreamBufferPool pool;
+    private final List<ByteBuffer> chunks = new ArrayList<>();
+    private ByteBuffer current;
+
+    PooledBufferOutputStream(CachedOutputStreamBufferPool pool) {
+        super(0);
+        this.pool = pool;
+    }
+
+    private ByteBuffer nextChunk() {
+        if (current == null || !current.hasRemaining()) {
+            int idx = Math.min(chunks.size(), CachedOutputStreamBufferPool.SIZE_CLASSES.length - 1);
+            current = pool.acquire(CachedOutputStreamBufferPool.SIZE_CLASSES[idx]);
+            chunks.add(current);
+        }
+        return current;
+    }
+
+    @Override
+    public synchronized void write(int b) {
+        nextChunk().put((byte)b);
+        count++;
+    }
+
+    @Override
+    public synchronized void write(byte[] b, int off, int len) {
+        if ((off < 0) || (off > b.length) || (len < 0) || ((off + len) - b.length > 0)) {
+            throw new IndexOutOfBoundsException();
+        }
+        while (len > 0) {
+            ByteBuffer chunk = nextChunk();
+            int n = Math.min(len, chunk.remaining());
+            chunk.put(b, off, n);
+            off += n;
+            len -= n;
+            count += n;
+        }
+    }
+
+    @Override
+    public synchronized int copyFrom(InputStream in) throws IOException {
+        int total = 0;
+        byte[] tmp = null;
+        while (true) {
+            ByteBuffer chunk = nextChunk();
+            int n;
+            if (chunk.hasArray()) {
+                n = in.read(chunk.array(), chunk.arrayOffset() + chunk.position(), chunk.remaining());
+                if (n > 0) {
+                    chunk.position(chunk.position() + n);
+                }
+            } else {
+                if (tmp == null) {
+                    tmp = new byte[COPY_BUFFER_SIZE];
+                }
+                n = in.read(tmp, 0, Math.min(tmp.length, chunk.remaining()));
+                if (n > 0) {
+                    chunk.put(tmp, 0, n);
+                }
+            }
+            if (n == -1) {
+                return total;
+            }
+            total += n;
+            count += n;
+        }
+    }
+
+    @Override
+    public synchronized void writeTo(OutputStream out) throws IOException {
+        byte[] tmp = null;
+        for (ByteBuffer chunk : chunks) {
+            if (chunk.hasArray()) {
+                out.write(chunk.array(), chunk.arrayOffset(), chunk.position());
+            } else {
+                if (tmp == null) {
+                    tmp = new byte[COPY_BUFFER_SIZE];
+                }
+                ByteBuffer view = readView(chunk);
+                while (view.hasRemaining()) {
+                    int n = Math.min(tmp.length, view.remaining());
+                    view.get(tmp, 0, n);
+                    out.write(tmp, 0, n);
+                }
+            }
+        }
+    }
+
+    @Override
+    public synchronized byte[] toByteArray() {
+        byte[] bytes = new byte[count];
+        int pos = 0;
+        for (ByteBuffer chunk : chunks) {
+            ByteBuffer view = readView(chunk);
+            int n = view.remaining();
+            view.get(bytes, pos, n);
+            pos += n;
+        }
+        return bytes;
+    }
+
+    @Override
+    public synchronized void reset() {
+        release();
+    }
+
+    @Override
+    public synchronized String toString() {
+        return new String(toByteArray());
+    }
+
+    @Override
+    public synchronized String toString(String charsetName) throws UnsupportedEncodingException {
+        return new String(toByteArray(), charsetName);
+    }
+
+    /**
+     * Returns all the chunks to the pool and empties this stream.  Any InputStream
+     * previously created from {@link #createReadViews()} must no longer be used.
+     */
+    synchronized void release() {
+        for (ByteBuffer chunk : chunks) {
+            pool.release(chunk);
+        }
+        chunks.clear();
+        current = null;
+        count = 0;
+    }
+
+    /**
+     * Creates read-only views of the current content of the chunks.
+     */
+    synchronized List<ByteBuffer> createReadViews() {
+        List<ByteBuffer> views = new ArrayList<>(chunks.size());
+        for (ByteBuffer chunk : chunks) {
+            views.add(readView(chunk));
+        }
+        return views;
+    }
+
+    private static ByteBuffer readView(ByteBuffer chunk) {
+        ByteBuffer view = chunk.duplicate();
+        view.flip();
+        return view;
+    }
+
+    static class ChunkedInputStream extends InputStream implements Transferable {
+        private final List<ByteBuffer> views;
+        private int index;
+
+        ChunkedInputStream(List<ByteBuffer> views) {
+            this.views = views;
+        }
+
+        private ByteBuffer currentView() {
+            while (index < views.size()) {
+                ByteBuffer view = views.get(index);
+                if (view.hasRemaining()) {
+                    return view;
+                }
+                index++;
+            }
+            return null;
+        }
+
+        @Override
+        public int read() throws IOException {
+            ByteBuffer view = currentView();
+            return view == null ? -1 : view.get() & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            int total = 0;
+            ByteBuffer view = currentView();
+            while (view != null && len > 0) {
+                int n = Math.min(len, view.remaining());
+                view.get(b, off, n);
+                off += n;
+                len -= n;
+                total += n;
+                view = currentView();
+            }
+            return total == 0 ? -1 : total;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long total = 0;
+            ByteBuffer view = currentView();
+            while (view != null && n > 0) {
+                int s = (int)Math.min(n, view.remaining());
+                view.position(view.position() + s);
+                n -= s;
+                total += s;
+                view = currentView();
+            }
+            return total;
+        }
+
+        @Override
+        public int available() throws IOException {
+            long total = 0;
+            for (int x = index; x < views.size(); x++) {
+                total += views.get(x).remaining();
+            }
+            return (int)Math.min(Integer.MAX_VALUE, total);
+        }
+
+        @Override
+        public void transferTo(File file) throws IOException {
+            try (FileChannel channel = FileChannel.open(file.toPath(),
+                                                        StandardOpenOption.CREATE,
+                                                        StandardOpenOption.WRITE,
+                                                        StandardOpenOption.TRUNCATE_EXISTING)) {
+                for (ByteBuffer view = currentView(); view != null; view = currentView()) {
+                    while (view.hasRemaining()) {
+                        channel.write(view);
+                    }
+                }
+            }
+        }
+    }
+}
@@ -164,16 +164,6 @@ public abstract class AbstractWrappedMessage implements Message {
     public Object getContextualProperty(String key) {
         return message.getContextualProperty(key);
     }
-    void setContextualProperty(String key, Object v) {
-        if (message instanceof MessageImpl) {
-            ((MessageImpl)message).setContextualProperty(key, v);
-        }  else if (message instanceof AbstractWrappedMessage) {
-            ((AbstractWrappedMessage)message).setContextualProperty(key, v);
-        } else {
-            //cannot set directly.  Just invalidate the cache.
-            message.resetContextCache();
-        }
-    }
 
     public Set<String> getContextualPropertyKeys() {
         return message.getContextualPropertyKeys();
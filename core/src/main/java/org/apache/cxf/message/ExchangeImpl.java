@@ -149,10 +149,6 @@ public class ExchangeImpl extends ConcurrentHashMap<String, Object>  implements
     }
 
     public Object put(String key, Object value) {
-        setMessageContextProperty(inMessage, key, value);
-        setMessageContextProperty(outMessage, key, value);
-        setMessageContextProperty(inFaultMessage, key, value);
-        setMessageContextProperty(outFaultMessage, key, value);
         if (value == null) {
             return super.remove(key);
         }
@@ -163,20 +159,6 @@ public class ExchangeImpl extends ConcurrentHashMap<String, Object>  implements
         return key.cast(super.remove(key.getName()));
     }
 
-    private void setMessageContextProperty(Message m, String key, Object value) {
-        if (m == null) {
-            return;
-        }
-        if (m instanceof MessageImpl) {
-            ((MessageImpl)m).setContextualProperty(key, value);
-        }  else if (m instanceof AbstractWrappedMessage) {
-            ((AbstractWrappedMessage)m).setContextualProperty(key, value);
-        } else {
-            //cannot set directly.  Just invalidate the cache.
-            m.resetContextCache();
-        }
-    }
-
     public Destination getDestination() {
         return destination;
     }
@@ -257,7 +257,8 @@ public interface Message extends StringMap {
 
     /**
      * Resets the cache of contextual properties that messages may contain.  Subsequent
-     * calls to getContextualProperty will likely recalculate the cache.
+     * calls to getContextualProperty will likely recalculate the cache.  MessageImpl
+     * does not cache contextual properties, so this is a no-op for it.
      */
     void resetContextCache();
 
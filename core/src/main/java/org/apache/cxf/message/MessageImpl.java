@@ -20,7 +20,6 @@
 package org.apache.cxf.message;
 
 import java.util.Collection;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
@@ -35,7 +34,7 @@ import org.apache.cxf.transport.Destination;
 
 public class MessageImpl extends StringMapImpl implements Message {
     private static final long serialVersionUID = -3020763696429459865L;
-
+    private static final Object NOT_FOUND = new Object();
 
     private Exchange exchange;
     private String id;
@@ -45,8 +44,6 @@ public class MessageImpl extends StringMapImpl implements Message {
     private Object[] contents = new Object[20];
     private int index;
 
-    private Map<String, Object> contextCache;
-
 
     public MessageImpl() {
         //nothing
@@ -60,7 +57,6 @@ public class MessageImpl extends StringMapImpl implements Message {
             interceptorChain = impl.interceptorChain;
             contents = impl.contents;
             index = impl.index;
-            contextCache = impl.contextCache;
         } else {
             throw new RuntimeException("Not a MessageImpl! " + m.getClass());
         }
@@ -163,56 +159,111 @@ public class MessageImpl extends StringMapImpl implements Message {
     public void setInterceptorChain(InterceptorChain ic) {
         this.interceptorChain = ic;
     }
+    /**
+     * No longer needed now that there is no context cache to update, but kept so that
+     * code compiled against earlier versions, which links to this method, still works.
+     */
     public Object put(String key, Object value) {
-        if (contextCache != null) {
-            contextCache.put(key, value);
-        }
         return super.put(key, value);
     }
+
+    /**
+     * Looks the property up in the message, the exchange, the endpoint, the
+     * endpoint info, the binding info, the service and finally the bus, without
+     * copying any of them into a per-message map.
+     */
     public Object getContextualProperty(String key) {
-        if (contextCache == null) {
-            calcContextCache();
+        Object o = getOrDefault(key, NOT_FOUND);
+        if (o != NOT_FOUND) {
+            return o;
         }
-        return contextCache.get(key);
-    }
-    public Set<String> getContextualPropertyKeys() {
-        return contextCache.keySet();
+        Exchange ex = getExchange();
+        if (ex == null) {
+            return null;
+        }
+        o = getOrNotFound(ex, key);
+        if (o != NOT_FOUND) {
+            return o;
+        }
+        Endpoint ep = ex.getEndpoint();
+        if (ep != null) {
+            o = getOrNotFound(ep, key);
+            if (o != NOT_FOUND) {
+                return o;
+            }
+            EndpointInfo ei = ep.getEndpointInfo();
+            if (ei != null) {
+                o = getOrNotFound(ei.getProperties(), key);
+                if (o != NOT_FOUND) {
+                    return o;
+                }
+                if (ei.getBinding() != null) {
+                    o = getOrNotFound(ei.getBinding().getProperties(), key);
+                    if (o != NOT_FOUND) {
+                        return o;
+                    }
+                }
+            }
+        }
+        Service sv = ex.getService();
+        if (sv != null) {
+            o = getOrNotFound(sv, key);
+            if (o != NOT_FOUND) {
+                return o;
+            }
+        }
+        Bus b = ex.getBus();
+        if (b != null) {
+            o = getOrNotFound(b.getProperties(), key);
+            if (o != NOT_FOUND) {
+                return o;
+            }
+        }
+        return null;
     }
 
-    private void calcContextCache() {
-        Map<String, Object> o = new HashMap<String, Object>() {
-            private static final long serialVersionUID = 7067290677790419348L;
+    private static Object getOrNotFound(Map<String, Object> map, String key) {
+        if (map == null || map.isEmpty()) {
+            return NOT_FOUND;
+        }
+        return map.getOrDefault(key, NOT_FOUND);
+    }
 
-            public void putAll(Map<? extends String, ? extends Object> m) {
-                if (m != null && !m.isEmpty()) {
-                    super.putAll(m);
-                }
-            }
-        };
+    public Set<String> getContextualPropertyKeys() {
+        Set<String> keys = new HashSet<>();
         Exchange ex = getExchange();
         if (ex != null) {
             Bus b = ex.getBus();
-            if (b != null) {
-                o.putAll(b.getProperties());
+            if (b != null && b.getProperties() != null) {
+                keys.addAll(b.getProperties().keySet());
             }
             Service sv = ex.getService();
             if (sv != null) {
-                o.putAll(sv);
+                keys.addAll(sv.keySet());
             }
             Endpoint ep = ex.getEndpoint();
             if (ep != null) {
                 EndpointInfo ei = ep.getEndpointInfo();
                 if (ei != null) {
-                    o.putAll(ep.getEndpointInfo().getBinding().getProperties());
-                    o.putAll(ep.getEndpointInfo().getProperties());
+                    if (ei.getBinding() != null) {
+                        addKeys(keys, ei.getBinding().getProperties());
+                    }
+                    addKeys(keys, ei.getProperties());
                 }
-                o.putAll(ep);
+                keys.addAll(ep.keySet());
             }
+            keys.addAll(ex.keySet());
         }
-        o.putAll(ex);
-        o.putAll(this);
-        contextCache = o;
+        keys.addAll(keySet());
+        return keys;
     }
+
+    private static void addKeys(Set<String> keys, Map<String, Object> map) {
+        if (map != null) {
+            keys.addAll(map.keySet());
+        }
+    }
+
     public static void copyContent(Message m1, Message m2) {
         for (Class<?> c : m1.getContentFormats()) {
             m2.setContent(c, m1.getContent(c));
@@ -220,14 +271,6 @@ public class MessageImpl extends StringMapImpl implements Message {
     }
 
     public void resetContextCache() {
-        if (contextCache != null) {
-            contextCache = null;
-        }
-    }
-
-    void setContextualProperty(String key, Object v) {
-        if (contextCache != null && !containsKey(key)) {
-            contextCache.put(key, v);
-        }
+        // contextual properties are looked up directly, nothing is cached
     }
 }
@@ -24,6 +24,7 @@ import java.util.List;
 import java.util.ListIterator;
 import java.util.SortedSet;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
 
 import org.apache.cxf.common.util.ModCountCopyOnWriteArrayList;
 import org.apache.cxf.interceptor.Interceptor;
@@ -39,28 +40,32 @@ import org.apache.cxf.message.Message;
 public final class PhaseChainCache {
     AtomicReference<ChainHolder> lastData = new AtomicReference<ChainHolder>();
 
+    private final LongAdder builds = new LongAdder();
+    private final LongAdder clones = new LongAdder();
+    private final LongAdder copies = new LongAdder();
+
     public PhaseInterceptorChain get(SortedSet<Phase> phaseList,
                                      List<Interceptor<? extends Message>> p1) {
-        return getChain(lastData, phaseList, p1);
+        return getChain(phaseList, p1);
     }
 
     public PhaseInterceptorChain get(SortedSet<Phase> phaseList,
                                      List<Interceptor<? extends Message>> p1,
                                      List<Interceptor<? extends Message>> p2) {
-        return getChain(lastData, phaseList, p1, p2);
+        return getChain(phaseList, p1, p2);
     }
     public PhaseInterceptorChain get(SortedSet<Phase> phaseList,
                                      List<Interceptor<? extends Message>> p1,
                                      List<Interceptor<? extends Message>> p2,
                                      List<Interceptor<? extends Message>> p3) {
-        return getChain(lastData, phaseList, p1, p2, p3);
+        return getChain(phaseList, p1, p2, p3);
     }
     public PhaseInterceptorChain get(SortedSet<Phase> phaseList,
                                      List<Interceptor<? extends Message>> p1,
                                      List<Interceptor<? extends Message>> p2,
                                      List<Interceptor<? extends Message>> p3,
                                      List<Interceptor<? extends Message>> p4) {
-        return getChain(lastData, phaseList, p1, p2, p3, p4);
+        return getChain(phaseList, p1, p2, p3, p4);
     }
     public PhaseInterceptorChain get(SortedSet<Phase> phaseList,
                                      List<Interceptor<? extends Message>> p1,
@@ -68,12 +73,34 @@ public final class PhaseChainCache {
                                      List<Interceptor<? extends Message>> p3,
                                      List<Interceptor<? extends Message>> p4,
                                      List<Interceptor<? extends Message>> p5) {
-        return getChain(lastData, phaseList, p1, p2, p3, p4, p5);
+        return getChain(phaseList, p1, p2, p3, p4, p5);
+    }
+
+    /**
+     * @return the number of times this cache had to build a new chain because the
+     * interceptor providers changed
+     */
+    public long getChainBuildCount() {
+        return builds.sum();
+    }
+
+    /**
+     * @return the number of chains handed out by this cache
+     */
+    public long getChainCloneCount() {
+        return clones.sum();
+    }
+
+    /**
+     * @return the number of chains handed out by this cache which had to copy their
+     * interceptor list because an interceptor was added or removed
+     */
+    public long getChainCopyOnWriteCount() {
+        return copies.sum();
     }
 
     @SafeVarargs
-    static PhaseInterceptorChain getChain(AtomicReference<ChainHolder> lastData,
-                                          SortedSet<Phase> phaseList,
+    final PhaseInterceptorChain getChain(SortedSet<Phase> phaseList,
                                          List<Interceptor<? extends Message>> ... providers) {
         ChainHolder last = lastData.get();
 
@@ -81,6 +108,7 @@ public final class PhaseChainCache {
             || !last.matches(providers)) {
 
             PhaseInterceptorChain chain = new PhaseInterceptorChain(phaseList);
+            chain.setCopyCounter(copies);
             List<ModCountCopyOnWriteArrayList<Interceptor<? extends Message>>> copy
                 = new ArrayList<ModCountCopyOnWriteArrayList<
                     Interceptor<? extends Message>>>(providers.length);
@@ -90,9 +118,10 @@ public final class PhaseChainCache {
             }
             last = new ChainHolder(chain, copy);
             lastData.set(last);
+            builds.increment();
         }
 
-
+        clones.increment();
         return last.chain.cloneChain();
     }
 
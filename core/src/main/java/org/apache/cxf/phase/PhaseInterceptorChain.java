@@ -28,6 +28,7 @@ import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Set;
 import java.util.SortedSet;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -98,6 +99,12 @@ public class PhaseInterceptorChain implements InterceptorChain {
     private boolean faultOccurred;
     private boolean chainReleased;
 
+    // the interceptor list is shared with the chain this was cloned from (or
+    // with clones of this chain) and must be copied before modifying it
+    private boolean shared;
+
+    // counts the copies of the shared list for the cache the chain was taken from
+    private LongAdder copyCounter;
 
     private PhaseInterceptorChain(PhaseInterceptorChain src) {
         isFineLogging = LOG.isLoggable(Level.FINE);
@@ -109,31 +116,13 @@ public class PhaseInterceptorChain implements InterceptorChain {
         nameMap = src.nameMap;
         phases = src.phases;
 
-        int length = phases.length;
-        hasAfters = new boolean[length];
-        System.arraycopy(src.hasAfters, 0, hasAfters, 0, length);
-
-        heads = new InterceptorHolder[length];
-        tails = new InterceptorHolder[length];
-
-        InterceptorHolder last = null;
-        for (int x = 0; x < length; x++) {
-            InterceptorHolder ih = src.heads[x];
-            while (ih != null
-                && ih.phaseIdx == x) {
-                InterceptorHolder ih2 = new InterceptorHolder(ih);
-                ih2.prev = last;
-                if (last != null) {
-                    last.next = ih2;
-                }
-                if (heads[x] == null) {
-                    heads[x] = ih2;
-                }
-                tails[x] = ih2;
-                last = ih2;
-                ih = ih.next;
-            }
-        }
+        //shared with the source until either side is modified
+        heads = src.heads;
+        tails = src.tails;
+        hasAfters = src.hasAfters;
+        shared = true;
+        src.shared = true;
+        copyCounter = src.copyCounter;
     }
 
     public PhaseInterceptorChain(SortedSet<Phase> ps) {
@@ -198,10 +187,69 @@ public class PhaseInterceptorChain implements InterceptorChain {
         this.notifyAll();
     }
 
+    /**
+     * Creates a new chain with the same interceptors.  The interceptor list is not
+     * copied until one of the chains adds or removes an interceptor, so cloning an
+     * unmodified chain for each message is cheap.
+     */
     public PhaseInterceptorChain cloneChain() {
         return new PhaseInterceptorChain(this);
     }
 
+    void setCopyCounter(LongAdder counter) {
+        copyCounter = counter;
+    }
+
+    private void ensureOwned() {
+        if (!shared) {
+            return;
+        }
+        shared = false;
+        if (copyCounter != null) {
+            copyCounter.increment();
+        }
+
+        int length = phases.length;
+        InterceptorHolder[] newHeads = new InterceptorHolder[length];
+        InterceptorHolder[] newTails = new InterceptorHolder[length];
+        boolean[] newAfters = new boolean[length];
+        System.arraycopy(hasAfters, 0, newAfters, 0, length);
+
+        InterceptorHolder last = null;
+        for (int x = 0; x < length; x++) {
+            InterceptorHolder ih = heads[x];
+            while (ih != null
+                && ih.phaseIdx == x) {
+                InterceptorHolder ih2 = new InterceptorHolder(ih);
+                ih2.prev = last;
+                if (last != null) {
+                    last.next = ih2;
+                }
+                if (newHeads[x] == null) {
+                    newHeads[x] = ih2;
+                }
+                newTails[x] = ih2;
+                last = ih2;
+                if (iterator != null) {
+                    // keep the current position of the running iterator
+                    if (iterator.prev == ih) {
+                        iterator.prev = ih2;
+                    }
+                    if (iterator.first == ih) {
+                        iterator.first = ih2;
+                    }
+                }
+                ih = ih.next;
+            }
+        }
+        heads = newHeads;
+        tails = newTails;
+        hasAfters = newAfters;
+        if (iterator != null) {
+            iterator.heads = newHeads;
+        }
+    }
+
     private void updateIterator() {
         if (iterator == null) {
             iterator = new PhaseInterceptorIterator(heads);
@@ -508,6 +556,7 @@ public class PhaseInterceptorChain implements InterceptorChain {
     }
 
     public void remove(Interceptor<? extends Message> i) {
+        ensureOwned();
         PhaseInterceptorIterator it = new PhaseInterceptorIterator(heads);
         while (it.hasNext()) {
             InterceptorHolder holder = it.nextInterceptorHolder();
@@ -558,6 +607,7 @@ public class PhaseInterceptorChain implements InterceptorChain {
     }
 
     private void insertInterceptor(int phase, PhaseInterceptor<? extends Message> interc, boolean force) {
+        ensureOwned();
         InterceptorHolder ih = new InterceptorHolder(interc, phase);
         if (heads[phase] == null) {
             // no interceptors yet in this phase
@@ -35,6 +35,7 @@ import org.apache.cxf.interceptor.Fault;
 import org.apache.cxf.message.Exchange;
 import org.apache.cxf.message.FaultMode;
 import org.apache.cxf.message.MessageContentsList;
+import org.apache.cxf.message.MessageUtils;
 import org.apache.cxf.service.model.BindingOperationInfo;
 
 /**
@@ -42,8 +43,16 @@ import org.apache.cxf.service.model.BindingOperationInfo;
  * <p>
  */
 public abstract class AbstractInvoker implements Invoker {
+    /**
+     * Service methods are invoked through method handles unless this contextual
+     * property is set to false, in which case they are invoked with reflection.
+     */
+    public static final String USE_METHOD_HANDLES = "org.apache.cxf.invoker.use.method.handles";
+
     private static final Logger LOG = LogUtils.getL7dLogger(AbstractInvoker.class);
 
+    private final MethodHandleCache methodHandles = new MethodHandleCache();
+
     public Object invoke(Exchange exchange, Object o) {
 
         final Object serviceObject = getServiceObject(exchange);
@@ -176,13 +185,18 @@ public abstract class AbstractInvoker implements Invoker {
                                                                   m,
                                                                   Arrays.asList(paramArray)});
         }
-        return m.invoke(serviceObject, paramArray);
+        if (exchange != null && exchange.getInMessage() != null
+            && !MessageUtils.getContextualBoolean(exchange.getInMessage(), USE_METHOD_HANDLES, true)) {
+            return m.invoke(serviceObject, paramArray);
+        }
+        return methodHandles.invoke(m, serviceObject, paramArray);
     }
 
     public Object[] insertExchange(Method method, Object[] params, Exchange context) {
         Object[] newParams = params;
-        for (int i = 0; i < method.getParameterTypes().length; i++) {
-            if (method.getParameterTypes()[i].equals(Exchange.class)) {
+        Class<?>[] parameterTypes = method.getParameterTypes();
+        for (int i = 0; i < parameterTypes.length; i++) {
+            if (parameterTypes[i].equals(Exchange.class)) {
                 newParams = new Object[params.length + 1];
 
                 for (int j = 0; j < newParams.length; j++) {
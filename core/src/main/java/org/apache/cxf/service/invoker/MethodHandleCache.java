@@ -0,0 +1,99 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.service.invoker;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Invokes service methods through method handles which are created once per method.
+ * The handles take the target object and the parameter array like Method.invoke and
+ * report errors the same way: anything thrown by the method is wrapped in an
+ * InvocationTargetException and parameters which can not be passed to the method
+ * cause an IllegalArgumentException.  Methods which can not be accessed through a
+ * handle are invoked with reflection.
+ */
+final class MethodHandleCache {
+    private static final MethodHandle WRAP_EXCEPTION;
+    // marks the methods which are invoked with reflection
+    private static final MethodHandle REFLECTION = MethodHandles.constant(Object.class, null);
+
+    static {
+        try {
+            WRAP_EXCEPTION = MethodHandles.lookup().findStatic(MethodHandleCache.class, "wrapException",
+                MethodType.methodType(Object.class, Throwable.class));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final Map<Method, MethodHandle> handles = new ConcurrentHashMap<>();
+
+    Object invoke(Method m, Object serviceObject, Object[] paramArray) throws Exception {
+        MethodHandle handle = handles.get(m);
+        if (handle == null) {
+            handle = createHandle(m);
+            handles.put(m, handle);
+        }
+        if (handle == REFLECTION || serviceObject == null && !Modifier.isStatic(m.getModifiers())) {
+            return m.invoke(serviceObject, paramArray);
+        }
+        try {
+            return (Object)handle.invokeExact(serviceObject, paramArray);
+        } catch (InvocationTargetException | IllegalArgumentException | Error e) {
+            throw e;
+        } catch (RuntimeException e) {
+            // thrown by the conversion of the target or the parameters
+            throw new IllegalArgumentException(e.getMessage(), e);
+        } catch (Throwable t) {
+            throw new InvocationTargetException(t);
+        }
+    }
+
+    /**
+     * Returns a handle of type (Object, Object[])Object which calls the method.
+     */
+    private static MethodHandle createHandle(Method m) {
+        MethodHandle target;
+        try {
+            // the lookup does not check the access if the method has been made accessible
+            target = MethodHandles.publicLookup().unreflect(m).asFixedArity();
+        } catch (IllegalAccessException e) {
+            return REFLECTION;
+        }
+        MethodType type = target.type();
+        target = MethodHandles.catchException(target, Throwable.class,
+            WRAP_EXCEPTION.asType(MethodType.methodType(type.returnType(), Throwable.class)));
+        if (Modifier.isStatic(m.getModifiers())) {
+            target = MethodHandles.dropArguments(target, 0, Object.class);
+        }
+        int count = m.getParameterTypes().length;
+        return target.asType(MethodType.genericMethodType(count + 1)).asSpreader(Object[].class, count);
+    }
+
+    private static Object wrapException(Throwable t) throws InvocationTargetException {
+        throw new InvocationTargetException(t);
+    }
+}
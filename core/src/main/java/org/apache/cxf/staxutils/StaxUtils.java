@@ -20,6 +20,7 @@
 package org.apache.cxf.staxutils;
 
 import java.io.File;
+import java.io.FilterOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -128,6 +129,7 @@ public final class StaxUtils {
     private static final XMLInputFactory SAFE_INPUT_FACTORY;
     private static final BlockingQueue<XMLOutputFactory> OUTPUT_FACTORY_POOL;
     private static final XMLOutputFactory SAFE_OUTPUT_FACTORY;
+    private static final XMLOutputFactory SAFE_RECYCLING_OUTPUT_FACTORY;
 
     private static final String XML_NS = "http://www.w3.org/2000/xmlns/";
     private static final String DEF_PREFIXES[] = new String[] {
@@ -198,6 +200,20 @@ public final class StaxUtils {
         }
         SAFE_OUTPUT_FACTORY = xof;
 
+        // Woodstox only returns the byte buffer of a writer created for an OutputStream
+        // to its per-thread buffer recycler if it closes the output when the writer is
+        // closed.  Writers for OutputStreams are created with such a factory over a
+        // stream that ignores close().
+        xof = null;
+        if (SAFE_OUTPUT_FACTORY != null) {
+            try {
+                xof = XMLOutputFactory.newInstance();
+                xof.setProperty("org.codehaus.stax2.autoCloseOutput", Boolean.TRUE);
+            } catch (Throwable t) {
+                xof = null;
+            }
+        }
+        SAFE_RECYCLING_OUTPUT_FACTORY = xof;
     }
 
     private StaxUtils() {
@@ -407,6 +423,14 @@ public final class StaxUtils {
         if (encoding == null) {
             encoding = StandardCharsets.UTF_8.name();
         }
+        if (SAFE_RECYCLING_OUTPUT_FACTORY != null) {
+            try {
+                return SAFE_RECYCLING_OUTPUT_FACTORY.createXMLStreamWriter(new NonClosingOutputStream(out),
+                                                                           encoding);
+            } catch (XMLStreamException e) {
+                throw new RuntimeException("Cant' create XMLStreamWriter", e);
+            }
+        }
         XMLOutputFactory factory = getXMLOutputFactory();
         try {
             return factory.createXMLStreamWriter(out, encoding);
@@ -2230,4 +2254,22 @@ public final class StaxUtils {
         WoodstoxHelper.setProperty(reader, p, v);
     }
 
+    /**
+     * Keeps the wrapped stream open when a writer closes its output.
+     */
+    private static final class NonClosingOutputStream extends FilterOutputStream {
+        NonClosingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+        }
+
+        @Override
+        public void close() throws IOException {
+            //the writer is finished with the stream, but the owner is not
+        }
+    }
 }
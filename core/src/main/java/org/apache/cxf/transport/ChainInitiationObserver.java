@@ -190,6 +190,10 @@ public class ChainInitiationObserver implements MessageObserver {
         }
     }
 
+    public PhaseChainCache getChainCache() {
+        return chainCache;
+    }
+
     public Endpoint getEndpoint() {
         return endpoint;
     }
@@ -0,0 +1,51 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.transport.common.gzip;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import org.apache.cxf.message.Message;
+
+/**
+ * A content-coding other than gzip, such as "br" or "zstd", that {@link GZIPOutInterceptor}
+ * and {@link GZIPInInterceptor} can negotiate and apply.  Implementations are typically
+ * backed by a third party compression library and are registered with
+ * {@link GZIPFeature#setContentCodings(java.util.List)} or directly on the interceptors.
+ */
+public interface ContentCoding {
+
+    /**
+     * The content-coding token used in the Content-Encoding and Accept-Encoding headers.
+     */
+    String getEncoding();
+
+    /**
+     * Wraps the given stream so that everything written to the result is encoded.
+     * Closing the result must close the given stream.
+     */
+    OutputStream encode(OutputStream os, Message message) throws IOException;
+
+    /**
+     * Wraps the given stream so that reading from the result yields the decoded content.
+     */
+    InputStream decode(InputStream is, Message message) throws IOException;
+}
@@ -0,0 +1,108 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.transport.common.gzip;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import org.apache.cxf.common.util.SystemPropertyAction;
+
+/**
+ * Keeps a bounded number of idle {@link Deflater}s and {@link Inflater}s around so that
+ * compressing and uncompressing messages does not allocate (and later free) zlib's native
+ * state for every message.  All instances are created with {@code nowrap} set, as the
+ * GZIP framing is written and parsed by the pooled streams themselves.
+ */
+final class DeflaterPool {
+    /**
+     * System property limiting the number of idle deflaters and inflaters kept in each pool.
+     */
+    static final String POOL_SIZE_PROPERTY = "org.apache.cxf.transport.common.gzip.poolSize";
+
+    private static final int MAX_IDLE = SystemPropertyAction.getInteger(POOL_SIZE_PROPERTY,
+        Math.max(16, Runtime.getRuntime().availableProcessors() * 4));
+
+    private static final Queue<Deflater> DEFLATERS = new ConcurrentLinkedQueue<>();
+    private static final AtomicInteger IDLE_DEFLATERS = new AtomicInteger();
+    private static final Queue<Inflater> INFLATERS = new ConcurrentLinkedQueue<>();
+    private static final AtomicInteger IDLE_INFLATERS = new AtomicInteger();
+
+    private DeflaterPool() {
+        //utility class
+    }
+
+    static Deflater acquireDeflater(int level, int strategy) {
+        Deflater def = DEFLATERS.poll();
+        if (def == null) {
+            return newDeflater(level, strategy);
+        }
+        IDLE_DEFLATERS.decrementAndGet();
+        // takes effect on the first deflate() call as no input has been given yet
+        def.setLevel(level);
+        def.setStrategy(strategy);
+        return def;
+    }
+
+    static void releaseDeflater(Deflater def) {
+        if (IDLE_DEFLATERS.incrementAndGet() > MAX_IDLE) {
+            IDLE_DEFLATERS.decrementAndGet();
+            def.end();
+            return;
+        }
+        def.reset();
+        DEFLATERS.offer(def);
+    }
+
+    static Inflater acquireInflater() {
+        Inflater inf = INFLATERS.poll();
+        if (inf == null) {
+            return new Inflater(true);
+        }
+        IDLE_INFLATERS.decrementAndGet();
+        return inf;
+    }
+
+    static void releaseInflater(Inflater inf) {
+        if (IDLE_INFLATERS.incrementAndGet() > MAX_IDLE) {
+            IDLE_INFLATERS.decrementAndGet();
+            inf.end();
+            return;
+        }
+        inf.reset();
+        INFLATERS.offer(inf);
+    }
+
+    static int getIdleDeflaterCount() {
+        return IDLE_DEFLATERS.get();
+    }
+
+    static int getIdleInflaterCount() {
+        return IDLE_INFLATERS.get();
+    }
+
+    private static Deflater newDeflater(int level, int strategy) {
+        Deflater def = new Deflater(level, true);
+        def.setStrategy(strategy);
+        return def;
+    }
+}
@@ -18,7 +18,9 @@
  */
 package org.apache.cxf.transport.common.gzip;
 
+import java.util.Collections;
 import java.util.List;
+import java.util.zip.Deflater;
 
 import org.apache.cxf.Bus;
 import org.apache.cxf.common.injection.NoJSR250Annotations;
@@ -46,6 +48,10 @@ import org.apache.cxf.message.Message;
  * to be compressed and incoming compressed responses to be uncompressed.
  * Accept-Encoding header is sent to let the service know
  * that your client can accept compressed responses.
+ * <p>
+ * The compression level and strategy can be tuned, and additional
+ * {@link ContentCoding}s (for example "br" or "zstd") can be registered
+ * to be negotiated ahead of gzip.
  */
 @NoJSR250Annotations
 public class GZIPFeature extends AbstractFeature {
@@ -62,17 +68,34 @@ public class GZIPFeature extends AbstractFeature {
      */
     boolean force;
 
+    int compressionLevel = Deflater.DEFAULT_COMPRESSION;
+
+    int compressionStrategy = Deflater.DEFAULT_STRATEGY;
+
+    List<ContentCoding> contentCodings = Collections.emptyList();
 
     @Override
     protected void initializeProvider(InterceptorProvider provider, Bus bus) {
-        provider.getInInterceptors().add(IN);
-        if (threshold == -1 && !force) {
+        if (contentCodings.isEmpty()) {
+            provider.getInInterceptors().add(IN);
+        } else {
+            GZIPInInterceptor in = new GZIPInInterceptor();
+            in.setContentCodings(contentCodings);
+            provider.getInInterceptors().add(in);
+        }
+        if (threshold == -1 && !force && compressionLevel == Deflater.DEFAULT_COMPRESSION
+            && compressionStrategy == Deflater.DEFAULT_STRATEGY && contentCodings.isEmpty()) {
             provider.getOutInterceptors().add(OUT);
             provider.getOutFaultInterceptors().add(OUT);
         } else {
             GZIPOutInterceptor out = new GZIPOutInterceptor();
-            out.setThreshold(threshold);
+            if (threshold != -1 || force) {
+                out.setThreshold(threshold);
+            }
             out.setForce(force);
+            out.setCompressionLevel(compressionLevel);
+            out.setCompressionStrategy(compressionStrategy);
+            out.setContentCodings(contentCodings);
             remove(provider.getOutInterceptors());
             remove(provider.getOutFaultInterceptors());
             provider.getOutInterceptors().add(out);
@@ -113,4 +136,32 @@ public class GZIPFeature extends AbstractFeature {
     public boolean getForce() {
         return force;
     }
+
+    public void setCompressionLevel(int compressionLevel) {
+        this.compressionLevel = compressionLevel;
+    }
+
+    public int getCompressionLevel() {
+        return compressionLevel;
+    }
+
+    public void setCompressionStrategy(int compressionStrategy) {
+        this.compressionStrategy = compressionStrategy;
+    }
+
+    public int getCompressionStrategy() {
+        return compressionStrategy;
+    }
+
+    /**
+     * Set the additional content-codings to negotiate, in order of preference.
+     */
+    public void setContentCodings(List<ContentCoding> contentCodings) {
+        this.contentCodings = contentCodings == null
+            ? Collections.<ContentCoding>emptyList() : contentCodings;
+    }
+
+    public List<ContentCoding> getContentCodings() {
+        return contentCodings;
+    }
 }
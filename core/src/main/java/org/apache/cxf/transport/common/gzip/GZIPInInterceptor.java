@@ -20,11 +20,12 @@ package org.apache.cxf.transport.common.gzip;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.ResourceBundle;
 import java.util.logging.Logger;
-import java.util.zip.GZIPInputStream;
 
 import org.apache.cxf.common.i18n.BundleUtils;
 import org.apache.cxf.common.logging.LogUtils;
@@ -45,7 +46,8 @@ import org.apache.cxf.phase.Phase;
  * clients, you probably also want to use
  * {@link org.apache.cxf.transports.http.configuration.HTTPClientPolicy#setAcceptEncoding}
  * to let the server know you can handle compressed responses. To compress
- * outgoing messages, see {@link GZIPOutInterceptor}. This class was originally
+ * outgoing messages, see {@link GZIPOutInterceptor}. Other content-codings can be
+ * handled by registering {@link ContentCoding}s. This class was originally
  * based on one of the CXF samples (configuration_interceptor).
  */
 public class GZIPInInterceptor extends AbstractPhaseInterceptor<Message> {
@@ -54,6 +56,8 @@ public class GZIPInInterceptor extends AbstractPhaseInterceptor<Message> {
     private static final ResourceBundle BUNDLE = BundleUtils.getBundle(GZIPInInterceptor.class);
     private static final Logger LOG = LogUtils.getL7dLogger(GZIPInInterceptor.class);
 
+    private List<ContentCoding> contentCodings = Collections.emptyList();
+
     public GZIPInInterceptor() {
         super(Phase.RECEIVE);
         addBefore(AttachmentInInterceptor.class.getName());
@@ -73,8 +77,9 @@ public class GZIPInInterceptor extends AbstractPhaseInterceptor<Message> {
             if (contentEncoding == null) {
                 contentEncoding = protocolHeaders.get(GZIPOutInterceptor.SOAP_JMS_CONTENTENCODING);
             }
+            ContentCoding coding = getContentCoding(contentEncoding);
             if (contentEncoding != null
-                && (contentEncoding.contains("gzip") || contentEncoding.contains("x-gzip"))) {
+                && (coding != null || contentEncoding.contains("gzip") || contentEncoding.contains("x-gzip"))) {
                 try {
                     LOG.fine("Uncompressing response");
                     InputStream is = message.getContent(InputStream.class);
@@ -83,7 +88,8 @@ public class GZIPInInterceptor extends AbstractPhaseInterceptor<Message> {
                     }
 
                     // wrap an unzipping stream around the original one
-                    GZIPInputStream zipInput = new GZIPInputStream(is);
+                    InputStream zipInput = coding != null
+                        ? coding.decode(is, message) : new PooledGZIPInputStream(is);
                     message.setContent(InputStream.class, zipInput);
 
                     // remove content encoding header as we've now dealt with it
@@ -107,4 +113,23 @@ public class GZIPInInterceptor extends AbstractPhaseInterceptor<Message> {
         }
     }
 
+    private ContentCoding getContentCoding(List<String> contentEncoding) {
+        if (contentEncoding != null) {
+            for (ContentCoding coding : contentCodings) {
+                if (contentEncoding.contains(coding.getEncoding())) {
+                    return coding;
+                }
+            }
+        }
+        return null;
+    }
+
+    public List<ContentCoding> getContentCodings() {
+        return contentCodings;
+    }
+
+    public void setContentCodings(List<ContentCoding> contentCodings) {
+        this.contentCodings = contentCodings == null
+            ? Collections.<ContentCoding>emptyList() : new ArrayList<>(contentCodings);
+    }
 }
@@ -21,6 +21,7 @@ package org.apache.cxf.transport.common.gzip;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.ResourceBundle;
@@ -30,7 +31,7 @@ import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
-import java.util.zip.GZIPOutputStream;
+import java.util.zip.Deflater;
 
 import org.apache.cxf.common.i18n.BundleUtils;
 import org.apache.cxf.common.logging.LogUtils;
@@ -56,8 +57,11 @@ import org.apache.cxf.phase.Phase;
  * see {@link GZIPInInterceptor}. This interceptor supports a compression
  * {@link #threshold} (default 1kB) - messages smaller than this threshold will
  * not be compressed. To force compression of all messages, set the threshold to
- * 0. This class was originally based on one of the CXF samples
- * (configuration_interceptor).
+ * 0. The compression level and strategy of the underlying {@link Deflater} can be
+ * configured, and deflaters are pooled across messages. Further content-codings
+ * can be plugged in as {@link ContentCoding}s; a response uses the first of them
+ * that the client explicitly accepts, ahead of gzip. This class was originally
+ * based on one of the CXF samples (configuration_interceptor).
  */
 public class GZIPOutInterceptor extends AbstractPhaseInterceptor<Message> {
 
@@ -103,6 +107,8 @@ public class GZIPOutInterceptor extends AbstractPhaseInterceptor<Message> {
 
     public static final String SOAP_JMS_CONTENTENCODING = "SOAPJMS_contentEncoding";
 
+    private static final String DEFAULT_ACCEPT_ENCODING = "gzip;q=1.0, identity; q=0.5, *;q=0";
+
     private static final ResourceBundle BUNDLE = BundleUtils.getBundle(GZIPOutInterceptor.class);
     private static final Logger LOG = LogUtils.getL7dLogger(GZIPOutInterceptor.class);
 
@@ -114,6 +120,9 @@ public class GZIPOutInterceptor extends AbstractPhaseInterceptor<Message> {
     private int threshold = 1024;
     private boolean force;
     private Set<String> supportedPayloadContentTypes;
+    private int compressionLevel = Deflater.DEFAULT_COMPRESSION;
+    private int compressionStrategy = Deflater.DEFAULT_STRATEGY;
+    private List<ContentCoding> contentCodings = Collections.emptyList();
     
     public GZIPOutInterceptor() {
         super(Phase.PREPARE_SEND);
@@ -150,7 +159,8 @@ public class GZIPOutInterceptor extends AbstractPhaseInterceptor<Message> {
                 = new GZipThresholdOutputStream(threshold,
                                                 os,
                                                 use == UseGzip.FORCE,
-                                                message);
+                                                message,
+                                                this);
             message.setContent(OutputStream.class, cs);
         }
     }
@@ -186,7 +196,7 @@ public class GZIPOutInterceptor extends AbstractPhaseInterceptor<Message> {
                 permitted = force ? UseGzip.YES : UseGzip.NO;
             }
             message.put(GZIP_ENCODING_KEY, "gzip");
-            addHeader(message, "Accept-Encoding", "gzip;q=1.0, identity; q=0.5, *;q=0");
+            addHeader(message, "Accept-Encoding", getAcceptEncoding());
         } else {
             LOG.fine("Response role, checking accept-encoding");
             Exchange exchange = message.getExchange();
@@ -242,7 +252,12 @@ public class GZIPOutInterceptor extends AbstractPhaseInterceptor<Message> {
                     boolean xGzipEnabled = nonZeros.contains("x-gzip")
                                            || (nonZeros.contains("*") && !zeros.contains("x-gzip"));
 
-                    if (identityEnabled && !gzipEnabled && !xGzipEnabled) {
+                    ContentCoding coding = selectContentCoding(nonZeros);
+
+                    if (coding != null) {
+                        permitted = identityEnabled ? UseGzip.YES : UseGzip.FORCE;
+                        message.put(GZIP_ENCODING_KEY, coding.getEncoding());
+                    } else if (identityEnabled && !gzipEnabled && !xGzipEnabled) {
                         permitted = UseGzip.NO;
                     } else if (identityEnabled && gzipEnabled) {
                         permitted = UseGzip.YES;
@@ -272,14 +287,51 @@ public class GZIPOutInterceptor extends AbstractPhaseInterceptor<Message> {
         return permitted;
     }
 
+    private String getAcceptEncoding() {
+        if (contentCodings.isEmpty()) {
+            return DEFAULT_ACCEPT_ENCODING;
+        }
+        StringBuilder sb = new StringBuilder();
+        for (ContentCoding coding : contentCodings) {
+            sb.append(coding.getEncoding()).append(";q=1.0, ");
+        }
+        return sb.append(DEFAULT_ACCEPT_ENCODING).toString();
+    }
+
+    /**
+     * Picks the first configured content-coding that the client named without a
+     * zero q-value.  A wildcard does not select one of these codings as the client
+     * may not be able to decode them.
+     */
+    private ContentCoding selectContentCoding(List<String> nonZeros) {
+        for (ContentCoding coding : contentCodings) {
+            if (nonZeros.contains(coding.getEncoding())) {
+                return coding;
+            }
+        }
+        return null;
+    }
+
+    private ContentCoding getContentCoding(String encoding) {
+        for (ContentCoding coding : contentCodings) {
+            if (coding.getEncoding().equals(encoding)) {
+                return coding;
+            }
+        }
+        return null;
+    }
+
     static class GZipThresholdOutputStream extends AbstractThresholdOutputStream {
         Message message;
+        GZIPOutInterceptor interceptor;
 
         GZipThresholdOutputStream(int t, OutputStream orig,
-                                         boolean force, Message msg) {
+                                         boolean force, Message msg,
+                                         GZIPOutInterceptor interceptor) {
             super(t);
             super.wrappedStream = orig;
             message = msg;
+            this.interceptor = interceptor;
             if (force) {
                 setupGZip();
             }
@@ -306,9 +358,15 @@ public class GZIPOutInterceptor extends AbstractPhaseInterceptor<Message> {
                 addHeader(message, "Vary", "Accept-Encoding");
             }
 
-            // gzip the result
-            GZIPOutputStream zipOutput = new GZIPOutputStream(wrappedStream);
-            wrappedStream = zipOutput;
+            ContentCoding coding = interceptor.getContentCoding(enc);
+            if (coding != null) {
+                wrappedStream = coding.encode(wrappedStream, message);
+            } else {
+                // gzip the result
+                wrappedStream = new PooledGZIPOutputStream(wrappedStream,
+                                                           interceptor.compressionLevel,
+                                                           interceptor.compressionStrategy);
+            }
         }
     }
 
@@ -349,5 +407,39 @@ public class GZIPOutInterceptor extends AbstractPhaseInterceptor<Message> {
     public void setSupportedPayloadContentTypes(Set<String> supportedPayloadContentTypes) {
         this.supportedPayloadContentTypes = supportedPayloadContentTypes;
     }
+    public int getCompressionLevel() {
+        return compressionLevel;
+    }
+    /**
+     * Sets the deflate compression level, from 0 to 9, or -1 for the zlib default.
+     */
+    public void setCompressionLevel(int compressionLevel) {
+        if ((compressionLevel < Deflater.NO_COMPRESSION || compressionLevel > Deflater.BEST_COMPRESSION)
+            && compressionLevel != Deflater.DEFAULT_COMPRESSION) {
+            throw new IllegalArgumentException("Invalid compression level: " + compressionLevel);
+        }
+        this.compressionLevel = compressionLevel;
+    }
+    public int getCompressionStrategy() {
+        return compressionStrategy;
+    }
+    /**
+     * Sets the deflate strategy, one of {@link Deflater#DEFAULT_STRATEGY},
+     * {@link Deflater#FILTERED} or {@link Deflater#HUFFMAN_ONLY}.
+     */
+    public void setCompressionStrategy(int compressionStrategy) {
+        if (compressionStrategy != Deflater.DEFAULT_STRATEGY && compressionStrategy != Deflater.FILTERED
+            && compressionStrategy != Deflater.HUFFMAN_ONLY) {
+            throw new IllegalArgumentException("Invalid compression strategy: " + compressionStrategy);
+        }
+        this.compressionStrategy = compressionStrategy;
+    }
+    public List<ContentCoding> getContentCodings() {
+        return contentCodings;
+    }
+    public void setContentCodings(List<ContentCoding> contentCodings) {
+        this.contentCodings = contentCodings == null
+            ? Collections.<ContentCoding>emptyList() : new ArrayList<>(contentCodings);
+    }
 
 }
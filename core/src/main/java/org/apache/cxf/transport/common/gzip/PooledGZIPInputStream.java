@@ -0,0 +1,213 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.transport.common.gzip;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.Deflater;
+import java.util.zip.InflaterInputStream;
+import java.util.zip.ZipException;
+
+/**
+ * Reads the GZIP format (RFC 1952), including concatenated members, like
+ * {@link java.util.zip.GZIPInputStream}, but with an {@link java.util.zip.Inflater} borrowed
+ * from {@link DeflaterPool}.  The inflater is handed back as soon as the end of the data is
+ * reached, or when the stream is closed before that.
+ */
+class PooledGZIPInputStream extends InflaterInputStream {
+    private static final int BUFFER_SIZE = 8192;
+    private static final int GZIP_MAGIC = 0x8b1f;
+    private static final int TRAILER_SIZE = 8;
+
+    private static final int FHCRC = 2;
+    private static final int FEXTRA = 4;
+    private static final int FNAME = 8;
+    private static final int FCOMMENT = 16;
+
+    private final CRC32 crc = new CRC32();
+    private boolean eos;
+    private boolean closed;
+    private boolean released;
+
+    PooledGZIPInputStream(InputStream in) throws IOException {
+        super(in, DeflaterPool.acquireInflater(), BUFFER_SIZE);
+        try {
+            readHeader(in);
+        } catch (IOException ex) {
+            release();
+            throw ex;
+        }
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+        if (eos) {
+            return -1;
+        }
+        int n = super.read(b, off, len);
+        if (n == -1) {
+            if (readTrailer()) {
+                eos = true;
+                release();
+                return -1;
+            }
+            return read(b, off, len);
+        }
+        crc.update(b, off, n);
+        return n;
+    }
+
+    @Override
+    public int available() throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+        return eos ? 0 : super.available();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!closed) {
+            closed = true;
+            release();
+            in.close();
+        }
+    }
+
+    private void release() {
+        if (!released) {
+            released = true;
+            DeflaterPool.releaseInflater(inf);
+        }
+    }
+
+    /**
+     * Checks the trailer of the member that was just inflated and moves on to the next
+     * member if there is one.
+     * @return true if the end of the data has been reached
+     */
+    private boolean readTrailer() throws IOException {
+        InputStream input = in;
+        int remaining = inf.getRemaining();
+        if (remaining > 0) {
+            input = new SequenceInputStream(new ByteArrayInputStream(buf, len - remaining, remaining), in);
+        }
+        if (readUInt(input) != crc.getValue()
+            || readUInt(input) != (inf.getBytesWritten() & 0xffffffffL)) {
+            throw new ZipException("Corrupt GZIP trailer");
+        }
+        if (in.available() > 0 || remaining > TRAILER_SIZE) {
+            int headerSize;
+            try {
+                headerSize = readHeader(input);
+            } catch (IOException ex) {
+                // trailing garbage after the last member is ignored
+                return true;
+            }
+            inf.reset();
+            if (remaining > TRAILER_SIZE + headerSize) {
+                inf.setInput(buf, len - remaining + TRAILER_SIZE + headerSize,
+                             remaining - TRAILER_SIZE - headerSize);
+            }
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Reads a member header and resets the CRC for its data.
+     * @return the number of header bytes read
+     */
+    private int readHeader(InputStream input) throws IOException {
+        crc.reset();
+        CheckedInputStream hin = new CheckedInputStream(input, crc);
+        if (readUShort(hin) != GZIP_MAGIC) {
+            throw new ZipException("Not in GZIP format");
+        }
+        if (readUByte(hin) != Deflater.DEFLATED) {
+            throw new ZipException("Unsupported compression method");
+        }
+        int flags = readUByte(hin);
+        // modification time, extra flags and operating system
+        skipBytes(hin, 6);
+        int n = 10;
+        if ((flags & FEXTRA) == FEXTRA) {
+            int extraLength = readUShort(hin);
+            skipBytes(hin, extraLength);
+            n += extraLength + 2;
+        }
+        if ((flags & FNAME) == FNAME) {
+            n += skipZeroTerminated(hin);
+        }
+        if ((flags & FCOMMENT) == FCOMMENT) {
+            n += skipZeroTerminated(hin);
+        }
+        if ((flags & FHCRC) == FHCRC) {
+            int expected = (int)crc.getValue() & 0xffff;
+            if (readUShort(hin) != expected) {
+                throw new ZipException("Corrupt GZIP header");
+            }
+            n += 2;
+        }
+        crc.reset();
+        return n;
+    }
+
+    private static int skipZeroTerminated(InputStream input) throws IOException {
+        int n = 1;
+        while (readUByte(input) != 0) {
+            n++;
+        }
+        return n;
+    }
+
+    private static void skipBytes(InputStream input, int n) throws IOException {
+        while (n > 0) {
+            readUByte(input);
+            n--;
+        }
+    }
+
+    private static long readUInt(InputStream input) throws IOException {
+        long low = readUShort(input);
+        return ((long)readUShort(input) << 16) | low;
+    }
+
+    private static int readUShort(InputStream input) throws IOException {
+        int low = readUByte(input);
+        return (readUByte(input) << 8) | low;
+    }
+
+    private static int readUByte(InputStream input) throws IOException {
+        int b = input.read();
+        if (b == -1) {
+            throw new EOFException();
+        }
+        return b;
+    }
+}
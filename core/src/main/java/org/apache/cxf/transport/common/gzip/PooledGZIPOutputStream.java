@@ -0,0 +1,95 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.transport.common.gzip;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * Writes the GZIP format (RFC 1952) like {@link java.util.zip.GZIPOutputStream}, but with a
+ * {@link Deflater} borrowed from {@link DeflaterPool} and a configurable compression level
+ * and strategy.  The deflater is handed back when the stream is closed.
+ */
+class PooledGZIPOutputStream extends DeflaterOutputStream {
+    private static final int BUFFER_SIZE = 8192;
+    private static final byte[] HEADER = {
+        (byte)0x1f, (byte)0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, 0
+    };
+
+    private final CRC32 crc = new CRC32();
+    private boolean closed;
+
+    PooledGZIPOutputStream(OutputStream out, int level, int strategy) throws IOException {
+        super(out, DeflaterPool.acquireDeflater(level, strategy), BUFFER_SIZE);
+        try {
+            out.write(HEADER);
+        } catch (IOException ex) {
+            closed = true;
+            DeflaterPool.releaseDeflater(def);
+            throw ex;
+        }
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+        super.write(b, off, len);
+        crc.update(b, off, len);
+    }
+
+    @Override
+    public void finish() throws IOException {
+        if (closed || def.finished()) {
+            return;
+        }
+        super.finish();
+        long size = def.getBytesRead();
+        byte[] trailer = new byte[8];
+        writeInt(trailer, 0, crc.getValue());
+        writeInt(trailer, 4, size);
+        out.write(trailer);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        try {
+            finish();
+        } finally {
+            closed = true;
+            DeflaterPool.releaseDeflater(def);
+            out.close();
+        }
+    }
+
+    private static void writeInt(byte[] b, int off, long v) {
+        b[off] = (byte)v;
+        b[off + 1] = (byte)(v >> 8);
+        b[off + 2] = (byte)(v >> 16);
+        b[off + 3] = (byte)(v >> 24);
+    }
+}
@@ -39,6 +39,7 @@ import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -64,6 +65,7 @@ public class AutomaticWorkQueueImpl implements AutomaticWorkQueue {
     int highWaterMark;
     long dequeueTimeout;
     volatile int approxThreadCount;
+    final AtomicLong rejectedCount = new AtomicLong();
 
     ThreadPoolExecutor executor;
     Method addWorkerMethod;
@@ -409,7 +411,16 @@ public class AutomaticWorkQueueImpl implements AutomaticWorkQueue {
         return buf.toString();
     }
 
-    public void execute(final Runnable command) {
+    public void execute(Runnable command) {
+        try {
+            doExecute(command);
+        } catch (RejectedExecutionException ree) {
+            rejectedCount.incrementAndGet();
+            throw ree;
+        }
+    }
+
+    private void doExecute(final Runnable command) {
         //Grab the context classloader of this thread.   We'll make sure we use that
         //on the thread the runnable actually runs on.
 
@@ -461,13 +472,15 @@ public class AutomaticWorkQueueImpl implements AutomaticWorkQueue {
     // WorkQueue interface
     public void execute(Runnable work, long timeout) {
         try {
-            execute(work);
+            doExecute(work);
         } catch (RejectedExecutionException ree) {
             try {
                 if (!getExecutor().getQueue().offer(work, timeout, TimeUnit.MILLISECONDS)) {
+                    rejectedCount.incrementAndGet();
                     throw ree;
                 }
             } catch (InterruptedException ie) {
+                rejectedCount.incrementAndGet();
                 throw ree;
             }
         }
@@ -591,6 +604,20 @@ public class AutomaticWorkQueueImpl implements AutomaticWorkQueue {
         }
         return executor.getActiveCount();
     }
+    /**
+     * Gets the number of work items that could not be accepted because the
+     * queue was full or shut down.
+     */
+    public long getRejectedCount() {
+        return rejectedCount.get();
+    }
+    /**
+     * Gets the number of work items taken by a thread from the queue of another
+     * thread.  Always 0 unless the implementation is work-stealing.
+     */
+    public long getStealCount() {
+        return 0;
+    }
     public void update(Dictionary<String, String> config) {
         String s = config.get("highWaterMark");
         if (s != null) {
@@ -0,0 +1,43 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.workqueue;
+
+import java.util.concurrent.Semaphore;
+
+/**
+ * A Semaphore whose number of permits can be changed after construction,
+ * used by the work queues that bound their work with permits instead of a
+ * fixed size queue.
+ */
+class ResizableSemaphore extends Semaphore {
+    private static final long serialVersionUID = 3409012357395637235L;
+
+    ResizableSemaphore(int permits) {
+        super(permits);
+    }
+
+    void resize(int oldPermits, int newPermits) {
+        if (newPermits > oldPermits) {
+            release(newPermits - oldPermits);
+        } else if (newPermits < oldPermits) {
+            reducePermits(oldPermits - newPermits);
+        }
+    }
+}
@@ -0,0 +1,408 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.workqueue;
+
+import java.beans.PropertyChangeEvent;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.apache.cxf.common.classloader.ClassLoaderUtils;
+import org.apache.cxf.common.classloader.ClassLoaderUtils.ClassLoaderHolder;
+import org.apache.cxf.common.injection.NoJSR250Annotations;
+import org.apache.cxf.common.logging.LogUtils;
+
+/**
+ * An AutomaticWorkQueue backed by a work-stealing {@link ForkJoinPool}.  Work items
+ * submitted from outside the pool go to striped submission queues and work items
+ * submitted by a work item go to the deque of the thread running it, so
+ * submitters do not contend on a single queue lock.  Idle threads steal work
+ * from the other queues.
+ *
+ * The high water mark is the parallelism of the pool and is fixed once the first
+ * work item is executed.  Up to high water mark + queue size work items are
+ * accepted at the same time, further work items are rejected.  Idle threads are
+ * retired by the pool, so the low water mark and dequeue timeout are only kept
+ * for configuration compatibility.
+ *
+ * Scheduled work items are kept in a hashed timer wheel, so scheduling is a
+ * constant time operation regardless of the number of pending items.
+ *
+ * The pool does not add threads for work items that block, as work items are not
+ * run as {@link ForkJoinPool.ManagedBlocker}s.  A work item waiting on I/O, such
+ * as a synchronous HTTP call, holds one of the high water mark threads until it
+ * returns, so enough blocking work items starve the queue where the
+ * {@link AutomaticWorkQueueImpl} would grow towards its high water mark.  Use this
+ * queue for short, non-blocking work items, or size the high water mark for the
+ * number of work items expected to block at the same time.
+ */
+@NoJSR250Annotations
+public class StealingWorkQueueImpl extends AutomaticWorkQueueImpl {
+    public static final String TYPE = "stealing";
+    static final long DEFAULT_TICK_DURATION = 10;
+    static final int DEFAULT_TICKS_PER_WHEEL = 512;
+
+    private static final Logger LOG = LogUtils.getL7dLogger(StealingWorkQueueImpl.class);
+    private static final int MAX_PARALLELISM = 0x7fff;
+
+    private ForkJoinPool pool;
+    private ResizableSemaphore admitted;
+    private TimerWheel timerWheel;
+    private volatile int largestPoolSize;
+    private volatile boolean isShutdown;
+
+    public StealingWorkQueueImpl() {
+        this("default");
+    }
+    public StealingWorkQueueImpl(String name) {
+        this(DEFAULT_MAX_QUEUE_SIZE, Runtime.getRuntime().availableProcessors() * 2, name);
+    }
+    public StealingWorkQueueImpl(int maxQueueSize, int parallelism, String name) {
+        super(maxQueueSize, 0, parallelism, 0, 2 * 60 * 1000L, name);
+    }
+
+    private synchronized ForkJoinPool getPool() {
+        if (pool == null) {
+            if (isShutdown) {
+                throw new RejectedExecutionException("Work queue " + name + " is shut down");
+            }
+            int parallelism = Math.max(1, Math.min(highWaterMark, MAX_PARALLELISM));
+            if (LOG.isLoggable(Level.FINE)) {
+                LOG.fine("Constructing work-stealing work queue with parallelism " + parallelism
+                         + " and max queue size " + maxQueueSize);
+            }
+            admitted = new ResizableSemaphore(addLimits(parallelism, maxQueueSize));
+            pool = new ForkJoinPool(parallelism, new WorkerThreadFactory(), null, true);
+        }
+        return pool;
+    }
+
+    private static int addLimits(int a, int b) {
+        long l = (long)a + b;
+        return l > Integer.MAX_VALUE ? Integer.MAX_VALUE : (int)l;
+    }
+
+    private ForkJoinPool getPoolOrReject() {
+        if (!isShutdown) {
+            try {
+                return getPool();
+            } catch (RejectedExecutionException ex) {
+                //shut down after the check above
+            }
+        }
+        rejectedCount.incrementAndGet();
+        throw new RejectedExecutionException("Work queue " + name + " is shut down");
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        ForkJoinPool p = getPoolOrReject();
+        if (isShutdown || !admitted.tryAcquire()) {
+            rejectedCount.incrementAndGet();
+            throw new RejectedExecutionException("Work queue " + name + " is full or shut down");
+        }
+        submit(p, command);
+    }
+
+    @Override
+    public void execute(Runnable work, long timeout) {
+        ForkJoinPool p = getPoolOrReject();
+        try {
+            if (isShutdown || !admitted.tryAcquire(timeout, TimeUnit.MILLISECONDS)) {
+                rejectedCount.incrementAndGet();
+                throw new RejectedExecutionException("Work queue " + name + " is full or shut down");
+            }
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            rejectedCount.incrementAndGet();
+            throw new RejectedExecutionException(ie);
+        }
+        submit(p, work);
+    }
+
+    private void submit(ForkJoinPool p, final Runnable command) {
+        //Grab the context classloader of this thread.   We'll make sure we use that
+        //on the thread the runnable actually runs on.
+        final ClassLoader loader = Thread.currentThread().getContextClassLoader();
+        Runnable r = new Runnable() {
+            public void run() {
+                ClassLoaderHolder orig = ClassLoaderUtils.setThreadContextClassloader(loader);
+                try {
+                    command.run();
+                } finally {
+                    admitted.release();
+                    if (orig != null) {
+                        orig.reset();
+                    }
+                }
+            }
+        };
+        try {
+            p.execute(r);
+        } catch (RejectedExecutionException ree) {
+            admitted.release();
+            rejectedCount.incrementAndGet();
+            throw ree;
+        }
+    }
+
+    @Override
+    public synchronized void schedule(final Runnable work, final long delay) {
+        if (timerWheel == null) {
+            timerWheel = new TimerWheel(DEFAULT_TICK_DURATION, DEFAULT_TICKS_PER_WHEEL);
+            timerWheel.setDaemon(true);
+            timerWheel.start();
+        }
+        timerWheel.add(work, delay);
+    }
+
+    @Override
+    public void shutdown(boolean processRemainingWorkItems) {
+        ForkJoinPool p;
+        TimerWheel t;
+        synchronized (this) {
+            isShutdown = true;
+            p = pool;
+            t = timerWheel;
+        }
+        if (t != null) {
+            t.shutdown();
+        }
+        if (p != null) {
+            if (processRemainingWorkItems) {
+                p.shutdown();
+            } else {
+                p.shutdownNow();
+            }
+        }
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return isShutdown;
+    }
+
+    /**
+     * Gets the number of work items waiting in the submission queues and the
+     * deques of the threads.
+     */
+    @Override
+    public long getSize() {
+        ForkJoinPool p = pool;
+        return p == null ? 0 : p.getQueuedSubmissionCount() + p.getQueuedTaskCount();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        ForkJoinPool p = pool;
+        return p == null || p.isQuiescent() && !p.hasQueuedSubmissions();
+    }
+
+    @Override
+    public boolean isFull() {
+        return pool != null && admitted.availablePermits() == 0;
+    }
+
+    @Override
+    public int getHighWaterMark() {
+        ForkJoinPool p = pool;
+        if (p != null) {
+            return p.getParallelism();
+        }
+        return highWaterMark == Integer.MAX_VALUE ? -1 : highWaterMark;
+    }
+
+    @Override
+    public synchronized void setHighWaterMark(int hwm) {
+        if (pool != null) {
+            notifyChangeListeners(new PropertyChangeEvent(this, "highWaterMark",
+                                                          pool.getParallelism(), hwm));
+            LOG.warning("The parallelism of the " + name + " work queue cannot be changed once started");
+            return;
+        }
+        highWaterMark = hwm < 0 ? Integer.MAX_VALUE : hwm;
+    }
+
+    @Override
+    public synchronized void setLowWaterMark(int lwm) {
+        // idle threads are retired by the ForkJoinPool itself
+        lowWaterMark = lwm < 0 ? 0 : lwm;
+    }
+
+    @Override
+    public synchronized void setQueueSize(int size) {
+        int old = maxQueueSize;
+        super.setQueueSize(size);
+        if (pool != null) {
+            int parallelism = pool.getParallelism();
+            admitted.resize(addLimits(parallelism, old), addLimits(parallelism, maxQueueSize));
+        }
+    }
+
+    @Override
+    public int getLargestPoolSize() {
+        return largestPoolSize;
+    }
+
+    @Override
+    public int getPoolSize() {
+        ForkJoinPool p = pool;
+        return p == null ? 0 : p.getPoolSize();
+    }
+
+    @Override
+    public int getActiveCount() {
+        ForkJoinPool p = pool;
+        return p == null ? 0 : p.getActiveThreadCount();
+    }
+
+    @Override
+    public long getStealCount() {
+        ForkJoinPool p = pool;
+        return p == null ? 0 : p.getStealCount();
+    }
+
+    class WorkerThreadFactory implements ForkJoinPool.ForkJoinWorkerThreadFactory {
+        final AtomicInteger threadNumber = new AtomicInteger(1);
+
+        public ForkJoinWorkerThread newThread(ForkJoinPool p) {
+            ForkJoinWorkerThread t = new ForkJoinWorkerThread(p) {
+                @Override
+                protected void onStart() {
+                    super.onStart();
+                    int size = getPool().getPoolSize();
+                    if (size > largestPoolSize) {
+                        largestPoolSize = size;
+                    }
+                }
+            };
+            t.setName(name + "-workqueue-" + threadNumber.getAndIncrement());
+            //force the loader to be the loader of CXF, not the application loader
+            t.setContextClassLoader(StealingWorkQueueImpl.class.getClassLoader());
+            return t;
+        }
+    }
+
+    static final class TimerTask {
+        final Runnable work;
+        final long deadline;
+        long remainingRounds;
+
+        TimerTask(Runnable work, long deadline) {
+            this.work = work;
+            this.deadline = deadline;
+        }
+    }
+
+    /**
+     * A hashed timer wheel: pending tasks are hashed into buckets by deadline and
+     * only the bucket of the current tick is visited.  New tasks are handed over
+     * through a lock free queue, the buckets are only touched by the wheel thread.
+     */
+    class TimerWheel extends Thread {
+        final long tickDuration;
+        final int mask;
+        final Queue<TimerTask>[] wheel;
+        final Queue<TimerTask> pending = new ConcurrentLinkedQueue<>();
+        final long startTime = System.nanoTime();
+        volatile boolean stopped;
+        long tick;
+
+        @SuppressWarnings("unchecked")
+        TimerWheel(long tickDuration, int ticksPerWheel) {
+            super(name + "-workqueue-timer");
+            this.tickDuration = TimeUnit.MILLISECONDS.toNanos(tickDuration);
+            int size = Integer.highestOneBit(ticksPerWheel - 1) << 1;
+            mask = size - 1;
+            wheel = new Queue[size];
+            for (int x = 0; x < size; x++) {
+                wheel[x] = new ArrayDeque<>();
+            }
+        }
+
+        void add(Runnable work, long delay) {
+            long deadline = System.nanoTime() - startTime + TimeUnit.MILLISECONDS.toNanos(Math.max(0, delay));
+            pending.add(new TimerTask(work, deadline));
+        }
+
+        void shutdown() {
+            stopped = true;
+            interrupt();
+        }
+
+        public void run() {
+            try {
+                while (!stopped) {
+                    long deadline = waitForNextTick();
+                    transferPending();
+                    expire(wheel[(int)(tick & mask)], deadline);
+                    tick++;
+                }
+            } catch (InterruptedException e) {
+                if (LOG.isLoggable(Level.FINE)) {
+                    LOG.fine("The timer wheel of the " + name + " work queue is stopping");
+                }
+            }
+        }
+
+        private long waitForNextTick() throws InterruptedException {
+            long deadline = tickDuration * (tick + 1);
+            long sleep = deadline - (System.nanoTime() - startTime);
+            if (sleep > 0) {
+                TimeUnit.NANOSECONDS.sleep(sleep);
+            }
+            return deadline;
+        }
+
+        private void transferPending() {
+            TimerTask task = pending.poll();
+            while (task != null) {
+                long calculated = task.deadline / tickDuration;
+                task.remainingRounds = (calculated - tick) / wheel.length;
+                wheel[(int)(Math.max(calculated, tick) & mask)].add(task);
+                task = pending.poll();
+            }
+        }
+
+        private void expire(Queue<TimerTask> bucket, long deadline) {
+            for (Iterator<TimerTask> it = bucket.iterator(); it.hasNext();) {
+                TimerTask task = it.next();
+                if (task.remainingRounds <= 0 && task.deadline <= deadline) {
+                    it.remove();
+                    try {
+                        execute(task.work);
+                    } catch (Exception ex) {
+                        LOG.warning("Executing the scheduled task with exception: " + ex);
+                    }
+                } else {
+                    task.remainingRounds--;
+                }
+            }
+        }
+    }
+}
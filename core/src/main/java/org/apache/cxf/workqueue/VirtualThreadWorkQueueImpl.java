@@ -0,0 +1,292 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.workqueue;
+
+import java.beans.PropertyChangeEvent;
+import java.lang.reflect.Method;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.apache.cxf.common.classloader.ClassLoaderUtils;
+import org.apache.cxf.common.classloader.ClassLoaderUtils.ClassLoaderHolder;
+import org.apache.cxf.common.injection.NoJSR250Annotations;
+import org.apache.cxf.common.logging.LogUtils;
+
+/**
+ * An AutomaticWorkQueue that runs every work item on its own virtual thread
+ * (JDK 21 or later).  Instead of a pool of threads and a queue, the high water
+ * mark limits the number of work items running at the same time and the queue
+ * size limits the number of work items waiting for one of those slots.  Waiting
+ * items are parked virtual threads, so blocking calls made by the running items
+ * do not exhaust the queue.
+ *
+ * On older JDKs a warning is logged and daemon platform threads are used instead.
+ */
+@NoJSR250Annotations
+public class VirtualThreadWorkQueueImpl extends AutomaticWorkQueueImpl {
+    public static final String TYPE = "virtual";
+    static final int DEFAULT_MAX_CONCURRENCY = 1024;
+
+    private static final Logger LOG = LogUtils.getL7dLogger(VirtualThreadWorkQueueImpl.class);
+
+    private ThreadFactory factory;
+    private ResizableSemaphore admitted;
+    private ResizableSemaphore running;
+    private final AtomicInteger runningCount = new AtomicInteger();
+    private final AtomicInteger waitingCount = new AtomicInteger();
+    private volatile int largestRunningCount;
+    private volatile boolean isShutdown;
+    private volatile boolean dropWaiting;
+
+    public VirtualThreadWorkQueueImpl() {
+        this("default");
+    }
+    public VirtualThreadWorkQueueImpl(String name) {
+        this(DEFAULT_MAX_QUEUE_SIZE, DEFAULT_MAX_CONCURRENCY, name);
+    }
+    public VirtualThreadWorkQueueImpl(int maxQueueSize, int maxConcurrency, String name) {
+        super(maxQueueSize, 0, maxConcurrency, 0, 0, name);
+    }
+
+    /**
+     * @return true if the running JDK supports virtual threads
+     */
+    public static boolean isSupported() {
+        return createVirtualThreadFactory("test") != null;
+    }
+
+    private static ThreadFactory createVirtualThreadFactory(String prefix) {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            Method name = builderClass.getMethod("name", String.class, Long.TYPE);
+            builder = name.invoke(builder, prefix, 1L);
+            return (ThreadFactory)builderClass.getMethod("factory").invoke(builder);
+        } catch (Throwable t) {
+            return null;
+        }
+    }
+
+    private synchronized void init() {
+        if (factory != null) {
+            return;
+        }
+        factory = createVirtualThreadFactory(name + "-vworkqueue-");
+        if (factory == null) {
+            LOG.warning("Virtual threads are not supported by this JDK, using platform threads for "
+                        + name + " work queue");
+            final AtomicInteger threadNumber = new AtomicInteger(1);
+            factory = new ThreadFactory() {
+                public Thread newThread(Runnable r) {
+                    Thread t = new Thread(r, name + "-vworkqueue-" + threadNumber.getAndIncrement());
+                    t.setDaemon(true);
+                    return t;
+                }
+            };
+        }
+        running = new ResizableSemaphore(highWaterMark);
+        admitted = new ResizableSemaphore(addLimits(highWaterMark, maxQueueSize));
+    }
+
+    private static int addLimits(int a, int b) {
+        long l = (long)a + b;
+        return l > Integer.MAX_VALUE ? Integer.MAX_VALUE : (int)l;
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        init();
+        if (isShutdown || !admitted.tryAcquire()) {
+            rejectedCount.incrementAndGet();
+            throw new RejectedExecutionException("Work queue " + name + " is full or shut down");
+        }
+        start(command);
+    }
+
+    @Override
+    public void execute(Runnable work, long timeout) {
+        init();
+        try {
+            if (isShutdown || !admitted.tryAcquire(timeout, TimeUnit.MILLISECONDS)) {
+                rejectedCount.incrementAndGet();
+                throw new RejectedExecutionException("Work queue " + name + " is full or shut down");
+            }
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            rejectedCount.incrementAndGet();
+            throw new RejectedExecutionException(ie);
+        }
+        start(work);
+    }
+
+    private void start(final Runnable command) {
+        //Grab the context classloader of this thread.   We'll make sure we use that
+        //on the thread the runnable actually runs on.
+        final ClassLoader loader = Thread.currentThread().getContextClassLoader();
+        waitingCount.incrementAndGet();
+        Runnable r = new Runnable() {
+            public void run() {
+                boolean acquired = false;
+                try {
+                    running.acquire();
+                    acquired = true;
+                } catch (InterruptedException e) {
+                    LOG.log(Level.FINE, "Interrupted while waiting to run work item", e);
+                } finally {
+                    waitingCount.decrementAndGet();
+                }
+                try {
+                    if (acquired && !dropWaiting) {
+                        runWork(command, loader);
+                    }
+                } finally {
+                    if (acquired) {
+                        running.release();
+                    }
+                    admitted.release();
+                }
+            }
+        };
+        try {
+            factory.newThread(r).start();
+        } catch (RuntimeException | Error e) {
+            waitingCount.decrementAndGet();
+            admitted.release();
+            rejectedCount.incrementAndGet();
+            throw new RejectedExecutionException(e);
+        }
+    }
+
+    private void runWork(Runnable command, ClassLoader loader) {
+        int count = runningCount.incrementAndGet();
+        if (count > largestRunningCount) {
+            largestRunningCount = count;
+        }
+        ClassLoaderHolder orig = ClassLoaderUtils.setThreadContextClassloader(loader);
+        try {
+            command.run();
+        } finally {
+            runningCount.decrementAndGet();
+            if (orig != null) {
+                orig.reset();
+            }
+        }
+    }
+
+    @Override
+    public void schedule(final Runnable work, final long delay) {
+        init();
+        // a sleeping virtual thread is cheap, no need for a delay queue and watchdog
+        factory.newThread(new Runnable() {
+            public void run() {
+                try {
+                    Thread.sleep(delay);
+                    execute(work);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (Exception ex) {
+                    LOG.warning("Executing the scheduled task with exception: " + ex);
+                }
+            }
+        }).start();
+    }
+
+    @Override
+    public void shutdown(boolean processRemainingWorkItems) {
+        isShutdown = true;
+        if (!processRemainingWorkItems) {
+            dropWaiting = true;
+        }
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return isShutdown;
+    }
+
+    @Override
+    public long getSize() {
+        return waitingCount.get();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return waitingCount.get() == 0;
+    }
+
+    @Override
+    public boolean isFull() {
+        return admitted != null && admitted.availablePermits() == 0;
+    }
+
+    @Override
+    public int getHighWaterMark() {
+        return highWaterMark == Integer.MAX_VALUE ? -1 : highWaterMark;
+    }
+
+    @Override
+    public int getLowWaterMark() {
+        return 0;
+    }
+
+    @Override
+    public synchronized void setHighWaterMark(int hwm) {
+        int old = highWaterMark;
+        highWaterMark = hwm < 0 ? Integer.MAX_VALUE : hwm;
+        if (running != null) {
+            notifyChangeListeners(new PropertyChangeEvent(this, "highWaterMark", old, hwm));
+            running.resize(old, highWaterMark);
+            admitted.resize(addLimits(old, maxQueueSize), addLimits(highWaterMark, maxQueueSize));
+        }
+    }
+
+    @Override
+    public void setLowWaterMark(int lwm) {
+        // no idle threads are kept around
+    }
+
+    @Override
+    public synchronized void setQueueSize(int size) {
+        int old = maxQueueSize;
+        super.setQueueSize(size);
+        if (admitted != null) {
+            admitted.resize(addLimits(highWaterMark, old), addLimits(highWaterMark, maxQueueSize));
+        }
+    }
+
+    @Override
+    public int getLargestPoolSize() {
+        return largestRunningCount;
+    }
+
+    @Override
+    public int getPoolSize() {
+        return runningCount.get() + waitingCount.get();
+    }
+
+    @Override
+    public int getActiveCount() {
+        return runningCount.get();
+    }
+}
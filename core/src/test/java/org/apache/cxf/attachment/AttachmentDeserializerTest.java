@@ -676,5 +676,50 @@ public class AttachmentDeserializerTest extends Assert {
         assertEquals(-1, ins.read(new byte[1000], 100, 600));
         ins.close();
     }
-}
 
+    @Test
+    public void testLargePartWithBoundaryLikeContent() throws Exception {
+        String boundary = "----=_Part_1_123456789.1516200000000";
+        // content that repeatedly looks like the start of a delimiter
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        for (int x = 0; content.size() < 100000; x++) {
+            content.write(("data " + x + "\r\n--" + boundary.substring(0, x % boundary.length())
+                + "\r").getBytes(StandardCharsets.UTF_8));
+        }
+        byte[] attachment = content.toByteArray();
+
+        for (int readSize : new int[] {1, 7, 100, 4096, 65536}) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            out.write(("--" + boundary + "\r\n"
+                + "Content-Type: text/xml\r\n"
+                + "Content-ID: <root>\r\n\r\n"
+                + "<root/>\r\n"
+                + "--" + boundary + "\r\n"
+                + "Content-Type: application/octet-stream\r\n"
+                + "Content-ID: <att>\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+            out.write(attachment);
+            out.write(("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.UTF_8));
+
+            msg = new MessageImpl();
+            msg.put(Message.CONTENT_TYPE, "multipart/related; boundary=\"" + boundary + "\"");
+            msg.setContent(InputStream.class, new ByteArrayInputStream(out.toByteArray()));
+            AttachmentDeserializer ad = new AttachmentDeserializer(msg);
+            ad.initializeAttachments();
+
+            assertEquals("<root/>", IOUtils.toString(msg.getContent(InputStream.class)));
+            Iterator<Attachment> it = msg.getAttachments().iterator();
+            assertTrue(it.hasNext());
+            try (InputStream ins = it.next().getDataHandler().getInputStream()) {
+                ByteArrayOutputStream read = new ByteArrayOutputStream();
+                byte[] buf = new byte[readSize];
+                int n = ins.read(buf);
+                while (n != -1) {
+                    read.write(buf, 0, n);
+                    n = ins.read(buf);
+                }
+                assertArrayEquals("read size " + readSize, attachment, read.toByteArray());
+            }
+            assertFalse(it.hasNext());
+        }
+    }
+}
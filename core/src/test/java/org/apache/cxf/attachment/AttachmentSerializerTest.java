@@ -20,14 +20,20 @@ package org.apache.cxf.attachment;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.Properties;
 
 import javax.activation.DataHandler;
 import javax.activation.DataSource;
+import javax.activation.FileDataSource;
 import javax.mail.Session;
 import javax.mail.internet.MimeBodyPart;
 import javax.mail.internet.MimeMessage;
@@ -240,4 +246,75 @@ public class AttachmentSerializerTest extends Assert {
     private static String escapeQuotes(String s) {
         return s.indexOf('"') != 0 ? s.replace("\"", "\\\"") : s;
     }
+
+    @Test
+    public void testWriteFileAndByteAttachments() throws Exception {
+        byte[] fileContent = new byte[200000];
+        for (int x = 0; x < fileContent.length; x++) {
+            fileContent[x] = (byte)x;
+        }
+        File file = File.createTempFile("att", ".bin");
+        File target = File.createTempFile("mime", ".bin");
+        try {
+            try (FileOutputStream fout = new FileOutputStream(file)) {
+                fout.write(fileContent);
+            }
+            byte[] bytes = "0123456789".getBytes(StandardCharsets.UTF_8);
+
+            ByteArrayOutputStream bout = new ByteArrayOutputStream();
+            String ct = writeFileAndByteAttachments(file, bytes, bout);
+            checkFileAndByteAttachments(ct, new ByteArrayInputStream(bout.toByteArray()), fileContent);
+
+            // FileOutputStream output uses FileChannel.transferTo for the file
+            try (FileOutputStream fout = new FileOutputStream(target)) {
+                ct = writeFileAndByteAttachments(file, bytes, fout);
+            }
+            try (InputStream in = new FileInputStream(target)) {
+                checkFileAndByteAttachments(ct, in, fileContent);
+            }
+        } finally {
+            file.delete();
+            target.delete();
+        }
+    }
+
+    private String writeFileAndByteAttachments(File file, byte[] bytes, OutputStream out) throws Exception {
+        MessageImpl msg = new MessageImpl();
+        Collection<Attachment> atts = new ArrayList<>();
+        AttachmentImpl a = new AttachmentImpl("file");
+        a.setDataHandler(new DataHandler(new FileDataSource(file)));
+        atts.add(a);
+        a = new AttachmentImpl("bytes");
+        a.setDataHandler(new DataHandler(new ByteDataSource(bytes, 2, 5)));
+        atts.add(a);
+        msg.setAttachments(atts);
+        msg.put(Message.CONTENT_TYPE, "text/xml");
+        msg.setContent(OutputStream.class, out);
+
+        AttachmentSerializer serializer = new AttachmentSerializer(msg);
+        serializer.writeProlog();
+        out.write("<soap:Body/>".getBytes());
+        serializer.writeAttachments();
+        return (String) msg.get(Message.CONTENT_TYPE);
+    }
+
+    private void checkFileAndByteAttachments(String ct, InputStream in, byte[] fileContent) throws Exception {
+        MessageImpl msg = new MessageImpl();
+        msg.put(Message.CONTENT_TYPE, ct);
+        msg.setContent(InputStream.class, in);
+        AttachmentDeserializer deserializer = new AttachmentDeserializer(msg);
+        deserializer.initializeAttachments();
+        assertEquals("<soap:Body/>", IOUtils.toString(msg.getContent(InputStream.class)));
+
+        Iterator<Attachment> it = msg.getAttachments().iterator();
+        assertTrue(it.hasNext());
+        Attachment a = it.next();
+        assertEquals("file", a.getId());
+        assertArrayEquals(fileContent, IOUtils.readBytesFromStream(a.getDataHandler().getInputStream()));
+        assertTrue(it.hasNext());
+        a = it.next();
+        assertEquals("bytes", a.getId());
+        assertEquals("23456", IOUtils.toString(a.getDataHandler().getInputStream()));
+        assertFalse(it.hasNext());
+    }
 }
@@ -22,6 +22,16 @@ import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.junit.Assume;
+import org.junit.Test;
 
 public class CachedOutputStreamTest extends CachedStreamTestBase {
 
@@ -82,6 +92,122 @@ public class CachedOutputStreamTest extends CachedStreamTestBase {
     protected String readPartiallyFromStreamObject(Object cache, int len) throws IOException {
         return readPartiallyFromStream((InputStream)cache, len);
     }
-}
 
+    @Test
+    public void testWriteCacheToChannel() throws IOException {
+        String result = createTestData(200);
+        CachedOutputStream cos = new CachedOutputStream(1024);
+        cos.write(result.getBytes(StandardCharsets.UTF_8));
+        assertNotNull(cos.getTempFile());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        cos.writeCacheTo(out);
+        assertEquals(result, new String(out.toByteArray(), StandardCharsets.UTF_8));
+
+        out = new ByteArrayOutputStream();
+        cos.writeCacheTo(Channels.newChannel(out));
+        assertEquals(result, new String(out.toByteArray(), StandardCharsets.UTF_8));
+        cos.close();
+    }
+
+    @Test(timeout = 10000)
+    public void testWriteCacheToChannelWithoutProgress() throws IOException {
+        String result = createTestData(200);
+        CachedOutputStream cos = new CachedOutputStream(1024);
+        cos.write(result.getBytes(StandardCharsets.UTF_8));
+        assertNotNull(cos.getTempFile());
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        // accepts nothing on the first write, like a non-blocking channel which is full
+        WritableByteChannel channel = new WritableByteChannel() {
+            private boolean stalled;
+            public int write(ByteBuffer src) {
+                if (!stalled) {
+                    stalled = true;
+                    return 0;
+                }
+                int n = src.remaining();
+                byte[] bytes = new byte[n];
+                src.get(bytes);
+                out.write(bytes, 0, n);
+                return n;
+            }
+            public boolean isOpen() {
+                return true;
+            }
+            public void close() {
+            }
+        };
+        cos.writeCacheTo(channel);
+        assertEquals(result, new String(out.toByteArray(), StandardCharsets.UTF_8));
+        cos.close();
+    }
+
+    @Test
+    public void testReadableChannel() throws IOException {
+        String result = createTestData(200);
+        CachedOutputStream cos = new CachedOutputStream(1024);
+        cos.write(result.getBytes(StandardCharsets.UTF_8));
+        File tempFile = cos.getTempFile();
+        assertNotNull(tempFile);
 
+        ReadableByteChannel channel = cos.getReadableChannel();
+        assertTrue(channel instanceof FileChannel);
+        cos.close();
+        // the open channel keeps the temp file
+        assertTrue(tempFile.exists());
+
+        ByteBuffer buffer = ((FileChannel)channel).map(FileChannel.MapMode.READ_ONLY, 0, result.length());
+        byte[] bytes = new byte[result.length()];
+        buffer.get(bytes);
+        assertEquals(result, new String(bytes, StandardCharsets.UTF_8));
+        channel.close();
+        assertFalse(tempFile.exists());
+    }
+
+    @Test
+    public void testTransferToFile() throws IOException {
+        String result = createTestData(200);
+        CachedOutputStream cos = new CachedOutputStream(1024);
+        cos.write(result.getBytes(StandardCharsets.UTF_8));
+        InputStream in = cos.getInputStream();
+        assertTrue(in instanceof Transferable);
+        File target = File.createTempFile("cos", "test");
+        try {
+            ((Transferable)in).transferTo(target);
+            assertEquals(result, new String(Files.readAllBytes(target.toPath()), StandardCharsets.UTF_8));
+        } finally {
+            in.close();
+            cos.close();
+            target.delete();
+        }
+    }
+
+    @Test
+    public void testTransferToFileWhenRenameFails() throws IOException {
+        String result = createTestData(200);
+        CachedOutputStream cos = new CachedOutputStream(1024);
+        cos.write(result.getBytes(StandardCharsets.UTF_8));
+        InputStream in = cos.getInputStream();
+        assertTrue(in instanceof Transferable);
+        // the open stream can still read the removed temp file, but it can no longer be renamed
+        Assume.assumeTrue(cos.getTempFile().delete());
+        File target = File.createTempFile("cos", "test");
+        try {
+            ((Transferable)in).transferTo(target);
+            assertEquals(result, new String(Files.readAllBytes(target.toPath()), StandardCharsets.UTF_8));
+        } finally {
+            in.close();
+            cos.close();
+            target.delete();
+        }
+    }
+
+    private static String createTestData(int size) {
+        StringBuilder builder = new StringBuilder(size * 1024);
+        for (int i = 0; i < size * 1024; i++) {
+            builder.append((char)('a' + i % 26));
+        }
+        return builder.toString();
+    }
+}
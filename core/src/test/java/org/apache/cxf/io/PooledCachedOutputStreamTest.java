@@ -0,0 +1,139 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.io;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.cxf.helpers.IOUtils;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Runs the CachedOutputStream tests with the in-memory content held in pooled buffers.
+ */
+public class PooledCachedOutputStreamTest extends CachedOutputStreamTest {
+
+    @Before
+    public void setUp() {
+        CachedOutputStream.setDefaultBufferPool(CachedOutputStreamBufferPool.HEAP);
+    }
+
+    @After
+    public void tearDown() {
+        System.clearProperty("org.apache.cxf.io.CachedOutputStream.BufferPool");
+        CachedOutputStream.setDefaultBufferPool(null);
+    }
+
+    @Override
+    protected void reloadDefaultProperties() {
+        super.reloadDefaultProperties();
+        CachedOutputStream.setDefaultBufferPool(CachedOutputStreamBufferPool.HEAP);
+    }
+
+    @Test
+    public void testReadAcrossChunks() throws IOException {
+        for (String type : new String[] {CachedOutputStreamBufferPool.HEAP, CachedOutputStreamBufferPool.DIRECT}) {
+            CachedOutputStream.setDefaultBufferPool(type);
+            byte[] data = createData(100 * 1024);
+            CachedOutputStream cos = new CachedOutputStream(1024 * 1024);
+            cos.write(data, 0, 10);
+            cos.write(data[10]);
+            cos.write(data, 11, data.length - 11);
+            assertNull(cos.getTempFile());
+            assertTrue(cos.getOut() instanceof PooledBufferOutputStream);
+
+            assertArrayEquals(data, cos.getBytes());
+            ByteArrayOutputStream bout = new ByteArrayOutputStream();
+            cos.writeCacheTo(bout);
+            assertArrayEquals(data, bout.toByteArray());
+            try (InputStream in = cos.getInputStream()) {
+                assertArrayEquals(data, IOUtils.readBytesFromStream(in));
+            }
+            cos.close();
+        }
+    }
+
+    @Test
+    public void testCopyFrom() throws IOException {
+        byte[] data = createData(70 * 1024);
+        PooledBufferOutputStream out = new PooledBufferOutputStream(CachedOutputStreamBufferPool.getPool("direct"));
+        assertEquals(data.length, IOUtils.copy(new ByteArrayInputStream(data), out));
+        assertEquals(data.length, out.size());
+        assertArrayEquals(data, out.toByteArray());
+        out.release();
+        assertEquals(0, out.size());
+    }
+
+    @Test
+    public void testBuffersReturnedOnClose() throws IOException {
+        CachedOutputStreamBufferPool pool = CachedOutputStreamBufferPool.getPool("heap");
+        CachedOutputStream cos = new CachedOutputStream(1024 * 1024);
+        cos.write(createData(30 * 1024));
+        long released = pool.getReleased() + pool.getDiscarded();
+        InputStream in = cos.getInputStream();
+        cos.close();
+        // still referenced by the InputStream
+        assertEquals(released, pool.getReleased() + pool.getDiscarded());
+        assertEquals(30 * 1024, IOUtils.readBytesFromStream(in).length);
+        in.close();
+        assertEquals(released + 3, pool.getReleased() + pool.getDiscarded());
+
+        long hits = pool.getHits();
+        cos = new CachedOutputStream(1024 * 1024);
+        cos.write(createData(30 * 1024));
+        assertTrue(pool.getHits() > hits);
+        cos.close();
+    }
+
+    @Test
+    public void testHoldKeepsBuffers() throws IOException {
+        CachedOutputStream cos = new CachedOutputStream(1024 * 1024);
+        cos.write("Hello World!".getBytes(StandardCharsets.UTF_8));
+        cos.holdTempFile();
+        cos.close();
+        assertEquals("Hello World!", new String(cos.getBytes(), StandardCharsets.UTF_8));
+        cos.releaseTempFileHold();
+        assertEquals(0, cos.getBytes().length);
+    }
+
+    @Test
+    public void testBufferPoolSysProp() throws IOException {
+        System.setProperty("org.apache.cxf.io.CachedOutputStream.BufferPool", "direct");
+        CachedOutputStream.setDefaultBufferPool(null);
+        CachedOutputStream cos = new CachedOutputStream(1024 * 1024);
+        cos.write(1);
+        assertTrue(cos.getOut() instanceof PooledBufferOutputStream);
+        cos.close();
+    }
+
+    private static byte[] createData(int size) {
+        byte[] data = new byte[size];
+        for (int x = 0; x < size; x++) {
+            data[x] = (byte)x;
+        }
+        return data;
+    }
+}
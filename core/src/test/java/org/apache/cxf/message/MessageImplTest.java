@@ -0,0 +1,80 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.message;
+
+import java.util.Arrays;
+
+import org.apache.cxf.Bus;
+import org.apache.cxf.bus.extension.ExtensionManagerBus;
+import org.apache.cxf.service.Service;
+import org.apache.cxf.service.ServiceImpl;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class MessageImplTest extends Assert {
+
+    @Test
+    public void testContextualPropertyPrecedence() {
+        Bus bus = new ExtensionManagerBus();
+        bus.setProperty("a", "bus");
+        bus.setProperty("b", "bus");
+        bus.setProperty("c", "bus");
+        Service service = new ServiceImpl();
+        service.put("b", "service");
+        service.put("c", "service");
+
+        Exchange ex = new ExchangeImpl();
+        ex.put(Bus.class, bus);
+        ex.put(Service.class, service);
+        ex.put("c", "exchange");
+        Message m = new MessageImpl();
+        m.setExchange(ex);
+        ex.setInMessage(m);
+
+        assertEquals("bus", m.getContextualProperty("a"));
+        assertEquals("service", m.getContextualProperty("b"));
+        assertEquals("exchange", m.getContextualProperty("c"));
+        assertNull(m.getContextualProperty("d"));
+
+        m.put("a", "message");
+        ex.put("d", "exchange");
+        bus.setProperty("e", "bus");
+        assertEquals("message", m.getContextualProperty("a"));
+        assertEquals("exchange", m.getContextualProperty("d"));
+        assertEquals("bus", m.getContextualProperty("e"));
+
+        m.put("c", null);
+        assertNull(m.getContextualProperty("c"));
+        m.remove("c");
+        assertEquals("exchange", m.getContextualProperty("c"));
+
+        assertTrue(m.getContextualPropertyKeys().containsAll(Arrays.asList("a", "b", "c", "d", "e")));
+    }
+
+    @Test
+    public void testContextualPropertyWithoutExchange() {
+        Message m = new MessageImpl();
+        m.put("a", "message");
+        assertEquals("message", m.getContextualProperty("a"));
+        assertNull(m.getContextualProperty("b"));
+        assertEquals(1, m.getContextualPropertyKeys().size());
+    }
+}
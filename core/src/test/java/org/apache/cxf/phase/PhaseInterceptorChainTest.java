@@ -20,8 +20,10 @@
 package org.apache.cxf.phase;
 
 import java.lang.reflect.Field;
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
@@ -46,6 +48,8 @@ public class PhaseInterceptorChainTest extends Assert {
 
     private IMocksControl control;
 
+    private SortedSet<Phase> phases;
+
     private PhaseInterceptorChain chain;
 
     private Message message;
@@ -59,7 +63,7 @@ public class PhaseInterceptorChainTest extends Assert {
         Phase phase1 = new Phase("phase1", 1);
         Phase phase2 = new Phase("phase2", 2);
         Phase phase3 = new Phase("phase3", 3);
-        SortedSet<Phase> phases = new TreeSet<Phase>();
+        phases = new TreeSet<Phase>();
         phases.add(phase1);
         phases.add(phase2);
         phases.add(phase3);
@@ -348,6 +352,74 @@ public class PhaseInterceptorChainTest extends Assert {
         assertEquals(0, p1.faultInvoked);
     }
 
+    @Test
+    public void testClonedChainCopyOnWrite() throws Exception {
+        CountingPhaseInterceptor p1 = new CountingPhaseInterceptor("phase1", "p1");
+        CountingPhaseInterceptor p2 = new CountingPhaseInterceptor("phase2", "p2");
+        CountingPhaseInterceptor p3 = new CountingPhaseInterceptor("phase3", "p3");
+        control.replay();
+        chain.add(p1);
+        chain.add(p2);
+
+        PhaseInterceptorChain clone = chain.cloneChain();
+        clone.add(p3);
+        assertInterceptors(chain, p1, p2);
+        assertInterceptors(clone, p1, p2, p3);
+
+        chain.remove(p1);
+        assertInterceptors(chain, p2);
+        assertInterceptors(clone, p1, p2, p3);
+    }
+
+    @Test
+    public void testCachedChainCopyOnWriteCount() throws Exception {
+        CountingPhaseInterceptor p1 = new CountingPhaseInterceptor("phase1", "p1");
+        CountingPhaseInterceptor p2 = new CountingPhaseInterceptor("phase2", "p2");
+        CountingPhaseInterceptor p3 = new CountingPhaseInterceptor("phase3", "p3");
+        control.replay();
+        List<Interceptor<? extends Message>> interceptors =
+            Arrays.<Interceptor<? extends Message>>asList(p1, p2);
+
+        PhaseChainCache cache = new PhaseChainCache();
+        PhaseInterceptorChain first = cache.get(phases, interceptors);
+        PhaseInterceptorChain second = cache.get(phases, interceptors);
+        assertEquals(0, cache.getChainCopyOnWriteCount());
+
+        second.add(p3);
+        assertEquals(1, cache.getChainCopyOnWriteCount());
+        second.add(new CountingPhaseInterceptor("phase3", "p4"));
+        assertEquals(1, cache.getChainCopyOnWriteCount());
+        first.remove(p1);
+        assertEquals(2, cache.getChainCopyOnWriteCount());
+        assertInterceptors(first, p2);
+        assertInterceptors(cache.get(phases, interceptors), p1, p2);
+        assertEquals(2, cache.getChainCopyOnWriteCount());
+    }
+
+    @Test
+    public void testInsertionInClonedChainPass() throws Exception {
+        CountingPhaseInterceptor p2 = new CountingPhaseInterceptor("phase2", "p2");
+        CountingPhaseInterceptor p3 = new CountingPhaseInterceptor("phase3", "p3");
+        control.replay();
+        chain.add(p3);
+        PhaseInterceptorChain clone = chain.cloneChain();
+        InsertingPhaseInterceptor p1 = new InsertingPhaseInterceptor(clone, p2, "phase1", "p1");
+        clone.add(p1);
+        clone.doIntercept(message);
+        assertEquals(1, p1.invoked);
+        assertEquals(1, p2.invoked);
+        assertEquals(1, p3.invoked);
+        assertInterceptors(chain, p3);
+    }
+
+    private static void assertInterceptors(PhaseInterceptorChain c, Interceptor<?>... expected) {
+        Iterator<Interceptor<? extends Message>> it = c.iterator();
+        for (Interceptor<?> i : expected) {
+            assertSame("Unexpected interceptor at this position.", i, it.next());
+        }
+        assertFalse(it.hasNext());
+    }
+
     @Test
     public void testWrappedInvocation() throws Exception {
         CountingPhaseInterceptor p1 = new CountingPhaseInterceptor("phase1",
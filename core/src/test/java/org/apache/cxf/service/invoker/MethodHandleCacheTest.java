@@ -0,0 +1,135 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.service.invoker;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class MethodHandleCacheTest extends Assert {
+    private final MethodHandleCache cache = new MethodHandleCache();
+
+    @Test
+    public void testInvoke() throws Exception {
+        Service service = new Service();
+        assertEquals("hello world", invoke(service, "greet", String.class, "world"));
+        assertEquals(5, invoke(service, "add", int.class, int.class, 2, 3));
+        assertNull(invoke(service, "ping"));
+        assertEquals("static", invoke(null, "staticMethod"));
+        assertEquals(2, invoke(service, "count", String[].class, (Object)new String[] {"a", "b"}));
+        assertEquals("hello world", invoke(new SubService(), "greet", String.class, "world"));
+    }
+
+    @Test
+    public void testExceptionsAreWrapped() throws Exception {
+        Service service = new Service();
+        try {
+            invoke(service, "fail", IOException.class, new IOException("checked"));
+            fail();
+        } catch (InvocationTargetException e) {
+            assertEquals("checked", e.getCause().getMessage());
+        }
+        try {
+            invoke(service, "fail", IOException.class, null);
+            fail();
+        } catch (InvocationTargetException e) {
+            assertTrue(e.getCause() instanceof NullPointerException);
+        }
+    }
+
+    @Test
+    public void testInvalidParameters() throws Exception {
+        Service service = new Service();
+        try {
+            invoke(service, "add", int.class, int.class, null, 3);
+            fail();
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        try {
+            invoke(service, "greet", String.class, 1);
+            fail();
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        try {
+            Method m = Service.class.getMethod("greet", String.class);
+            cache.invoke(m, "not a service", new Object[] {"world"});
+            fail();
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    private Object invoke(Object target, String name, Object... params) throws Exception {
+        return invoke(target, name, new Class<?>[0], params);
+    }
+
+    private Object invoke(Object target, String name, Class<?> type, Object param) throws Exception {
+        return invoke(target, name, new Class<?>[] {type}, new Object[] {param});
+    }
+
+    private Object invoke(Object target, String name, Class<?> type1, Class<?> type2,
+                          Object param1, Object param2) throws Exception {
+        return invoke(target, name, new Class<?>[] {type1, type2}, new Object[] {param1, param2});
+    }
+
+    private Object invoke(Object target, String name, Class<?>[] types, Object[] params) throws Exception {
+        Method m = Service.class.getMethod(name, types);
+        // the second call uses the cached handle
+        Object first = cache.invoke(m, target, params);
+        assertEquals(first, cache.invoke(m, target, params));
+        return first;
+    }
+
+    public static class Service {
+        public String greet(String name) {
+            return "hello " + name;
+        }
+
+        public int add(int a, int b) {
+            return a + b;
+        }
+
+        public void ping() {
+        }
+
+        public int count(String... values) {
+            return values.length;
+        }
+
+        public void fail(IOException e) throws IOException {
+            throw e;
+        }
+
+        public static String staticMethod() {
+            return "static";
+        }
+    }
+
+    public static class SubService extends Service {
+        @Override
+        public String greet(String name) {
+            return "hello " + name;
+        }
+    }
+}
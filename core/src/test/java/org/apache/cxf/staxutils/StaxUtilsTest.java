@@ -62,6 +62,29 @@ public class StaxUtilsTest extends Assert {
         assertTrue(reader != null);
     }
 
+    @Test
+    public void testCloseWriterKeepsStreamOpen() throws Exception {
+        final boolean[] closed = new boolean[1];
+        ByteArrayOutputStream out = new ByteArrayOutputStream() {
+            @Override
+            public void close() {
+                closed[0] = true;
+            }
+        };
+        for (int x = 0; x < 2; x++) {
+            out.reset();
+            XMLStreamWriter writer = StaxUtils.createXMLStreamWriter(out, "UTF-8");
+            writer.writeStartDocument();
+            writer.writeStartElement("root");
+            writer.writeCharacters("text \u00e9");
+            writer.writeEndElement();
+            writer.writeEndDocument();
+            writer.close();
+            assertFalse(closed[0]);
+            assertTrue(out.toString("UTF-8").endsWith("<root>text \u00e9</root>"));
+        }
+    }
+
     private InputStream getTestStream(String resource) {
         return getClass().getResourceAsStream(resource);
     }
@@ -116,6 +116,24 @@ public class GZIPAcceptEncodingTest extends Assert {
         interceptor.handleMessage(outMessage);
     }
 
+    @Test
+    public void testAcceptContentCoding() throws Exception {
+        interceptor.setContentCodings(Collections.singletonList(new TestCoding("br")));
+        singleTest("gzip, br;q=0.8", YES, "br");
+    }
+
+    @Test
+    public void testContentCodingNotSelectedByStar() throws Exception {
+        interceptor.setContentCodings(Collections.singletonList(new TestCoding("br")));
+        singleTest("*", YES, "gzip");
+    }
+
+    @Test
+    public void testContentCodingDisabled() throws Exception {
+        interceptor.setContentCodings(Collections.singletonList(new TestCoding("br")));
+        singleTest("gzip, br;q=0", YES, "gzip");
+    }
+
     private void singleTest(String encoding,
                             GZIPOutInterceptor.UseGzip expectedUseGzip, String expectedGzipEncoding)
         throws Exception {
@@ -136,4 +154,24 @@ public class GZIPAcceptEncodingTest extends Assert {
             .singletonList(enc));
         inMessage.put(Message.PROTOCOL_HEADERS, protocolHeaders);
     }
+
+    private static final class TestCoding implements ContentCoding {
+        private final String encoding;
+
+        TestCoding(String encoding) {
+            this.encoding = encoding;
+        }
+
+        public String getEncoding() {
+            return encoding;
+        }
+
+        public OutputStream encode(OutputStream os, Message message) {
+            return os;
+        }
+
+        public InputStream decode(InputStream is, Message message) {
+            return is;
+        }
+    }
 }
@@ -0,0 +1,130 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.transport.common.gzip;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Random;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipException;
+
+import org.apache.cxf.helpers.IOUtils;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class PooledGZIPStreamTest extends Assert {
+
+    @Test
+    public void testReadableByGZIPInputStream() throws Exception {
+        byte[] data = createData(100000);
+        byte[] zipped = compress(data, Deflater.BEST_SPEED, Deflater.FILTERED);
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(zipped))) {
+            assertArrayEquals(data, IOUtils.readBytesFromStream(in));
+        }
+    }
+
+    @Test
+    public void testReadsGZIPOutputStream() throws Exception {
+        byte[] data = createData(100000);
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (OutputStream out = new GZIPOutputStream(bos)) {
+            out.write(data);
+        }
+        try (InputStream in = new PooledGZIPInputStream(new ByteArrayInputStream(bos.toByteArray()))) {
+            assertArrayEquals(data, IOUtils.readBytesFromStream(in));
+        }
+    }
+
+    @Test
+    public void testConcatenatedMembers() throws Exception {
+        byte[] first = createData(3000);
+        byte[] second = createData(5000);
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        bos.write(compress(first, Deflater.DEFAULT_COMPRESSION, Deflater.DEFAULT_STRATEGY));
+        bos.write(compress(second, Deflater.BEST_COMPRESSION, Deflater.HUFFMAN_ONLY));
+
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        expected.write(first);
+        expected.write(second);
+        try (InputStream in = new PooledGZIPInputStream(new ByteArrayInputStream(bos.toByteArray()))) {
+            assertArrayEquals(expected.toByteArray(), IOUtils.readBytesFromStream(in));
+        }
+    }
+
+    @Test
+    public void testInflaterReturnedAtEnd() throws Exception {
+        byte[] zipped = compress(createData(1000), Deflater.DEFAULT_COMPRESSION, Deflater.DEFAULT_STRATEGY);
+        // warm the pool so that the stream below reuses an idle inflater
+        new PooledGZIPInputStream(new ByteArrayInputStream(zipped)).close();
+        int idle = DeflaterPool.getIdleInflaterCount();
+
+        InputStream in = new PooledGZIPInputStream(new ByteArrayInputStream(zipped));
+        assertEquals(idle - 1, DeflaterPool.getIdleInflaterCount());
+        IOUtils.copy(in, new ByteArrayOutputStream());
+        assertEquals(idle, DeflaterPool.getIdleInflaterCount());
+        assertEquals(-1, in.read());
+        in.close();
+        assertEquals(idle, DeflaterPool.getIdleInflaterCount());
+    }
+
+    @Test(expected = ZipException.class)
+    public void testCorruptTrailer() throws Exception {
+        byte[] zipped = compress(createData(1000), Deflater.DEFAULT_COMPRESSION, Deflater.DEFAULT_STRATEGY);
+        zipped[zipped.length - 5] ^= 1;
+        try (InputStream in = new PooledGZIPInputStream(new ByteArrayInputStream(zipped))) {
+            IOUtils.readBytesFromStream(in);
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testWriteAfterClose() throws Exception {
+        OutputStream out = new PooledGZIPOutputStream(new ByteArrayOutputStream(),
+                                                      Deflater.DEFAULT_COMPRESSION,
+                                                      Deflater.DEFAULT_STRATEGY);
+        out.close();
+        out.write(1);
+    }
+
+    private static byte[] compress(byte[] data, int level, int strategy) throws IOException {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (OutputStream out = new PooledGZIPOutputStream(bos, level, strategy)) {
+            out.write(data, 0, 7);
+            out.write(data[7]);
+            out.write(data, 8, data.length - 8);
+        }
+        return bos.toByteArray();
+    }
+
+    private static byte[] createData(int size) {
+        byte[] data = new byte[size];
+        Random random = new Random(size);
+        for (int i = 0; i < size; i++) {
+            // compressible, but not trivially so
+            data[i] = (byte)('a' + random.nextInt(8));
+        }
+        return data;
+    }
+}
@@ -0,0 +1,198 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.workqueue;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class StealingWorkQueueTest extends Assert {
+
+    StealingWorkQueueImpl workqueue;
+
+    @After
+    public void tearDown() throws Exception {
+        if (workqueue != null) {
+            workqueue.shutdown(false);
+            workqueue = null;
+        }
+    }
+
+    @Test
+    public void testExecute() throws Exception {
+        workqueue = new StealingWorkQueueImpl(100, 4, "test");
+        final CountDownLatch done = new CountDownLatch(50);
+        for (int x = 0; x < 50; x++) {
+            workqueue.execute(new Runnable() {
+                public void run() {
+                    done.countDown();
+                }
+            });
+        }
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertEquals(4, workqueue.getHighWaterMark());
+        assertTrue(workqueue.getLargestPoolSize() <= 4);
+        assertEquals(0, workqueue.getRejectedCount());
+    }
+
+    @Test
+    public void testNestedExecute() throws Exception {
+        workqueue = new StealingWorkQueueImpl(1000, 4, "test");
+        final CountDownLatch done = new CountDownLatch(100);
+        workqueue.execute(new Runnable() {
+            public void run() {
+                for (int x = 0; x < 100; x++) {
+                    workqueue.execute(new Runnable() {
+                        public void run() {
+                            done.countDown();
+                        }
+                    });
+                }
+            }
+        });
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testStealFromBlockedWorker() throws Exception {
+        workqueue = new StealingWorkQueueImpl(100, 2, "test");
+        final CountDownLatch inner = new CountDownLatch(1);
+        final CountDownLatch outer = new CountDownLatch(1);
+        workqueue.execute(new Runnable() {
+            public void run() {
+                // goes to the deque of this worker, which then blocks until another
+                // worker has stolen and run it
+                workqueue.execute(new Runnable() {
+                    public void run() {
+                        inner.countDown();
+                    }
+                });
+                try {
+                    if (inner.await(10, TimeUnit.SECONDS)) {
+                        outer.countDown();
+                    }
+                } catch (InterruptedException e) {
+                    // ignore
+                }
+            }
+        });
+        assertTrue(outer.await(10, TimeUnit.SECONDS));
+        // the pool adds up the steals of its workers lazily
+        long end = System.currentTimeMillis() + 10000;
+        while (workqueue.getStealCount() == 0 && System.currentTimeMillis() < end) {
+            Thread.sleep(10);
+        }
+        assertTrue(workqueue.getStealCount() > 0);
+    }
+
+    @Test
+    public void testRejectWhenFull() throws Exception {
+        workqueue = new StealingWorkQueueImpl(2, 1, "test");
+        final CountDownLatch release = new CountDownLatch(1);
+        Runnable r = new Runnable() {
+            public void run() {
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    // ignore
+                }
+            }
+        };
+        workqueue.execute(r);
+        workqueue.execute(r);
+        workqueue.execute(r);
+        assertTrue(workqueue.isFull());
+        try {
+            workqueue.execute(r);
+            fail("Should have failed with a RejectedExecutionException");
+        } catch (RejectedExecutionException ex) {
+            // expected
+        }
+        try {
+            workqueue.execute(r, 50);
+            fail("Should have failed with a RejectedExecutionException");
+        } catch (RejectedExecutionException ex) {
+            // expected
+        }
+        assertEquals(2, workqueue.getRejectedCount());
+        release.countDown();
+        workqueue.execute(r, 10000);
+    }
+
+    @Test
+    public void testSchedule() throws Exception {
+        workqueue = new StealingWorkQueueImpl("test");
+        final List<Integer> order = new CopyOnWriteArrayList<>();
+        final CountDownLatch done = new CountDownLatch(3);
+        long start = System.currentTimeMillis();
+        for (final int delay : new int[] {300, 100, 200}) {
+            workqueue.schedule(new Runnable() {
+                public void run() {
+                    order.add(delay);
+                    done.countDown();
+                }
+            }, delay);
+        }
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertTrue(System.currentTimeMillis() - start >= 300);
+        assertEquals(100, order.get(0).intValue());
+        assertEquals(200, order.get(1).intValue());
+        assertEquals(300, order.get(2).intValue());
+    }
+
+    @Test
+    public void testScheduleBeyondOneRound() throws Exception {
+        workqueue = new StealingWorkQueueImpl("test");
+        final CountDownLatch done = new CountDownLatch(1);
+        long delay = StealingWorkQueueImpl.DEFAULT_TICK_DURATION * StealingWorkQueueImpl.DEFAULT_TICKS_PER_WHEEL
+            + 100;
+        long start = System.currentTimeMillis();
+        workqueue.schedule(new Runnable() {
+            public void run() {
+                done.countDown();
+            }
+        }, delay);
+        assertTrue(done.await(20, TimeUnit.SECONDS));
+        assertTrue(System.currentTimeMillis() - start >= delay);
+    }
+
+    @Test
+    public void testShutdown() throws Exception {
+        workqueue = new StealingWorkQueueImpl("test");
+        workqueue.shutdown(true);
+        assertTrue(workqueue.isShutdown());
+        try {
+            workqueue.execute(new Runnable() {
+                public void run() {
+                }
+            });
+            fail("Should have failed with a RejectedExecutionException");
+        } catch (RejectedExecutionException ex) {
+            // expected
+        }
+        assertEquals(1, workqueue.getRejectedCount());
+    }
+}
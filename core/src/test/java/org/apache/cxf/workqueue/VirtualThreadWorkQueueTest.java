@@ -0,0 +1,136 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.workqueue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class VirtualThreadWorkQueueTest extends Assert {
+
+    VirtualThreadWorkQueueImpl workqueue;
+
+    @After
+    public void tearDown() throws Exception {
+        if (workqueue != null) {
+            workqueue.shutdown(true);
+            workqueue = null;
+        }
+    }
+
+    @Test
+    public void testMaxConcurrency() throws Exception {
+        workqueue = new VirtualThreadWorkQueueImpl(10, 2, "test");
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch done = new CountDownLatch(6);
+        final AtomicInteger current = new AtomicInteger();
+        final AtomicInteger max = new AtomicInteger();
+        for (int x = 0; x < 6; x++) {
+            workqueue.execute(new Runnable() {
+                public void run() {
+                    int c = current.incrementAndGet();
+                    max.accumulateAndGet(c, Math::max);
+                    try {
+                        release.await(10, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        // ignore
+                    }
+                    current.decrementAndGet();
+                    done.countDown();
+                }
+            });
+        }
+        waitFor(workqueue, 2, 4);
+        assertEquals(2, workqueue.getActiveCount());
+        assertEquals(4, workqueue.getSize());
+        release.countDown();
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertEquals(2, max.get());
+        assertEquals(2, workqueue.getLargestPoolSize());
+    }
+
+    @Test
+    public void testRejectWhenFull() throws Exception {
+        workqueue = new VirtualThreadWorkQueueImpl(1, 1, "test");
+        final CountDownLatch release = new CountDownLatch(1);
+        Runnable r = new Runnable() {
+            public void run() {
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    // ignore
+                }
+            }
+        };
+        workqueue.execute(r);
+        workqueue.execute(r);
+        assertTrue(workqueue.isFull());
+        try {
+            workqueue.execute(r, 50);
+            fail("Should have failed with a RejectedExecutionException");
+        } catch (RejectedExecutionException ex) {
+            // expected
+        }
+        release.countDown();
+        // a slot will become available while waiting
+        workqueue.execute(r, 10000);
+    }
+
+    @Test
+    public void testSchedule() throws Exception {
+        workqueue = new VirtualThreadWorkQueueImpl("test");
+        final CountDownLatch done = new CountDownLatch(1);
+        long start = System.currentTimeMillis();
+        workqueue.schedule(new Runnable() {
+            public void run() {
+                done.countDown();
+            }
+        }, 200);
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertTrue(System.currentTimeMillis() - start >= 200);
+    }
+
+    @Test
+    public void testShutdown() throws Exception {
+        workqueue = new VirtualThreadWorkQueueImpl("test");
+        workqueue.shutdown(true);
+        assertTrue(workqueue.isShutdown());
+        try {
+            workqueue.execute(new Runnable() {
+                public void run() {
+                }
+            });
+            fail("Should have failed with a RejectedExecutionException");
+        } catch (RejectedExecutionException ex) {
+            // expected
+        }
+    }
+
+    private static void waitFor(AutomaticWorkQueueImpl wq, int active, long waiting) throws Exception {
+        for (int x = 0; x < 100 && (wq.getActiveCount() != active || wq.getSize() != waiting); x++) {
+            Thread.sleep(50);
+        }
+    }
+}
@@ -18,6 +18,7 @@
  */
 package org.apache.cxf.jaxrs;
 
+import java.io.Closeable;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -27,13 +28,17 @@ import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
+import javax.management.JMException;
 import javax.ws.rs.core.Application;
 
 import org.apache.cxf.Bus;
 import org.apache.cxf.BusException;
 import org.apache.cxf.common.classloader.ClassLoaderUtils;
 import org.apache.cxf.common.classloader.ClassLoaderUtils.ClassLoaderHolder;
+import org.apache.cxf.common.logging.LogUtils;
 import org.apache.cxf.endpoint.Endpoint;
 import org.apache.cxf.endpoint.EndpointException;
 import org.apache.cxf.endpoint.Server;
@@ -51,6 +56,7 @@ import org.apache.cxf.jaxrs.provider.ServerProviderFactory;
 import org.apache.cxf.jaxrs.utils.AnnotationUtils;
 import org.apache.cxf.jaxrs.utils.InjectionUtils;
 import org.apache.cxf.jaxrs.utils.JAXRSUtils;
+import org.apache.cxf.management.InstrumentationManager;
 import org.apache.cxf.service.factory.FactoryBeanListener;
 import org.apache.cxf.service.factory.ServiceConstructionException;
 import org.apache.cxf.service.invoker.Invoker;
@@ -74,6 +80,7 @@ import org.apache.cxf.service.invoker.Invoker;
  * </pre>
  */
 public class JAXRSServerFactoryBean extends AbstractJAXRSFactoryBean {
+    private static final Logger LOG = LogUtils.getL7dLogger(JAXRSServerFactoryBean.class);
 
     protected Map<Class<?>, ResourceProvider> resourceProviders = new HashMap<>();
 
@@ -192,6 +199,7 @@ public class JAXRSServerFactoryBean extends AbstractJAXRSFactoryBean {
                 ep.put("org.apache.cxf.jaxrs.comparator", rc);
             }
             checkPrivateEndpoint(ep);
+            setupMatchCache(ep);
 
             applyBusFeatures(getBus());
             applyFeatures();
@@ -444,6 +452,41 @@ public class JAXRSServerFactoryBean extends AbstractJAXRSFactoryBean {
         }
     }
 
+    /**
+     * Creates the cache of the selected resource methods if the endpoint has the
+     * {@link ResourceMatchCache#MAX_SIZE} property, the cache is not used if a custom
+     * {@link ResourceComparator} has been set.
+     */
+    protected void setupMatchCache(final Endpoint ep) {
+        Object size = ep.get(ResourceMatchCache.MAX_SIZE);
+        int maxSize = size == null ? 0 : Integer.parseInt(size.toString());
+        if (maxSize <= 0 || rc != null) {
+            return;
+        }
+        ResourceMatchCache cache = new ResourceMatchCache(maxSize);
+        ep.put(ResourceMatchCache.class.getName(), cache);
+
+        final InstrumentationManager manager = getBus().getExtension(InstrumentationManager.class);
+        if (manager != null && manager.getMBeanServer() != null) {
+            final ResourceMatchCacheMBeanWrapper mbean =
+                new ResourceMatchCacheMBeanWrapper(cache, getBus(), ep.getEndpointInfo());
+            try {
+                manager.register(mbean);
+                ep.addCleanupHook(new Closeable() {
+                    public void close() throws IOException {
+                        try {
+                            manager.unregister(mbean);
+                        } catch (JMException e) {
+                            LOG.log(Level.FINE, "Could not unregister the resource match cache", e);
+                        }
+                    }
+                });
+            } catch (JMException e) {
+                LOG.log(Level.WARNING, "Could not register the resource match cache", e);
+            }
+        }
+    }
+
     protected void setDefaultResourceProvider(ClassResourceInfo cri) {
         cri.setResourceProvider(new PerRequestResourceProvider(cri.getResourceClass()));
     }
@@ -19,7 +19,6 @@
 
 package org.apache.cxf.jaxrs;
 
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
@@ -52,7 +51,7 @@ import org.apache.cxf.service.invoker.Invoker;
 public class JAXRSServiceFactoryBean extends AbstractServiceFactoryBean {
 
     protected List<ClassResourceInfo> classResourceInfos =
-        new ArrayList<>();
+        new ClassResourceInfoList();
 
     private Invoker invoker;
     private Executor executor;
@@ -251,6 +250,9 @@ public class JAXRSServiceFactoryBean extends AbstractServiceFactoryBean {
     protected void initializeServiceModel() {
 
         JAXRSServiceImpl service = new JAXRSServiceImpl(classResourceInfos, serviceName);
+        if (classResourceInfos != null) {
+            service.getClassResourceIndex();
+        }
 
         setService(service);
         sendEvent(Event.SERVICE_SET, service);
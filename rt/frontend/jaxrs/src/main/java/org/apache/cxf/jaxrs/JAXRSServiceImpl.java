@@ -40,6 +40,7 @@ import org.apache.cxf.jaxrs.model.ClassResourceInfo;
 import org.apache.cxf.jaxrs.model.OperationResourceInfo;
 import org.apache.cxf.jaxrs.model.Parameter;
 import org.apache.cxf.jaxrs.model.ParameterType;
+import org.apache.cxf.jaxrs.model.URITemplateIndex;
 import org.apache.cxf.jaxrs.utils.InjectionUtils;
 import org.apache.cxf.jaxrs.utils.JAXRSUtils;
 import org.apache.cxf.service.Service;
@@ -58,6 +59,7 @@ import org.apache.cxf.service.model.ServiceInfo;
 public class JAXRSServiceImpl extends AbstractAttributedInterceptorProvider implements Service, Configurable {
     private static final long serialVersionUID = 6765400202555126993L;
     private List<ClassResourceInfo> classResourceInfos;
+    private transient volatile IndexHolder classResourceIndex;
     private DataBinding dataBinding;
     private Executor executor;
     private Invoker invoker;
@@ -109,6 +111,23 @@ public class JAXRSServiceImpl extends AbstractAttributedInterceptorProvider impl
         return classResourceInfos;
     }
 
+    /**
+     * Returns the index of the root resource templates, it is rebuilt if the list of
+     * resources has been modified since it was created.
+     */
+    public URITemplateIndex<ClassResourceInfo> getClassResourceIndex() {
+        IndexHolder holder = classResourceIndex;
+        int modCount = classResourceInfos instanceof ClassResourceInfoList
+            ? ((ClassResourceInfoList)classResourceInfos).getModCount() : -1;
+        if (holder == null || holder.modCount != modCount
+            || modCount == -1 && !holder.index.isIndexOf(classResourceInfos)) {
+            holder = new IndexHolder(
+                new URITemplateIndex<>(classResourceInfos, ClassResourceInfo::getURITemplate), modCount);
+            classResourceIndex = holder;
+        }
+        return holder.index;
+    }
+
     public List<ServiceInfo> getServiceInfos() {
         if (!createServiceModel) {
             return Collections.emptyList();
@@ -213,4 +232,15 @@ public class JAXRSServiceImpl extends AbstractAttributedInterceptorProvider impl
     public void setProperties(Map<String, Object> properties) {
         this.putAll(properties);
     }
+
+    private static final class IndexHolder {
+        private final URITemplateIndex<ClassResourceInfo> index;
+        // the modification count of the resources the index was built from, -1 if unknown
+        private final int modCount;
+
+        IndexHolder(URITemplateIndex<ClassResourceInfo> index, int modCount) {
+            this.index = index;
+            this.modCount = modCount;
+        }
+    }
 }
@@ -0,0 +1,300 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.jaxrs;
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.cxf.jaxrs.model.ClassResourceInfo;
+import org.apache.cxf.jaxrs.model.OperationResourceInfo;
+import org.apache.cxf.jaxrs.model.URITemplate;
+import org.apache.cxf.jaxrs.model.URITemplateIndex;
+
+/**
+ * Remembers which resource method has been selected for a combination of HTTP method,
+ * request path, Content-Type and Accept, and the media type negotiated for the response.
+ * The template values are not cached, they are matched again against the templates of
+ * the selected method.
+ * <p>
+ * Path segments which are not a literal segment of any root resource or resource method
+ * template are replaced with a placeholder, so "/orders/1" and "/orders/2" share an entry.
+ * This is only done if all the templates consist of literal segments and variables without
+ * regular expressions, as only then paths of the same shape select the same method,
+ * otherwise the raw path is used.
+ * <p>
+ * The entries are spread over a number of segments, each of them evicting its least
+ * recently used entries, so that requests only contend for the lock of one segment.  All
+ * the entries are dropped when the root resources of the endpoint change.
+ * <p>
+ * The cache is enabled by setting the {@link #MAX_SIZE} endpoint property, it is not used
+ * for endpoints with a custom {@link org.apache.cxf.jaxrs.ext.ResourceComparator} as
+ * those may select methods depending on other parts of the request.
+ */
+public class ResourceMatchCache {
+    public static final String MAX_SIZE = "org.apache.cxf.jaxrs.match.cache.size";
+
+    private static final int MAX_SEGMENTS = 16;
+    private static final int MIN_SEGMENT_SIZE = 16;
+    private static final String PLACEHOLDER = "{}";
+
+    private final int maxSize;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private volatile State state;
+
+    public ResourceMatchCache(final int maxSize) {
+        this.maxSize = maxSize;
+        this.state = new State(null);
+    }
+
+    /**
+     * Returns the selection for the request or null if it has not been cached.
+     *
+     * @param resources the index of the root resources of the endpoint, the cache is
+     *        cleared if they are not the ones the entries have been selected from
+     */
+    public Match get(URITemplateIndex<ClassResourceInfo> resources, String httpMethod, String path,
+                     String contentType, String acceptTypes) {
+        State s = state;
+        if (s.resources != resources) {
+            s = reset(resources);
+        }
+        Key key = new Key(httpMethod, s.shape(path), contentType, acceptTypes);
+        Segment segment = s.segmentFor(key);
+        Match match;
+        synchronized (segment) {
+            match = segment.get(key);
+        }
+        if (match != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+        }
+        return match;
+    }
+
+    public void put(URITemplateIndex<ClassResourceInfo> resources, String httpMethod, String path,
+                    String contentType, String acceptTypes, Match match) {
+        State s = state;
+        if (s.resources == resources) {
+            Key key = new Key(httpMethod, s.shape(path), contentType, acceptTypes);
+            Segment segment = s.segmentFor(key);
+            synchronized (segment) {
+                segment.put(key, match);
+            }
+        }
+    }
+
+    private synchronized State reset(URITemplateIndex<ClassResourceInfo> resources) {
+        State s = state;
+        if (s.resources != resources) {
+            s = new State(resources);
+            state = s;
+        }
+        return s;
+    }
+
+    public void clear() {
+        for (Segment segment : state.segments) {
+            synchronized (segment) {
+                segment.clear();
+            }
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment segment : state.segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public static final class Match {
+        private final OperationResourceInfo operation;
+        private final String responseContentType;
+
+        public Match(OperationResourceInfo operation, String responseContentType) {
+            this.operation = operation;
+            this.responseContentType = responseContentType;
+        }
+
+        public OperationResourceInfo getOperation() {
+            return operation;
+        }
+
+        public String getResponseContentType() {
+            return responseContentType;
+        }
+    }
+
+    /**
+     * The entries selected from one set of root resources, and the literal segments of
+     * their templates.
+     */
+    private final class State {
+        private final URITemplateIndex<ClassResourceInfo> resources;
+        private final Segment[] segments;
+        private final Set<String> literals = new HashSet<>();
+        private boolean normalize = true;
+
+        State(URITemplateIndex<ClassResourceInfo> resources) {
+            this.resources = resources;
+            int count = Integer.highestOneBit(Math.max(1, Math.min(MAX_SEGMENTS, maxSize / MIN_SEGMENT_SIZE)));
+            int capacity = (maxSize + count - 1) / count;
+            segments = new Segment[count];
+            for (int i = 0; i < count; i++) {
+                segments[i] = new Segment(capacity);
+            }
+            if (resources != null) {
+                for (ClassResourceInfo cri : resources.getItems()) {
+                    addTemplate(cri.getURITemplate());
+                    for (OperationResourceInfo ori : cri.getMethodDispatcher().getOperationResourceInfos()) {
+                        addTemplate(ori.getURITemplate());
+                    }
+                }
+            }
+        }
+
+        private void addTemplate(URITemplate template) {
+            if (template == null) {
+                return;
+            }
+            if (!template.getCustomVariables().isEmpty()) {
+                normalize = false;
+                return;
+            }
+            for (String segment : template.getValue().split("/")) {
+                if (segment.isEmpty()) {
+                    continue;
+                }
+                if (URITemplateIndex.isLiteral(segment)) {
+                    literals.add(segment);
+                } else if (!isVariable(segment)) {
+                    normalize = false;
+                }
+            }
+        }
+
+        private boolean isVariable(String segment) {
+            return segment.charAt(0) == '{' && segment.indexOf('{', 1) == -1
+                && segment.indexOf('}') == segment.length() - 1;
+        }
+
+        /**
+         * Replaces the segments of the path which are not literal segments of any template.
+         */
+        String shape(String path) {
+            if (!normalize || path == null || path.indexOf(';') != -1) {
+                return path;
+            }
+            StringBuilder sb = null;
+            int start = 0;
+            while (start <= path.length()) {
+                int end = path.indexOf('/', start);
+                if (end == -1) {
+                    end = path.length();
+                }
+                if (end > start && !literals.contains(path.substring(start, end))) {
+                    if (sb == null) {
+                        sb = new StringBuilder(path.length()).append(path, 0, start);
+                    }
+                    sb.append(PLACEHOLDER);
+                } else if (sb != null) {
+                    sb.append(path, start, end);
+                }
+                if (sb != null && end < path.length()) {
+                    sb.append('/');
+                }
+                start = end + 1;
+            }
+            return sb == null ? path : sb.toString();
+        }
+
+        Segment segmentFor(Key key) {
+            int h = key.hashCode();
+            return segments[(h ^ (h >>> 16)) & (segments.length - 1)];
+        }
+    }
+
+    private static final class Segment extends LinkedHashMap<Key, Match> {
+        private static final long serialVersionUID = 1L;
+        private final int capacity;
+
+        Segment(int capacity) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, Match> eldest) {
+            return size() > capacity;
+        }
+    }
+
+    private static final class Key {
+        private final String httpMethod;
+        private final String path;
+        private final String contentType;
+        private final String acceptTypes;
+        private final int hashCode;
+
+        Key(String httpMethod, String path, String contentType, String acceptTypes) {
+            this.httpMethod = httpMethod;
+            this.path = path;
+            this.contentType = contentType;
+            this.acceptTypes = acceptTypes;
+            this.hashCode = Objects.hash(httpMethod, path, contentType, acceptTypes);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key)o;
+            return Objects.equals(httpMethod, other.httpMethod) && Objects.equals(path, other.path)
+                && Objects.equals(contentType, other.contentType)
+                && Objects.equals(acceptTypes, other.acceptTypes);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.jaxrs;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+import org.apache.cxf.Bus;
+import org.apache.cxf.management.ManagedComponent;
+import org.apache.cxf.management.ManagementConstants;
+import org.apache.cxf.management.annotation.ManagedAttribute;
+import org.apache.cxf.management.annotation.ManagedOperation;
+import org.apache.cxf.management.annotation.ManagedResource;
+import org.apache.cxf.service.model.EndpointInfo;
+
+@ManagedResource(componentName = "ResourceMatchCache",
+                 description = "The resource methods selected for recent requests",
+                 currencyTimeLimit = 15, persistPolicy = "OnUpdate", persistPeriod = 200)
+
+public class ResourceMatchCacheMBeanWrapper implements ManagedComponent {
+    private static final String TYPE_VALUE = "Bus.Service.Endpoint.ResourceMatchCache";
+
+    private final ResourceMatchCache cache;
+    private final Bus bus;
+    private final EndpointInfo endpointInfo;
+
+    public ResourceMatchCacheMBeanWrapper(ResourceMatchCache cache, Bus bus, EndpointInfo endpointInfo) {
+        this.cache = cache;
+        this.bus = bus;
+        this.endpointInfo = endpointInfo;
+    }
+
+    @ManagedAttribute(description = "The number of requests for which the selection was cached")
+    public long getHits() {
+        return cache.getHits();
+    }
+
+    @ManagedAttribute(description = "The number of requests for which the selection was not cached")
+    public long getMisses() {
+        return cache.getMisses();
+    }
+
+    @ManagedAttribute(description = "The number of cached selections")
+    public int getSize() {
+        return cache.size();
+    }
+
+    @ManagedAttribute(description = "The maximum number of cached selections")
+    public int getMaxSize() {
+        return cache.getMaxSize();
+    }
+
+    @ManagedOperation(description = "Drops the cached selections")
+    public void clear() {
+        cache.clear();
+    }
+
+    public ObjectName getObjectName() throws JMException {
+        StringBuilder buffer = new StringBuilder();
+        buffer.append(ManagementConstants.DEFAULT_DOMAIN_NAME).append(':');
+        buffer.append(ManagementConstants.BUS_ID_PROP).append('=').append(bus.getId()).append(',');
+        buffer.append(ManagementConstants.TYPE_PROP).append('=').append(TYPE_VALUE).append(',');
+        String serviceName = ObjectName.quote(endpointInfo.getService().getName().toString());
+        buffer.append(ManagementConstants.SERVICE_NAME_PROP).append('=').append(serviceName).append(',');
+        String portName = ObjectName.quote(endpointInfo.getName().getLocalPart());
+        buffer.append(ManagementConstants.PORT_NAME_PROP).append('=').append(portName).append(',');
+        buffer.append(ManagementConstants.INSTANCE_ID_PROP).append('=').append(cache.hashCode());
+        return new ObjectName(buffer.toString());
+    }
+}
@@ -40,6 +40,8 @@ import org.apache.cxf.endpoint.Endpoint;
 import org.apache.cxf.helpers.CastUtils;
 import org.apache.cxf.interceptor.Fault;
 import org.apache.cxf.interceptor.OutgoingChainInterceptor;
+import org.apache.cxf.jaxrs.JAXRSServiceImpl;
+import org.apache.cxf.jaxrs.ResourceMatchCache;
 import org.apache.cxf.jaxrs.impl.MetadataMap;
 import org.apache.cxf.jaxrs.impl.RequestPreprocessor;
 import org.apache.cxf.jaxrs.impl.UriInfoImpl;
@@ -48,6 +50,7 @@ import org.apache.cxf.jaxrs.lifecycle.SingletonResourceProvider;
 import org.apache.cxf.jaxrs.model.ClassResourceInfo;
 import org.apache.cxf.jaxrs.model.OperationResourceInfo;
 import org.apache.cxf.jaxrs.model.URITemplate;
+import org.apache.cxf.jaxrs.model.URITemplateIndex;
 import org.apache.cxf.jaxrs.provider.ServerProviderFactory;
 import org.apache.cxf.jaxrs.utils.ExceptionUtils;
 import org.apache.cxf.jaxrs.utils.HttpUtils;
@@ -158,39 +161,64 @@ public class JAXRSInInterceptor extends AbstractPhaseInterceptor<Message> {
 
         //1. Matching target resource class
         List<ClassResourceInfo> resources = JAXRSUtils.getRootResources(message);
-        Map<ClassResourceInfo, MultivaluedMap<String, String>> matchedResources =
-            JAXRSUtils.selectResourceClass(resources, rawPath, message);
-        if (matchedResources == null) {
-            org.apache.cxf.common.i18n.Message errorMsg =
-                new org.apache.cxf.common.i18n.Message("NO_ROOT_EXC",
-                                                   BUNDLE,
-                                                   message.get(Message.REQUEST_URI),
-                                                   rawPath);
-            Level logLevel = JAXRSUtils.getExceptionLogLevel(message, NotFoundException.class);
-            LOG.log(logLevel == null ? Level.FINE : logLevel, errorMsg.toString());
-            Response resp = JAXRSUtils.createResponse(resources, message, errorMsg.toString(),
-                    Response.Status.NOT_FOUND.getStatusCode(), false);
-            throw ExceptionUtils.toNotFoundException(null, resp);
+        ResourceMatchCache matchCache = getMatchCache(exchange);
+        URITemplateIndex<ClassResourceInfo> resourceIndex = matchCache != null
+            ? ((JAXRSServiceImpl)exchange.getService()).getClassResourceIndex() : null;
+        MultivaluedMap<String, String> matchedValues = null;
+        OperationResourceInfo ori = null;
+        if (matchCache != null) {
+            ResourceMatchCache.Match match =
+                matchCache.get(resourceIndex, httpMethod, rawPath, requestContentType, acceptTypes);
+            if (match != null) {
+                matchedValues = JAXRSUtils.matchSelectedMethod(match.getOperation(), rawPath);
+            }
+            if (matchedValues != null) {
+                ori = match.getOperation();
+                JAXRSUtils.pushOntoStack(ori, matchedValues, message);
+                if (match.getResponseContentType() != null) {
+                    exchange.put(Message.CONTENT_TYPE, match.getResponseContentType());
+                }
+                setExchangeProperties(message, exchange, ori, matchedValues, resources.size());
+            }
         }
 
-        MultivaluedMap<String, String> matchedValues = new MetadataMap<String, String>();
-
-        OperationResourceInfo ori = null;
+        if (ori == null) {
+            Map<ClassResourceInfo, MultivaluedMap<String, String>> matchedResources =
+                JAXRSUtils.selectResourceClass(resources, rawPath, message);
+            if (matchedResources == null) {
+                org.apache.cxf.common.i18n.Message errorMsg =
+                    new org.apache.cxf.common.i18n.Message("NO_ROOT_EXC",
+                                                       BUNDLE,
+                                                       message.get(Message.REQUEST_URI),
+                                                       rawPath);
+                Level logLevel = JAXRSUtils.getExceptionLogLevel(message, NotFoundException.class);
+                LOG.log(logLevel == null ? Level.FINE : logLevel, errorMsg.toString());
+                Response resp = JAXRSUtils.createResponse(resources, message, errorMsg.toString(),
+                        Response.Status.NOT_FOUND.getStatusCode(), false);
+                throw ExceptionUtils.toNotFoundException(null, resp);
+            }
 
-        try {
-            ori = JAXRSUtils.findTargetMethod(matchedResources, message,
-                      httpMethod, matchedValues, requestContentType, acceptContentTypes, true, true);
-            setExchangeProperties(message, exchange, ori, matchedValues, resources.size());
-        } catch (WebApplicationException ex) {
-            if (JAXRSUtils.noResourceMethodForOptions(ex.getResponse(), httpMethod)) {
-                Response response = JAXRSUtils.createResponse(resources, null, null, 200, true);
-                exchange.put(Response.class, response);
-                return;
+            matchedValues = new MetadataMap<String, String>();
+            try {
+                ori = JAXRSUtils.findTargetMethod(matchedResources, message,
+                          httpMethod, matchedValues, requestContentType, acceptContentTypes, true, true);
+                setExchangeProperties(message, exchange, ori, matchedValues, resources.size());
+                if (matchCache != null) {
+                    String responseType = ori.isSubResourceLocator()
+                        ? null : (String)exchange.get(Message.CONTENT_TYPE);
+                    matchCache.put(resourceIndex, httpMethod, rawPath, requestContentType, acceptTypes,
+                                   new ResourceMatchCache.Match(ori, responseType));
+                }
+            } catch (WebApplicationException ex) {
+                if (JAXRSUtils.noResourceMethodForOptions(ex.getResponse(), httpMethod)) {
+                    Response response = JAXRSUtils.createResponse(resources, null, null, 200, true);
+                    exchange.put(Response.class, response);
+                    return;
+                }
+                throw ex;
             }
-            throw ex;
         }
 
-
         if (LOG.isLoggable(Level.FINE)) {
             LOG.fine("Request path is: " + rawPath);
             LOG.fine("Request HTTP method is: " + httpMethod);
@@ -215,6 +243,15 @@ public class JAXRSInInterceptor extends AbstractPhaseInterceptor<Message> {
         message.setContent(List.class, params);
     }
 
+    private static ResourceMatchCache getMatchCache(Exchange exchange) {
+        Endpoint ep = exchange.getEndpoint();
+        if (ep == null || !(exchange.getService() instanceof JAXRSServiceImpl)
+            || ep.get("org.apache.cxf.jaxrs.comparator") != null) {
+            return null;
+        }
+        return (ResourceMatchCache)ep.get(ResourceMatchCache.class.getName());
+    }
+
     private void convertExceptionToResponseIfPossible(Throwable ex, Message message) {
         Response excResponse = JAXRSUtils.convertFaultToResponse(ex, message);
         if (excResponse == null) {
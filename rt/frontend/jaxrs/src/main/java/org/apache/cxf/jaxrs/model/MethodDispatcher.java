@@ -20,6 +20,7 @@ package org.apache.cxf.jaxrs.model;
 
 import java.lang.reflect.Method;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
@@ -31,6 +32,7 @@ public class MethodDispatcher {
     private Map<Method, OperationResourceInfo> methodToOri =
         new LinkedHashMap<Method, OperationResourceInfo>();
     private ConcurrentHashMap<Method, Method> proxyMethodMap = new ConcurrentHashMap<Method, Method>();
+    private volatile URITemplateIndex<OperationResourceInfo> pathIndex;
 
     public MethodDispatcher() {
 
@@ -52,6 +54,7 @@ public class MethodDispatcher {
         }
 
         oriToMethod.put(o, primary);
+        pathIndex = null;
     }
 
     public OperationResourceInfo getOperationResourceInfo(Method method) {
@@ -62,6 +65,19 @@ public class MethodDispatcher {
         return oriToMethod.keySet();
     }
 
+    /**
+     * Returns the operations whose templates may match the path, in the order
+     * of {@link #getOperationResourceInfos()}.
+     */
+    public List<OperationResourceInfo> getOperationResourceInfos(String path) {
+        URITemplateIndex<OperationResourceInfo> index = pathIndex;
+        if (index == null) {
+            index = new URITemplateIndex<>(oriToMethod.keySet(), OperationResourceInfo::getURITemplate);
+            pathIndex = index;
+        }
+        return index.select(path);
+    }
+
     public Method getMethod(OperationResourceInfo op) {
         return oriToMethod.get(op);
     }
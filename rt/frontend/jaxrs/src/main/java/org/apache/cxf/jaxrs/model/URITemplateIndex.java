@@ -0,0 +1,147 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.jaxrs.model;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Trie of the leading literal path segments of URI templates, e.g. "/api/books/{id}"
+ * is filed under "api" and "books".  Given a request path it returns the items whose
+ * templates may match it, the regular expression of the template still decides if
+ * they really do.  Items are returned in their original order so that sorting the
+ * matches gives the same result as matching all the items.
+ * <p>
+ * A template is only filed under a segment which consists of characters which match
+ * themselves in the template expression and are not changed when the template is
+ * encoded, segments with variables or other characters end the walk.  Paths with
+ * matrix parameters get all the items, as the templates are then also matched against
+ * the path without the parameters.
+ */
+public final class URITemplateIndex<T> {
+    private static final String SAFE_CHARS = "-._~";
+
+    private final List<T> items;
+    private final Node root = new Node();
+
+    public URITemplateIndex(Collection<T> items, Function<T, URITemplate> templates) {
+        this.items = Collections.unmodifiableList(new ArrayList<>(items));
+        for (int i = 0; i < this.items.size(); i++) {
+            URITemplate template = templates.apply(this.items.get(i));
+            if (template == null) {
+                // can not match anything
+                continue;
+            }
+            Node node = root;
+            String value = template.getValue();
+            if (value.startsWith("/")) {
+                for (String segment : value.substring(1).split("/")) {
+                    if (!isLiteral(segment)) {
+                        break;
+                    }
+                    node = node.children.computeIfAbsent(segment, s -> new Node());
+                }
+            }
+            node.items.set(i);
+        }
+    }
+
+    public int size() {
+        return items.size();
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    /**
+     * Returns true if the index has been built from the same items, in the same order.
+     */
+    public boolean isIndexOf(List<T> list) {
+        if (list.size() != items.size()) {
+            return false;
+        }
+        for (int i = 0; i < items.size(); i++) {
+            if (list.get(i) != items.get(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the items which may match the path, in their original order.
+     */
+    public List<T> select(String path) {
+        if (path == null || path.indexOf(';') != -1) {
+            return items;
+        }
+        BitSet selected = (BitSet)root.items.clone();
+        if (path.startsWith("/")) {
+            Node node = root;
+            int start = 1;
+            while (start <= path.length()) {
+                int end = path.indexOf('/', start);
+                if (end == -1) {
+                    end = path.length();
+                }
+                node = node.children.get(path.substring(start, end));
+                if (node == null) {
+                    break;
+                }
+                selected.or(node.items);
+                start = end + 1;
+            }
+        }
+        List<T> result = new ArrayList<>(selected.cardinality());
+        for (int i = selected.nextSetBit(0); i >= 0; i = selected.nextSetBit(i + 1)) {
+            result.add(items.get(i));
+        }
+        return result;
+    }
+
+    /**
+     * Returns true if the template segment only consists of characters which match
+     * themselves and are not changed when the template is encoded.
+     */
+    public static boolean isLiteral(String segment) {
+        if (segment.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < segment.length(); i++) {
+            char ch = segment.charAt(i);
+            if (!(ch >= 'a' && ch <= 'z' || ch >= 'A' && ch <= 'Z' || ch >= '0' && ch <= '9'
+                || SAFE_CHARS.indexOf(ch) != -1)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static final class Node {
+        private final Map<String, Node> children = new HashMap<>();
+        private final BitSet items = new BitSet();
+    }
+}
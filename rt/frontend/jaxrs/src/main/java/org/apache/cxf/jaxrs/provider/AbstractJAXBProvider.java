@@ -28,12 +28,12 @@ import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.ws.rs.WebApplicationException;
 import javax.ws.rs.core.MediaType;
@@ -107,8 +107,8 @@ public abstract class AbstractJAXBProvider<T> extends AbstractConfigurableProvid
     protected List<String> inDropElements;
     protected Map<String, String> inElementsMap;
     protected Map<String, String> inAppendMap;
-    protected Map<String, JAXBContext> packageContexts = new HashMap<>();
-    protected Map<Class<?>, JAXBContext> classContexts = new HashMap<>();
+    protected Map<String, JAXBContext> packageContexts = new ConcurrentHashMap<>();
+    protected Map<Class<?>, JAXBContext> classContexts = new ConcurrentHashMap<>();
     private boolean attributesToElements;
 
     private MessageContext mc;
@@ -138,6 +138,9 @@ public abstract class AbstractJAXBProvider<T> extends AbstractConfigurableProvid
     private Marshaller.Listener marshallerListener;
     private DocumentDepthProperties depthProperties;
     private String namespaceMapperPropertyName;
+    private int jaxbPoolSize;
+    private final Map<JAXBContext, MarshallerPool> marshallerPools = new ConcurrentHashMap<>();
+    private JAXBContext collectionContext;
 
     public void setXmlRootAsJaxbElement(boolean xmlRootAsJaxbElement) {
         this.xmlRootAsJaxbElement = xmlRootAsJaxbElement;
@@ -146,7 +149,8 @@ public abstract class AbstractJAXBProvider<T> extends AbstractConfigurableProvid
 
     protected void setNamespaceMapper(Marshaller ms,
                                       Map<String, String> map) throws Exception {
-        Object nsMapper = JAXBUtils.setNamespaceMapper(map, ms);
+        Object nsMapper = JAXBUtils.setNamespaceMapper(map,
+            ms instanceof PooledMarshaller ? ((PooledMarshaller)ms).unwrap() : ms);
         if (nsMapper != null && namespaceMapperPropertyName != null) {
             setMarshallerProp(ms, nsMapper, namespaceMapperPropertyName, null);
         }
@@ -182,6 +186,15 @@ public abstract class AbstractJAXBProvider<T> extends AbstractConfigurableProvid
         extraClass = userExtraClass;
     }
 
+    /**
+     * Sets how many idle marshallers and unmarshallers are kept for every JAXBContext
+     * created by this provider, they are not kept by default.  The contexts returned
+     * by a JAXBContext ContextResolver are not affected.
+     */
+    public void setJaxbPoolSize(int size) {
+        jaxbPoolSize = size;
+    }
+
     @Override
     public void init(List<ClassResourceInfo> cris) {
         if (singleJaxbContext) {
@@ -204,6 +217,7 @@ public abstract class AbstractJAXBProvider<T> extends AbstractConfigurableProvid
                         classContexts.put(cls, context);
                     }
                 }
+                addMarshallerPool(context);
             }
         }
         if (cris != null) {
@@ -350,9 +364,16 @@ public abstract class AbstractJAXBProvider<T> extends AbstractConfigurableProvid
             if (!collectionContextClasses.contains(type)) {
                 collectionContextClasses.add(CollectionWrapper.class);
                 collectionContextClasses.add(type);
+            } else if (collectionContext != null) {
+                return collectionContext;
             }
-            return JAXBContext.newInstance(
+            if (collectionContext != null) {
+                marshallerPools.remove(collectionContext);
+            }
+            collectionContext = JAXBContext.newInstance(
                 collectionContextClasses.toArray(new Class[collectionContextClasses.size()]), cProperties);
+            addMarshallerPool(collectionContext);
+            return collectionContext;
         }
     }
 
@@ -486,14 +507,12 @@ public abstract class AbstractJAXBProvider<T> extends AbstractConfigurableProvid
             }
         }
 
-        synchronized (classContexts) {
-            JAXBContext context = classContexts.get(type);
-            if (context != null) {
-                return context;
-            }
+        JAXBContext context = classContexts.get(type);
+        if (context != null) {
+            return context;
         }
 
-        JAXBContext context = getPackageContext(type, genericType);
+        context = getPackageContext(type, genericType);
 
         return context != null ? context : getClassContext(type, genericType);
     }
@@ -501,8 +520,12 @@ public abstract class AbstractJAXBProvider<T> extends AbstractConfigurableProvid
         return getClassContext(type, type);
     }
     protected JAXBContext getClassContext(Class<?> type, Type genericType) throws JAXBException {
+        JAXBContext context = classContexts.get(type);
+        if (context != null) {
+            return context;
+        }
         synchronized (classContexts) {
-            JAXBContext context = classContexts.get(type);
+            context = classContexts.get(type);
             if (context == null) {
                 Class<?>[] classes = null;
                 if (extraClass != null) {
@@ -514,6 +537,7 @@ public abstract class AbstractJAXBProvider<T> extends AbstractConfigurableProvid
                 }
 
                 context = JAXBContext.newInstance(classes, cProperties);
+                addMarshallerPool(context);
                 classContexts.put(type, context);
             }
             return context;
@@ -526,9 +550,13 @@ public abstract class AbstractJAXBProvider<T> extends AbstractConfigurableProvid
         if (type == null || type == JAXBElement.class) {
             return null;
         }
+        String packageName = PackageUtils.getPackageName(type);
+        JAXBContext context = packageContexts.get(packageName);
+        if (context != null) {
+            return context;
+        }
         synchronized (packageContexts) {
-            String packageName = PackageUtils.getPackageName(type);
-            JAXBContext context = packageContexts.get(packageName);
+            context = packageContexts.get(packageName);
             if (context == null) {
                 try {
                     if (type.getClassLoader() != null && objectFactoryOrIndexAvailable(type)) {
@@ -546,6 +574,7 @@ public abstract class AbstractJAXBProvider<T> extends AbstractConfigurableProvid
                         }
 
                         context = JAXBContext.newInstance(contextName, type.getClassLoader(), cProperties);
+                        addMarshallerPool(context);
                         packageContexts.put(packageName, context);
                     }
                 } catch (JAXBException ex) {
@@ -592,24 +621,13 @@ public abstract class AbstractJAXBProvider<T> extends AbstractConfigurableProvid
         throws JAXBException {
         JAXBContext context = isCollection ? getCollectionContext(cls)
                                            : getJAXBContext(cls, genericType);
-        Unmarshaller unmarshaller = context.createUnmarshaller();
+        Unmarshaller unmarshaller = getUnmarshaller(context);
         if (validateInputIfPossible) {
             Schema theSchema = getSchema(cls);
             if (theSchema != null) {
                 unmarshaller.setSchema(theSchema);
             }
         }
-        if (eventHandler != null) {
-            unmarshaller.setEventHandler(eventHandler);
-        }
-        if (unmarshallerListener != null) {
-            unmarshaller.setListener(unmarshallerListener);
-        }
-        if (uProperties != null) {
-            for (Map.Entry<String, Object> entry : uProperties.entrySet()) {
-                unmarshaller.setProperty(entry.getKey(), entry.getValue());
-            }
-        }
         return unmarshaller;
     }
 
@@ -620,16 +638,77 @@ public abstract class AbstractJAXBProvider<T> extends AbstractConfigurableProvid
                             ? ((JAXBElement<?>)obj).getDeclaredType() : cls;
 
         JAXBContext context = getJAXBContext(objClazz, genericType);
-        Marshaller marshaller = context.createMarshaller();
+        Marshaller marshaller = getMarshaller(context);
         if (enc != null) {
             marshaller.setProperty(Marshaller.JAXB_ENCODING, enc);
         }
+        validateObjectIfNeeded(marshaller, cls, obj);
+        return marshaller;
+    }
+
+    private void addMarshallerPool(JAXBContext context) {
+        if (jaxbPoolSize > 0 && !marshallerPools.containsKey(context)) {
+            marshallerPools.put(context, new MarshallerPool(jaxbPoolSize));
+        }
+    }
+
+    // the settings shared by all the requests are applied before a marshaller is pooled,
+    // the pooled marshallers only need to undo what has been changed for a single request
+    private Marshaller getMarshaller(JAXBContext context) throws JAXBException {
+        MarshallerPool pool = marshallerPools.get(context);
+        Marshaller marshaller = pool != null ? pool.pollMarshaller() : null;
+        if (marshaller != null) {
+            return marshaller;
+        }
+        marshaller = context.createMarshaller();
         if (marshallerListener != null) {
             marshaller.setListener(marshallerListener);
         }
         JAXBUtils.setMinimumEscapeHandler(marshaller);
-        validateObjectIfNeeded(marshaller, cls, obj);
-        return marshaller;
+        return pool != null ? pool.wrap(marshaller) : marshaller;
+    }
+
+    private Unmarshaller getUnmarshaller(JAXBContext context) throws JAXBException {
+        MarshallerPool pool = marshallerPools.get(context);
+        Unmarshaller unmarshaller = pool != null ? pool.pollUnmarshaller() : null;
+        if (unmarshaller != null) {
+            return unmarshaller;
+        }
+        unmarshaller = context.createUnmarshaller();
+        if (eventHandler != null) {
+            unmarshaller.setEventHandler(eventHandler);
+        }
+        if (unmarshallerListener != null) {
+            unmarshaller.setListener(unmarshallerListener);
+        }
+        if (uProperties != null) {
+            for (Map.Entry<String, Object> entry : uProperties.entrySet()) {
+                unmarshaller.setProperty(entry.getKey(), entry.getValue());
+            }
+        }
+        return pool != null ? pool.wrap(unmarshaller) : unmarshaller;
+    }
+
+    /**
+     * Makes a marshaller returned by {@link #createMarshaller} available to the next
+     * requests if the marshallers are pooled, it must not be used afterwards.
+     */
+    protected void releaseMarshaller(Marshaller marshaller) {
+        if (marshaller instanceof PooledMarshaller) {
+            ((PooledMarshaller)marshaller).release();
+        }
+    }
+
+    /**
+     * Closes an unmarshaller returned by {@link #createUnmarshaller} and makes it available
+     * to the next requests if the unmarshallers are pooled, it must not be used afterwards.
+     */
+    protected void releaseUnmarshaller(Unmarshaller unmarshaller) {
+        if (unmarshaller instanceof PooledUnmarshaller) {
+            ((PooledUnmarshaller)unmarshaller).release();
+        } else {
+            JAXBUtils.closeUnmarshaller(unmarshaller);
+        }
     }
 
     protected void validateObjectIfNeeded(Marshaller marshaller, Class<?> cls, Object obj)
@@ -686,6 +765,10 @@ public abstract class AbstractJAXBProvider<T> extends AbstractConfigurableProvid
     public void clearContexts() {
         classContexts.clear();
         packageContexts.clear();
+        marshallerPools.clear();
+        synchronized (collectionContextClasses) {
+            collectionContext = null;
+        }
     }
 
     //TODO: move these methods into the dedicated utility class
@@ -218,7 +218,7 @@ public class JAXBElementProvider<T> extends AbstractJAXBProvider<T>  {
             } catch (XMLStreamException e) {
                 // Ignore
             }
-            JAXBUtils.closeUnmarshaller(unmarshaller);
+            releaseUnmarshaller(unmarshaller);
         }
         // unreachable
         return null;
@@ -410,17 +410,21 @@ public class JAXBElementProvider<T> extends AbstractJAXBProvider<T>  {
         }
 
         Marshaller ms = createMarshaller(obj, cls, genericType, enc);
-        ms.setProperty(Marshaller.JAXB_FRAGMENT, Boolean.TRUE);
-        if (ns.length() > 0) {
-            Map<String, String> map = new HashMap<>();
-            // set the default just in case
-            if (!nsPrefixes.containsKey(ns)) {
-                map.put(ns, "ns1");
+        try {
+            ms.setProperty(Marshaller.JAXB_FRAGMENT, Boolean.TRUE);
+            if (ns.length() > 0) {
+                Map<String, String> map = new HashMap<>();
+                // set the default just in case
+                if (!nsPrefixes.containsKey(ns)) {
+                    map.put(ns, "ns1");
+                }
+                map.putAll(nsPrefixes);
+                setNamespaceMapper(ms, map);
             }
-            map.putAll(nsPrefixes);
-            setNamespaceMapper(ms, map);
+            marshal(obj, cls, genericType, enc, os, anns, mt, ms);
+        } finally {
+            releaseMarshaller(ms);
         }
-        marshal(obj, cls, genericType, enc, os, anns, mt, ms);
     }
 
     protected void marshal(Object obj, Class<?> cls, Type genericType,
@@ -437,12 +441,16 @@ public class JAXBElementProvider<T> extends AbstractJAXBProvider<T>  {
         }
 
         Marshaller ms = createMarshaller(obj, cls, genericType, enc);
-        if (!nsPrefixes.isEmpty()) {
-            setNamespaceMapper(ms, nsPrefixes);
+        try {
+            if (!nsPrefixes.isEmpty()) {
+                setNamespaceMapper(ms, nsPrefixes);
+            }
+            addAttachmentMarshaller(ms);
+            processXmlAnnotations(ms, mt, anns);
+            marshal(obj, cls, genericType, enc, os, anns, mt, ms);
+        } finally {
+            releaseMarshaller(ms);
         }
-        addAttachmentMarshaller(ms);
-        processXmlAnnotations(ms, mt, anns);
-        marshal(obj, cls, genericType, enc, os, anns, mt, ms);
     }
 
     private void processXmlAnnotations(Marshaller ms, MediaType mt, Annotation[] anns) throws Exception {
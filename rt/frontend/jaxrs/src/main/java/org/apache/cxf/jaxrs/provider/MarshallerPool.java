@@ -0,0 +1,69 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.jaxrs.provider;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+import javax.xml.bind.Marshaller;
+import javax.xml.bind.Unmarshaller;
+
+/**
+ * Idle marshallers and unmarshallers of a JAXBContext.  They are handed out wrapped,
+ * the wrappers record the changes made to them and undo them when they are released.
+ */
+final class MarshallerPool {
+    private final BlockingQueue<PooledMarshaller> marshallers;
+    private final BlockingQueue<PooledUnmarshaller> unmarshallers;
+
+    MarshallerPool(int size) {
+        marshallers = new ArrayBlockingQueue<>(size);
+        unmarshallers = new ArrayBlockingQueue<>(size);
+    }
+
+    /**
+     * Returns an idle marshaller or null if there is none.
+     */
+    Marshaller pollMarshaller() {
+        return marshallers.poll();
+    }
+
+    Marshaller wrap(Marshaller marshaller) {
+        return new PooledMarshaller(marshaller, this);
+    }
+
+    /**
+     * Returns an idle unmarshaller or null if there is none.
+     */
+    Unmarshaller pollUnmarshaller() {
+        return unmarshallers.poll();
+    }
+
+    Unmarshaller wrap(Unmarshaller unmarshaller) {
+        return new PooledUnmarshaller(unmarshaller, this);
+    }
+
+    void offer(PooledMarshaller marshaller) {
+        marshallers.offer(marshaller);
+    }
+
+    void offer(PooledUnmarshaller unmarshaller) {
+        unmarshallers.offer(unmarshaller);
+    }
+}
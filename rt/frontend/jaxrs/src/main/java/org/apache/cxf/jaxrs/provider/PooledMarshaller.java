@@ -0,0 +1,199 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.jaxrs.provider;
+
+import java.io.File;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.Marshaller;
+import javax.xml.bind.PropertyException;
+import javax.xml.bind.ValidationEventHandler;
+import javax.xml.bind.annotation.adapters.XmlAdapter;
+import javax.xml.bind.attachment.AttachmentMarshaller;
+import javax.xml.stream.XMLEventWriter;
+import javax.xml.stream.XMLStreamWriter;
+import javax.xml.transform.Result;
+import javax.xml.validation.Schema;
+
+import org.w3c.dom.Node;
+
+import org.xml.sax.ContentHandler;
+
+/**
+ * Marshaller which is returned to a {@link MarshallerPool} when released.  The
+ * properties, handlers and the schema set while it was in use are restored to
+ * the values it had when it was created, if that is not possible it is dropped.
+ */
+final class PooledMarshaller implements Marshaller {
+    private final Marshaller delegate;
+    private final MarshallerPool pool;
+    private final Map<String, Object> properties = new HashMap<>();
+    private final ValidationEventHandler eventHandler;
+    private final Schema schema;
+    private final Listener listener;
+    private final AttachmentMarshaller attachmentMarshaller;
+    private boolean reusable = true;
+
+    PooledMarshaller(Marshaller delegate, MarshallerPool pool) {
+        this.delegate = delegate;
+        this.pool = pool;
+        ValidationEventHandler handler = null;
+        try {
+            handler = delegate.getEventHandler();
+        } catch (JAXBException e) {
+            reusable = false;
+        }
+        this.eventHandler = handler;
+        this.schema = delegate.getSchema();
+        this.listener = delegate.getListener();
+        this.attachmentMarshaller = delegate.getAttachmentMarshaller();
+    }
+
+    /**
+     * Returns the actual marshaller to the code which depends on its implementation,
+     * the changes made to it can not be tracked and it will not be pooled again.
+     */
+    Marshaller unwrap() {
+        reusable = false;
+        return delegate;
+    }
+
+    void release() {
+        if (!reusable) {
+            return;
+        }
+        try {
+            for (Map.Entry<String, Object> entry : properties.entrySet()) {
+                delegate.setProperty(entry.getKey(), entry.getValue());
+            }
+            delegate.setEventHandler(eventHandler);
+        } catch (JAXBException e) {
+            return;
+        }
+        properties.clear();
+        delegate.setSchema(schema);
+        delegate.setListener(listener);
+        delegate.setAttachmentMarshaller(attachmentMarshaller);
+        pool.offer(this);
+    }
+
+    public void setProperty(String name, Object value) throws PropertyException {
+        if (reusable && !properties.containsKey(name)) {
+            try {
+                properties.put(name, delegate.getProperty(name));
+            } catch (PropertyException e) {
+                reusable = false;
+            }
+        }
+        delegate.setProperty(name, value);
+    }
+
+    public Object getProperty(String name) throws PropertyException {
+        return delegate.getProperty(name);
+    }
+
+    public void marshal(Object jaxbElement, Result result) throws JAXBException {
+        delegate.marshal(jaxbElement, result);
+    }
+
+    public void marshal(Object jaxbElement, OutputStream os) throws JAXBException {
+        delegate.marshal(jaxbElement, os);
+    }
+
+    public void marshal(Object jaxbElement, File output) throws JAXBException {
+        delegate.marshal(jaxbElement, output);
+    }
+
+    public void marshal(Object jaxbElement, Writer writer) throws JAXBException {
+        delegate.marshal(jaxbElement, writer);
+    }
+
+    public void marshal(Object jaxbElement, ContentHandler handler) throws JAXBException {
+        delegate.marshal(jaxbElement, handler);
+    }
+
+    public void marshal(Object jaxbElement, Node node) throws JAXBException {
+        delegate.marshal(jaxbElement, node);
+    }
+
+    public void marshal(Object jaxbElement, XMLStreamWriter writer) throws JAXBException {
+        delegate.marshal(jaxbElement, writer);
+    }
+
+    public void marshal(Object jaxbElement, XMLEventWriter writer) throws JAXBException {
+        delegate.marshal(jaxbElement, writer);
+    }
+
+    public Node getNode(Object contentTree) throws JAXBException {
+        return delegate.getNode(contentTree);
+    }
+
+    public void setEventHandler(ValidationEventHandler handler) throws JAXBException {
+        delegate.setEventHandler(handler);
+    }
+
+    public ValidationEventHandler getEventHandler() throws JAXBException {
+        return delegate.getEventHandler();
+    }
+
+    @SuppressWarnings("rawtypes")
+    public void setAdapter(XmlAdapter adapter) {
+        reusable = false;
+        delegate.setAdapter(adapter);
+    }
+
+    @SuppressWarnings("rawtypes")
+    public <A extends XmlAdapter> void setAdapter(Class<A> type, A adapter) {
+        reusable = false;
+        delegate.setAdapter(type, adapter);
+    }
+
+    @SuppressWarnings("rawtypes")
+    public <A extends XmlAdapter> A getAdapter(Class<A> type) {
+        return delegate.getAdapter(type);
+    }
+
+    public void setAttachmentMarshaller(AttachmentMarshaller am) {
+        delegate.setAttachmentMarshaller(am);
+    }
+
+    public AttachmentMarshaller getAttachmentMarshaller() {
+        return delegate.getAttachmentMarshaller();
+    }
+
+    public void setSchema(Schema s) {
+        delegate.setSchema(s);
+    }
+
+    public Schema getSchema() {
+        return delegate.getSchema();
+    }
+
+    public void setListener(Listener l) {
+        delegate.setListener(l);
+    }
+
+    public Listener getListener() {
+        return delegate.getListener();
+    }
+}
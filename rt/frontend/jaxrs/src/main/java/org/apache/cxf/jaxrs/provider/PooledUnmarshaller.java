@@ -0,0 +1,231 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.jaxrs.provider;
+
+import java.io.File;
+import java.io.InputStream;
+import java.io.Reader;
+import java.net.URL;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.xml.bind.JAXBElement;
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.PropertyException;
+import javax.xml.bind.Unmarshaller;
+import javax.xml.bind.UnmarshallerHandler;
+import javax.xml.bind.ValidationEventHandler;
+import javax.xml.bind.annotation.adapters.XmlAdapter;
+import javax.xml.bind.attachment.AttachmentUnmarshaller;
+import javax.xml.stream.XMLEventReader;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.transform.Source;
+import javax.xml.validation.Schema;
+
+import org.w3c.dom.Node;
+
+import org.xml.sax.InputSource;
+
+import org.apache.cxf.common.jaxb.JAXBUtils;
+
+/**
+ * Unmarshaller which is returned to a {@link MarshallerPool} when released.  The
+ * properties, handlers and the schema set while it was in use are restored to
+ * the values it had when it was created, if that is not possible it is dropped.
+ */
+final class PooledUnmarshaller implements Unmarshaller {
+    private final Unmarshaller delegate;
+    private final MarshallerPool pool;
+    private final Map<String, Object> properties = new HashMap<>();
+    private final ValidationEventHandler eventHandler;
+    private final Schema schema;
+    private final Listener listener;
+    private final AttachmentUnmarshaller attachmentUnmarshaller;
+    private boolean reusable = true;
+
+    PooledUnmarshaller(Unmarshaller delegate, MarshallerPool pool) {
+        this.delegate = delegate;
+        this.pool = pool;
+        ValidationEventHandler handler = null;
+        try {
+            handler = delegate.getEventHandler();
+        } catch (JAXBException e) {
+            reusable = false;
+        }
+        this.eventHandler = handler;
+        this.schema = delegate.getSchema();
+        this.listener = delegate.getListener();
+        this.attachmentUnmarshaller = delegate.getAttachmentUnmarshaller();
+    }
+
+    Class<?> getDelegateClass() {
+        return delegate.getClass();
+    }
+
+    void release() {
+        JAXBUtils.closeUnmarshaller(delegate);
+        if (!reusable) {
+            return;
+        }
+        try {
+            for (Map.Entry<String, Object> entry : properties.entrySet()) {
+                delegate.setProperty(entry.getKey(), entry.getValue());
+            }
+            delegate.setEventHandler(eventHandler);
+        } catch (JAXBException e) {
+            return;
+        }
+        properties.clear();
+        delegate.setSchema(schema);
+        delegate.setListener(listener);
+        delegate.setAttachmentUnmarshaller(attachmentUnmarshaller);
+        pool.offer(this);
+    }
+
+    public void setProperty(String name, Object value) throws PropertyException {
+        if (reusable && !properties.containsKey(name)) {
+            try {
+                properties.put(name, delegate.getProperty(name));
+            } catch (PropertyException e) {
+                reusable = false;
+            }
+        }
+        delegate.setProperty(name, value);
+    }
+
+    public Object getProperty(String name) throws PropertyException {
+        return delegate.getProperty(name);
+    }
+
+    public Object unmarshal(File f) throws JAXBException {
+        return delegate.unmarshal(f);
+    }
+
+    public Object unmarshal(InputStream is) throws JAXBException {
+        return delegate.unmarshal(is);
+    }
+
+    public Object unmarshal(Reader reader) throws JAXBException {
+        return delegate.unmarshal(reader);
+    }
+
+    public Object unmarshal(URL url) throws JAXBException {
+        return delegate.unmarshal(url);
+    }
+
+    public Object unmarshal(InputSource source) throws JAXBException {
+        return delegate.unmarshal(source);
+    }
+
+    public Object unmarshal(Node node) throws JAXBException {
+        return delegate.unmarshal(node);
+    }
+
+    public <T> JAXBElement<T> unmarshal(Node node, Class<T> declaredType) throws JAXBException {
+        return delegate.unmarshal(node, declaredType);
+    }
+
+    public Object unmarshal(Source source) throws JAXBException {
+        return delegate.unmarshal(source);
+    }
+
+    public <T> JAXBElement<T> unmarshal(Source source, Class<T> declaredType) throws JAXBException {
+        return delegate.unmarshal(source, declaredType);
+    }
+
+    public Object unmarshal(XMLStreamReader reader) throws JAXBException {
+        return delegate.unmarshal(reader);
+    }
+
+    public <T> JAXBElement<T> unmarshal(XMLStreamReader reader, Class<T> declaredType) throws JAXBException {
+        return delegate.unmarshal(reader, declaredType);
+    }
+
+    public Object unmarshal(XMLEventReader reader) throws JAXBException {
+        return delegate.unmarshal(reader);
+    }
+
+    public <T> JAXBElement<T> unmarshal(XMLEventReader reader, Class<T> declaredType) throws JAXBException {
+        return delegate.unmarshal(reader, declaredType);
+    }
+
+    public UnmarshallerHandler getUnmarshallerHandler() {
+        return delegate.getUnmarshallerHandler();
+    }
+
+    @SuppressWarnings("deprecation")
+    public void setValidating(boolean validating) throws JAXBException {
+        reusable = false;
+        delegate.setValidating(validating);
+    }
+
+    @SuppressWarnings("deprecation")
+    public boolean isValidating() throws JAXBException {
+        return delegate.isValidating();
+    }
+
+    public void setEventHandler(ValidationEventHandler handler) throws JAXBException {
+        delegate.setEventHandler(handler);
+    }
+
+    public ValidationEventHandler getEventHandler() throws JAXBException {
+        return delegate.getEventHandler();
+    }
+
+    @SuppressWarnings("rawtypes")
+    public void setAdapter(XmlAdapter adapter) {
+        reusable = false;
+        delegate.setAdapter(adapter);
+    }
+
+    @SuppressWarnings("rawtypes")
+    public <A extends XmlAdapter> void setAdapter(Class<A> type, A adapter) {
+        reusable = false;
+        delegate.setAdapter(type, adapter);
+    }
+
+    @SuppressWarnings("rawtypes")
+    public <A extends XmlAdapter> A getAdapter(Class<A> type) {
+        return delegate.getAdapter(type);
+    }
+
+    public void setAttachmentUnmarshaller(AttachmentUnmarshaller au) {
+        delegate.setAttachmentUnmarshaller(au);
+    }
+
+    public AttachmentUnmarshaller getAttachmentUnmarshaller() {
+        return delegate.getAttachmentUnmarshaller();
+    }
+
+    public void setSchema(Schema s) {
+        delegate.setSchema(s);
+    }
+
+    public Schema getSchema() {
+        return delegate.getSchema();
+    }
+
+    public void setListener(Listener l) {
+        delegate.setListener(l);
+    }
+
+    public Listener getListener() {
+        return delegate.getListener();
+    }
+}
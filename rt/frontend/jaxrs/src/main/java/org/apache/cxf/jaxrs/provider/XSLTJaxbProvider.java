@@ -256,7 +256,9 @@ public class XSLTJaxbProvider<T> extends JAXBElementProvider<T> {
                 return super.unmarshalFromInputStream(unmarshaller, is, anns, mt);
             }
 
-            if (unmarshaller.getClass().getName().contains("eclipse")) {
+            Class<?> unmarshallerClass = unmarshaller instanceof PooledUnmarshaller
+                ? ((PooledUnmarshaller)unmarshaller).getDelegateClass() : unmarshaller.getClass();
+            if (unmarshallerClass.getName().contains("eclipse")) {
                 //eclipse MOXy doesn't work properly with the XMLFilter/Reader thing
                 //so we need to bounce through a DOM
                 Source reader = new StaxSource(StaxUtils.createXMLStreamReader(is));
@@ -311,7 +311,7 @@ public final class JAXRSUtils {
             new TreeMap<ClassResourceInfo, MultivaluedMap<String, String>>(
                 new ClassResourceInfoComparator(message));
 
-        for (ClassResourceInfo cri : resources) {
+        for (ClassResourceInfo cri : getCandidateResources(resources, path, message)) {
             MultivaluedMap<String, String> map = new MetadataMap<String, String>();
             if (cri.getURITemplate().match(path, map)) {
                 candidateList.put(cri, map);
@@ -353,6 +353,21 @@ public final class JAXRSUtils {
 
         return null;
     }
+    /**
+     * Returns the root resources whose templates may match the path, using the index
+     * of the service if the resources are the ones of the service.
+     */
+    private static List<ClassResourceInfo> getCandidateResources(List<ClassResourceInfo> resources,
+                                                                 String path, Message message) {
+        Service service = message != null && message.getExchange() != null
+            ? message.getExchange().getService() : null;
+        if (service instanceof JAXRSServiceImpl
+            && ((JAXRSServiceImpl)service).getClassResourceInfos() == resources) {
+            return ((JAXRSServiceImpl)service).getClassResourceIndex().select(path);
+        }
+        return resources;
+    }
+
     public static OperationResourceInfo findTargetMethod(
         Map<ClassResourceInfo, MultivaluedMap<String, String>> matchedResources,
         Message message,
@@ -402,7 +417,7 @@ public final class JAXRSUtils {
                                                                   BUNDLE,
                                                                   resource.getServiceClass().getName()).toString());
             
-            for (OperationResourceInfo ori : resource.getMethodDispatcher().getOperationResourceInfos()) {
+            for (OperationResourceInfo ori : resource.getMethodDispatcher().getOperationResourceInfos(path)) {
                 boolean added = false;
 
                 URITemplate uriTemplate = ori.getURITemplate();
@@ -567,6 +582,22 @@ public final class JAXRSUtils {
         return result;
     }
 
+    /**
+     * Matches the path against the templates of a resource method which has been selected
+     * before for the same path, see {@link org.apache.cxf.jaxrs.ResourceMatchCache}.
+     *
+     * @return the template values or null if the templates do not match the path
+     */
+    public static MultivaluedMap<String, String> matchSelectedMethod(OperationResourceInfo ori, String path) {
+        MultivaluedMap<String, String> values = new MetadataMap<String, String>();
+        if (!ori.getClassResourceInfo().getURITemplate().match(path, values)) {
+            return null;
+        }
+        MultivaluedMap<String, String> map = new MetadataMap<String, String>(values);
+        URITemplate uriTemplate = ori.getURITemplate();
+        return uriTemplate != null && uriTemplate.match(getCurrentPath(values), map) ? map : null;
+    }
+
     private static String getCurrentPath(MultivaluedMap<String, String> values) {
         String path = values.getFirst(URITemplate.FINAL_MATCH_GROUP);
         return path == null ?  "/" : path;
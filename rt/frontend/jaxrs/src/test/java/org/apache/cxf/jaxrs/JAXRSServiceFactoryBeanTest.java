@@ -154,6 +154,25 @@ public class JAXRSServiceFactoryBeanTest extends Assert {
         assertNotNull(subOri2.getURITemplate());
     }
 
+    @Test
+    public void testResourceIndexFollowsReplacedResources() throws Exception {
+        JAXRSServiceFactoryBean sf = new JAXRSServiceFactoryBean();
+        sf.setResourceClasses(org.apache.cxf.jaxrs.resources.BookStoreNoSubResource.class);
+        sf.create();
+        JAXRSServiceImpl service = (JAXRSServiceImpl)sf.getService();
+        List<ClassResourceInfo> resources = service.getClassResourceInfos();
+        assertSame(resources.get(0), service.getClassResourceIndex().getItems().get(0));
+
+        // same number of resources, but a different one
+        sf.setResourceClass(org.apache.cxf.jaxrs.resources.BookStoreSubresourcesOnly.class);
+        assertEquals(1, resources.size());
+        assertSame(resources.get(0), service.getClassResourceIndex().getItems().get(0));
+
+        ClassResourceInfo replacement = new ClassResourceInfo(resources.get(0));
+        resources.set(0, replacement);
+        assertSame(replacement, service.getClassResourceIndex().getItems().get(0));
+    }
+
     private boolean verifyOp(Set<OperationResourceInfo> ops,
                              String opName,
                              String httpMethod,
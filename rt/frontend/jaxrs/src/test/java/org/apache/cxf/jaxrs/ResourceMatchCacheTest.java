@@ -0,0 +1,217 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.jaxrs;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+import javax.ws.rs.Produces;
+
+import org.apache.cxf.endpoint.Endpoint;
+import org.apache.cxf.endpoint.Server;
+import org.apache.cxf.jaxrs.interceptor.JAXRSInInterceptor;
+import org.apache.cxf.jaxrs.model.ClassResourceInfo;
+import org.apache.cxf.jaxrs.model.OperationResourceInfo;
+import org.apache.cxf.jaxrs.model.URITemplateIndex;
+import org.apache.cxf.message.Exchange;
+import org.apache.cxf.message.ExchangeImpl;
+import org.apache.cxf.message.Message;
+import org.apache.cxf.message.MessageImpl;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ResourceMatchCacheTest extends Assert {
+
+    @Test
+    public void testLeastRecentlyUsedEntryIsEvicted() {
+        ResourceMatchCache cache = new ResourceMatchCache(2);
+        URITemplateIndex<ClassResourceInfo> resources = createIndex();
+        ResourceMatchCache.Match a = new ResourceMatchCache.Match(null, "text/plain");
+        ResourceMatchCache.Match b = new ResourceMatchCache.Match(null, "text/xml");
+        ResourceMatchCache.Match c = new ResourceMatchCache.Match(null, "application/json");
+
+        assertNull(cache.get(resources, "GET", "/a", "*/*", "*/*"));
+        cache.put(resources, "GET", "/a", "*/*", "*/*", a);
+        cache.put(resources, "GET", "/a/b", "*/*", "*/*", b);
+        assertSame(a, cache.get(resources, "GET", "/a", "*/*", "*/*"));
+        cache.put(resources, "GET", "/a/b/c", "*/*", "*/*", c);
+
+        assertEquals(2, cache.size());
+        assertSame(a, cache.get(resources, "GET", "/a", "*/*", "*/*"));
+        assertSame(c, cache.get(resources, "GET", "/a/b/c", "*/*", "*/*"));
+        assertNull(cache.get(resources, "GET", "/a/b", "*/*", "*/*"));
+        assertNull(cache.get(resources, "POST", "/a", "*/*", "*/*"));
+        assertNull(cache.get(resources, "GET", "/a", "*/*", "text/plain"));
+        assertEquals(3, cache.getHits());
+        assertEquals(4, cache.getMisses());
+    }
+
+    @Test
+    public void testEntriesAreDroppedWhenResourcesChange() {
+        ResourceMatchCache cache = new ResourceMatchCache(10);
+        URITemplateIndex<ClassResourceInfo> resources = createIndex();
+        ResourceMatchCache.Match a = new ResourceMatchCache.Match(null, null);
+        cache.get(resources, "GET", "/a", null, null);
+        cache.put(resources, "GET", "/a", null, null, a);
+        assertSame(a, cache.get(resources, "GET", "/a", null, null));
+
+        URITemplateIndex<ClassResourceInfo> newResources = createIndex();
+        assertNull(cache.get(newResources, "GET", "/a", null, null));
+        assertEquals(0, cache.size());
+        // a selection made from the old resources is not stored
+        cache.put(resources, "GET", "/a", null, null, a);
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testEntriesAreSpreadOverSegments() {
+        ResourceMatchCache cache = new ResourceMatchCache(1024);
+        URITemplateIndex<ClassResourceInfo> resources = createIndex();
+        ResourceMatchCache.Match a = new ResourceMatchCache.Match(null, null);
+        for (int i = 0; i < 2048; i++) {
+            cache.get(resources, "GET", "/", "text/" + i, null);
+            cache.put(resources, "GET", "/", "text/" + i, null, a);
+        }
+        // every segment evicts on its own, the total stays close to the maximum
+        assertTrue(cache.size() <= 1024 + 16);
+        assertTrue(cache.size() >= 1024 / 2);
+        assertEquals(2048, cache.getMisses());
+    }
+
+    @Test
+    public void testSelectionIsReused() throws Exception {
+        Endpoint ep = createEndpoint("local://cache", Items.class);
+        ResourceMatchCache cache = (ResourceMatchCache)ep.get(ResourceMatchCache.class.getName());
+        assertNotNull(cache);
+
+        Message m1 = dispatch(ep, "/items/1");
+        Message m2 = dispatch(ep, "/items/2");
+        Message m3 = dispatch(ep, "/items/1");
+        // the ids are not literal segments of any template, so the paths share an entry
+        assertEquals(2, cache.getHits());
+        assertEquals(1, cache.getMisses());
+
+        OperationResourceInfo ori = m1.getExchange().get(OperationResourceInfo.class);
+        assertEquals("getItem", ori.getMethodToInvoke().getName());
+        assertSame(ori, m2.getExchange().get(OperationResourceInfo.class));
+        assertSame(ori, m3.getExchange().get(OperationResourceInfo.class));
+        assertEquals("text/plain", m3.getExchange().get(Message.CONTENT_TYPE));
+        assertEquals(Collections.singletonList("1"), m3.getContent(List.class));
+        assertEquals(Collections.singletonList("2"), m2.getContent(List.class));
+
+        Message m4 = dispatch(ep, "/items/count");
+        assertEquals("getCount", m4.getExchange().get(OperationResourceInfo.class)
+                     .getMethodToInvoke().getName());
+        assertEquals(2, cache.getMisses());
+    }
+
+    @Test
+    public void testRawPathIsUsedWithRegularExpressions() throws Exception {
+        Endpoint ep = createEndpoint("local://regex", Numbers.class);
+        ResourceMatchCache cache = (ResourceMatchCache)ep.get(ResourceMatchCache.class.getName());
+
+        assertEquals("getNumber", dispatch(ep, "/numbers/1").getExchange()
+                     .get(OperationResourceInfo.class).getMethodToInvoke().getName());
+        assertEquals("getName", dispatch(ep, "/numbers/one").getExchange()
+                     .get(OperationResourceInfo.class).getMethodToInvoke().getName());
+        assertEquals("getNumber", dispatch(ep, "/numbers/2").getExchange()
+                     .get(OperationResourceInfo.class).getMethodToInvoke().getName());
+        assertEquals(0, cache.getHits());
+        assertEquals(3, cache.getMisses());
+    }
+
+    @Test
+    public void testNoCacheByDefault() {
+        JAXRSServerFactoryBean bean = new JAXRSServerFactoryBean();
+        bean.setAddress("local://nocache");
+        bean.setStart(false);
+        bean.setResourceClasses(Items.class);
+        Server s = bean.create();
+        assertNull(s.getEndpoint().get(ResourceMatchCache.class.getName()));
+    }
+
+    private static URITemplateIndex<ClassResourceInfo> createIndex() {
+        return new URITemplateIndex<>(Collections.<ClassResourceInfo>emptyList(),
+                                      ClassResourceInfo::getURITemplate);
+    }
+
+    private static Endpoint createEndpoint(String address, Class<?> resourceClass) {
+        JAXRSServerFactoryBean bean = new JAXRSServerFactoryBean();
+        bean.setAddress(address);
+        bean.setStart(false);
+        bean.setResourceClasses(resourceClass);
+        bean.setProperties(Collections.<String, Object>singletonMap(ResourceMatchCache.MAX_SIZE, "10"));
+        Server s = bean.create();
+        return s.getEndpoint();
+    }
+
+    private static Message dispatch(Endpoint ep, String path) {
+        Message m = new MessageImpl();
+        Exchange e = new ExchangeImpl();
+        e.put(Endpoint.class, ep);
+        e.put(org.apache.cxf.service.Service.class, ep.getService());
+        e.setInMessage(m);
+        m.setExchange(e);
+        m.put(Message.ENDPOINT_ADDRESS, "/");
+        m.put(Message.REQUEST_URI, path);
+        m.put(Message.HTTP_REQUEST_METHOD, "GET");
+        m.put(Message.PROTOCOL_HEADERS, new HashMap<String, List<String>>());
+        new JAXRSInInterceptor().handleMessage(m);
+        return m;
+    }
+
+    @Path("/items")
+    public static class Items {
+        @GET
+        @Path("{id}")
+        @Produces("text/plain")
+        public String getItem(@PathParam("id") String id) {
+            return id;
+        }
+
+        @GET
+        @Path("count")
+        @Produces("text/plain")
+        public int getCount() {
+            return 0;
+        }
+    }
+
+    @Path("/numbers")
+    public static class Numbers {
+        @GET
+        @Path("{id: \\d+}")
+        @Produces("text/plain")
+        public String getNumber(@PathParam("id") String id) {
+            return id;
+        }
+
+        @GET
+        @Path("{name}")
+        @Produces("text/plain")
+        public String getName(@PathParam("name") String name) {
+            return name;
+        }
+    }
+}
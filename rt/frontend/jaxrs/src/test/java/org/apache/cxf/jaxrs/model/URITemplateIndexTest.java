@@ -0,0 +1,88 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.jaxrs.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+
+import org.apache.cxf.jaxrs.impl.MetadataMap;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class URITemplateIndexTest extends Assert {
+
+    private static final List<String> TEMPLATES = Arrays.asList(
+        "/", "/books", "/books/{id}", "/books/{id}/chapters", "/books/{id: \\d+}",
+        "/api/v1/books", "/api/v1/authors/{name}", "/api/{version}/books", "/api/v2",
+        "/{any}", "/{path: .*}/info", "/books.json", "/book{id}", "/a b", "/api/v1/", "books/{id}");
+
+    private static final List<String> PATHS = Arrays.asList(
+        "/", "", "/books", "/books/", "/books/1", "/books/1/chapters", "/books/abc/chapters/2",
+        "/api/v1/books", "/api/v1/books/1", "/api/v1/authors/smith", "/api/v3/books", "/api/v2",
+        "/api/v2/x", "/api", "/x/y/info", "/books.json", "/book1", "/a%20b", "/books;a=b/1",
+        "/api;v=1/v1/books", "//books", "books/1", "/unknown", "/api/v1x");
+
+    @Test
+    public void testSelectionContainsAllMatches() {
+        List<URITemplate> templates = new ArrayList<>();
+        for (String t : TEMPLATES) {
+            templates.add(URITemplate.createExactTemplate(t));
+        }
+        URITemplateIndex<URITemplate> index = new URITemplateIndex<>(templates, Function.identity());
+        for (String path : PATHS) {
+            List<URITemplate> selected = index.select(path);
+            List<URITemplate> matching = new ArrayList<>();
+            for (URITemplate t : templates) {
+                if (t.match(path, new MetadataMap<String, String>())) {
+                    matching.add(t);
+                }
+            }
+            List<URITemplate> selectedMatching = new ArrayList<>(selected);
+            selectedMatching.retainAll(matching);
+            assertEquals("Path " + path, matching, selectedMatching);
+        }
+    }
+
+    @Test
+    public void testLiteralSegmentsNarrowSelection() {
+        List<URITemplate> templates = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            templates.add(URITemplate.createExactTemplate("/resource" + i + "/{id}"));
+        }
+        templates.add(URITemplate.createExactTemplate("/{any}"));
+        URITemplateIndex<URITemplate> index = new URITemplateIndex<>(templates, Function.identity());
+
+        assertEquals(Arrays.asList(templates.get(42), templates.get(100)), index.select("/resource42/1"));
+        assertEquals(Arrays.asList(templates.get(100)), index.select("/other"));
+        // matrix parameters are removed when matching, all templates are candidates
+        assertEquals(templates, index.select("/resource42;a=b/1"));
+    }
+
+    @Test
+    public void testTemplatesWithoutLiteralsAreAlwaysSelected() {
+        List<URITemplate> templates = Arrays.asList(URITemplate.createExactTemplate("/{a}/{b}"),
+                                                    URITemplate.createExactTemplate("/"),
+                                                    null);
+        URITemplateIndex<URITemplate> index = new URITemplateIndex<>(templates, Function.identity());
+        assertEquals(templates.subList(0, 2), index.select("/x/y"));
+    }
+}
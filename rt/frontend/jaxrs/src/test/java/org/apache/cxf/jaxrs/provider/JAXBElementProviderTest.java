@@ -51,6 +51,7 @@ import javax.xml.bind.JAXBElement;
 import javax.xml.bind.JAXBException;
 import javax.xml.bind.Marshaller;
 import javax.xml.bind.PropertyException;
+import javax.xml.bind.Unmarshaller;
 import javax.xml.bind.ValidationEventHandler;
 import javax.xml.bind.annotation.XmlAttribute;
 import javax.xml.bind.annotation.XmlElement;
@@ -414,6 +415,85 @@ public class JAXBElementProviderTest extends Assert {
         assertFalse(bos.toString().contains("ns1:thetag"));
     }
 
+    @Test
+    public void testPooledMarshallerIsReset() throws Exception {
+        JAXBElementProvider<Book> provider = new JAXBElementProvider<Book>();
+        provider.setJaxbPoolSize(1);
+        Book book = new Book("CXF", 123L);
+
+        Marshaller ms = provider.createMarshaller(book, Book.class, Book.class, "ISO-8859-1");
+        assertEquals("ISO-8859-1", ms.getProperty(Marshaller.JAXB_ENCODING));
+        ms.setProperty(Marshaller.JAXB_FRAGMENT, Boolean.TRUE);
+        provider.releaseMarshaller(ms);
+
+        Marshaller ms2 = provider.createMarshaller(book, Book.class, Book.class, null);
+        assertSame(ms, ms2);
+        assertEquals("UTF-8", ms2.getProperty(Marshaller.JAXB_ENCODING));
+        assertEquals(Boolean.FALSE, ms2.getProperty(Marshaller.JAXB_FRAGMENT));
+        // another marshaller is created while the pooled one is in use
+        assertNotSame(ms2, provider.createMarshaller(book, Book.class, Book.class, null));
+        // the schema location can not be unset, the marshaller is dropped
+        ms2.setProperty(Marshaller.JAXB_SCHEMA_LOCATION, "http://books book.xsd");
+        provider.releaseMarshaller(ms2);
+        assertNotSame(ms2, provider.createMarshaller(book, Book.class, Book.class, null));
+
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        provider.writeTo(book, Book.class, Book.class, new Annotation[0], MediaType.TEXT_XML_TYPE,
+                         new MetadataMap<String, Object>(), bos);
+        String data = bos.toString();
+        assertTrue(data.startsWith("<?xml"));
+        assertFalse(data.contains("schemaLocation"));
+        assertTrue(data.contains("<name>CXF</name>"));
+    }
+
+    @Test
+    public void testPooledUnmarshallerIsReused() throws Exception {
+        JAXBElementProvider<Book> provider = new JAXBElementProvider<Book>();
+        provider.setJaxbPoolSize(1);
+
+        Unmarshaller u = provider.createUnmarshaller(Book.class, Book.class);
+        ValidationEventHandler handler = u.getEventHandler();
+        u.setEventHandler(null);
+        provider.releaseUnmarshaller(u);
+        Unmarshaller u2 = provider.createUnmarshaller(Book.class, Book.class);
+        assertSame(u, u2);
+        assertSame(handler, u2.getEventHandler());
+        provider.releaseUnmarshaller(u2);
+
+        for (int i = 0; i < 3; i++) {
+            Book book = provider.readFrom(Book.class, null, new Annotation[]{},
+                MediaType.APPLICATION_XML_TYPE, null,
+                new ByteArrayInputStream(("<Book><name>CXF" + i + "</name></Book>").getBytes()));
+            assertEquals("CXF" + i, book.getName());
+        }
+        assertSame(u, provider.createUnmarshaller(Book.class, Book.class));
+    }
+
+    @Test
+    public void testWriteWithCustomPrefixesPooled() throws Exception {
+        JAXBElementProvider<TagVO2> provider = new JAXBElementProvider<TagVO2>();
+        provider.setJaxbPoolSize(1);
+        provider.setNamespacePrefixes(
+            Collections.singletonMap("http://tags", "prefix"));
+        TagVO2 tag = new TagVO2("a", "b");
+
+        for (int i = 0; i < 2; i++) {
+            ByteArrayOutputStream bos = new ByteArrayOutputStream();
+            provider.writeTo(tag, TagVO2.class, TagVO2.class, new Annotation[0], MediaType.TEXT_XML_TYPE,
+                             new MetadataMap<String, Object>(), bos);
+            assertTrue(bos.toString().contains("prefix:thetag"));
+        }
+    }
+
+    @Test
+    public void testMarshallersNotPooledByDefault() throws Exception {
+        JAXBElementProvider<Book> provider = new JAXBElementProvider<Book>();
+        Book book = new Book("CXF", 123L);
+        Marshaller ms = provider.createMarshaller(book, Book.class, Book.class, null);
+        provider.releaseMarshaller(ms);
+        assertNotSame(ms, provider.createMarshaller(book, Book.class, Book.class, null));
+    }
+
     @Test
     public void testWriteWithoutXmlRootElement() throws Exception {
         doTestWriteWithoutXmlRootElement("SuperBook", false, false);
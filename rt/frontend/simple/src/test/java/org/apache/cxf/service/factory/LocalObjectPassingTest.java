@@ -0,0 +1,105 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.service.factory;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.cxf.frontend.ClientProxyFactoryBean;
+import org.apache.cxf.frontend.ServerFactoryBean;
+import org.apache.cxf.transport.local.LocalConduit;
+import org.apache.cxf.transport.local.ObjectCloner;
+
+import org.junit.Test;
+
+public class LocalObjectPassingTest extends AbstractSimpleFrontendTest {
+
+    public interface Echo {
+        byte[] echo(byte[] data);
+    }
+
+    public static class EchoImpl implements Echo {
+        private byte[] received;
+
+        public byte[] echo(byte[] data) {
+            received = data;
+            return data;
+        }
+    }
+
+    @Test
+    public void testObjectsArePassedUnchanged() throws Exception {
+        Map<String, Object> props = new HashMap<>();
+        props.put(LocalConduit.OBJECT_PASSING, Boolean.TRUE);
+        EchoImpl impl = new EchoImpl();
+        Echo client = createClient("http://localhost/ObjectPassing", impl, props);
+
+        byte[] data = {1, 2, 3};
+        assertSame(data, client.echo(data));
+        assertSame(data, impl.received);
+    }
+
+    @Test
+    public void testObjectsAreCopiedWithCloner() throws Exception {
+        Map<String, Object> props = new HashMap<>();
+        props.put(LocalConduit.OBJECT_PASSING, Boolean.TRUE);
+        props.put(LocalConduit.OBJECT_CLONER, new ObjectCloner() {
+            public Object copy(Object value) {
+                return ((byte[])value).clone();
+            }
+        });
+        EchoImpl impl = new EchoImpl();
+        Echo client = createClient("http://localhost/ObjectCloning", impl, props);
+
+        byte[] data = {1, 2, 3};
+        byte[] result = client.echo(data);
+        assertNotSame(data, impl.received);
+        assertNotSame(impl.received, result);
+        assertArrayEquals(data, result);
+    }
+
+    @Test
+    public void testObjectsAreMarshalledByDefault() throws Exception {
+        EchoImpl impl = new EchoImpl();
+        Echo client = createClient("http://localhost/ObjectMarshalling", impl, null);
+
+        byte[] data = {1, 2, 3};
+        byte[] result = client.echo(data);
+        assertNotSame(data, impl.received);
+        assertArrayEquals(data, result);
+    }
+
+    private Echo createClient(String address, Echo impl, Map<String, Object> props) {
+        ServerFactoryBean svrBean = new ServerFactoryBean();
+        svrBean.setAddress(address);
+        svrBean.setTransportId("http://schemas.xmlsoap.org/soap/http");
+        svrBean.setServiceBean(impl);
+        svrBean.setServiceClass(Echo.class);
+        svrBean.setBus(getBus());
+        svrBean.create();
+
+        ClientProxyFactoryBean proxyFactory = new ClientProxyFactoryBean();
+        proxyFactory.setAddress(address);
+        proxyFactory.setTransportId("http://schemas.xmlsoap.org/soap/http");
+        proxyFactory.setServiceClass(Echo.class);
+        proxyFactory.setBus(getBus());
+        proxyFactory.setProperties(props);
+        return (Echo)proxyFactory.create();
+    }
+}
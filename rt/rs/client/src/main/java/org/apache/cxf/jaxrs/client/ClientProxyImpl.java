@@ -37,6 +37,7 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.ResourceBundle;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Logger;
 
 import javax.ws.rs.BeanParam;
@@ -105,6 +106,8 @@ public class ClientProxyImpl extends AbstractClient implements
     private Map<String, Object> valuesMap = Collections.emptyMap();
     private BodyWriter bodyWriter = new BodyWriter();
     private Client proxy;
+    // shared with the proxies of the subresources
+    private Map<Method, InvocationPlan> invocationPlans = new ConcurrentHashMap<>();
     public ClientProxyImpl(URI baseURI,
                            ClassLoader loader,
                            ClassResourceInfo cri,
@@ -171,12 +174,11 @@ public class ClientProxyImpl extends AbstractClient implements
             reportInvalidResourceMethod(m, "INVALID_RESOURCE_METHOD");
         }
 
-        MultivaluedMap<ParameterType, Parameter> types = getParametersInfo(m, params, ori);
-        List<Parameter> beanParamsList = getParameters(types, ParameterType.BEAN);
+        InvocationPlan plan = getInvocationPlan(m, ori);
+        MultivaluedMap<ParameterType, Parameter> types = plan.types;
+        int bodyIndex = plan.bodyIndex;
 
-        int bodyIndex = getBodyIndex(types, ori);
-
-        List<Object> pathParams = getPathParamValues(m, params, types, beanParamsList, ori, bodyIndex);
+        List<Object> pathParams = getPathParamValues(plan, params);
 
         UriBuilder builder = getCurrentBuilder().clone();
         if (isRoot) {
@@ -184,15 +186,15 @@ public class ClientProxyImpl extends AbstractClient implements
         }
         addNonEmptyPath(builder, ori.getURITemplate().getValue());
 
-        handleMatrixes(m, params, types, beanParamsList, builder);
-        handleQueries(m, params, types, beanParamsList, builder);
+        handleMatrixes(plan, params, builder);
+        handleQueries(plan, params, builder);
 
         URI uri = builder.buildFromEncoded(pathParams.toArray()).normalize();
 
         MultivaluedMap<String, String> headers = getHeaders();
         MultivaluedMap<String, String> paramHeaders = new MetadataMap<String, String>();
-        handleHeaders(m, params, paramHeaders, beanParamsList, types);
-        handleCookies(m, params, paramHeaders, beanParamsList, types);
+        handleHeaders(plan, params, paramHeaders);
+        handleCookies(plan, params, paramHeaders);
 
         if (ori.isSubResourceLocator()) {
             ClassResourceInfo subCri = cri.getSubResource(m.getReturnType(), m.getReturnType());
@@ -210,6 +212,7 @@ public class ClientProxyImpl extends AbstractClient implements
             ClientProxyImpl proxyImpl =
                 new ClientProxyImpl(newState, proxyLoader, subCri, false, inheritHeaders);
             proxyImpl.setConfiguration(getConfiguration());
+            proxyImpl.invocationPlans = invocationPlans;
             return JAXRSClientFactory.createProxy(m.getReturnType(), proxyLoader, proxyImpl);
         }
         headers.putAll(paramHeaders);
@@ -223,13 +226,13 @@ public class ClientProxyImpl extends AbstractClient implements
                 bodyIndex = -1;
             }
         } else if (types.containsKey(ParameterType.FORM))  {
-            body = handleForm(m, params, types, beanParamsList);
+            body = handleForm(plan, params);
         } else if (types.containsKey(ParameterType.REQUEST_BODY))  {
-            body = handleMultipart(types, ori, params);
+            body = handleMultipart(plan, params);
         }
 
-        setRequestHeaders(headers, ori, types.containsKey(ParameterType.FORM),
-            body == null ? null : body.getClass(), m.getReturnType());
+        setRequestHeaders(headers, plan, types.containsKey(ParameterType.FORM),
+            body == null ? null : body.getClass());
 
         try {
             return doChainedInvocation(uri, headers, ori, params, body, bodyIndex, null, null);
@@ -239,6 +242,19 @@ public class ClientProxyImpl extends AbstractClient implements
 
     }
 
+    /**
+     * Returns what is known about the invocation of the method before the parameters are seen,
+     * it is created on the first invocation of the method.
+     */
+    private InvocationPlan getInvocationPlan(Method m, OperationResourceInfo ori) {
+        InvocationPlan plan = invocationPlans.get(m);
+        if (plan == null || plan.ori != ori) {
+            plan = new InvocationPlan(m, ori);
+            invocationPlans.put(m, plan);
+        }
+        return plan;
+    }
+
     private void addNonEmptyPath(UriBuilder builder, String pathValue) {
         if (!SLASH.equals(pathValue)) {
             builder.path(pathValue);
@@ -246,7 +262,7 @@ public class ClientProxyImpl extends AbstractClient implements
     }
 
     private static MultivaluedMap<ParameterType, Parameter> getParametersInfo(Method m,
-        Object[] params, OperationResourceInfo ori) {
+        OperationResourceInfo ori) {
         MultivaluedMap<ParameterType, Parameter> map =
             new MetadataMap<ParameterType, Parameter>();
 
@@ -346,71 +362,64 @@ public class ClientProxyImpl extends AbstractClient implements
     }
 
     private MultivaluedMap<String, String> setRequestHeaders(MultivaluedMap<String, String> headers,
-                                                             OperationResourceInfo ori,
+                                                             InvocationPlan plan,
                                                              boolean formParams,
-                                                             Class<?> bodyClass,
-                                                             Class<?> responseClass) {
+                                                             Class<?> bodyClass) {
         if (headers.getFirst(HttpHeaders.CONTENT_TYPE) == null) {
             if (formParams || bodyClass != null && MultivaluedMap.class.isAssignableFrom(bodyClass)) {
                 headers.putSingle(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_FORM_URLENCODED);
-            } else {
-                String ctType = null;
-                List<MediaType> consumeTypes = ori.getConsumeTypes();
-                if (!consumeTypes.isEmpty() && !consumeTypes.get(0).equals(MediaType.WILDCARD_TYPE)) {
-                    ctType = JAXRSUtils.mediaTypeToString(ori.getConsumeTypes().get(0));
-                }
-                if (ctType != null) {
-                    headers.putSingle(HttpHeaders.CONTENT_TYPE, ctType);
-                }
+            } else if (plan.contentType != null) {
+                headers.putSingle(HttpHeaders.CONTENT_TYPE, plan.contentType);
             }
         }
 
-        List<MediaType> accepts = getAccept(headers);
-        if (accepts == null) {
-            boolean produceWildcard = ori.getProduceTypes().isEmpty()
-                || ori.getProduceTypes().get(0).equals(MediaType.WILDCARD_TYPE);
-            if (produceWildcard) {
-                accepts = InjectionUtils.isPrimitive(responseClass)
-                    ? Collections.singletonList(MediaType.TEXT_PLAIN_TYPE)
-                    : Collections.singletonList(MediaType.APPLICATION_XML_TYPE);
-            } else if (responseClass == Void.class || responseClass == Void.TYPE) {
-                accepts = Collections.singletonList(MediaType.WILDCARD_TYPE);
-            } else {
-                accepts = ori.getProduceTypes();
-            }
-
-            for (MediaType mt : accepts) {
-                headers.add(HttpHeaders.ACCEPT, JAXRSUtils.mediaTypeToString(mt));
+        List<String> accepts = headers.get(HttpHeaders.ACCEPT);
+        if (accepts == null || accepts.isEmpty()) {
+            for (String mt : plan.accepts) {
+                headers.add(HttpHeaders.ACCEPT, mt);
             }
         }
 
         return headers;
     }
 
-    private List<MediaType> getAccept(MultivaluedMap<String, String> allHeaders) {
-        List<String> headers = allHeaders.get(HttpHeaders.ACCEPT);
-        if (headers == null || headers.isEmpty()) {
-            return null;
+    private static String getDefaultContentType(OperationResourceInfo ori) {
+        List<MediaType> consumeTypes = ori.getConsumeTypes();
+        if (!consumeTypes.isEmpty() && !consumeTypes.get(0).equals(MediaType.WILDCARD_TYPE)) {
+            return JAXRSUtils.mediaTypeToString(consumeTypes.get(0));
         }
-        List<MediaType> types = new ArrayList<>();
-        for (String s : headers) {
-            types.addAll(JAXRSUtils.parseMediaTypes(s));
+        return null;
+    }
+
+    private static List<String> getDefaultAccepts(OperationResourceInfo ori, Class<?> responseClass) {
+        List<MediaType> accepts;
+        boolean produceWildcard = ori.getProduceTypes().isEmpty()
+            || ori.getProduceTypes().get(0).equals(MediaType.WILDCARD_TYPE);
+        if (produceWildcard) {
+            accepts = InjectionUtils.isPrimitive(responseClass)
+                ? Collections.singletonList(MediaType.TEXT_PLAIN_TYPE)
+                : Collections.singletonList(MediaType.APPLICATION_XML_TYPE);
+        } else if (responseClass == Void.class || responseClass == Void.TYPE) {
+            accepts = Collections.singletonList(MediaType.WILDCARD_TYPE);
+        } else {
+            accepts = ori.getProduceTypes();
+        }
+        List<String> values = new ArrayList<>(accepts.size());
+        for (MediaType mt : accepts) {
+            values.add(JAXRSUtils.mediaTypeToString(mt));
         }
-        return types;
+        return values;
     }
 
-    private List<Object> getPathParamValues(Method m,
-                                            Object[] params,
-                                            MultivaluedMap<ParameterType, Parameter> map,
-                                            List<Parameter> beanParams,
-                                            OperationResourceInfo ori,
-                                            int bodyIndex) {
+    private List<Object> getPathParamValues(InvocationPlan plan, Object[] params) {
+        OperationResourceInfo ori = plan.ori;
+        int bodyIndex = plan.bodyIndex;
         List<Object> list = new LinkedList<Object>();
 
-        List<String> methodVars = ori.getURITemplate().getVariables();
-        List<Parameter> paramsList = getParameters(map, ParameterType.PATH);
-        Map<String, BeanPair> beanParamValues = new HashMap<>(beanParams.size());
-        for (Parameter p : beanParams) {
+        List<String> methodVars = plan.methodVars;
+        List<Parameter> paramsList = getParameters(plan.types, ParameterType.PATH);
+        Map<String, BeanPair> beanParamValues = new HashMap<>(plan.beanParams.size());
+        for (Parameter p : plan.beanParams) {
             beanParamValues.putAll(getValuesFromBeanParam(params[p.getIndex()], PathParam.class));
         }
         if (!beanParamValues.isEmpty() && !methodVars.containsAll(beanParamValues.keySet())) {
@@ -450,8 +459,8 @@ public class ClientProxyImpl extends AbstractClient implements
             Parameter p = paramsMap.remove(varName);
             if (p != null) {
                 list.add(convertParamValue(params[p.getIndex()],
-                                           m.getParameterTypes()[p.getIndex()],
-                                           getParamAnnotations(m, p)));
+                                           plan.paramTypes[p.getIndex()],
+                                           plan.getAnnotations(p)));
             } else if (beanParamValues.containsKey(varName)) {
                 BeanPair pair = beanParamValues.get(varName);
                 list.add(convertParamValue(pair.getValue(), pair.getAnns()));
@@ -483,28 +492,22 @@ public class ClientProxyImpl extends AbstractClient implements
         return list;
     }
 
-    private static Annotation[] getParamAnnotations(Method m, Parameter p) {
-        return m.getParameterAnnotations()[p.getIndex()];
-    }
-
     private static List<Parameter> getParameters(MultivaluedMap<ParameterType, Parameter> map,
                                            ParameterType key) {
         return map.get(key) == null ? Collections.emptyList() : map.get(key);
     }
 
-    private void handleQueries(Method m,
+    private void handleQueries(InvocationPlan plan,
                                Object[] params,
-                               MultivaluedMap<ParameterType, Parameter> map,
-                               List<Parameter> beanParams,
                                UriBuilder ub) {
-        List<Parameter> qs = getParameters(map, ParameterType.QUERY);
+        List<Parameter> qs = getParameters(plan.types, ParameterType.QUERY);
         for (Parameter p : qs) {
             if (params[p.getIndex()] != null) {
                 addMatrixQueryParamsToBuilder(ub, p.getName(), ParameterType.QUERY,
-                                              getParamAnnotations(m, p), params[p.getIndex()]);
+                                              plan.getAnnotations(p), params[p.getIndex()]);
             }
         }
-        for (Parameter p : beanParams) {
+        for (Parameter p : plan.beanParams) {
             Map<String, BeanPair> values = getValuesFromBeanParam(params[p.getIndex()], QueryParam.class);
             for (Map.Entry<String, BeanPair> entry : values.entrySet()) {
                 if (entry.getValue() != null) {
@@ -593,19 +596,17 @@ public class ClientProxyImpl extends AbstractClient implements
         return jaxrsParamAnnAvailable;
     }
     
-    private void handleMatrixes(Method m,
+    private void handleMatrixes(InvocationPlan plan,
                                 Object[] params,
-                                MultivaluedMap<ParameterType, Parameter> map,
-                                List<Parameter> beanParams,
                                 UriBuilder ub) {
-        List<Parameter> mx = getParameters(map, ParameterType.MATRIX);
+        List<Parameter> mx = getParameters(plan.types, ParameterType.MATRIX);
         for (Parameter p : mx) {
             if (params[p.getIndex()] != null) {
                 addMatrixQueryParamsToBuilder(ub, p.getName(), ParameterType.MATRIX,
-                                              getParamAnnotations(m, p), params[p.getIndex()]);
+                                              plan.getAnnotations(p), params[p.getIndex()]);
             }
         }
-        for (Parameter p : beanParams) {
+        for (Parameter p : plan.beanParams) {
             Map<String, BeanPair> values = getValuesFromBeanParam(params[p.getIndex()], MatrixParam.class);
             for (Map.Entry<String, BeanPair> entry : values.entrySet()) {
                 if (entry.getValue() != null) {
@@ -616,18 +617,15 @@ public class ClientProxyImpl extends AbstractClient implements
         }
     }
 
-    private MultivaluedMap<String, String> handleForm(Method m,
-                                                      Object[] params,
-                                                      MultivaluedMap<ParameterType, Parameter> map,
-                                                      List<Parameter> beanParams) {
+    private MultivaluedMap<String, String> handleForm(InvocationPlan plan, Object[] params) {
 
         MultivaluedMap<String, String> form = new MetadataMap<String, String>();
 
-        List<Parameter> fm = getParameters(map, ParameterType.FORM);
+        List<Parameter> fm = getParameters(plan.types, ParameterType.FORM);
         for (Parameter p : fm) {
-            addFormValue(form, p.getName(), params[p.getIndex()], getParamAnnotations(m, p));
+            addFormValue(form, p.getName(), params[p.getIndex()], plan.getAnnotations(p));
         }
-        for (Parameter p : beanParams) {
+        for (Parameter p : plan.beanParams) {
             Map<String, BeanPair> values = getValuesFromBeanParam(params[p.getIndex()], FormParam.class);
             for (Map.Entry<String, BeanPair> entry : values.entrySet()) {
                 addFormValue(form, entry.getKey(), entry.getValue().getValue(), entry.getValue().getAnns());
@@ -655,14 +653,12 @@ public class ClientProxyImpl extends AbstractClient implements
 
     }
 
-    private List<Attachment> handleMultipart(MultivaluedMap<ParameterType, Parameter> map,
-                                             OperationResourceInfo ori,
-                                             Object[] params) {
+    private List<Attachment> handleMultipart(InvocationPlan plan, Object[] params) {
 
         List<Attachment> atts = new LinkedList<Attachment>();
-        List<Parameter> fm = getParameters(map, ParameterType.REQUEST_BODY);
+        List<Parameter> fm = getParameters(plan.types, ParameterType.REQUEST_BODY);
         for (Parameter p : fm) {
-            Multipart part = getMultipart(ori, p.getIndex());
+            Multipart part = plan.multiparts[p.getIndex()];
             if (part != null) {
                 Object partObject = params[p.getIndex()];
                 if (partObject != null) {
@@ -673,18 +669,16 @@ public class ClientProxyImpl extends AbstractClient implements
         return atts;
     }
 
-    private void handleHeaders(Method m,
+    private void handleHeaders(InvocationPlan plan,
                                Object[] params,
-                               MultivaluedMap<String, String> headers,
-                               List<Parameter> beanParams,
-                               MultivaluedMap<ParameterType, Parameter> map) {
-        List<Parameter> hs = getParameters(map, ParameterType.HEADER);
+                               MultivaluedMap<String, String> headers) {
+        List<Parameter> hs = getParameters(plan.types, ParameterType.HEADER);
         for (Parameter p : hs) {
             if (params[p.getIndex()] != null) {
-                headers.add(p.getName(), convertParamValue(params[p.getIndex()], getParamAnnotations(m, p)));
+                headers.add(p.getName(), convertParamValue(params[p.getIndex()], plan.getAnnotations(p)));
             }
         }
-        for (Parameter p : beanParams) {
+        for (Parameter p : plan.beanParams) {
             Map<String, BeanPair> values = getValuesFromBeanParam(params[p.getIndex()], HeaderParam.class);
             for (Map.Entry<String, BeanPair> entry : values.entrySet()) {
                 if (entry.getValue() != null) {
@@ -701,20 +695,18 @@ public class ClientProxyImpl extends AbstractClient implements
             aMethod.getParameterAnnotations()[index], Multipart.class) : null;
     }
 
-    private void handleCookies(Method m,
+    private void handleCookies(InvocationPlan plan,
                                Object[] params,
-                               MultivaluedMap<String, String> headers,
-                               List<Parameter> beanParams,
-                               MultivaluedMap<ParameterType, Parameter> map) {
-        List<Parameter> cs = getParameters(map, ParameterType.COOKIE);
+                               MultivaluedMap<String, String> headers) {
+        List<Parameter> cs = getParameters(plan.types, ParameterType.COOKIE);
         for (Parameter p : cs) {
             if (params[p.getIndex()] != null) {
                 headers.add(HttpHeaders.COOKIE,
                             p.getName() + '='
-                            + convertParamValue(params[p.getIndex()].toString(), getParamAnnotations(m, p)));
+                            + convertParamValue(params[p.getIndex()].toString(), plan.getAnnotations(p)));
             }
         }
-        for (Parameter p : beanParams) {
+        for (Parameter p : plan.beanParams) {
             Map<String, BeanPair> values = getValuesFromBeanParam(params[p.getIndex()], CookieParam.class);
             for (Map.Entry<String, BeanPair> entry : values.entrySet()) {
                 if (entry.getValue() != null) {
@@ -968,6 +960,43 @@ public class ClientProxyImpl extends AbstractClient implements
 
     }
 
+    /**
+     * The parameters, body index and default headers of a method, they only depend on the
+     * method and its annotations.
+     */
+    private static final class InvocationPlan {
+        private final OperationResourceInfo ori;
+        private final MultivaluedMap<ParameterType, Parameter> types;
+        private final List<Parameter> beanParams;
+        private final int bodyIndex;
+        private final List<String> methodVars;
+        private final Class<?>[] paramTypes;
+        private final Annotation[][] paramAnnotations;
+        private final Multipart[] multiparts;
+        private final String contentType;
+        private final List<String> accepts;
+
+        InvocationPlan(Method m, OperationResourceInfo ori) {
+            this.ori = ori;
+            this.types = getParametersInfo(m, ori);
+            this.beanParams = getParameters(types, ParameterType.BEAN);
+            this.bodyIndex = getBodyIndex(types, ori);
+            this.methodVars = ori.getURITemplate().getVariables();
+            this.paramTypes = m.getParameterTypes();
+            this.paramAnnotations = m.getParameterAnnotations();
+            this.multiparts = new Multipart[paramTypes.length];
+            for (Parameter p : getParameters(types, ParameterType.REQUEST_BODY)) {
+                multiparts[p.getIndex()] = getMultipart(ori, p.getIndex());
+            }
+            this.contentType = getDefaultContentType(ori);
+            this.accepts = getDefaultAccepts(ori, m.getReturnType());
+        }
+
+        Annotation[] getAnnotations(Parameter p) {
+            return paramAnnotations[p.getIndex()];
+        }
+    }
+
     private static class BeanPair {
         private Object value;
         private Annotation[] anns;
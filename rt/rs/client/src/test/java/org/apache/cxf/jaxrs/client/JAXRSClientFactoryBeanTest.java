@@ -169,6 +169,22 @@ public class JAXRSClientFactoryBeanTest extends Assert {
                      WebClient.client(store2).getCurrentURI().toString());
     }
 
+    @Test
+    public void testRepeatedSubresourceInvocations() throws Exception {
+        JAXRSClientFactoryBean bean = new JAXRSClientFactoryBean();
+        bean.setAddress("http://bar");
+        bean.setResourceClass(BookStoreSubresourcesOnly.class);
+        BookStoreSubresourcesOnly store = bean.create(BookStoreSubresourcesOnly.class, 1, 2, 3);
+        for (int i = 0; i < 3; i++) {
+            BookStoreSubresourcesOnly store2 = store.getItself3("id" + i);
+            assertEquals("http://bar/bookstore/1/2/3/id" + i + "/sub3",
+                         WebClient.client(store2).getCurrentURI().toString());
+            BookStoreSubresourcesOnly store3 = store2.getItself3("sub" + i);
+            assertEquals("http://bar/bookstore/1/2/3/id" + i + "/sub3/sub" + i + "/sub3",
+                         WebClient.client(store3).getCurrentURI().toString());
+        }
+    }
+
     @Test
     public void testAddLoggingToClient() throws Exception {
         JAXRSClientFactoryBean bean = new JAXRSClientFactoryBean();
@@ -270,7 +270,7 @@ public class JSONProvider<T> extends AbstractJAXBProvider<T>  {
             } catch (XMLStreamException e) {
                 throw ExceptionUtils.toBadRequestException(e, null);
             }
-            JAXBUtils.closeUnmarshaller(unmarshaller);
+            releaseUnmarshaller(unmarshaller);
         }
         // unreachable
         return null;
@@ -484,7 +484,11 @@ public class JSONProvider<T> extends AbstractJAXBProvider<T>  {
             cls = JAXBElement.class;
         }
         Marshaller ms = createMarshaller(obj, cls, genericType, enc);
-        marshal(ms, obj, cls, genericType, enc, os, true);
+        try {
+            marshal(ms, obj, cls, genericType, enc, os, true);
+        } finally {
+            releaseMarshaller(ms);
+        }
 
     }
 
@@ -618,7 +622,11 @@ public class JSONProvider<T> extends AbstractJAXBProvider<T>  {
         }
 
         Marshaller ms = createMarshaller(actualObject, actualClass, genericType, enc);
-        marshal(ms, actualObject, actualClass, genericType, enc, os, false);
+        try {
+            marshal(ms, actualObject, actualClass, genericType, enc, os, false);
+        } finally {
+            releaseMarshaller(ms);
+        }
     }
 
     private QName getQName(Class<?> cls, Type type, Object object)
@@ -24,4 +24,9 @@ import io.netty.handler.codec.http.HttpResponse;
 public interface CxfResponseCallBack {
 
     void responseReceived(HttpResponse response);
+
+    /**
+     * Called when the connection fails or is closed before the response arrived.
+     */
+    void error(Throwable ex);
 }
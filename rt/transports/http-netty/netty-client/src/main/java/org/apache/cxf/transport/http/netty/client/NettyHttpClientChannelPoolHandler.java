@@ -0,0 +1,76 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.transport.http.netty.client;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.cxf.configuration.jsse.TLSClientParameters;
+
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.pool.ChannelPoolHandler;
+import io.netty.handler.timeout.IdleStateEvent;
+import io.netty.handler.timeout.IdleStateHandler;
+
+/**
+ * Sets up the HTTP client pipeline on the channels of a keep-alive pool and closes
+ * channels that stay idle in the pool for longer than the idle timeout.
+ */
+public class NettyHttpClientChannelPoolHandler implements ChannelPoolHandler {
+    static final String IDLE_HANDLER = "idle";
+
+    private final TLSClientParameters tlsClientParameters;
+    private final long idleTimeout;
+
+    public NettyHttpClientChannelPoolHandler(TLSClientParameters clientParameters, long idleTimeout) {
+        this.tlsClientParameters = clientParameters;
+        this.idleTimeout = idleTimeout;
+    }
+
+    @Override
+    public void channelCreated(Channel ch) throws Exception {
+        new NettyHttpClientPipelineFactory(tlsClientParameters).initChannel(ch);
+    }
+
+    @Override
+    public void channelAcquired(Channel ch) throws Exception {
+        if (ch.pipeline().get(IDLE_HANDLER) != null) {
+            ch.pipeline().remove(IDLE_HANDLER);
+        }
+    }
+
+    @Override
+    public void channelReleased(Channel ch) throws Exception {
+        if (idleTimeout > 0 && ch.isActive() && ch.pipeline().get(IDLE_HANDLER) == null) {
+            ch.pipeline().addFirst(IDLE_HANDLER, new IdleChannelCloser(idleTimeout));
+        }
+    }
+
+    static class IdleChannelCloser extends IdleStateHandler {
+        IdleChannelCloser(long idleTimeout) {
+            super(0, 0, idleTimeout, TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        protected void channelIdle(ChannelHandlerContext ctx, IdleStateEvent evt) throws Exception {
+            ctx.close();
+        }
+    }
+}
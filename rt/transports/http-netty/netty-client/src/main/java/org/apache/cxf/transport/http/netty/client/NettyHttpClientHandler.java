@@ -19,6 +19,7 @@
 
 package org.apache.cxf.transport.http.netty.client;
 
+import java.nio.channels.ClosedChannelException;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.LinkedBlockingDeque;
 
@@ -54,7 +55,7 @@ public class NettyHttpClientHandler extends ChannelDuplexHandler {
         if (msg instanceof NettyHttpClientRequest) {
             NettyHttpClientRequest request = (NettyHttpClientRequest)msg;
             sendedQueue.put(request);
-            ctx.writeAndFlush(request.getRequest());
+            ctx.writeAndFlush(request.getRequest(), promise);
         } else {
             super.write(ctx, msg, promise);
         }
@@ -63,11 +64,25 @@ public class NettyHttpClientHandler extends ChannelDuplexHandler {
     @Override
     public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause)
         throws Exception {
-        //TODO need to handle the exception here
-        cause.printStackTrace();
+        failPendingRequests(cause);
         ctx.close();
     }
 
+    @Override
+    public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+        // a pooled keep-alive connection may be closed by the server at any time
+        failPendingRequests(new ClosedChannelException());
+        super.channelInactive(ctx);
+    }
+
+    private void failPendingRequests(Throwable cause) {
+        NettyHttpClientRequest request = sendedQueue.poll();
+        while (request != null) {
+            request.getCxfResponseCallback().error(cause);
+            request = sendedQueue.poll();
+        }
+    }
+
     @Override
     public void channelReadComplete(ChannelHandlerContext ctx) throws Exception {
         ctx.flush();
@@ -35,6 +35,8 @@ import java.security.cert.Certificate;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import javax.net.ssl.HostnameVerifier;
 import javax.net.ssl.SSLSession;
@@ -50,9 +52,12 @@ import org.apache.cxf.message.Message;
 import org.apache.cxf.message.MessageUtils;
 import org.apache.cxf.service.model.EndpointInfo;
 import org.apache.cxf.transport.http.Address;
+import org.apache.cxf.transport.http.ConnectionPoolKey;
 import org.apache.cxf.transport.http.Headers;
 import org.apache.cxf.transport.http.URLConnectionHTTPConduit;
+import org.apache.cxf.transport.http.netty.common.NettyTransports;
 import org.apache.cxf.transport.https.HttpsURLConnectionInfo;
+import org.apache.cxf.transports.http.configuration.ConnectionType;
 import org.apache.cxf.transports.http.configuration.HTTPClientPolicy;
 import org.apache.cxf.version.Version;
 import org.apache.cxf.ws.addressing.EndpointReferenceType;
@@ -66,16 +71,37 @@ import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelFutureListener;
 import io.netty.channel.EventLoopGroup;
-import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.channel.pool.ChannelPool;
+import io.netty.channel.pool.FixedChannelPool;
 import io.netty.handler.codec.http.HttpContent;
+import io.netty.handler.codec.http.HttpHeaders;
 import io.netty.handler.codec.http.HttpResponse;
 import io.netty.handler.ssl.SslHandler;
+import io.netty.util.concurrent.Future;
+import io.netty.util.concurrent.FutureListener;
 
 
 public class NettyHttpConduit extends URLConnectionHTTPConduit implements BusLifeCycleListener {
     public static final String USE_ASYNC = "use.async.http.conduit";
+    /**
+     * The maximum number of connections kept open to a single host, port and TLS
+     * configuration.  Further requests wait for a pooled connection to become free.
+     */
+    public static final String MAX_CONNECTIONS = "org.apache.cxf.transport.http.netty.client.maxConnections";
+    /**
+     * The time in milliseconds a pooled keep-alive connection may stay unused before it is
+     * closed, 0 to keep idle connections open.
+     */
+    public static final String CONNECTION_IDLE_TIMEOUT =
+        "org.apache.cxf.transport.http.netty.client.connectionIdleTimeout";
+    static final int DEFAULT_MAX_CONNECTIONS = 64;
+    static final int DEFAULT_CONNECTION_IDLE_TIMEOUT = 60000;
+
     final NettyHttpConduitFactory factory;
     private Bootstrap bootstrap;
+    private final ConcurrentMap<ConnectionPoolKey, ChannelPool> channelPools =
+        new ConcurrentHashMap<ConnectionPoolKey, ChannelPool>();
+    private final TLSClientParameters defaultTLSClientParameters = new TLSClientParameters();
 
 
     public NettyHttpConduit(Bus b, EndpointInfo ei, EndpointReferenceType t, NettyHttpConduitFactory conduitFactory)
@@ -85,13 +111,47 @@ public class NettyHttpConduit extends URLConnectionHTTPConduit implements BusLif
         bootstrap = new Bootstrap();
         EventLoopGroup eventLoopGroup = bus.getExtension(EventLoopGroup.class);
         bootstrap.group(eventLoopGroup);
-        bootstrap.channel(NioSocketChannel.class);
+        bootstrap.channel(NettyTransports.socketChannelClass(eventLoopGroup));
     }
 
     public NettyHttpConduitFactory getNettyHttpConduitFactory() {
         return factory;
     }
 
+    /**
+     * Returns the pool of keep-alive channels to the host and port of the given URI using
+     * the given TLS configuration, creating it on first use.
+     */
+    protected ChannelPool getChannelPool(URI uri, TLSClientParameters clientParameters, Message message) {
+        int port = uri.getPort() != -1 ? uri.getPort() : "http".equals(uri.getScheme()) ? 80 : 443;
+        ConnectionPoolKey key = new ConnectionPoolKey(uri.getHost(), port, clientParameters);
+        ChannelPool pool = channelPools.get(key);
+        if (pool == null) {
+            int maxConnections = MessageUtils.getContextualInteger(message, MAX_CONNECTIONS,
+                                                                   DEFAULT_MAX_CONNECTIONS);
+            int idleTimeout = MessageUtils.getContextualInteger(message, CONNECTION_IDLE_TIMEOUT,
+                                                                DEFAULT_CONNECTION_IDLE_TIMEOUT);
+            Bootstrap b = bootstrap.clone().remoteAddress(new InetSocketAddress(uri.getHost(), port));
+            pool = new FixedChannelPool(b, new NettyHttpClientChannelPoolHandler(clientParameters, idleTimeout),
+                                        maxConnections);
+            ChannelPool existing = channelPools.putIfAbsent(key, pool);
+            if (existing != null) {
+                pool.close();
+                pool = existing;
+            }
+        }
+        return pool;
+    }
+
+    @Override
+    public void close() {
+        super.close();
+        for (ChannelPool pool : channelPools.values()) {
+            pool.close();
+        }
+        channelPools.clear();
+    }
+
     // Using Netty API directly
     protected void setupConnection(Message message, Address address, HTTPClientPolicy csPolicy) throws IOException {
 
@@ -207,13 +267,18 @@ public class NettyHttpConduit extends URLConnectionHTTPConduit implements BusLif
         boolean isAsync;
         ByteBuf outBuffer;
         OutputStream outputStream;
+        final int bufSize;
+        ChannelPool channelPool;
+        boolean keepAlive;
+        boolean channelReleased;
+        boolean abandoned;
 
         protected NettyWrappedOutputStream(Message message, boolean possibleRetransmit,
                                            boolean isChunking, int chunkThreshold, String conduitName, URI url) {
             super(message, possibleRetransmit, isChunking, chunkThreshold, conduitName, url);
             csPolicy = getClient(message);
             entity = message.get(NettyHttpClientRequest.class);
-            int bufSize = csPolicy.getChunkLength() > 0 ? csPolicy.getChunkLength() : 16320;
+            bufSize = csPolicy.getChunkLength() > 0 ? csPolicy.getChunkLength() : 16320;
             outBuffer = Unpooled.buffer(bufSize);
             outputStream = new ByteBufOutputStream(outBuffer);
         }
@@ -244,6 +309,8 @@ public class NettyHttpConduit extends URLConnectionHTTPConduit implements BusLif
                         throw new IOException(exception);
                     }
 
+                    // the response may still arrive, so the connection cannot be reused
+                    releaseChannel(false);
                     throw new SocketTimeoutException("Read Timeout");
                 }
             }
@@ -277,6 +344,8 @@ public class NettyHttpConduit extends URLConnectionHTTPConduit implements BusLif
                         throw new IOException(exception);
                     }
 
+                    // hand the channel straight back if it is acquired after all
+                    abandoned = true;
                     throw new SocketTimeoutException("Connection Timeout");
                 }
             }
@@ -305,7 +374,9 @@ public class NettyHttpConduit extends URLConnectionHTTPConduit implements BusLif
                             }
                         }
                     };
-                    ChannelFuture channelFuture = getChannel().write(entity);
+                    Channel ch = getChannel();
+                    // flush so that the event loop is woken up for a pooled channel
+                    ChannelFuture channelFuture = ch.writeAndFlush(entity);
                     channelFuture.addListener(listener);
                     outputStream.close();
                 }
@@ -325,40 +396,43 @@ public class NettyHttpConduit extends URLConnectionHTTPConduit implements BusLif
                 clientParameters = getTlsClientParameters();
             }
             if (clientParameters == null) {
-                clientParameters = new TLSClientParameters();
+                // a single default instance so that all such requests share a channel pool
+                clientParameters = defaultTLSClientParameters;
             }
             return clientParameters;
         }
 
         protected void connect(boolean output) {
-            if (url.getScheme().equals("https")) {
-                TLSClientParameters clientParameters = findTLSClientParameters();
-                bootstrap.handler(new NettyHttpClientPipelineFactory(clientParameters));
-            } else {
-                bootstrap.handler(new NettyHttpClientPipelineFactory(null));
+            synchronized (this) {
+                if (channelPool != null) {
+                    // already connected or connecting
+                    return;
+                }
+                TLSClientParameters clientParameters = null;
+                if (url.getScheme().equals("https")) {
+                    clientParameters = findTLSClientParameters();
+                }
+                channelPool = getChannelPool(url, clientParameters, outMessage);
+            }
+            keepAlive = csPolicy.getConnection() != ConnectionType.CLOSE;
+            if (!keepAlive) {
+                entity.getRequest().headers().set(HttpHeaderHelper.CONNECTION, HttpHeaderHelper.CLOSE);
             }
-            ChannelFuture connFuture =
-                bootstrap.connect(new InetSocketAddress(url.getHost(), url.getPort() != -1 ? url.getPort()
-                                                            : "http".equals(url.getScheme()) ? 80 : 443));
 
             // Setup the call back on the NettyHttpClientRequest
-            ChannelFutureListener listener = new ChannelFutureListener() {
+            FutureListener<Channel> listener = new FutureListener<Channel>() {
 
                 @Override
-                public void operationComplete(ChannelFuture future) throws Exception {
+                public void operationComplete(Future<Channel> future) throws Exception {
                     if (future.isSuccess()) {
-                        setChannel(future.channel());
-                        SslHandler sslHandler = channel.pipeline().get(SslHandler.class);
-                        if (sslHandler != null) {
-                            session = sslHandler.engine().getSession();
-                        }
+                        setChannel(future.getNow());
                     } else {
                         setException(future.cause());
                     }
                 }
             };
 
-            connFuture.addListener(listener);
+            channelPool.acquire().addListener(listener);
 
             if (!output) {
                 entity.getRequest().headers().remove("Transfer-Encoding");
@@ -372,6 +446,10 @@ public class NettyHttpConduit extends URLConnectionHTTPConduit implements BusLif
                 public void responseReceived(HttpResponse response) {
                     setHttpResponse(response);
                 }
+                @Override
+                public void error(Throwable ex) {
+                    setException(ex);
+                }
             };
             entity.setCxfResponseCallback(callBack);
 
@@ -383,6 +461,8 @@ public class NettyHttpConduit extends URLConnectionHTTPConduit implements BusLif
                 return null;
             }
             connect(true);
+            // wait for the connection so that the SSL session is known
+            getChannel();
 
             HostnameVerifier verifier = org.apache.cxf.transport.https.SSLUtils
                 .getHostnameVerifier(findTLSClientParameters());
@@ -539,9 +619,12 @@ public class NettyHttpConduit extends URLConnectionHTTPConduit implements BusLif
             httpResponse = null;
             isAsync = false;
             exception = null;
-            if (channel != null) {
-                channel.close();
+            releaseChannel(false);
+            synchronized (this) {
                 channel = null;
+                channelPool = null;
+                channelReleased = false;
+                abandoned = false;
             }
 
             try {
@@ -555,9 +638,15 @@ public class NettyHttpConduit extends URLConnectionHTTPConduit implements BusLif
                 }
                 setupConnection(outMessage, address, csPolicy);
                 entity = outMessage.get(NettyHttpClientRequest.class);
-                //reset the buffers
-                outBuffer.clear();
+                //reset the buffers, the previous request released its buffer once written
+                if (outBuffer.refCnt() > 0) {
+                    outBuffer.clear();
+                } else {
+                    outBuffer = Unpooled.buffer(bufSize);
+                }
                 outputStream = new ByteBufOutputStream(outBuffer);
+                entity.createRequest(outBuffer);
+                entity.getRequest().headers().set(Message.CONTENT_TYPE, outMessage.get(Message.CONTENT_TYPE));
 
             } catch (URISyntaxException e) {
                 throw new IOException(e);
@@ -588,6 +677,8 @@ public class NettyHttpConduit extends URLConnectionHTTPConduit implements BusLif
 
         protected synchronized void setHttpResponse(HttpResponse r) {
             httpResponse = r;
+            // the aggregated response holds its own content, so the connection is free now
+            releaseChannel(keepAlive && HttpHeaders.isKeepAlive(r));
             if (isAsync) {
                 //got a response, need to start the response processing now
                 try {
@@ -602,6 +693,7 @@ public class NettyHttpConduit extends URLConnectionHTTPConduit implements BusLif
 
         protected synchronized void setException(Throwable ex) {
             exception = ex;
+            releaseChannel(false);
             if (isAsync) {
                 //got a response, need to start the response processing now
                 try {
@@ -615,9 +707,30 @@ public class NettyHttpConduit extends URLConnectionHTTPConduit implements BusLif
         }
 
         protected synchronized void setChannel(Channel ch) {
+            if (abandoned) {
+                channelPool.release(ch);
+                return;
+            }
             channel = ch;
+            SslHandler sslHandler = ch.pipeline().get(SslHandler.class);
+            if (sslHandler != null) {
+                session = sslHandler.engine().getSession();
+            }
             notifyAll();
         }
+
+        /**
+         * Returns the channel to its pool, closing it first unless it can be reused.
+         */
+        protected synchronized void releaseChannel(boolean reuse) {
+            if (channel != null && !channelReleased) {
+                channelReleased = true;
+                if (!reuse) {
+                    channel.close();
+                }
+                channelPool.release(channel);
+            }
+        }
     }
 
     @Override
@@ -24,21 +24,26 @@ import java.io.IOException;
 import org.apache.cxf.Bus;
 import org.apache.cxf.buslifecycle.BusLifeCycleListener;
 import org.apache.cxf.buslifecycle.BusLifeCycleManager;
+import org.apache.cxf.common.util.PropertyUtils;
 import org.apache.cxf.common.util.SystemPropertyAction;
 import org.apache.cxf.service.model.EndpointInfo;
 import org.apache.cxf.transport.http.HTTPConduit;
 import org.apache.cxf.transport.http.HTTPConduitFactory;
 import org.apache.cxf.transport.http.HTTPTransportFactory;
+import org.apache.cxf.transport.http.netty.common.NettyTransports;
 import org.apache.cxf.ws.addressing.EndpointReferenceType;
 
 import io.netty.channel.EventLoopGroup;
-import io.netty.channel.nio.NioEventLoopGroup;
 
 
 public class NettyHttpConduitFactory implements HTTPConduitFactory {
 
     //CXF specific
     public static final String USE_POLICY = "org.apache.cxf.transport.http.netty.usePolicy";
+    /**
+     * Set to false to use the NIO transport even if the native epoll transport is available.
+     */
+    public static final String NATIVE_TRANSPORT = "org.apache.cxf.transport.http.netty.nativeTransport";
 
     public enum UseAsyncPolicy {
         ALWAYS, ASYNC_ONLY, NEVER;
@@ -86,7 +91,7 @@ public class NettyHttpConduitFactory implements HTTPConduitFactory {
         // if not create a new EventLoopGroup for it
         EventLoopGroup eventLoopGroup = bus.getExtension(EventLoopGroup.class);
         if (eventLoopGroup == null) {
-            final EventLoopGroup group = new NioEventLoopGroup();
+            final EventLoopGroup group = NettyTransports.newEventLoopGroup(0, isNativeTransport(bus));
             // register a BusLifeCycleListener for it
             bus.setExtension(group, EventLoopGroup.class);
             registerBusLifeListener(bus, group);
@@ -102,6 +107,14 @@ public class NettyHttpConduitFactory implements HTTPConduitFactory {
         return createConduit(null, bus, localInfo, target);
     }
 
+    private static boolean isNativeTransport(Bus bus) {
+        Object st = bus.getProperty(NATIVE_TRANSPORT);
+        if (st == null) {
+            st = SystemPropertyAction.getPropertyOrNull(NATIVE_TRANSPORT);
+        }
+        return st == null || PropertyUtils.isTrue(st);
+    }
+
     protected void registerBusLifeListener(Bus bus, final EventLoopGroup group) {
         BusLifeCycleManager lifeCycleManager = bus.getExtension(BusLifeCycleManager.class);
         if (null != lifeCycleManager) {
@@ -19,16 +19,28 @@
 package org.apache.cxf.transport.http.netty.client.integration;
 
 import java.net.URL;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
 import java.util.concurrent.ExecutionException;
 
+import javax.servlet.http.HttpServletRequest;
 import javax.xml.ws.AsyncHandler;
+import javax.xml.ws.BindingProvider;
 import javax.xml.ws.Endpoint;
 import javax.xml.ws.Response;
 
 import org.apache.cxf.Bus;
 import org.apache.cxf.BusFactory;
+import org.apache.cxf.interceptor.Interceptor;
+import org.apache.cxf.jaxws.EndpointImpl;
 import org.apache.cxf.jaxws.JaxWsProxyFactoryBean;
+import org.apache.cxf.message.Message;
+import org.apache.cxf.phase.AbstractPhaseInterceptor;
+import org.apache.cxf.phase.Phase;
 import org.apache.cxf.testutil.common.AbstractBusClientServerTestBase;
+import org.apache.cxf.transport.http.AbstractHTTPDestination;
+import org.apache.cxf.transport.http.netty.client.NettyHttpConduit;
 import org.apache.hello_world_soap_http.Greeter;
 import org.apache.hello_world_soap_http.SOAPService;
 import org.apache.hello_world_soap_http.types.GreetMeLaterResponse;
@@ -106,6 +118,33 @@ public class NettyClientTest extends AbstractBusClientServerTestBase {
         assertEquals("Get a wrong response", "Hello test", response);
     }
 
+    @Test
+    public void testConnectionReuse() throws Exception {
+        final Set<Integer> clientPorts = Collections.synchronizedSet(new HashSet<Integer>());
+        Interceptor<Message> recorder = new AbstractPhaseInterceptor<Message>(Phase.RECEIVE) {
+            public void handleMessage(Message message) {
+                HttpServletRequest request = (HttpServletRequest)message.get(AbstractHTTPDestination.HTTP_REQUEST);
+                clientPorts.add(request.getRemotePort());
+            }
+        };
+        org.apache.cxf.endpoint.Endpoint serverEndpoint = ((EndpointImpl)ep).getServer().getEndpoint();
+        serverEndpoint.getInInterceptors().add(recorder);
+        try {
+            JaxWsProxyFactoryBean factory = new JaxWsProxyFactoryBean();
+            factory.setServiceClass(Greeter.class);
+            factory.setAddress("http://localhost:" + PORT + "/SoapContext/SoapPort");
+            factory.setTransportId("http://cxf.apache.org/transports/http/netty/client");
+            Greeter greeter = factory.create(Greeter.class);
+            ((BindingProvider)greeter).getRequestContext().put(NettyHttpConduit.USE_ASYNC, Boolean.TRUE);
+            for (int i = 0; i < 3; i++) {
+                assertEquals("Get a wrong response", "Hello test" + i, greeter.greetMe("test" + i));
+            }
+        } finally {
+            serverEndpoint.getInInterceptors().remove(recorder);
+        }
+        assertEquals("Requests should share one keep-alive connection", 1, clientPorts.size());
+    }
+
     @Test
     public void testCallAsync() throws Exception {
         updateAddressPort(g, PORT);
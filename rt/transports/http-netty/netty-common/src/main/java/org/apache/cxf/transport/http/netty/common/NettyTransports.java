@@ -0,0 +1,121 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.transport.http.netty.common;
+
+import org.apache.cxf.common.classloader.ClassLoaderUtils;
+
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.ServerChannel;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
+
+/**
+ * Selects Netty's native epoll transport when netty-transport-native-epoll is on
+ * the class path and usable on this platform, and the NIO transport otherwise.
+ * The native classes are only accessed reflectively, so the dependency stays optional.
+ * Shared by the Netty client and server transports.
+ */
+public final class NettyTransports {
+    private static final String EPOLL_PACKAGE = "io.netty.channel.epoll.";
+    private static final boolean EPOLL_AVAILABLE = checkEpoll();
+
+    private NettyTransports() {
+    }
+
+    public static boolean isEpollAvailable() {
+        return EPOLL_AVAILABLE;
+    }
+
+    /**
+     * Creates an epoll based group if native transports are enabled and available.
+     * @param threads the number of event loops, 0 for Netty's default
+     */
+    public static EventLoopGroup newEventLoopGroup(int threads, boolean nativeTransport) {
+        if (nativeTransport && EPOLL_AVAILABLE) {
+            try {
+                return (EventLoopGroup)loadEpollClass("EpollEventLoopGroup")
+                    .getConstructor(int.class).newInstance(threads);
+            } catch (Exception e) {
+                throw new IllegalStateException("Could not create the epoll event loop group", e);
+            }
+        }
+        return new NioEventLoopGroup(threads);
+    }
+
+    public static boolean isEpoll(EventLoopGroup group) {
+        return group.getClass().getName().startsWith(EPOLL_PACKAGE);
+    }
+
+    /**
+     * Returns the socket channel type which can be registered with the given group,
+     * which may also be an epoll group set as bus extension by the application.
+     */
+    public static Class<? extends Channel> socketChannelClass(EventLoopGroup group) {
+        if (isEpoll(group)) {
+            try {
+                return loadEpollClass("EpollSocketChannel").asSubclass(Channel.class);
+            } catch (ClassNotFoundException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+        return NioSocketChannel.class;
+    }
+
+    /**
+     * Returns the server channel type which can be registered with the given group.
+     */
+    public static Class<? extends ServerChannel> serverChannelClass(EventLoopGroup group) {
+        if (isEpoll(group)) {
+            try {
+                return loadEpollClass("EpollServerSocketChannel").asSubclass(ServerChannel.class);
+            } catch (ClassNotFoundException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+        return NioServerSocketChannel.class;
+    }
+
+    /**
+     * Returns the SO_REUSEPORT option of the epoll transport.
+     */
+    @SuppressWarnings("unchecked")
+    public static ChannelOption<Boolean> reusePortOption() {
+        try {
+            return (ChannelOption<Boolean>)loadEpollClass("EpollChannelOption")
+                .getField("SO_REUSEPORT").get(null);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Class<?> loadEpollClass(String name) throws ClassNotFoundException {
+        return ClassLoaderUtils.loadClass(EPOLL_PACKAGE + name, NettyTransports.class);
+    }
+
+    private static boolean checkEpoll() {
+        try {
+            return (Boolean)loadEpollClass("Epoll").getMethod("isAvailable").invoke(null);
+        } catch (Throwable t) {
+            return false;
+        }
+    }
+}
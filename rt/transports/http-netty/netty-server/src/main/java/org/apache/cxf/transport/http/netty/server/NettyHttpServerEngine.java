@@ -25,6 +25,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import javax.annotation.PostConstruct;
@@ -34,13 +35,12 @@ import org.apache.cxf.common.logging.LogUtils;
 import org.apache.cxf.configuration.jsse.TLSServerParameters;
 import org.apache.cxf.interceptor.Fault;
 import org.apache.cxf.transport.HttpUriMapper;
+import org.apache.cxf.transport.http.netty.common.NettyTransports;
 
 import io.netty.bootstrap.ServerBootstrap;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelOption;
 import io.netty.channel.EventLoopGroup;
-import io.netty.channel.nio.NioEventLoopGroup;
-import io.netty.channel.socket.nio.NioServerSocketChannel;
 import io.netty.util.concurrent.DefaultEventExecutorGroup;
 import io.netty.util.concurrent.EventExecutorGroup;
 
@@ -67,6 +67,8 @@ public class NettyHttpServerEngine implements ServerEngine {
 
     private volatile Channel serverChannel;
 
+    private final List<Channel> reusePortChannels = new CopyOnWriteArrayList<Channel>();
+
     private NettyHttpServletPipelineFactory servletPipeline;
 
     private Map<String, NettyHttpContextHandler> handlerMap = new ConcurrentHashMap<String, NettyHttpContextHandler>();
@@ -89,6 +91,8 @@ public class NettyHttpServerEngine implements ServerEngine {
 
     private int maxChunkContentSize = 1048576;
 
+    private boolean requestStreaming;
+
     private boolean sessionSupport;
 
     // TODO need to setup configuration about them
@@ -143,11 +147,30 @@ public class NettyHttpServerEngine implements ServerEngine {
     }
 
     protected Channel startServer() {
+        // the accepted channels are registered with the worker group, so both groups
+        // have to use the transport of a group which was set, or the configured one
+        boolean epoll;
+        if (bossGroup != null) {
+            epoll = NettyTransports.isEpoll(bossGroup);
+        } else if (workerGroup != null) {
+            epoll = NettyTransports.isEpoll(workerGroup);
+        } else {
+            epoll = threadingParameters.isNativeTransport() && NettyTransports.isEpollAvailable();
+        }
+        if (workerGroup != null && NettyTransports.isEpoll(workerGroup) != epoll) {
+            throw new Fault(new Message("MIXED_EVENT_LOOP_GROUPS", LOG));
+        }
+        int acceptors = Math.max(1, threadingParameters.getAcceptors());
+        // only the epoll transport can bind the port more than once
+        if (acceptors > 1 && !epoll) {
+            LOG.log(Level.WARNING, "MULTIPLE_ACCEPTORS_NEED_EPOLL", acceptors);
+            acceptors = 1;
+        }
         if (bossGroup == null) {
-            bossGroup = new NioEventLoopGroup();
+            bossGroup = NettyTransports.newEventLoopGroup(acceptors, epoll);
         }
         if (workerGroup == null) {
-            workerGroup = new NioEventLoopGroup();
+            workerGroup = NettyTransports.newEventLoopGroup(0, epoll);
         }
         if (applicationExecutor == null) {
             applicationExecutor = new DefaultEventExecutorGroup(threadingParameters.getThreadPoolSize());
@@ -155,8 +178,11 @@ public class NettyHttpServerEngine implements ServerEngine {
 
         final ServerBootstrap bootstrap = new ServerBootstrap();
         bootstrap.group(bossGroup, workerGroup)
-            .channel(NioServerSocketChannel.class)
+            .channel(NettyTransports.serverChannelClass(bossGroup))
             .option(ChannelOption.SO_REUSEADDR, true);
+        if (acceptors > 1) {
+            bootstrap.option(NettyTransports.reusePortOption(), true);
+        }
 
         // Set up the event pipeline factory.
         servletPipeline =
@@ -175,7 +201,26 @@ public class NettyHttpServerEngine implements ServerEngine {
         }
         // Bind and start to accept incoming connections.
         try {
-            return bootstrap.bind(address).sync().channel();
+            Channel channel = bootstrap.bind(address).sync().channel();
+            // every further acceptor binds the same port and runs on its own boss event loop
+            InetSocketAddress bound = (InetSocketAddress)channel.localAddress();
+            boolean allBound = false;
+            try {
+                for (int i = 1; i < acceptors; i++) {
+                    reusePortChannels.add(bootstrap.bind(bound).sync().channel());
+                }
+                allBound = true;
+            } finally {
+                if (!allBound) {
+                    // don't leave the port bound by the acceptors which did start
+                    for (Channel reusePortChannel : reusePortChannels) {
+                        reusePortChannel.close();
+                    }
+                    reusePortChannels.clear();
+                    channel.close();
+                }
+            }
+            return channel;
         } catch (InterruptedException ex) {
             // do nothing here
             return null;
@@ -252,6 +297,10 @@ public class NettyHttpServerEngine implements ServerEngine {
         if (serverChannel != null) {
             serverChannel.close();
         }
+        for (Channel channel : reusePortChannels) {
+            channel.close();
+        }
+        reusePortChannels.clear();
 
         // shutdown executors
         if (bossGroup != null) {
@@ -294,6 +343,19 @@ public class NettyHttpServerEngine implements ServerEngine {
         this.maxChunkContentSize = maxChunkContentSize;
     }
 
+    public boolean isRequestStreaming() {
+        return requestStreaming;
+    }
+
+    /**
+     * Streams the request bodies to the destinations while they are received instead
+     * of aggregating them first.  The maxChunkContentSize then limits how much of a
+     * body is buffered per connection rather than the size of the body.
+     */
+    public void setRequestStreaming(boolean requestStreaming) {
+        this.requestStreaming = requestStreaming;
+    }
+
     public int getPort() {
         return port;
     }
@@ -30,6 +30,7 @@ import org.apache.cxf.interceptor.Fault;
 import org.apache.cxf.transport.http.netty.server.interceptor.NettyInterceptor;
 import org.apache.cxf.transport.http.netty.server.servlet.NettyHttpServletRequest;
 import org.apache.cxf.transport.http.netty.server.servlet.NettyServletResponse;
+import org.apache.cxf.transport.http.netty.server.servlet.NettyStreamedHttpRequest;
 
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
@@ -90,6 +91,11 @@ public class NettyHttpServletHandler extends ChannelInboundHandlerAdapter {
     public void userEventTriggered(ChannelHandlerContext ctx, Object evt) throws Exception {
         if (evt instanceof IdleStateEvent) {
             IdleStateEvent e = (IdleStateEvent) evt;
+            if (e.state() == IdleState.READER_IDLE && !ctx.channel().config().isAutoRead()) {
+                // reading is suspended while a streamed request body is drained by the
+                // application, so the client is not idle but held back
+                return;
+            }
             if (e.state() == IdleState.READER_IDLE || e.state() == IdleState.WRITER_IDLE) {
                 LOG.log(Level.FINE, "Closing idle channel: {}", e.state());
                 ctx.close();
@@ -133,7 +139,15 @@ public class NettyHttpServletHandler extends ChannelInboundHandlerAdapter {
         NettyHttpServletRequest nettyServletRequest =
             buildHttpServletRequest(request, nettyHttpContextHandler.getContextPath(), ctx);
 
-        nettyHttpContextHandler.handle(nettyServletRequest.getRequestURI(), nettyServletRequest, nettyServletResponse);
+        try {
+            nettyHttpContextHandler.handle(nettyServletRequest.getRequestURI(), nettyServletRequest,
+                                           nettyServletResponse);
+        } finally {
+            if (request instanceof NettyStreamedHttpRequest) {
+                // skip whatever the destination did not read of the body
+                ((NettyStreamedHttpRequest)request).getBody().close();
+            }
+        }
         interceptOnRequestSuccessed(ctx, response);
 
         nettyServletResponse.getWriter().flush();
@@ -20,6 +20,7 @@
 package org.apache.cxf.transport.http.netty.server;
 
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -152,17 +153,23 @@ public class NettyHttpServletPipelineFactory extends ChannelInitializer<Channel>
             pipeline.addLast("ssl", sslHandler);
         }
 
+        // Set up the idle handler ahead of the decoder, so that it sees every read of the
+        // request body and not only the messages the aggregator or streamer pass on
+        pipeline.addLast("idle", new IdleStateHandler(nettyHttpServerEngine.getReadIdleTime(),
+                nettyHttpServerEngine.getWriteIdleTime(), 0));
         pipeline.addLast("decoder", new HttpRequestDecoder());
         pipeline.addLast("encoder", new HttpResponseEncoder());
-        pipeline.addLast("aggregator", new HttpObjectAggregator(maxChunkContentSize));
+        if (nettyHttpServerEngine.isRequestStreaming()) {
+            // a read of the body is bounded by the same time the idle handler allows the client
+            pipeline.addLast("streamer", new NettyHttpStreamingHandler(maxChunkContentSize,
+                    TimeUnit.SECONDS.toMillis(nettyHttpServerEngine.getReadIdleTime())));
+        } else {
+            pipeline.addLast("aggregator", new HttpObjectAggregator(maxChunkContentSize));
+        }
         
         // Remove the following line if you don't want automatic content
         // compression.
         pipeline.addLast("deflater", new HttpContentCompressor());
-        // Set up the idle handler
-        pipeline.addLast("idle", new IdleStateHandler(nettyHttpServerEngine.getReadIdleTime(),
-                nettyHttpServerEngine.getWriteIdleTime(), 0));
-
         return pipeline;
     }
 
@@ -0,0 +1,99 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.transport.http.netty.server;
+
+import java.io.EOFException;
+import java.io.IOException;
+
+import org.apache.cxf.transport.http.netty.server.servlet.NettyStreamedHttpRequest;
+import org.apache.cxf.transport.http.netty.server.servlet.NettyStreamingServletInputStream;
+
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.handler.codec.http.DefaultFullHttpResponse;
+import io.netty.handler.codec.http.HttpContent;
+import io.netty.handler.codec.http.HttpHeaders;
+import io.netty.handler.codec.http.HttpRequest;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.HttpVersion;
+import io.netty.handler.codec.http.LastHttpContent;
+
+/**
+ * Replaces the aggregator when request streaming is enabled.  It runs on the event
+ * loop of the channel and passes every request on as soon as its headers have been
+ * decoded, feeding the content that follows into the body stream of the request while
+ * the application executor is already processing it.
+ */
+public class NettyHttpStreamingHandler extends ChannelInboundHandlerAdapter {
+
+    private final int maxBufferedContentSize;
+
+    private final long readTimeout;
+
+    private NettyStreamingServletInputStream body;
+
+    public NettyHttpStreamingHandler(int maxBufferedContentSize, long readTimeout) {
+        this.maxBufferedContentSize = maxBufferedContentSize;
+        this.readTimeout = readTimeout;
+    }
+
+    @Override
+    public void channelRead(ChannelHandlerContext ctx, Object msg) throws Exception {
+        if (msg instanceof HttpRequest) {
+            HttpRequest request = (HttpRequest)msg;
+            body = new NettyStreamingServletInputStream(ctx.channel(), maxBufferedContentSize, readTimeout);
+            if (HttpHeaders.is100ContinueExpected(request)) {
+                // the client waits for this before it sends the body the handler is going to read
+                ctx.writeAndFlush(new DefaultFullHttpResponse(HttpVersion.HTTP_1_1, HttpResponseStatus.CONTINUE));
+                HttpHeaders.removeHeader(request, HttpHeaders.Names.EXPECT);
+            }
+            ctx.fireChannelRead(new NettyStreamedHttpRequest(request, body));
+        }
+        if (msg instanceof HttpContent) {
+            boolean last = msg instanceof LastHttpContent;
+            if (body != null) {
+                body.offer(((HttpContent)msg).content(), last);
+            } else {
+                ((HttpContent)msg).release();
+            }
+            if (last) {
+                body = null;
+            }
+        }
+    }
+
+    @Override
+    public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+        failBody(new EOFException("Connection closed before the request body was received"));
+        super.channelInactive(ctx);
+    }
+
+    @Override
+    public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) throws Exception {
+        failBody(cause instanceof IOException ? (IOException)cause : new IOException(cause));
+        super.exceptionCaught(ctx, cause);
+    }
+
+    private void failBody(IOException cause) {
+        if (body != null) {
+            body.fail(cause);
+            body = null;
+        }
+    }
+}
@@ -26,6 +26,8 @@ public class ThreadingParameters {
 
     private int threadPoolSize = 200;
     private boolean threadPoolSizeSet;
+    private boolean nativeTransport = true;
+    private int acceptors = 1;
 
 
     public void setThreadPoolSize(int number) {
@@ -41,4 +43,28 @@ public class ThreadingParameters {
         return threadPoolSizeSet;
     }
 
+    /**
+     * Uses the native epoll transport instead of NIO if it is available, which is the default.
+     */
+    public void setNativeTransport(boolean nativeTransport) {
+        this.nativeTransport = nativeTransport;
+    }
+
+    public boolean isNativeTransport() {
+        return nativeTransport;
+    }
+
+    /**
+     * Sets the number of server channels accepting connections on the port.  More than
+     * one needs the epoll transport, the channels are then bound with SO_REUSEPORT and
+     * the kernel spreads the incoming connections over them.
+     */
+    public void setAcceptors(int acceptors) {
+        this.acceptors = acceptors;
+    }
+
+    public int getAcceptors() {
+        return acceptors;
+    }
+
 }
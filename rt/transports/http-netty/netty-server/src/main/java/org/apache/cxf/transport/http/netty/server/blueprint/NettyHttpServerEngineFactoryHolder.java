@@ -81,6 +81,7 @@ public class NettyHttpServerEngineFactoryHolder {
                     ThreadingParameters rThreads = new ThreadingParameters();
                     String id = threads.getId();
                     rThreads.setThreadPoolSize(threads.getThreadingParameters().getThreadPoolSize());
+                    setTransportParameters(rThreads, threads.getThreadingParameters());
                     threadingParametersMap.put(id, rThreads);
                 }
 
@@ -120,6 +121,9 @@ public class NettyHttpServerEngineFactoryHolder {
                 if (engine.getMaxChunkContentSize() != null) {
                     eng.setMaxChunkContentSize(engine.getMaxChunkContentSize());
                 }
+                if (engine.isRequestStreaming() != null) {
+                    eng.setRequestStreaming(engine.isRequestStreaming());
+                }
                 if (engine.getPort() != null) {
                     eng.setPort(engine.getPort());
                 }
@@ -130,6 +134,7 @@ public class NettyHttpServerEngineFactoryHolder {
                     ThreadingParametersType threads = engine.getThreadingParameters();
                     ThreadingParameters rThreads = new ThreadingParameters();
                     rThreads.setThreadPoolSize(threads.getThreadPoolSize());
+                    setTransportParameters(rThreads, threads);
                     eng.setThreadingParameters(rThreads);
                 }
 
@@ -216,4 +221,13 @@ public class NettyHttpServerEngineFactoryHolder {
         }
         return jaxbContext;
     }
+
+    private static void setTransportParameters(ThreadingParameters params, ThreadingParametersType type) {
+        if (type.isNativeTransport() != null) {
+            params.setNativeTransport(type.isNativeTransport());
+        }
+        if (type.getAcceptors() != null) {
+            params.setAcceptors(type.getAcceptors());
+        }
+    }
 }
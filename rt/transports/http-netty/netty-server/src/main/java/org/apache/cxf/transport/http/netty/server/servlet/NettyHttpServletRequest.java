@@ -66,7 +66,7 @@ public class NettyHttpServletRequest implements HttpServletRequest {
 
     private HttpRequest originalRequest;
 
-    private NettyServletInputStream inputStream;
+    private ServletInputStream inputStream;
 
     private BufferedReader reader;
 
@@ -85,7 +85,11 @@ public class NettyHttpServletRequest implements HttpServletRequest {
         this.contextPath = contextPath;
         this.uriParser = new URIParser(contextPath);
         uriParser.parse(request.getUri());
-        this.inputStream = new NettyServletInputStream((HttpContent)request);
+        if (request instanceof NettyStreamedHttpRequest) {
+            this.inputStream = ((NettyStreamedHttpRequest)request).getBody();
+        } else {
+            this.inputStream = new NettyServletInputStream((HttpContent)request);
+        }
         this.reader = new BufferedReader(new InputStreamReader(inputStream));
         this.queryStringDecoder = new QueryStringDecoder(request.getUri());
         // setup the SSL security attributes
@@ -0,0 +1,181 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.transport.http.netty.server.servlet;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.SocketTimeoutException;
+import java.util.ArrayDeque;
+import java.util.Queue;
+
+import javax.servlet.ServletInputStream;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+
+/**
+ * A request body which is read while it is still being received.  The chunks are
+ * offered by the channel's event loop and consumed by the application thread; once
+ * more than the high water mark is buffered the channel stops reading from the
+ * socket until the consumer has drained the buffer down to half of it.
+ * <p>
+ * A read waits at most the read timeout for the next chunk; a timeout of zero or less
+ * waits until the chunk arrives or the connection is closed.
+ */
+public class NettyStreamingServletInputStream extends ServletInputStream {
+
+    private final Channel channel;
+    private final int highWaterMark;
+    private final int lowWaterMark;
+    private final long readTimeout;
+    private final Queue<ByteBuf> chunks = new ArrayDeque<>();
+    private int buffered;
+    private boolean complete;
+    private boolean closed;
+    private IOException failure;
+
+    public NettyStreamingServletInputStream(Channel channel, int highWaterMark, long readTimeout) {
+        this.channel = channel;
+        this.highWaterMark = highWaterMark;
+        this.lowWaterMark = highWaterMark / 2;
+        this.readTimeout = readTimeout;
+    }
+
+    /**
+     * Adds a chunk of the body, taking over the reference to the buffer.
+     */
+    public synchronized void offer(ByteBuf chunk, boolean last) {
+        complete |= last;
+        if (closed || failure != null || !chunk.isReadable()) {
+            chunk.release();
+        } else {
+            chunks.add(chunk);
+            buffered += chunk.readableBytes();
+            if (buffered >= highWaterMark) {
+                channel.config().setAutoRead(false);
+            }
+        }
+        notifyAll();
+    }
+
+    /**
+     * Fails the pending and later reads, e.g. because the connection has been closed.
+     */
+    public synchronized void fail(IOException cause) {
+        if (!complete && failure == null) {
+            failure = cause;
+            releaseChunks();
+            notifyAll();
+        }
+    }
+
+    @Override
+    public int read() throws IOException {
+        byte[] b = new byte[1];
+        int n = read(b, 0, 1);
+        return n == -1 ? -1 : b[0] & 0xff;
+    }
+
+    @Override
+    public int read(byte[] buf) throws IOException {
+        return read(buf, 0, buf.length);
+    }
+
+    @Override
+    public synchronized int read(byte[] buf, int offset, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        ByteBuf chunk = awaitChunk();
+        if (chunk == null) {
+            return -1;
+        }
+        int n = Math.min(len, chunk.readableBytes());
+        chunk.readBytes(buf, offset, n);
+        if (!chunk.isReadable()) {
+            chunks.poll().release();
+        }
+        consumed(n);
+        return n;
+    }
+
+    @Override
+    public synchronized int available() throws IOException {
+        return closed ? 0 : buffered;
+    }
+
+    /**
+     * Discards the rest of the body, which keeps the connection usable for
+     * following requests even if the application did not read the whole body.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (!closed) {
+            closed = true;
+            releaseChunks();
+            notifyAll();
+        }
+    }
+
+    private ByteBuf awaitChunk() throws IOException {
+        long deadline = readTimeout > 0 ? System.currentTimeMillis() + readTimeout : 0;
+        while (true) {
+            if (closed) {
+                throw new IOException("Stream closed");
+            }
+            if (failure != null) {
+                throw failure;
+            }
+            if (!chunks.isEmpty()) {
+                return chunks.peek();
+            }
+            if (complete) {
+                return null;
+            }
+            long timeout = 0;
+            if (deadline > 0) {
+                timeout = deadline - System.currentTimeMillis();
+                if (timeout <= 0) {
+                    throw new SocketTimeoutException("Timed out waiting for the request body");
+                }
+            }
+            try {
+                wait(timeout);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException();
+            }
+        }
+    }
+
+    private void consumed(int n) {
+        buffered -= n;
+        if (buffered <= lowWaterMark && !channel.config().isAutoRead()) {
+            channel.config().setAutoRead(true);
+        }
+    }
+
+    private void releaseChunks() {
+        for (ByteBuf chunk : chunks) {
+            chunk.release();
+        }
+        chunks.clear();
+        consumed(buffered);
+    }
+}
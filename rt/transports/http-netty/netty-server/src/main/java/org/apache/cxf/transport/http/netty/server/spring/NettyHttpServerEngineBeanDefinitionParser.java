@@ -89,6 +89,11 @@ public class NettyHttpServerEngineBeanDefinitionParser extends AbstractBeanDefin
             bean.addPropertyValue("maxChunkContentSize", maxChunkContentSizeStr);
         }
 
+        String requestStreamingStr = element.getAttribute("requestStreaming");
+        if (requestStreamingStr != null && !"".equals(requestStreamingStr.trim())) {
+            bean.addPropertyValue("requestStreaming", requestStreamingStr);
+        }
+
 
         ValueHolder busValue = ctx.getContainingBeanDefinition()
             .getConstructorArgumentValues().getArgumentValue(0, Bus.class);
@@ -308,6 +313,12 @@ public class NettyHttpServerEngineBeanDefinitionParser extends AbstractBeanDefin
         if (paramtype.getThreadPoolSize() != null) {
             params.setThreadPoolSize(paramtype.getThreadPoolSize());
         }
+        if (paramtype.isNativeTransport() != null) {
+            params.setNativeTransport(paramtype.isNativeTransport());
+        }
+        if (paramtype.getAcceptors() != null) {
+            params.setAcceptors(paramtype.getAcceptors());
+        }
 
         return params;
     }
@@ -64,6 +64,12 @@ public final class NettySpringTypesFactory {
     private static ThreadingParameters toThreadingParameters(ThreadingParametersType paramtype) {
         ThreadingParameters params = new ThreadingParameters();
         params.setThreadPoolSize(paramtype.getThreadPoolSize());
+        if (paramtype.isNativeTransport() != null) {
+            params.setNativeTransport(paramtype.isNativeTransport());
+        }
+        if (paramtype.getAcceptors() != null) {
+            params.setAcceptors(paramtype.getAcceptors());
+        }
         return params;
     }
 
@@ -21,18 +21,27 @@ package org.apache.cxf.transport.http.netty.server;
 
 
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.HttpURLConnection;
 import java.net.URL;
 import java.net.URLConnection;
 import java.util.HashMap;
 import java.util.Map;
 
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
 import org.apache.cxf.Bus;
 import org.apache.cxf.configuration.Configurer;
 import org.apache.cxf.configuration.jsse.TLSServerParameters;
 import org.apache.cxf.helpers.IOUtils;
 import org.apache.cxf.testutil.common.TestUtil;
+import org.apache.cxf.transport.http.netty.common.NettyTransports;
+
+import io.netty.channel.nio.NioEventLoopGroup;
 
 import org.easymock.EasyMock;
 import org.easymock.IMocksControl;
@@ -158,6 +167,184 @@ public class NettyHttpServerEngineTest extends Assert {
         NettyHttpServerEngineFactory.destroyForPort(PORT2);
     }
 
+    @Test
+    public void testTransportSelection() throws Exception {
+        String urlStr = "http://localhost:" + PORT2 + "/hello/test";
+        NettyHttpServerEngine engine =
+            factory.createNettyHttpServerEngine(PORT2, "http");
+        ThreadingParameters threadingParameters = new ThreadingParameters();
+        threadingParameters.setAcceptors(2);
+        engine.setThreadingParameters(threadingParameters);
+        engine.addServant(new URL(urlStr), new NettyHttpTestHandler("string1", true));
+
+        // epoll if netty-transport-native-epoll is usable here, NIO with a single acceptor otherwise
+        assertEquals(NettyTransports.isEpollAvailable(), NettyTransports.isEpoll(engine.getBossGroup()));
+        assertEquals(NettyTransports.isEpollAvailable(), NettyTransports.isEpoll(engine.getWorkerGroup()));
+        for (int i = 0; i < 4; i++) {
+            assertEquals("string1", getResponse(urlStr));
+        }
+
+        engine.shutdown();
+        NettyHttpServerEngineFactory.destroyForPort(PORT2);
+    }
+
+    @Test
+    public void testTransportFollowsWorkerGroup() throws Exception {
+        String urlStr = "http://localhost:" + PORT2 + "/hello/test";
+        NettyHttpServerEngine engine =
+            factory.createNettyHttpServerEngine(PORT2, "http");
+        ThreadingParameters threadingParameters = new ThreadingParameters();
+        threadingParameters.setAcceptors(2);
+        engine.setThreadingParameters(threadingParameters);
+        // the boss group must not be epoll, as it would hand its channels to a NIO event loop
+        engine.setWorkerGroup(new NioEventLoopGroup());
+        engine.addServant(new URL(urlStr), new NettyHttpTestHandler("string1", true));
+
+        assertFalse(NettyTransports.isEpoll(engine.getBossGroup()));
+        assertEquals("string1", getResponse(urlStr));
+
+        engine.shutdown();
+        NettyHttpServerEngineFactory.destroyForPort(PORT2);
+    }
+
+    @Test
+    public void testRequestStreaming() throws Exception {
+        String urlStr = "http://localhost:" + PORT1 + "/upload";
+        NettyHttpServerEngine engine =
+            factory.createNettyHttpServerEngine(PORT1, "http");
+        engine.setRequestStreaming(true);
+        // far less than the request body, which would be rejected if it was aggregated
+        engine.setMaxChunkContentSize(64 * 1024);
+        engine.addServant(new URL(urlStr), new NettyHttpTestHandler("", true) {
+            @Override
+            public void handle(String target, HttpServletRequest request, HttpServletResponse resp)
+                throws IOException, ServletException {
+                long count = 0;
+                InputStream in = request.getInputStream();
+                byte[] buffer = new byte[8192];
+                for (int n = in.read(buffer); n != -1; n = in.read(buffer)) {
+                    count += n;
+                }
+                resp.getOutputStream().write(Long.toString(count).getBytes());
+                resp.flushBuffer();
+            }
+        });
+
+        int size = 16 * 1024 * 1024;
+        HttpURLConnection connection = (HttpURLConnection)new URL(urlStr).openConnection();
+        connection.setDoOutput(true);
+        connection.setRequestMethod("POST");
+        connection.setRequestProperty("Expect", "100-continue");
+        connection.setChunkedStreamingMode(8192);
+        try (OutputStream out = connection.getOutputStream()) {
+            byte[] chunk = new byte[8192];
+            for (int i = 0; i < size / chunk.length; i++) {
+                out.write(chunk);
+            }
+        }
+        assertEquals(200, connection.getResponseCode());
+        try (InputStream in = connection.getInputStream()) {
+            assertEquals(Integer.toString(size), IOUtils.toString(in));
+        }
+
+        engine.shutdown();
+        NettyHttpServerEngineFactory.destroyForPort(PORT1);
+    }
+
+    @Test
+    public void testRequestStreamingSlowConsumerIsNotIdle() throws Exception {
+        String urlStr = "http://localhost:" + PORT1 + "/upload";
+        NettyHttpServerEngine engine =
+            factory.createNettyHttpServerEngine(PORT1, "http");
+        engine.setRequestStreaming(true);
+        engine.setMaxChunkContentSize(64 * 1024);
+        engine.setReadIdleTime(1);
+        engine.addServant(new URL(urlStr), new NettyHttpTestHandler("", true) {
+            @Override
+            public void handle(String target, HttpServletRequest request, HttpServletResponse resp)
+                throws IOException, ServletException {
+                InputStream in = request.getInputStream();
+                byte[] buffer = new byte[8192];
+                long count = in.read(buffer);
+                try {
+                    // the reading is suspended for longer than the read idle time
+                    Thread.sleep(2500);
+                } catch (InterruptedException e) {
+                    throw new IOException(e);
+                }
+                for (int n = in.read(buffer); n != -1; n = in.read(buffer)) {
+                    count += n;
+                }
+                resp.getOutputStream().write(Long.toString(count).getBytes());
+                resp.flushBuffer();
+            }
+        });
+
+        int size = 1024 * 1024;
+        HttpURLConnection connection = (HttpURLConnection)new URL(urlStr).openConnection();
+        connection.setDoOutput(true);
+        connection.setRequestMethod("POST");
+        connection.setChunkedStreamingMode(8192);
+        try (OutputStream out = connection.getOutputStream()) {
+            byte[] chunk = new byte[8192];
+            for (int i = 0; i < size / chunk.length; i++) {
+                out.write(chunk);
+            }
+        }
+        assertEquals(200, connection.getResponseCode());
+        try (InputStream in = connection.getInputStream()) {
+            assertEquals(Integer.toString(size), IOUtils.toString(in));
+        }
+
+        engine.shutdown();
+        NettyHttpServerEngineFactory.destroyForPort(PORT1);
+    }
+
+    @Test
+    public void testRequestStreamingSlowUploadIsNotIdle() throws Exception {
+        String urlStr = "http://localhost:" + PORT1 + "/upload";
+        NettyHttpServerEngine engine =
+            factory.createNettyHttpServerEngine(PORT1, "http");
+        engine.setRequestStreaming(true);
+        engine.setReadIdleTime(1);
+        engine.addServant(new URL(urlStr), new NettyHttpTestHandler("", true) {
+            @Override
+            public void handle(String target, HttpServletRequest request, HttpServletResponse resp)
+                throws IOException, ServletException {
+                long count = 0;
+                InputStream in = request.getInputStream();
+                byte[] buffer = new byte[8192];
+                for (int n = in.read(buffer); n != -1; n = in.read(buffer)) {
+                    count += n;
+                }
+                resp.getOutputStream().write(Long.toString(count).getBytes());
+                resp.flushBuffer();
+            }
+        });
+
+        // the body arrives over three times the read idle time, but never pauses for that long
+        int chunks = 16;
+        HttpURLConnection connection = (HttpURLConnection)new URL(urlStr).openConnection();
+        connection.setDoOutput(true);
+        connection.setRequestMethod("POST");
+        connection.setChunkedStreamingMode(8192);
+        try (OutputStream out = connection.getOutputStream()) {
+            byte[] chunk = new byte[8192];
+            for (int i = 0; i < chunks; i++) {
+                out.write(chunk);
+                out.flush();
+                Thread.sleep(250);
+            }
+        }
+        assertEquals(200, connection.getResponseCode());
+        try (InputStream in = connection.getInputStream()) {
+            assertEquals(Integer.toString(chunks * 8192), IOUtils.toString(in));
+        }
+
+        engine.shutdown();
+        NettyHttpServerEngineFactory.destroyForPort(PORT1);
+    }
+
     private String getResponse(String target) throws Exception {
         URL url = new URL(target);
 
@@ -116,6 +116,8 @@ public class ApplicationContextTest extends Assert {
 
         NettyHttpServerEngine engine = (NettyHttpServerEngine)jd.getEngine();
         assertEquals(120, engine.getThreadingParameters().getThreadPoolSize());
+        assertFalse(engine.getThreadingParameters().isNativeTransport());
+        assertEquals(4, engine.getThreadingParameters().getAcceptors());
 
 
         ConduitInitiatorManager cim = bus.getExtension(ConduitInitiatorManager.class);
@@ -134,6 +136,7 @@ public class ApplicationContextTest extends Assert {
         engine = (NettyHttpServerEngine)jd2.getEngine();
         assertEquals(40000, engine.getReadIdleTime());
         assertEquals(10000, engine.getMaxChunkContentSize());
+        assertTrue(engine.isRequestStreaming());
         assertTrue("The engine should support session manager", engine.isSessionSupport());
 
         NettyHttpDestination jd3 =
@@ -116,6 +116,8 @@ public class UndertowHTTPServerEngine implements ServerEngine {
 
     private int maxIdleTime = 200000;
 
+    private boolean http2Enabled;
+
     private org.apache.cxf.transport.http_undertow.ThreadingParameters threadingParameters;
 
     private List<CXFUndertowHttpHandler> handlers;
@@ -198,6 +200,11 @@ public class UndertowHTTPServerEngine implements ServerEngine {
     private Undertow createServer(URL url, UndertowHTTPHandler undertowHTTPHandler) throws Exception {
         Undertow.Builder result = Undertow.builder();
         result.setServerOption(UndertowOptions.IDLE_TIMEOUT, getMaxIdleTime());
+        if (isHttp2Enabled()) {
+            // h2 is negotiated with ALPN on https listeners, plain listeners accept h2c
+            // upgrades and prior knowledge; every stream is dispatched as its own exchange
+            result.setServerOption(UndertowOptions.ENABLE_HTTP2, true);
+        }
         if (tlsServerParameters != null) {
             if (this.sslContext == null) {
                 this.sslContext = createSSLContext();
@@ -524,6 +531,18 @@ public class UndertowHTTPServerEngine implements ServerEngine {
         this.maxIdleTime = maxIdleTime;
     }
 
+    public boolean isHttp2Enabled() {
+        return http2Enabled;
+    }
+
+    /**
+     * Enables HTTP/2 on the listener of this engine in addition to HTTP/1.1.
+     * This has to be set before the first servant is added.
+     */
+    public void setHttp2Enabled(boolean http2Enabled) {
+        this.http2Enabled = http2Enabled;
+    }
+
 
     /**
      * set the Undertow server's handlers
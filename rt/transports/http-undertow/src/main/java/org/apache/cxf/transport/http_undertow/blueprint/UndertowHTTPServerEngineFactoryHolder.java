@@ -136,6 +136,9 @@ public class UndertowHTTPServerEngineFactoryHolder {
                 if (engine.getMaxIdleTime() != null) {
                     eng.setMaxIdleTime(engine.getMaxIdleTime());
                 }
+                if (engine.isHttp2Enabled() != null) {
+                    eng.setHttp2Enabled(engine.isHttp2Enabled());
+                }
                 if (engine.getPort() != null) {
                     eng.setPort(engine.getPort());
                 }
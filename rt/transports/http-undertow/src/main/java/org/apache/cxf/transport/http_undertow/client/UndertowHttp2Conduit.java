@@ -0,0 +1,577 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.transport.http_undertow.client;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PushbackInputStream;
+import java.net.HttpURLConnection;
+import java.net.MalformedURLException;
+import java.net.Proxy;
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.security.Principal;
+import java.security.cert.Certificate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+import javax.net.ssl.SSLSession;
+
+import org.apache.cxf.Bus;
+import org.apache.cxf.common.util.PropertyUtils;
+import org.apache.cxf.common.util.StringUtils;
+import org.apache.cxf.configuration.jsse.TLSClientParameters;
+import org.apache.cxf.helpers.HttpHeaderHelper;
+import org.apache.cxf.io.CacheAndWriteOutputStream;
+import org.apache.cxf.message.Message;
+import org.apache.cxf.message.MessageUtils;
+import org.apache.cxf.service.model.EndpointInfo;
+import org.apache.cxf.transport.http.Address;
+import org.apache.cxf.transport.http.Headers;
+import org.apache.cxf.transport.http.URLConnectionHTTPConduit;
+import org.apache.cxf.transport.https.HttpsURLConnectionInfo;
+import org.apache.cxf.transports.http.configuration.HTTPClientPolicy;
+import org.apache.cxf.version.Version;
+import org.apache.cxf.ws.addressing.EndpointReferenceType;
+import org.xnio.IoUtils;
+import org.xnio.XnioExecutor;
+import org.xnio.streams.ChannelInputStream;
+import org.xnio.streams.ChannelOutputStream;
+
+import io.undertow.client.ClientCallback;
+import io.undertow.client.ClientConnection;
+import io.undertow.client.ClientExchange;
+import io.undertow.client.ClientRequest;
+import io.undertow.client.ClientResponse;
+import io.undertow.util.AttachmentKey;
+import io.undertow.util.HeaderMap;
+import io.undertow.util.HeaderValues;
+import io.undertow.util.HttpString;
+
+/**
+ * An HTTP conduit that sends each request as a stream of a shared HTTP/2 connection.
+ * The request body is written to the stream as it is produced, writes block while
+ * the HTTP/2 flow control window of the stream or connection is exhausted.
+ * Requests the conduit cannot send over HTTP/2, those through a proxy or with a
+ * configured SSLSocketFactory, use the HttpURLConnection of the parent class.
+ * A target which does not speak HTTP/2 is not retried over HTTP/1.1, the request
+ * fails instead; see {@link UndertowHttp2ConduitFactory}.
+ */
+public class UndertowHttp2Conduit extends URLConnectionHTTPConduit {
+    /**
+     * Set to false on the message or endpoint to send requests with HttpURLConnection.
+     */
+    public static final String USE_HTTP2 = "use.http2.http.conduit";
+
+    private static final HttpString CONTENT_LENGTH = new HttpString(HttpHeaderHelper.CONTENT_LENGTH);
+    private static final HttpString CONTENT_TYPE = new HttpString(HttpHeaderHelper.CONTENT_TYPE);
+    private static final HttpString TRANSFER_ENCODING = new HttpString(HttpHeaderHelper.TRANSFER_ENCODING);
+    private static final HttpString HOST = new HttpString("host");
+    private static final HttpString USER_AGENT = new HttpString("user-agent");
+    private static final AttachmentKey<URI> REQUEST_URI = AttachmentKey.create(URI.class);
+
+    final UndertowHttp2ConduitFactory factory;
+
+    public UndertowHttp2Conduit(Bus b,
+                                EndpointInfo ei,
+                                EndpointReferenceType t,
+                                UndertowHttp2ConduitFactory factory) throws IOException {
+        super(b, ei, t);
+        this.factory = factory;
+    }
+
+    public UndertowHttp2ConduitFactory getUndertowHttp2ConduitFactory() {
+        return factory;
+    }
+
+    protected TLSClientParameters findTLSClientParameters(Message message) {
+        TLSClientParameters clientParameters = message.get(TLSClientParameters.class);
+        if (clientParameters == null) {
+            clientParameters = getTlsClientParameters();
+        }
+        return clientParameters;
+    }
+
+    @Override
+    protected void setupConnection(Message message, Address address, HTTPClientPolicy csPolicy) throws IOException {
+        URI uri = address.getURI();
+        String s = uri.getScheme();
+        if (!"http".equals(s) && !"https".equals(s)) {
+            throw new MalformedURLException("unknown protocol: " + s);
+        }
+
+        Object o = message.getContextualProperty(USE_HTTP2);
+        boolean useHttp2 = !factory.isShutdown() && (o == null || PropertyUtils.isTrue(o));
+        TLSClientParameters clientParameters = findTLSClientParameters(message);
+        if ("https".equals(s) && clientParameters != null && clientParameters.getSSLSocketFactory() != null) {
+            //the NIO based transport cannot use sockets created by the SSLSocketFactory
+            useHttp2 = false;
+        }
+        if (useHttp2) {
+            Proxy p = proxyFactory.createProxy(csPolicy, uri);
+            useHttp2 = p == null || p.type() == Proxy.Type.DIRECT;
+        }
+        if (!useHttp2) {
+            message.put(USE_HTTP2, Boolean.FALSE);
+            super.setupConnection(message, address, csPolicy);
+            return;
+        }
+        message.put(USE_HTTP2, Boolean.TRUE);
+        message.put("http.scheme", s);
+
+        String httpRequestMethod = (String)message.get(Message.HTTP_REQUEST_METHOD);
+        if (httpRequestMethod == null) {
+            httpRequestMethod = "POST";
+            message.put(Message.HTTP_REQUEST_METHOD, httpRequestMethod);
+        }
+        String path = StringUtils.isEmpty(uri.getRawPath()) ? "/" : uri.getRawPath();
+        if (uri.getRawQuery() != null) {
+            path = path + "?" + uri.getRawQuery();
+        }
+        ClientRequest request = new ClientRequest()
+            .setMethod(new HttpString(httpRequestMethod))
+            .setPath(path);
+        request.getRequestHeaders().put(HOST, uri.getRawAuthority());
+        request.putAttachment(REQUEST_URI, uri);
+        message.put(ClientRequest.class, request);
+    }
+
+    @Override
+    protected OutputStream createOutputStream(Message message,
+                                              boolean needToCacheRequest,
+                                              boolean isChunking,
+                                              int chunkThreshold) throws IOException {
+        if (Boolean.TRUE.equals(message.get(USE_HTTP2))) {
+            ClientRequest request = message.get(ClientRequest.class);
+            return new Http2WrappedOutputStream(message,
+                                                needToCacheRequest,
+                                                isChunking,
+                                                chunkThreshold,
+                                                getConduitName(),
+                                                request.getAttachment(REQUEST_URI));
+        }
+        return super.createOutputStream(message, needToCacheRequest, isChunking, chunkThreshold);
+    }
+
+    public class Http2WrappedOutputStream extends WrappedOutputStream {
+        final HTTPClientPolicy csPolicy;
+        final int connectionTimeout;
+        final int receiveTimeout;
+        ClientRequest request;
+        UndertowHttp2ConnectionPool pool;
+        ClientConnection connection;
+        InputStream responseStream;
+        boolean isAsync;
+        XnioExecutor.Key timeoutKey;
+
+        // set from the I/O thread of the connection
+        volatile ClientExchange exchange;
+        volatile ClientResponse response;
+        volatile Throwable exception;
+
+        protected Http2WrappedOutputStream(Message message, boolean possibleRetransmit,
+                                           boolean isChunking, int chunkThreshold, String conduitName, URI url) {
+            super(message, possibleRetransmit, isChunking, chunkThreshold, conduitName, url);
+            csPolicy = getClient(message);
+            connectionTimeout = determineConnectionTimeout(message, csPolicy);
+            receiveTimeout = determineReceiveTimeout(message, csPolicy);
+            request = message.get(ClientRequest.class);
+        }
+
+        protected void connect() throws IOException {
+            if (connection == null) {
+                pool = factory.getConnectionPool(url, findTLSClientParameters(outMessage));
+                connection = pool.acquire(connectionTimeout);
+            }
+        }
+
+        /**
+         * Opens the stream of the request, the request headers are sent with it.
+         */
+        protected void sendRequest(boolean output) throws IOException {
+            connect();
+            HeaderMap headers = request.getRequestHeaders();
+            if (!output) {
+                headers.remove(CONTENT_LENGTH);
+                headers.remove(CONTENT_TYPE);
+                headers.remove(TRANSFER_ENCODING);
+            } else if (!headers.contains(CONTENT_LENGTH)) {
+                // tells Undertow that a body follows, it is not sent as an HTTP/2 header
+                headers.put(TRANSFER_ENCODING, HttpHeaderHelper.CHUNKED);
+            }
+            final ClientConnection c = connection;
+            final ClientCallback<ClientExchange> responseCallback = new ClientCallback<ClientExchange>() {
+                public void completed(ClientExchange result) {
+                    setResponse(result.getResponse());
+                }
+                public void failed(IOException e) {
+                    setException(e);
+                }
+            };
+            final ClientCallback<ClientExchange> exchangeCallback = new ClientCallback<ClientExchange>() {
+                public void completed(ClientExchange result) {
+                    result.setResponseListener(responseCallback);
+                    setExchange(result);
+                }
+                public void failed(IOException e) {
+                    setException(e);
+                }
+            };
+            c.getIoThread().execute(new Runnable() {
+                public void run() {
+                    c.sendRequest(request, exchangeCallback);
+                }
+            });
+        }
+
+        protected synchronized ClientExchange getExchange() throws IOException {
+            while (exchange == null) {
+                if (exception == null) {
+                    try {
+                        wait(receiveTimeout);
+                    } catch (InterruptedException e) {
+                        throw new IOException(e);
+                    }
+                }
+                if (exchange == null) {
+                    rethrowException();
+                    throw new SocketTimeoutException("Read Timeout");
+                }
+            }
+            return exchange;
+        }
+
+        protected synchronized ClientResponse getResponse() throws IOException {
+            while (response == null) {
+                if (exception == null) {
+                    try {
+                        wait(receiveTimeout);
+                    } catch (InterruptedException e) {
+                        throw new IOException(e);
+                    }
+                }
+                if (response == null) {
+                    rethrowException();
+                    cancelExchange();
+                    throw new SocketTimeoutException("Read Timeout");
+                }
+            }
+            return response;
+        }
+
+        private void rethrowException() throws IOException {
+            if (exception instanceof IOException) {
+                throw (IOException)exception;
+            }
+            if (exception instanceof RuntimeException) {
+                throw (RuntimeException)exception;
+            }
+            if (exception != null) {
+                throw new IOException(exception);
+            }
+        }
+
+        private void cancelExchange() {
+            // closing the channels of an unfinished exchange resets its stream
+            if (exchange != null) {
+                IoUtils.safeClose(exchange.getRequestChannel());
+                IoUtils.safeClose(exchange.getResponseChannel());
+            }
+        }
+
+        protected synchronized void setExchange(ClientExchange ex) {
+            exchange = ex;
+            notifyAll();
+        }
+
+        protected synchronized void setResponse(ClientResponse r) {
+            response = r;
+            if (timeoutKey != null) {
+                timeoutKey.remove();
+                timeoutKey = null;
+            }
+            if (isAsync) {
+                //got a response, need to start the response processing now
+                try {
+                    handleResponseOnWorkqueue(false, true);
+                    isAsync = false; // don't trigger another start on next block. :-)
+                } catch (Exception ex) {
+                    //ignore, we'll try again on the next consume;
+                }
+            }
+            notifyAll();
+        }
+
+        protected synchronized void setException(Throwable ex) {
+            if (response != null) {
+                // failures after the response headers surface when the body is read
+                return;
+            }
+            exception = ex;
+            if (isAsync) {
+                try {
+                    handleResponseOnWorkqueue(false, true);
+                    isAsync = false;
+                } catch (Exception ex2) {
+                    LOG.log(Level.WARNING, "Could not dispatch the failed response to the work queue", ex2);
+                }
+            }
+            notifyAll();
+        }
+
+        @Override
+        protected void setupWrappedStream() throws IOException {
+            sendRequest(true);
+            wrappedStream = new ChannelOutputStream(getExchange().getRequestChannel(),
+                                                    receiveTimeout, TimeUnit.MILLISECONDS);
+
+            // If we need to cache for retransmission, store data in a
+            // CacheAndWriteOutputStream. Otherwise write directly to the output stream.
+            if (cachingForRetransmission) {
+                cachedStream = new CacheAndWriteOutputStream(wrappedStream);
+                wrappedStream = cachedStream;
+            }
+        }
+
+        @Override
+        protected void handleNoOutput() throws IOException {
+            sendRequest(false);
+            getExchange();
+        }
+
+        @Override
+        protected HttpsURLConnectionInfo getHttpsURLConnectionInfo() throws IOException {
+            if ("http".equals(outMessage.get("http.scheme"))) {
+                return null;
+            }
+            connect();
+            SSLSession session = pool.getSession(connection);
+
+            String method = (String)outMessage.get(Message.HTTP_REQUEST_METHOD);
+            String cipherSuite = null;
+            Certificate[] localCerts = null;
+            Principal principal = null;
+            Certificate[] serverCerts = null;
+            Principal peer = null;
+            if (session != null) {
+                cipherSuite = session.getCipherSuite();
+                localCerts = session.getLocalCertificates();
+                principal = session.getLocalPrincipal();
+                serverCerts = session.getPeerCertificates();
+                peer = session.getPeerPrincipal();
+            }
+            return new HttpsURLConnectionInfo(url, method, cipherSuite, localCerts, principal, serverCerts, peer);
+        }
+
+        @Override
+        protected void setProtocolHeaders() throws IOException {
+            Headers h = new Headers(outMessage);
+            HeaderMap headers = request.getRequestHeaders();
+            headers.put(CONTENT_TYPE, h.determineContentType());
+            boolean addHeaders = MessageUtils.getContextualBoolean(outMessage, Headers.ADD_HEADERS_PROPERTY, false);
+
+            for (Map.Entry<String, List<String>> header : h.headerMap().entrySet()) {
+                String name = header.getKey();
+                if (HttpHeaderHelper.CONTENT_TYPE.equalsIgnoreCase(name)
+                    || HttpHeaderHelper.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+                    continue;
+                }
+                // HTTP/2 header names are lower case
+                HttpString headerName = new HttpString(name.toLowerCase(Locale.ENGLISH));
+                if (addHeaders || HttpHeaderHelper.COOKIE.equalsIgnoreCase(name)) {
+                    headers.addAll(headerName, header.getValue());
+                } else {
+                    StringBuilder b = new StringBuilder();
+                    for (int i = 0; i < header.getValue().size(); i++) {
+                        b.append(header.getValue().get(i));
+                        if (i + 1 < header.getValue().size()) {
+                            b.append(',');
+                        }
+                    }
+                    headers.put(headerName, b.toString());
+                }
+            }
+            if (!headers.contains(USER_AGENT)) {
+                headers.put(USER_AGENT, Version.getCompleteVersionString());
+            }
+        }
+
+        @Override
+        protected void setFixedLengthStreamingMode(int i) {
+            request.getRequestHeaders().put(CONTENT_LENGTH, i);
+        }
+
+        @Override
+        public void thresholdReached() throws IOException {
+            // HTTP/2 frames the body itself, there is nothing to switch
+        }
+
+        @Override
+        protected int getResponseCode() throws IOException {
+            return getResponse().getResponseCode();
+        }
+
+        @Override
+        protected String getResponseMessage() throws IOException {
+            return getResponse().getStatus();
+        }
+
+        @Override
+        protected void updateResponseHeaders(Message inMessage) throws IOException {
+            Headers h = new Headers(inMessage);
+            inMessage.put(Message.CONTENT_TYPE, readHeaders(h));
+            cookies.readFromHeaders(h);
+        }
+
+        private String readHeaders(Headers h) throws IOException {
+            String ct = null;
+            for (HeaderValues values : getResponse().getResponseHeaders()) {
+                String name = values.getHeaderName().toString();
+                if (name.startsWith(":")) {
+                    continue;
+                }
+                h.headerMap().put(name, new ArrayList<String>(values));
+                if (HttpHeaderHelper.CONTENT_TYPE.equalsIgnoreCase(name)) {
+                    ct = values.getFirst();
+                }
+            }
+            return ct;
+        }
+
+        @Override
+        protected synchronized void handleResponseAsync() throws IOException {
+            if (response != null || exception != null) {
+                handleResponseOnWorkqueue(true, false);
+                return;
+            }
+            isAsync = true;
+            if (receiveTimeout > 0) {
+                timeoutKey = connection.getIoThread().executeAfter(new Runnable() {
+                    public void run() {
+                        cancelExchange();
+                        setException(new SocketTimeoutException("Read Timeout"));
+                    }
+                }, receiveTimeout, TimeUnit.MILLISECONDS);
+            }
+        }
+
+        @Override
+        protected void closeInputStream() throws IOException {
+            if (responseStream != null) {
+                responseStream.close();
+            } else if (exchange != null) {
+                IoUtils.safeClose(exchange.getResponseChannel());
+            }
+        }
+
+        @Override
+        protected boolean usingProxy() {
+            return false;
+        }
+
+        @Override
+        protected InputStream getInputStream() throws IOException {
+            getResponse();
+            if (responseStream == null) {
+                responseStream = new ChannelInputStream(exchange.getResponseChannel(),
+                                                        receiveTimeout, TimeUnit.MILLISECONDS);
+            }
+            return responseStream;
+        }
+
+        @Override
+        protected InputStream getPartialResponse() throws IOException {
+            InputStream in = null;
+            int responseCode = getResponseCode();
+            if (responseCode == HttpURLConnection.HTTP_ACCEPTED
+                || responseCode == HttpURLConnection.HTTP_OK) {
+                String head = response.getResponseHeaders().getFirst(CONTENT_LENGTH);
+                if (head != null && Long.parseLong(head) > 0) {
+                    in = getInputStream();
+                } else if (head == null) {
+                    // the body ends with the stream, make sure it is not empty
+                    try {
+                        PushbackInputStream pin = new PushbackInputStream(getInputStream());
+                        int c = pin.read();
+                        if (c != -1) {
+                            pin.unread((byte)c);
+                            in = pin;
+                        }
+                    } catch (IOException ioe) {
+                        // ignore
+                    }
+                }
+            }
+            return in;
+        }
+
+        @Override
+        protected void setupNewConnection(String newURL) throws IOException {
+            closeInputStream();
+            synchronized (this) {
+                exchange = null;
+                response = null;
+                exception = null;
+                isAsync = false;
+            }
+            responseStream = null;
+            connection = null;
+            pool = null;
+            try {
+                Address address;
+                if (defaultAddress.getString().equals(newURL)) {
+                    address = defaultAddress;
+                    this.url = defaultAddress.getURI();
+                } else {
+                    this.url = new URI(newURL);
+                    address = new Address(newURL, this.url);
+                }
+                setupConnection(outMessage, address, csPolicy);
+            } catch (URISyntaxException e) {
+                throw new IOException(e);
+            }
+            if (!Boolean.TRUE.equals(outMessage.get(USE_HTTP2))) {
+                throw new IOException("Cannot retransmit to " + newURL + " over HTTP/2");
+            }
+            request = outMessage.get(ClientRequest.class);
+        }
+
+        @Override
+        protected void retransmitStream() throws IOException {
+            cachingForRetransmission = false; //already cached
+            setupWrappedStream();
+            cachedStream.writeCacheTo(wrappedStream);
+            wrappedStream.flush();
+            wrappedStream.close();
+        }
+
+        @Override
+        protected void updateCookiesBeforeRetransmit() throws IOException {
+            Headers h = new Headers();
+            readHeaders(h);
+            cookies.readFromHeaders(h);
+        }
+    }
+}
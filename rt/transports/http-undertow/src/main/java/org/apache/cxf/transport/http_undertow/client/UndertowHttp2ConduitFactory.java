@@ -0,0 +1,243 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.transport.http_undertow.client;
+
+import java.io.IOException;
+import java.net.URI;
+import java.security.GeneralSecurityException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.cxf.Bus;
+import org.apache.cxf.buslifecycle.BusLifeCycleListener;
+import org.apache.cxf.buslifecycle.BusLifeCycleManager;
+import org.apache.cxf.common.injection.NoJSR250Annotations;
+import org.apache.cxf.configuration.jsse.TLSClientParameters;
+import org.apache.cxf.service.model.EndpointInfo;
+import org.apache.cxf.transport.http.ConnectionPoolKey;
+import org.apache.cxf.transport.http.HTTPConduit;
+import org.apache.cxf.transport.http.HTTPConduitFactory;
+import org.apache.cxf.transport.http.HTTPTransportFactory;
+import org.apache.cxf.ws.addressing.EndpointReferenceType;
+import org.xnio.OptionMap;
+import org.xnio.Options;
+import org.xnio.Xnio;
+import org.xnio.XnioWorker;
+
+import io.undertow.Undertow;
+import io.undertow.UndertowOptions;
+import io.undertow.connector.ByteBufferPool;
+import io.undertow.server.DefaultByteBufferPool;
+
+/**
+ * Creates {@link UndertowHttp2Conduit}s which send their requests as HTTP/2 streams,
+ * multiplexed over a small number of connections per target.  Plain http targets are
+ * spoken to with h2c prior knowledge, https targets negotiate h2 with ALPN, so the
+ * targets must support HTTP/2.
+ * <p>
+ * There is no fallback to HTTP/1.1: the HTTP/2 connection preface is sent without
+ * an Upgrade handshake, so a plain http target which only speaks HTTP/1.1 closes or
+ * rejects the connection, and an https target which does not select h2 during ALPN
+ * fails the handshake.  Either way the request fails with an IOException.  Use this
+ * factory only for endpoints known to support HTTP/2, or set
+ * {@link UndertowHttp2Conduit#USE_HTTP2} to false on the others so that they are sent
+ * with HttpURLConnection.
+ * <p>
+ * The factory is selected like any other {@link HTTPConduitFactory}, either as the
+ * bus extension or as the endpoint property named after the interface.
+ */
+@NoJSR250Annotations
+public class UndertowHttp2ConduitFactory implements HTTPConduitFactory {
+
+    /**
+     * The number of connections requests to a single target are spread over.
+     */
+    public static final String MAX_CONNECTIONS_PER_HOST =
+        "org.apache.cxf.transport.http_undertow.client.maxConnectionsPerHost";
+    /**
+     * The number of XNIO I/O threads shared by all connections of the factory.
+     */
+    public static final String IO_THREADS = "org.apache.cxf.transport.http_undertow.client.ioThreads";
+
+    static final int DEFAULT_MAX_CONNECTIONS_PER_HOST = 2;
+    private static final int BUFFER_SIZE = 16 * 1024;
+
+    private final ConcurrentMap<ConnectionPoolKey, UndertowHttp2ConnectionPool> pools =
+        new ConcurrentHashMap<ConnectionPoolKey, UndertowHttp2ConnectionPool>();
+    private final TLSClientParameters defaultTLSClientParameters = new TLSClientParameters();
+    private int maxConnectionsPerHost = DEFAULT_MAX_CONNECTIONS_PER_HOST;
+    private int ioThreads = Runtime.getRuntime().availableProcessors();
+    private XnioWorker worker;
+    private ByteBufferPool bufferPool;
+    private volatile boolean isShutdown;
+
+    public UndertowHttp2ConduitFactory() {
+        super();
+    }
+
+    public UndertowHttp2ConduitFactory(Map<String, Object> conf) {
+        this();
+        setProperties(conf);
+    }
+
+    public UndertowHttp2ConduitFactory(Bus b) {
+        this();
+        addListener(b);
+        setProperties(b.getProperties());
+    }
+
+    private void setProperties(Map<String, Object> s) {
+        if (s == null) {
+            return;
+        }
+        maxConnectionsPerHost = getInt(s.get(MAX_CONNECTIONS_PER_HOST), maxConnectionsPerHost);
+        ioThreads = getInt(s.get(IO_THREADS), ioThreads);
+    }
+
+    private static int getInt(Object s, int defaultv) {
+        int i = defaultv;
+        if (s instanceof String) {
+            i = Integer.parseInt((String)s);
+        } else if (s instanceof Number) {
+            i = ((Number)s).intValue();
+        }
+        return i > 0 ? i : defaultv;
+    }
+
+    public int getMaxConnectionsPerHost() {
+        return maxConnectionsPerHost;
+    }
+
+    public boolean isShutdown() {
+        return isShutdown;
+    }
+
+    @Override
+    public HTTPConduit createConduit(HTTPTransportFactory f,
+                                     Bus bus,
+                                     EndpointInfo localInfo,
+                                     EndpointReferenceType target) throws IOException {
+        return createConduit(bus, localInfo, target);
+    }
+
+    public HTTPConduit createConduit(Bus bus,
+                                     EndpointInfo localInfo,
+                                     EndpointReferenceType target) throws IOException {
+        if (isShutdown) {
+            return null;
+        }
+        return new UndertowHttp2Conduit(bus, localInfo, target, this);
+    }
+
+    /**
+     * Returns the connections to the host and port of the given http or https URI
+     * using the given TLS configuration, creating them on first use.
+     */
+    UndertowHttp2ConnectionPool getConnectionPool(URI uri, TLSClientParameters tlsClientParameters)
+        throws IOException {
+        boolean secure = "https".equals(uri.getScheme());
+        int port = uri.getPort() != -1 ? uri.getPort() : secure ? 443 : 80;
+        if (secure && tlsClientParameters == null) {
+            tlsClientParameters = defaultTLSClientParameters;
+        } else if (!secure) {
+            tlsClientParameters = null;
+        }
+        ConnectionPoolKey key = new ConnectionPoolKey(uri.getHost(), port, tlsClientParameters);
+        UndertowHttp2ConnectionPool pool = pools.get(key);
+        if (pool == null) {
+            pool = createConnectionPool(uri.getHost(), port, tlsClientParameters);
+            UndertowHttp2ConnectionPool existing = pools.putIfAbsent(key, pool);
+            if (existing != null) {
+                pool.close();
+                pool = existing;
+            } else if (isShutdown) {
+                // shutdown() may have cleared the pools before this one was added
+                pools.remove(key, pool);
+                pool.close();
+                throw new IOException("The HTTP/2 conduit factory has been shut down");
+            }
+        }
+        return pool;
+    }
+
+    private synchronized UndertowHttp2ConnectionPool createConnectionPool(String host, int port,
+                                                                         TLSClientParameters tls)
+        throws IOException {
+        if (isShutdown) {
+            throw new IOException("The HTTP/2 conduit factory has been shut down");
+        }
+        if (worker == null) {
+            Xnio xnio = Xnio.getInstance(Undertow.class.getClassLoader());
+            worker = xnio.createWorker(OptionMap.builder()
+                                       .set(Options.WORKER_NAME, "cxf-http2-client")
+                                       .set(Options.WORKER_IO_THREADS, ioThreads)
+                                       .set(Options.WORKER_TASK_CORE_THREADS, 1)
+                                       .set(Options.WORKER_TASK_MAX_THREADS, 1)
+                                       .set(Options.TCP_NODELAY, true)
+                                       .getMap());
+            bufferPool = new DefaultByteBufferPool(true, BUFFER_SIZE);
+        }
+        OptionMap options = OptionMap.builder()
+            .set(Options.TCP_NODELAY, true)
+            .set(UndertowOptions.ENABLE_HTTP2, true)
+            .getMap();
+        UndertowHttp2ConnectionPool.SessionTrackingXnioSsl ssl = null;
+        if (tls != null) {
+            try {
+                ssl = new UndertowHttp2ConnectionPool.SessionTrackingXnioSsl(worker.getXnio(), tls);
+            } catch (GeneralSecurityException e) {
+                throw new IOException(e);
+            }
+        }
+        return new UndertowHttp2ConnectionPool(host, port, worker, ssl, bufferPool, options,
+                                               maxConnectionsPerHost);
+    }
+
+    public synchronized void shutdown() {
+        isShutdown = true;
+        for (UndertowHttp2ConnectionPool pool : pools.values()) {
+            pool.close();
+        }
+        pools.clear();
+        if (worker != null) {
+            worker.shutdown();
+            worker = null;
+        }
+        if (bufferPool != null) {
+            bufferPool.close();
+            bufferPool = null;
+        }
+    }
+
+    private void addListener(Bus b) {
+        BusLifeCycleManager manager = b.getExtension(BusLifeCycleManager.class);
+        if (manager != null) {
+            manager.registerLifeCycleListener(new BusLifeCycleListener() {
+                public void initComplete() {
+                }
+                public void preShutdown() {
+                    shutdown();
+                }
+                public void postShutdown() {
+                }
+            });
+        }
+    }
+}
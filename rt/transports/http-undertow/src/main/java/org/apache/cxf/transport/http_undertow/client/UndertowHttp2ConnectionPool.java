@@ -0,0 +1,254 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.transport.http_undertow.client;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.security.GeneralSecurityException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.net.ssl.HostnameVerifier;
+import javax.net.ssl.SSLSession;
+
+import org.apache.cxf.configuration.jsse.TLSClientParameters;
+import org.apache.cxf.transport.https.SSLUtils;
+import org.xnio.ChannelListener;
+import org.xnio.ChannelListeners;
+import org.xnio.IoFuture;
+import org.xnio.IoUtils;
+import org.xnio.OptionMap;
+import org.xnio.Xnio;
+import org.xnio.XnioIoThread;
+import org.xnio.XnioWorker;
+import org.xnio.channels.BoundChannel;
+import org.xnio.ssl.SslConnection;
+
+import io.undertow.client.ClientConnection;
+import io.undertow.client.UndertowClient;
+import io.undertow.connector.ByteBufferPool;
+import io.undertow.protocols.ssl.UndertowXnioSsl;
+
+/**
+ * The HTTP/2 connections to one host, port and TLS configuration.  Requests are
+ * spread round robin over a fixed number of connections, each of which carries
+ * any number of concurrent streams.  Connections are opened on first use and
+ * reopened once they have been closed.
+ */
+final class UndertowHttp2ConnectionPool {
+    private final URI uri;
+    private final String host;
+    private final XnioWorker worker;
+    private final SessionTrackingXnioSsl ssl;
+    private final ByteBufferPool bufferPool;
+    private final OptionMap options;
+    private final IoFuture<ClientConnection>[] connections;
+    private final ConcurrentMap<ClientConnection, SSLSession> sessions =
+        new ConcurrentHashMap<ClientConnection, SSLSession>();
+    private final AtomicInteger next = new AtomicInteger();
+    private boolean closed;
+
+    @SuppressWarnings("unchecked")
+    UndertowHttp2ConnectionPool(String host, int port, XnioWorker worker, SessionTrackingXnioSsl ssl,
+                                ByteBufferPool bufferPool, OptionMap options, int maxConnections) throws IOException {
+        try {
+            // the scheme selects the Undertow client provider: ALPN or prior knowledge
+            this.uri = new URI(ssl != null ? "h2" : "h2c-prior", null, host, port, null, null, null);
+        } catch (URISyntaxException e) {
+            throw new IOException(e);
+        }
+        this.host = host;
+        this.worker = worker;
+        this.ssl = ssl;
+        this.bufferPool = bufferPool;
+        this.options = options;
+        this.connections = new IoFuture[maxConnections];
+    }
+
+    /**
+     * Returns an open connection, waiting at most the given number of milliseconds
+     * (0 to wait without limit) for it to be established.
+     */
+    ClientConnection acquire(long connectionTimeout) throws IOException {
+        int slot = (next.getAndIncrement() & Integer.MAX_VALUE) % connections.length;
+        IoFuture<ClientConnection> future;
+        synchronized (this) {
+            if (closed) {
+                throw new IOException("Connection pool for " + uri + " has been closed");
+            }
+            future = connections[slot];
+            if (future == null || !isUsable(future)) {
+                future = UndertowClient.getInstance().connect(uri, worker, ssl, bufferPool, options);
+                connections[slot] = future;
+            }
+        }
+        IoFuture.Status status = connectionTimeout > 0
+            ? future.await(connectionTimeout, TimeUnit.MILLISECONDS) : future.await();
+        switch (status) {
+        case DONE:
+            ClientConnection connection = future.get();
+            if (ssl != null) {
+                verify(connection);
+            }
+            return connection;
+        case FAILED:
+            throw future.getException();
+        case WAITING:
+            // the connection may still be established and used by later requests
+            throw new SocketTimeoutException("Connection Timeout");
+        default:
+            throw new IOException("Connection to " + uri + " has been cancelled");
+        }
+    }
+
+    private static boolean isUsable(IoFuture<ClientConnection> future) {
+        switch (future.getStatus()) {
+        case WAITING:
+            return true;
+        case DONE:
+            try {
+                return future.get().isOpen();
+            } catch (IOException e) {
+                return false;
+            }
+        default:
+            return false;
+        }
+    }
+
+    /**
+     * Checks the host name of a TLS connection the first time it is handed out.
+     */
+    private synchronized void verify(ClientConnection connection) throws IOException {
+        if (sessions.containsKey(connection)) {
+            return;
+        }
+        SSLSession session = ssl.removeSession(connection.getLocalAddress());
+        if (session == null) {
+            IoUtils.safeClose(connection);
+            throw new IOException("No TLS session for the connection to " + host);
+        }
+        if (!ssl.getHostnameVerifier().verify(host, session)) {
+            IoUtils.safeClose(connection);
+            throw new IOException("Could not verify host " + host);
+        }
+        if (sessions.putIfAbsent(connection, session) == null) {
+            connection.addCloseListener(new ChannelListener<ClientConnection>() {
+                public void handleEvent(ClientConnection c) {
+                    sessions.remove(c);
+                }
+            });
+        }
+    }
+
+    /**
+     * Returns the TLS session of a connection handed out by this pool, null for h2c.
+     */
+    SSLSession getSession(ClientConnection connection) {
+        return sessions.get(connection);
+    }
+
+    synchronized void close() {
+        closed = true;
+        for (int i = 0; i < connections.length; i++) {
+            IoFuture<ClientConnection> future = connections[i];
+            if (future != null) {
+                if (future.getStatus() == IoFuture.Status.WAITING) {
+                    future.cancel();
+                } else if (future.getStatus() == IoFuture.Status.DONE) {
+                    try {
+                        IoUtils.safeClose(future.get());
+                    } catch (IOException e) {
+                        // not open
+                    }
+                }
+                connections[i] = null;
+            }
+        }
+        sessions.clear();
+    }
+
+    /**
+     * Records the TLS session of every connection it opens so that the host name can
+     * be verified and the session reported once the HTTP/2 connection is established.
+     */
+    static class SessionTrackingXnioSsl extends UndertowXnioSsl {
+        private final ConcurrentMap<SocketAddress, SslConnection> pending =
+            new ConcurrentHashMap<SocketAddress, SslConnection>();
+        private final HostnameVerifier hostnameVerifier;
+
+        SessionTrackingXnioSsl(Xnio xnio, TLSClientParameters tlsClientParameters)
+            throws GeneralSecurityException {
+            super(xnio, OptionMap.EMPTY, SSLUtils.getSSLContext(tlsClientParameters));
+            hostnameVerifier = SSLUtils.getHostnameVerifier(tlsClientParameters);
+        }
+
+        HostnameVerifier getHostnameVerifier() {
+            return hostnameVerifier;
+        }
+
+        SSLSession removeSession(SocketAddress localAddress) {
+            SslConnection connection = pending.remove(localAddress);
+            return connection == null ? null : connection.getSslSession();
+        }
+
+        @Override
+        public IoFuture<SslConnection> openSslConnection(XnioWorker worker,
+                                                         InetSocketAddress bindAddress,
+                                                         InetSocketAddress destination,
+                                                         ChannelListener<? super SslConnection> openListener,
+                                                         ChannelListener<? super BoundChannel> bindListener,
+                                                         OptionMap optionMap) {
+            return super.openSslConnection(worker, bindAddress, destination, track(openListener),
+                                           bindListener, optionMap);
+        }
+
+        @Override
+        public IoFuture<SslConnection> openSslConnection(XnioIoThread ioThread,
+                                                         InetSocketAddress bindAddress,
+                                                         InetSocketAddress destination,
+                                                         ChannelListener<? super SslConnection> openListener,
+                                                         ChannelListener<? super BoundChannel> bindListener,
+                                                         OptionMap optionMap) {
+            return super.openSslConnection(ioThread, bindAddress, destination, track(openListener),
+                                           bindListener, optionMap);
+        }
+
+        private ChannelListener<SslConnection> track(final ChannelListener<? super SslConnection> listener) {
+            return new ChannelListener<SslConnection>() {
+                public void handleEvent(SslConnection connection) {
+                    final SocketAddress address = connection.getLocalAddress();
+                    pending.put(address, connection);
+                    connection.getCloseSetter().set(new ChannelListener<SslConnection>() {
+                        public void handleEvent(SslConnection c) {
+                            pending.remove(address);
+                        }
+                    });
+                    ChannelListeners.invokeChannelListener(connection, listener);
+                }
+            };
+        }
+    }
+}
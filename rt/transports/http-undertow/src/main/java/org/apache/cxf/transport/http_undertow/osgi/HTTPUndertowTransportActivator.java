@@ -139,6 +139,8 @@ public class HTTPUndertowTransportActivator
                 e.setContinuationsEnabled(Boolean.parseBoolean((String)properties.get(k)));
             } else if ("maxIdleTime".equals(k)) {
                 e.setMaxIdleTime(Integer.parseInt((String)properties.get(k)));
+            } else if ("http2Enabled".equals(k)) {
+                e.setHttp2Enabled(Boolean.parseBoolean((String)properties.get(k)));
             }
         }
     }
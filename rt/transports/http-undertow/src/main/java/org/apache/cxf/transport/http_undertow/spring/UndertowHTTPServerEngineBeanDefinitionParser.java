@@ -90,6 +90,11 @@ public class UndertowHTTPServerEngineBeanDefinitionParser extends AbstractBeanDe
             bean.addPropertyValue("maxIdleTime", maxIdleTimeStr);
         }
 
+        String http2EnabledStr = element.getAttribute("http2Enabled");
+        if (http2EnabledStr != null && http2EnabledStr.length() > 0) {
+            bean.addPropertyValue("http2Enabled", http2EnabledStr);
+        }
+
 
         ValueHolder busValue = ctx.getContainingBeanDefinition()
             .getConstructorArgumentValues().getArgumentValue(0, Bus.class);
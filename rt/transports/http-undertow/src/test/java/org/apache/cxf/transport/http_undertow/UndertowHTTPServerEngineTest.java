@@ -23,6 +23,7 @@ package org.apache.cxf.transport.http_undertow;
 
 import java.io.ByteArrayOutputStream;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.lang.management.ManagementFactory;
 import java.net.HttpURLConnection;
 import java.net.URL;
@@ -34,13 +35,24 @@ import java.util.Set;
 import javax.management.ObjectName;
 
 import org.apache.cxf.Bus;
+import org.apache.cxf.bus.extension.ExtensionManagerBus;
 import org.apache.cxf.configuration.Configurer;
 import org.apache.cxf.configuration.jsse.TLSServerParameters;
 import org.apache.cxf.configuration.spring.ConfigurerImpl;
 import org.apache.cxf.helpers.CastUtils;
 import org.apache.cxf.helpers.IOUtils;
 import org.apache.cxf.management.InstrumentationManager;
+import org.apache.cxf.message.Exchange;
+import org.apache.cxf.message.ExchangeImpl;
+import org.apache.cxf.message.Message;
+import org.apache.cxf.message.MessageImpl;
+import org.apache.cxf.service.model.EndpointInfo;
 import org.apache.cxf.testutil.common.TestUtil;
+import org.apache.cxf.transport.MessageObserver;
+import org.apache.cxf.transport.http.HTTPConduit;
+import org.apache.cxf.transport.http_undertow.client.UndertowHttp2ConduitFactory;
+
+import io.undertow.server.HttpServerExchange;
 
 import org.easymock.EasyMock;
 import org.easymock.IMocksControl;
@@ -200,6 +212,56 @@ public class UndertowHTTPServerEngineTest extends Assert {
 
     }
 
+    @Test
+    public void testHttp2Enabled() throws Exception {
+        String urlStr = "http://localhost:" + PORT1 + "/hello/http2";
+        UndertowHTTPServerEngine engine =
+            factory.createUndertowHTTPServerEngine(PORT1, "http");
+        engine.setHttp2Enabled(true);
+        engine.addServant(new URL(urlStr), new UndertowHTTPTestHandler("string1", true) {
+            @Override
+            public void handleRequest(HttpServerExchange undertowExchange) throws Exception {
+                undertowExchange.getResponseSender().send(undertowExchange.getProtocol().toString());
+            }
+        });
+        assertTrue(engine.isHttp2Enabled());
+
+        // HTTP/1.1 clients keep working
+        assertEquals("HTTP/1.1", getResponse(urlStr));
+
+        Bus clientBus = new ExtensionManagerBus();
+        UndertowHttp2ConduitFactory conduitFactory = new UndertowHttp2ConduitFactory(clientBus);
+        try {
+            EndpointInfo ei = new EndpointInfo();
+            ei.setAddress(urlStr);
+            HTTPConduit conduit = conduitFactory.createConduit(clientBus, ei, null);
+            conduit.finalizeConfig();
+            conduit.setMessageObserver(new MessageObserver() {
+                public void onMessage(Message m) {
+                    m.getExchange().setInMessage(m);
+                }
+            });
+            Message message = new MessageImpl();
+            Exchange exchange = new ExchangeImpl();
+            message.setExchange(exchange);
+            exchange.setOutMessage(message);
+            message.put(Message.HTTP_REQUEST_METHOD, "GET");
+            conduit.prepare(message);
+            message.getContent(OutputStream.class).close();
+
+            InputStream in = exchange.getInMessage().getContent(InputStream.class);
+            assertEquals("HTTP/2.0", IOUtils.toString(in));
+            in.close();
+        } finally {
+            conduitFactory.shutdown();
+            clientBus.shutdown(true);
+        }
+
+        engine.removeServant(new URL(urlStr));
+        engine.shutdown();
+        UndertowHTTPServerEngineFactory.destroyForPort(PORT1);
+    }
+
     /**
      * Test that multiple UndertowHTTPServerEngine instances can be used simultaneously
      * without having name collisions.
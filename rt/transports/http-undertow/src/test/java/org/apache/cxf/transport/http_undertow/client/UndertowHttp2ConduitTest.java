@@ -0,0 +1,299 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.transport.http_undertow.client;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.SocketAddress;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.logging.Logger;
+
+import org.apache.cxf.Bus;
+import org.apache.cxf.bus.extension.ExtensionManagerBus;
+import org.apache.cxf.common.logging.LogUtils;
+import org.apache.cxf.helpers.IOUtils;
+import org.apache.cxf.message.Exchange;
+import org.apache.cxf.message.ExchangeImpl;
+import org.apache.cxf.message.Message;
+import org.apache.cxf.message.MessageImpl;
+import org.apache.cxf.service.model.EndpointInfo;
+import org.apache.cxf.testutil.common.TestUtil;
+import org.apache.cxf.transport.MessageObserver;
+import org.apache.cxf.transport.http.HTTPConduit;
+import org.apache.cxf.transport.http.asyncclient.AsyncHTTPConduit;
+import org.apache.cxf.transport.http.asyncclient.AsyncHTTPConduitFactory;
+import org.apache.cxf.transports.http.configuration.HTTPClientPolicy;
+
+import io.undertow.Undertow;
+import io.undertow.UndertowOptions;
+import io.undertow.server.HttpHandler;
+import io.undertow.server.HttpServerExchange;
+import io.undertow.util.Headers;
+
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class UndertowHttp2ConduitTest extends Assert {
+    private static final Logger LOG = LogUtils.getL7dLogger(UndertowHttp2ConduitTest.class);
+    private static final String PORT = TestUtil.getPortNumber(UndertowHttp2ConduitTest.class);
+    private static final String ADDRESS = "http://localhost:" + PORT + "/echo";
+
+    private static Undertow server;
+    private static final Set<SocketAddress> PEERS = Collections.synchronizedSet(new HashSet<SocketAddress>());
+    private static final List<String> PROTOCOLS = Collections.synchronizedList(new ArrayList<String>());
+
+    private Bus bus;
+    private UndertowHttp2ConduitFactory factory;
+
+    @BeforeClass
+    public static void startServer() {
+        server = Undertow.builder()
+            .setServerOption(UndertowOptions.ENABLE_HTTP2, true)
+            .addHttpListener(Integer.parseInt(PORT), "localhost")
+            .setHandler(new HttpHandler() {
+                public void handleRequest(HttpServerExchange exchange) throws Exception {
+                    if (exchange.isInIoThread()) {
+                        exchange.dispatch(this);
+                        return;
+                    }
+                    PEERS.add(exchange.getConnection().getPeerAddress());
+                    PROTOCOLS.add(exchange.getProtocol().toString());
+                    exchange.startBlocking();
+                    String delay = exchange.getQueryString();
+                    if (delay.startsWith("delay=")) {
+                        Thread.sleep(Long.parseLong(delay.substring(6)));
+                    }
+                    byte[] body = IOUtils.readBytesFromStream(exchange.getInputStream());
+                    exchange.getResponseHeaders().put(Headers.CONTENT_TYPE, "text/plain");
+                    exchange.getOutputStream().write(body);
+                }
+            })
+            .build();
+        server.start();
+    }
+
+    @AfterClass
+    public static void stopServer() {
+        server.stop();
+    }
+
+    @Before
+    public void setUp() {
+        bus = new ExtensionManagerBus();
+        factory = new UndertowHttp2ConduitFactory(bus);
+        PEERS.clear();
+        PROTOCOLS.clear();
+    }
+
+    @After
+    public void tearDown() {
+        bus.shutdown(true);
+        factory.shutdown();
+    }
+
+    private HTTPConduit createConduit(String address) throws IOException {
+        EndpointInfo ei = new EndpointInfo();
+        ei.setAddress(address);
+        HTTPConduit conduit = factory.createConduit(bus, ei, null);
+        conduit.finalizeConfig();
+        conduit.setMessageObserver(new MessageObserver() {
+            public void onMessage(Message m) {
+                m.getExchange().setInMessage(m);
+            }
+        });
+        return conduit;
+    }
+
+    private static String invoke(HTTPConduit conduit, String body) throws IOException {
+        Message message = new MessageImpl();
+        Exchange exchange = new ExchangeImpl();
+        message.setExchange(exchange);
+        exchange.setOutMessage(message);
+        message.put(Message.CONTENT_TYPE, "text/plain");
+        message.put(AsyncHTTPConduit.USE_ASYNC, Boolean.TRUE);
+
+        conduit.prepare(message);
+        OutputStream out = message.getContent(OutputStream.class);
+        out.write(body.getBytes(StandardCharsets.UTF_8));
+        out.close();
+
+        Message in = exchange.getInMessage();
+        assertEquals(200, in.get(Message.RESPONSE_CODE));
+        try (InputStream is = in.getContent(InputStream.class)) {
+            return IOUtils.toString(is, StandardCharsets.UTF_8.name());
+        }
+    }
+
+    @Test
+    public void testRequestIsSentOverHttp2() throws Exception {
+        HTTPConduit conduit = createConduit(ADDRESS);
+        assertTrue(conduit instanceof UndertowHttp2Conduit);
+
+        assertEquals("Hello", invoke(conduit, "Hello"));
+        assertEquals(Arrays.asList("HTTP/2.0"), PROTOCOLS);
+    }
+
+    @Test
+    public void testLargeRequestIsStreamedWithFlowControl() throws Exception {
+        HTTPConduit conduit = createConduit(ADDRESS);
+        // well beyond the initial 64k flow control window of a stream
+        char[] chars = new char[1024 * 1024];
+        Arrays.fill(chars, 'x');
+        String body = new String(chars);
+
+        assertEquals(body, invoke(conduit, body));
+    }
+
+    @Test
+    public void testConcurrentRequestsAreMultiplexed() throws Exception {
+        final HTTPConduit conduit = createConduit(ADDRESS);
+        List<String> results = runConcurrently(conduit, 16, 8);
+
+        assertEquals(16 * 8, results.size());
+        for (String result : results) {
+            assertTrue(result, result.startsWith("request "));
+        }
+        assertTrue("Connections used: " + PEERS.size(),
+                   PEERS.size() <= UndertowHttp2ConduitFactory.DEFAULT_MAX_CONNECTIONS_PER_HOST);
+    }
+
+    @Test
+    public void testReceiveTimeout() throws Exception {
+        HTTPConduit conduit = createConduit(ADDRESS + "?delay=3000");
+        HTTPClientPolicy policy = new HTTPClientPolicy();
+        policy.setReceiveTimeout(500);
+        conduit.setClient(policy);
+
+        try {
+            invoke(conduit, "Hello");
+            fail("Expected a read timeout");
+        } catch (SocketTimeoutException ex) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testUseHttp2CanBeDisabled() throws Exception {
+        HTTPConduit conduit = createConduit(ADDRESS);
+        Message message = new MessageImpl();
+        Exchange exchange = new ExchangeImpl();
+        message.setExchange(exchange);
+        message.put(UndertowHttp2Conduit.USE_HTTP2, Boolean.FALSE);
+
+        conduit.prepare(message);
+        assertNotNull(message.get("http.connection"));
+        message.getContent(OutputStream.class).close();
+        assertEquals(Arrays.asList("HTTP/1.1"), PROTOCOLS);
+    }
+
+    /**
+     * Runs the same workload through the HttpAsyncClient based conduit and the HTTP/2
+     * conduit and logs the throughput, average latency and number of connections used.
+     */
+    @Test
+    public void testCompareWithAsyncConduit() throws Exception {
+        EndpointInfo ei = new EndpointInfo();
+        ei.setAddress(ADDRESS);
+        AsyncHTTPConduitFactory asyncFactory = new AsyncHTTPConduitFactory(bus);
+        HTTPConduit asyncConduit = asyncFactory.createConduit(bus, ei, null);
+        asyncConduit.finalizeConfig();
+        asyncConduit.setMessageObserver(new MessageObserver() {
+            public void onMessage(Message m) {
+                m.getExchange().setInMessage(m);
+            }
+        });
+        HTTPConduit http2Conduit = createConduit(ADDRESS);
+
+        int threads = 32;
+        int requests = 50;
+        // warm up both clients before measuring
+        runConcurrently(asyncConduit, threads, 5);
+        runConcurrently(http2Conduit, threads, 5);
+
+        PEERS.clear();
+        long start = System.nanoTime();
+        assertEquals(threads * requests, runConcurrently(asyncConduit, threads, requests).size());
+        long asyncTime = System.nanoTime() - start;
+        int asyncConnections = PEERS.size();
+
+        PEERS.clear();
+        start = System.nanoTime();
+        assertEquals(threads * requests, runConcurrently(http2Conduit, threads, requests).size());
+        long http2Time = System.nanoTime() - start;
+        int http2Connections = PEERS.size();
+
+        LOG.info(report("HttpAsyncClient", asyncTime, threads * requests, asyncConnections));
+        LOG.info(report("HTTP/2", http2Time, threads * requests, http2Connections));
+        assertTrue(http2Connections <= UndertowHttp2ConduitFactory.DEFAULT_MAX_CONNECTIONS_PER_HOST);
+        asyncFactory.shutdown();
+    }
+
+    private static String report(String name, long nanos, int requests, int connections) {
+        double millis = nanos / 1000000.0;
+        return String.format("%s: %d requests in %.1f ms, %.0f requests/s, %.3f ms average latency, "
+                             + "%d connections", name, requests, millis, requests * 1000 / millis,
+                             millis / requests, connections);
+    }
+
+    private static List<String> runConcurrently(final HTTPConduit conduit, int threads, final int requests)
+        throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<List<String>>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                final int thread = t;
+                futures.add(executor.submit(new Callable<List<String>>() {
+                    public List<String> call() throws Exception {
+                        List<String> results = new ArrayList<>();
+                        for (int i = 0; i < requests; i++) {
+                            String body = "request " + thread + "-" + i;
+                            String result = invoke(conduit, body);
+                            assertEquals(body, result);
+                            results.add(result);
+                        }
+                        return results;
+                    }
+                }));
+            }
+            List<String> results = new ArrayList<>();
+            for (Future<List<String>> future : futures) {
+                results.addAll(future.get());
+            }
+            return results;
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
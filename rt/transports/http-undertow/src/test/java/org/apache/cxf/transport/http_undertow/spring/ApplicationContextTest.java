@@ -133,6 +133,7 @@ public class ApplicationContextTest extends Assert {
 
         engine = (UndertowHTTPServerEngine)jd2.getEngine();
         assertEquals(40000, engine.getMaxIdleTime());
+        assertTrue(engine.isHttp2Enabled());
         assertEquals(99, engine.getThreadingParameters().getMinThreads());
         assertEquals(777, engine.getThreadingParameters().getMaxThreads());
 
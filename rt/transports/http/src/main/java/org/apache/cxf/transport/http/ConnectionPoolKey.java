@@ -0,0 +1,90 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.transport.http;
+
+import org.apache.cxf.configuration.jsse.TLSClientParameters;
+
+/**
+ * Identifies a pool of client connections by host, port and TLS configuration.
+ * <p>
+ * The TLS parameters are compared by value, so that equal parameters set on every
+ * message share one pool instead of opening a new one per request.  The host name
+ * verifier is not part of {@link TLSClientParameters#equals(Object)} and is compared
+ * by identity.  The parameters must not be modified once they are used for a request.
+ */
+public final class ConnectionPoolKey {
+    private final String host;
+    private final int port;
+    private final TLSClientParameters tlsClientParameters;
+    private final int hash;
+
+    public ConnectionPoolKey(String host, int port, TLSClientParameters tlsClientParameters) {
+        this.host = host;
+        this.port = port;
+        this.tlsClientParameters = tlsClientParameters;
+        int h = host.hashCode() * 31 + port;
+        if (tlsClientParameters != null) {
+            h = h * 31 + tlsClientParameters.hashCode();
+            h = h * 31 + System.identityHashCode(tlsClientParameters.getHostnameVerifier());
+        }
+        this.hash = h;
+    }
+
+    public String getHost() {
+        return host;
+    }
+
+    public int getPort() {
+        return port;
+    }
+
+    public TLSClientParameters getTlsClientParameters() {
+        return tlsClientParameters;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o == this) {
+            return true;
+        }
+        if (!(o instanceof ConnectionPoolKey)) {
+            return false;
+        }
+        ConnectionPoolKey other = (ConnectionPoolKey)o;
+        if (hash != other.hash || port != other.port || !host.equals(other.host)) {
+            return false;
+        }
+        if (tlsClientParameters == null || other.tlsClientParameters == null) {
+            return tlsClientParameters == other.tlsClientParameters;
+        }
+        return tlsClientParameters.equals(other.tlsClientParameters)
+            && tlsClientParameters.getHostnameVerifier() == other.tlsClientParameters.getHostnameVerifier();
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return host + ":" + port + (tlsClientParameters != null ? " (TLS)" : "");
+    }
+}
@@ -0,0 +1,102 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.transport.http;
+
+import java.security.cert.X509Certificate;
+import java.util.Arrays;
+
+import javax.net.ssl.HostnameVerifier;
+import javax.net.ssl.SSLSession;
+import javax.net.ssl.TrustManager;
+import javax.net.ssl.X509TrustManager;
+
+import org.apache.cxf.configuration.jsse.TLSClientParameters;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ConnectionPoolKeyTest extends Assert {
+
+    @Test
+    public void testEqualTLSParametersShareKey() {
+        TrustManager[] trustManagers = new TrustManager[] {new NoopTrustManager()};
+        TLSClientParameters p1 = createParameters(trustManagers);
+        TLSClientParameters p2 = createParameters(trustManagers);
+        assertNotSame(p1, p2);
+
+        ConnectionPoolKey k1 = new ConnectionPoolKey("localhost", 443, p1);
+        ConnectionPoolKey k2 = new ConnectionPoolKey("localhost", 443, p2);
+        assertEquals(k1, k2);
+        assertEquals(k1.hashCode(), k2.hashCode());
+    }
+
+    @Test
+    public void testDifferentTLSParametersDoNotShareKey() {
+        TrustManager[] trustManagers = new TrustManager[] {new NoopTrustManager()};
+        TLSClientParameters p1 = createParameters(trustManagers);
+        TLSClientParameters p2 = createParameters(trustManagers);
+        p2.setSecureSocketProtocol("TLSv1.3");
+        assertFalse(new ConnectionPoolKey("localhost", 443, p1)
+            .equals(new ConnectionPoolKey("localhost", 443, p2)));
+
+        TLSClientParameters p3 = createParameters(trustManagers);
+        p3.setHostnameVerifier(new HostnameVerifier() {
+            public boolean verify(String hostname, SSLSession session) {
+                return true;
+            }
+        });
+        assertFalse(new ConnectionPoolKey("localhost", 443, p1)
+            .equals(new ConnectionPoolKey("localhost", 443, p3)));
+
+        TLSClientParameters p4 = createParameters(new TrustManager[] {new NoopTrustManager()});
+        assertFalse(new ConnectionPoolKey("localhost", 443, p1)
+            .equals(new ConnectionPoolKey("localhost", 443, p4)));
+    }
+
+    @Test
+    public void testHostPortAndPlainConnections() {
+        assertEquals(new ConnectionPoolKey("localhost", 80, null),
+                     new ConnectionPoolKey("localhost", 80, null));
+        assertFalse(new ConnectionPoolKey("localhost", 80, null)
+            .equals(new ConnectionPoolKey("localhost", 8080, null)));
+        assertFalse(new ConnectionPoolKey("localhost", 80, null)
+            .equals(new ConnectionPoolKey("example.com", 80, null)));
+        assertFalse(new ConnectionPoolKey("localhost", 443, null)
+            .equals(new ConnectionPoolKey("localhost", 443, new TLSClientParameters())));
+    }
+
+    private static TLSClientParameters createParameters(TrustManager[] trustManagers) {
+        TLSClientParameters parameters = new TLSClientParameters();
+        parameters.setTrustManagers(trustManagers);
+        parameters.setSecureSocketProtocol("TLSv1.2");
+        parameters.setCipherSuites(Arrays.asList("TLS_ECDHE_RSA_WITH_AES_128_GCM_SHA256"));
+        return parameters;
+    }
+
+    private static class NoopTrustManager implements X509TrustManager {
+        public void checkClientTrusted(X509Certificate[] chain, String authType) {
+        }
+        public void checkServerTrusted(X509Certificate[] chain, String authType) {
+        }
+        public X509Certificate[] getAcceptedIssuers() {
+            return new X509Certificate[0];
+        }
+    }
+}
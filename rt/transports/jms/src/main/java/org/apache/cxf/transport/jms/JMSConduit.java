@@ -53,7 +53,9 @@ import org.apache.cxf.transport.jms.util.JMSSender;
 import org.apache.cxf.transport.jms.util.JMSUtil;
 import org.apache.cxf.transport.jms.util.MessageListenerContainer;
 import org.apache.cxf.transport.jms.util.PollingMessageListenerContainer;
+import org.apache.cxf.transport.jms.util.PooledSession;
 import org.apache.cxf.transport.jms.util.ResourceCloser;
+import org.apache.cxf.transport.jms.util.SessionPool;
 import org.apache.cxf.ws.addressing.EndpointReferenceType;
 
 /**
@@ -77,6 +79,8 @@ public class JMSConduit extends AbstractConduit implements JMSExchangeSender, Me
     private JMSBusLifeCycleListener listener;
     private Bus bus;
     private volatile Connection connection;
+    private volatile SessionPool sessionPool;
+    private volatile OneWayBatch oneWayBatch;
     private volatile Destination staticReplyDestination;
 
     public JMSConduit(EndpointReferenceType target,
@@ -112,6 +116,11 @@ public class JMSConduit extends AbstractConduit implements JMSExchangeSender, Me
                     result = JMSFactory.createConnection(jmsConfig);
                     trySetExListener(result);
                     result.start();
+                    sessionPool = new SessionPool(result, jmsConfig.getSessionCacheSize());
+                    if (jmsConfig.getOneWayBatchSize() > 1) {
+                        oneWayBatch = new OneWayBatch(result, jmsConfig.getOneWayBatchSize(),
+                                                      jmsConfig.getOneWayBatchTimeout());
+                    }
                     connection = result;
                 }
             }
@@ -119,6 +128,41 @@ public class JMSConduit extends AbstractConduit implements JMSExchangeSender, Me
         return result;
     }
 
+    private SessionPool getSessionPool() throws JMSException {
+        SessionPool result = sessionPool;
+        if (result == null) {
+            synchronized (this) {
+                getConnection();
+                result = sessionPool;
+            }
+        }
+        return result;
+    }
+
+    private OneWayBatch getOneWayBatch() throws JMSException {
+        OneWayBatch result = oneWayBatch;
+        if (result == null) {
+            synchronized (this) {
+                getConnection();
+                result = oneWayBatch;
+            }
+        }
+        return result;
+    }
+
+    private synchronized void resetConnection() {
+        if (oneWayBatch != null) {
+            oneWayBatch.close();
+            oneWayBatch = null;
+        }
+        if (sessionPool != null) {
+            sessionPool.close();
+            sessionPool = null;
+        }
+        ResourceCloser.close(connection);
+        connection = null;
+    }
+
     /**
      * Register exception listener to react faster when a connection is reset.  
      * 
@@ -158,29 +202,35 @@ public class JMSConduit extends AbstractConduit implements JMSExchangeSender, Me
         jmsConfig.ensureProperlyConfigured();
         assertIsNotTextMessageAndMtom(outMessage);
 
+        PooledSession session = null;
         try (ResourceCloser closer = new ResourceCloser()) {
-            Connection c;
-
+            if (exchange.isOneWay() && jmsConfig.getOneWayBatchSize() > 1
+                && !jmsConfig.isOneSessionPerConnection()) {
+                sendBatched(exchange, request, outMessage, closer);
+                return;
+            }
             if (jmsConfig.isOneSessionPerConnection()) {
-                c = closer.register(JMSFactory.createConnection(jmsConfig));
+                Connection c = closer.register(JMSFactory.createConnection(jmsConfig));
                 c.start();
+                session = new PooledSession(c.createSession(false, Session.AUTO_ACKNOWLEDGE));
             } else {
-                c = getConnection();
+                // the session and its producers are reused by the following requests
+                session = getSessionPool().borrow();
             }
 
-            Session session = closer.register(c.createSession(false, 
-                                                              Session.AUTO_ACKNOWLEDGE));
-
             if (exchange.isOneWay()) {
                 sendMessage(request, outMessage, null, null, closer, session);
             } else {
                 sendAndReceiveMessage(exchange, request, outMessage, closer, session);
             }
         } catch (JMSException e) {
+            if (session != null) {
+                session.invalidate();
+                session = null;
+            }
             // Close connection so it will be refreshed on next try
             if (!jmsConfig.isOneSessionPerConnection()) {
-                ResourceCloser.close(connection);
-                this.connection = null;
+                resetConnection();
                 jmsConfig.resetCachedReplyDestination();
             }
             this.staticReplyDestination = null;
@@ -194,9 +244,24 @@ public class JMSConduit extends AbstractConduit implements JMSExchangeSender, Me
                 // Ignore
             }
             throw JMSUtil.convertJmsException(e);
+        } finally {
+            if (session != null) {
+                session.release();
+            }
         }
     }
 
+    private void sendBatched(final Exchange exchange, final Object request, final Message outMessage,
+                             final ResourceCloser closer) throws JMSException {
+        OneWayCompletionListener completionListener = (OneWayCompletionListener)outMessage
+            .getContextualProperty(OneWayCompletionListener.ONE_WAY_COMPLETION_LISTENER);
+        getOneWayBatch().send(exchange, completionListener, new OneWayBatch.Sender() {
+            public void send(PooledSession session) throws JMSException {
+                sendMessage(request, outMessage, null, null, closer, session);
+            }
+        });
+    }
+
     private void setupReplyDestination(Session session) throws JMSException {
         if (staticReplyDestination == null) {
             synchronized (this) {
@@ -240,8 +305,8 @@ public class JMSConduit extends AbstractConduit implements JMSExchangeSender, Me
 
     private void sendAndReceiveMessage(final Exchange exchange, final Object request, final Message outMessage,
                                 ResourceCloser closer,
-                                Session session) throws JMSException {
-
+                                PooledSession pooledSession) throws JMSException {
+        Session session = pooledSession.getSession();
         setupReplyDestination(session);
 
         JMSMessageHeadersType headers = getOrCreateJmsHeaders(outMessage);
@@ -257,7 +322,7 @@ public class JMSConduit extends AbstractConduit implements JMSExchangeSender, Me
             String replyTo = headers.getJMSReplyTo();
             String jmsMessageID = sendMessage(request, outMessage,
                                               jmsConfig.getReplyToDestination(session, replyTo),
-                                              correlationId, closer, session);
+                                              correlationId, closer, pooledSession);
             Destination replyDestination = jmsConfig.getReplyDestination(session, replyTo);
             boolean useSyncReceive = ((correlationId == null || userCID != null) && !jmsConfig.isPubSubDomain())
                 || !replyDestination.equals(staticReplyDestination);
@@ -297,7 +362,8 @@ public class JMSConduit extends AbstractConduit implements JMSExchangeSender, Me
 
     private String sendMessage(final Object request, final Message outMessage,
                                Destination replyToDestination, String correlationId,
-                               ResourceCloser closer, Session session) throws JMSException {
+                               ResourceCloser closer, PooledSession pooledSession) throws JMSException {
+        Session session = pooledSession.getSession();
         JMSMessageHeadersType headers = getOrCreateJmsHeaders(outMessage);
         javax.jms.Message message = JMSMessageUtils.asJMSMessage(jmsConfig,
                                                                  outMessage,
@@ -317,7 +383,7 @@ public class JMSConduit extends AbstractConduit implements JMSExchangeSender, Me
         JMSSender sender = JMSFactory.createJmsSender(jmsConfig, headers);
 
         Destination targetDest = jmsConfig.getTargetDestination(session);
-        sender.sendMessage(session, targetDest, message);
+        sender.sendMessage(pooledSession.getProducer(targetDest), message);
         String jmsMessageID = message.getJMSMessageID();
         LOG.log(Level.FINE, "client sending request message "
             + jmsMessageID + " to " + targetDest);
@@ -500,8 +566,7 @@ public class JMSConduit extends AbstractConduit implements JMSExchangeSender, Me
     }
     public synchronized void close() {
         shutdownListeners();
-        ResourceCloser.close(connection);
-        connection = null;
+        resetConnection();
         LOG.log(Level.FINE, "JMSConduit closed ");
     }
 
@@ -86,7 +86,12 @@ public final class JMSConfigFactory {
         jmsConfig.setUserName(endpoint.getUsername());
         jmsConfig.setPassword(endpoint.getPassword());
         jmsConfig.setConcurrentConsumers(endpoint.getConcurrentConsumers());
+        jmsConfig.setMaxConcurrentConsumers(endpoint.getMaxConcurrentConsumers());
+        jmsConfig.setReceiveBatchSize(endpoint.getReceiveBatchSize());
         jmsConfig.setOneSessionPerConnection(endpoint.isOneSessionPerConnection());
+        jmsConfig.setSessionCacheSize(endpoint.getSessionCacheSize());
+        jmsConfig.setOneWayBatchSize(endpoint.getOneWayBatchSize());
+        jmsConfig.setOneWayBatchTimeout(endpoint.getOneWayBatchTimeout());
         jmsConfig.setMessageSelector(endpoint.getMessageSelector());
 
         TransactionManager tm = getTransactionManager(bus, endpoint);
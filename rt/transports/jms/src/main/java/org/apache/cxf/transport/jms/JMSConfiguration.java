@@ -57,6 +57,8 @@ public class JMSConfiguration {
     private boolean createSecurityContext = true;
 
     private int concurrentConsumers = 1;
+    private int maxConcurrentConsumers;
+    private int receiveBatchSize = 1;
     private int maxSuspendedContinuations = DEFAULT_VALUE;
     private int reconnectPercentOfMax = 70;
 
@@ -92,6 +94,9 @@ public class JMSConfiguration {
     private String conduitSelectorPrefix;
     private boolean jmsProviderTibcoEms;
     private boolean oneSessionPerConnection;
+    private int sessionCacheSize = 10;
+    private int oneWayBatchSize;
+    private long oneWayBatchTimeout = 100;
 
     private TransactionManager transactionManager;
 
@@ -333,6 +338,31 @@ public class JMSConfiguration {
         this.concurrentConsumers = concurrentConsumers;
     }
 
+    public int getMaxConcurrentConsumers() {
+        return maxConcurrentConsumers;
+    }
+
+    /**
+     * @param maxConcurrentConsumers The number of consumers the destination may start when all
+     *        of its consumers are busy. Additional consumers stop again once they are idle.
+     *        Values up to concurrentConsumers keep a fixed number of consumers.
+     */
+    public void setMaxConcurrentConsumers(int maxConcurrentConsumers) {
+        this.maxConcurrentConsumers = maxConcurrentConsumers;
+    }
+
+    public int getReceiveBatchSize() {
+        return receiveBatchSize;
+    }
+
+    /**
+     * @param receiveBatchSize The number of messages the destination takes in one transaction
+     *        if they are available right away.
+     */
+    public void setReceiveBatchSize(int receiveBatchSize) {
+        this.receiveBatchSize = receiveBatchSize;
+    }
+
     public int getMaxSuspendedContinuations() {
         return maxSuspendedContinuations;
     }
@@ -441,6 +471,43 @@ public class JMSConfiguration {
         this.oneSessionPerConnection = oneSessionPerConnection;
     }
 
+    public int getSessionCacheSize() {
+        return sessionCacheSize;
+    }
+
+    /**
+     * @param sessionCacheSize The number of idle sessions the conduit keeps open, together with
+     *        their producers, to send the next requests with. 0 closes the session after every request.
+     */
+    public void setSessionCacheSize(int sessionCacheSize) {
+        this.sessionCacheSize = sessionCacheSize;
+    }
+
+    public int getOneWayBatchSize() {
+        return oneWayBatchSize;
+    }
+
+    /**
+     * @param oneWayBatchSize The number of one-way messages the conduit sends in one transaction.
+     *        The invocation returns before the transaction is committed, use a
+     *        {@link OneWayCompletionListener} to learn the outcome. 0 or 1 send every message on its own.
+     */
+    public void setOneWayBatchSize(int oneWayBatchSize) {
+        this.oneWayBatchSize = oneWayBatchSize;
+    }
+
+    public long getOneWayBatchTimeout() {
+        return oneWayBatchTimeout;
+    }
+
+    /**
+     * @param oneWayBatchTimeout The milliseconds after which a batch of one-way messages is committed
+     *        even if it is not full.
+     */
+    public void setOneWayBatchTimeout(long oneWayBatchTimeout) {
+        this.oneWayBatchTimeout = oneWayBatchTimeout;
+    }
+
     public static Destination resolveOrCreateDestination(final Session session,
                                                          final DestinationResolver resolver,
                                                          final String replyToDestinationName,
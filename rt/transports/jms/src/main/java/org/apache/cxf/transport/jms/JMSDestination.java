@@ -31,6 +31,7 @@ import javax.jms.InvalidClientIDException;
 import javax.jms.JMSException;
 import javax.jms.MessageListener;
 import javax.jms.Session;
+import javax.management.JMException;
 
 import org.apache.cxf.Bus;
 import org.apache.cxf.BusFactory;
@@ -40,6 +41,7 @@ import org.apache.cxf.common.logging.LogUtils;
 import org.apache.cxf.continuations.ContinuationProvider;
 import org.apache.cxf.continuations.SuspendedInvocationException;
 import org.apache.cxf.interceptor.OneWayProcessorInterceptor;
+import org.apache.cxf.management.InstrumentationManager;
 import org.apache.cxf.message.Exchange;
 import org.apache.cxf.message.Message;
 import org.apache.cxf.message.MessageImpl;
@@ -65,6 +67,7 @@ public class JMSDestination extends AbstractMultiplexDestination implements Mess
     private ThrottlingCounter suspendedContinuations;
     private ClassLoader loader;
     private Connection connection;
+    private PollingMessageListenerContainerMBeanWrapper mbean;
     private boolean shutdown;
 
     public JMSDestination(Bus b, EndpointInfo info, JMSConfiguration jmsConfig) {
@@ -147,6 +150,8 @@ public class JMSDestination extends AbstractMultiplexDestination implements Mess
             }
 
             container.setConcurrentConsumers(jmsConfig.getConcurrentConsumers());
+            container.setMaxConcurrentConsumers(jmsConfig.getMaxConcurrentConsumers());
+            container.setReceiveBatchSize(jmsConfig.getReceiveBatchSize());
             container.setTransactionManager(jmsConfig.getTransactionManager());
             container.setMessageSelector(jmsConfig.getMessageSelector());
             container.setTransacted(jmsConfig.isSessionTransacted());
@@ -160,6 +165,7 @@ public class JMSDestination extends AbstractMultiplexDestination implements Mess
             container.setJndiEnvironment(jmsConfig.getJndiEnvironment());
             container.start();
             suspendedContinuations.setListenerContainer(container);
+            registerMBean(container);
 
             if (!jmsConfig.isOneSessionPerConnection()) {
                 connection.start();
@@ -199,7 +205,33 @@ public class JMSDestination extends AbstractMultiplexDestination implements Mess
         } while (jmsListener == null && !shutdown);
     }
 
+    private void registerMBean(PollingMessageListenerContainer container) {
+        InstrumentationManager manager = bus.getExtension(InstrumentationManager.class);
+        if (manager != null && manager.getMBeanServer() != null) {
+            try {
+                PollingMessageListenerContainerMBeanWrapper wrapper =
+                    new PollingMessageListenerContainerMBeanWrapper(container, bus, endpointInfo);
+                manager.register(wrapper);
+                mbean = wrapper;
+            } catch (JMException e) {
+                LOG.log(Level.WARNING, "Could not register the JMS listener container", e);
+            }
+        }
+    }
+
+    private void unregisterMBean() {
+        if (mbean != null) {
+            try {
+                bus.getExtension(InstrumentationManager.class).unregister(mbean);
+            } catch (JMException e) {
+                LOG.log(Level.FINE, "Could not unregister the JMS listener container", e);
+            }
+            mbean = null;
+        }
+    }
+
     public void deactivate() {
+        unregisterMBean();
         if (jmsListener != null) {
             jmsListener.shutdown();
         }
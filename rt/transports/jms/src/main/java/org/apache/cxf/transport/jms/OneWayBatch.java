@@ -0,0 +1,203 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.transport.jms;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.jms.Connection;
+import javax.jms.JMSException;
+import javax.jms.Session;
+
+import org.apache.cxf.common.logging.LogUtils;
+import org.apache.cxf.message.Exchange;
+import org.apache.cxf.transport.jms.util.PooledSession;
+
+/**
+ * Sends one-way messages in a transacted session of the conduit's connection, so the
+ * broker only has to confirm the commit instead of every single message.  The batch is
+ * committed once maxMessages have been sent or maxDelay milliseconds after its first
+ * message, whichever comes first.  Senders are serialized as the session may only be
+ * used by one thread at a time.
+ */
+class OneWayBatch {
+    private static final Logger LOG = LogUtils.getL7dLogger(OneWayBatch.class);
+
+    private final Connection connection;
+    private final int maxMessages;
+    private final long maxDelay;
+    private final ScheduledExecutorService timer;
+    private final List<Pending> pending = new ArrayList<>();
+    private PooledSession session;
+    private ScheduledFuture<?> flushTask;
+    private boolean closed;
+
+    OneWayBatch(Connection connection, int maxMessages, long maxDelay) {
+        this.connection = connection;
+        this.maxMessages = maxMessages;
+        this.maxDelay = maxDelay;
+        this.timer = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+            public Thread newThread(Runnable r) {
+                Thread t = new Thread(r, "cxf-jms-oneway-batch");
+                t.setDaemon(true);
+                return t;
+            }
+        });
+    }
+
+    interface Sender {
+        void send(PooledSession session) throws JMSException;
+    }
+
+    /**
+     * Sends a message with the transacted session and adds it to the current batch.  If
+     * the send fails the messages sent before in the batch are rolled back as well.
+     */
+    synchronized void send(Exchange exchange, OneWayCompletionListener listener, Sender sender)
+        throws JMSException {
+        if (closed) {
+            throw new JMSException("The one-way batch has been closed");
+        }
+        try {
+            if (session == null) {
+                session = new PooledSession(connection.createSession(true, Session.SESSION_TRANSACTED));
+            }
+            sender.send(session);
+            pending.add(new Pending(exchange, listener));
+            if (pending.size() >= maxMessages) {
+                commit();
+            } else if (flushTask == null) {
+                flushTask = timer.schedule(new Runnable() {
+                    public void run() {
+                        flush();
+                    }
+                }, maxDelay, TimeUnit.MILLISECONDS);
+            }
+        } catch (JMSException e) {
+            rollback(e);
+            throw e;
+        }
+    }
+
+    synchronized int getPendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * Commits the messages sent so far.
+     */
+    synchronized void flush() {
+        try {
+            commit();
+        } catch (JMSException e) {
+            LOG.log(Level.WARNING, "Could not commit a batch of one-way messages: " + e.getMessage(), e);
+            rollback(e);
+        }
+    }
+
+    private void commit() throws JMSException {
+        if (flushTask != null) {
+            flushTask.cancel(false);
+            flushTask = null;
+        }
+        if (pending.isEmpty()) {
+            return;
+        }
+        session.getSession().commit();
+        List<Pending> committed = new ArrayList<>(pending);
+        pending.clear();
+        for (Pending p : committed) {
+            p.completed();
+        }
+    }
+
+    private void rollback(Exception cause) {
+        if (flushTask != null) {
+            flushTask.cancel(false);
+            flushTask = null;
+        }
+        if (session != null) {
+            try {
+                session.getSession().rollback();
+            } catch (JMSException e) {
+                // the session is closed below anyway
+            }
+            session.invalidate();
+            session = null;
+        }
+        List<Pending> failed = new ArrayList<>(pending);
+        pending.clear();
+        for (Pending p : failed) {
+            p.failed(cause);
+        }
+    }
+
+    /**
+     * Commits the outstanding messages and closes the session.
+     */
+    synchronized void close() {
+        if (closed) {
+            return;
+        }
+        flush();
+        closed = true;
+        if (session != null) {
+            session.invalidate();
+            session = null;
+        }
+        timer.shutdown();
+    }
+
+    private static final class Pending {
+        private final Exchange exchange;
+        private final OneWayCompletionListener listener;
+
+        Pending(Exchange exchange, OneWayCompletionListener listener) {
+            this.exchange = exchange;
+            this.listener = listener;
+        }
+
+        void completed() {
+            if (listener != null) {
+                try {
+                    listener.onCompletion(exchange);
+                } catch (RuntimeException e) {
+                    LOG.log(Level.WARNING, "One-way completion listener failed", e);
+                }
+            }
+        }
+
+        void failed(Exception cause) {
+            if (listener != null) {
+                try {
+                    listener.onException(exchange, cause);
+                } catch (RuntimeException e) {
+                    LOG.log(Level.WARNING, "One-way completion listener failed", e);
+                }
+            }
+        }
+    }
+}
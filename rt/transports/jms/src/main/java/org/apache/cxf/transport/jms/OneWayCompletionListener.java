@@ -0,0 +1,36 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.transport.jms;
+
+import org.apache.cxf.message.Exchange;
+
+/**
+ * Is told the outcome of a one-way message which has been sent as part of a batch,
+ * see {@link JMSConfiguration#setOneWayBatchSize(int)}.  The invocation returns as soon
+ * as the message has been added to the batch, the listener is called once the batch
+ * has been committed or rolled back.  It is set as the request context property
+ * {@link #ONE_WAY_COMPLETION_LISTENER}.
+ */
+public interface OneWayCompletionListener {
+    String ONE_WAY_COMPLETION_LISTENER = "org.apache.cxf.jms.client.oneway.completion.listener";
+
+    void onCompletion(Exchange exchange);
+
+    void onException(Exchange exchange, Exception exception);
+}
@@ -0,0 +1,98 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.transport.jms;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+import org.apache.cxf.Bus;
+import org.apache.cxf.management.ManagedComponent;
+import org.apache.cxf.management.ManagementConstants;
+import org.apache.cxf.management.annotation.ManagedAttribute;
+import org.apache.cxf.management.annotation.ManagedResource;
+import org.apache.cxf.service.model.EndpointInfo;
+import org.apache.cxf.transport.jms.util.PollingMessageListenerContainer;
+
+@ManagedResource(componentName = "JMSListenerContainer",
+                 description = "The consumers of a JMS destination",
+                 currencyTimeLimit = 15, persistPolicy = "OnUpdate", persistPeriod = 200)
+
+public class PollingMessageListenerContainerMBeanWrapper implements ManagedComponent {
+    private static final String TYPE_VALUE = "Bus.Service.Endpoint.JMSListenerContainer";
+
+    private final PollingMessageListenerContainer container;
+    private final Bus bus;
+    private final EndpointInfo endpointInfo;
+
+    public PollingMessageListenerContainerMBeanWrapper(PollingMessageListenerContainer container,
+                                                       Bus bus, EndpointInfo endpointInfo) {
+        this.container = container;
+        this.bus = bus;
+        this.endpointInfo = endpointInfo;
+    }
+
+    @ManagedAttribute(description = "The minimum number of consumers")
+    public int getConcurrentConsumers() {
+        return container.getConcurrentConsumers();
+    }
+
+    @ManagedAttribute(description = "The maximum number of consumers")
+    public int getMaxConcurrentConsumers() {
+        return container.getMaxConcurrentConsumers();
+    }
+
+    @ManagedAttribute(description = "The current number of consumers")
+    public int getActiveConsumers() {
+        return container.getActiveConsumers();
+    }
+
+    @ManagedAttribute(description = "The number of consumers waiting for a message")
+    public int getIdleConsumers() {
+        return container.getIdleConsumers();
+    }
+
+    @ManagedAttribute(description = "The number of messages currently processed")
+    public int getInFlightMessages() {
+        return container.getInFlightMessages();
+    }
+
+    @ManagedAttribute(description = "The number of messages received in one transaction")
+    public int getReceiveBatchSize() {
+        return container.getReceiveBatchSize();
+    }
+
+    @ManagedAttribute(description = "The listener container is running")
+    public boolean isRunning() {
+        return container.isRunning();
+    }
+
+    public ObjectName getObjectName() throws JMException {
+        StringBuilder buffer = new StringBuilder();
+        buffer.append(ManagementConstants.DEFAULT_DOMAIN_NAME).append(':');
+        buffer.append(ManagementConstants.BUS_ID_PROP).append('=').append(bus.getId()).append(',');
+        buffer.append(ManagementConstants.TYPE_PROP).append('=').append(TYPE_VALUE).append(',');
+        String serviceName = ObjectName.quote(endpointInfo.getService().getName().toString());
+        buffer.append(ManagementConstants.SERVICE_NAME_PROP).append('=').append(serviceName).append(',');
+        String portName = ObjectName.quote(endpointInfo.getName().getLocalPart());
+        buffer.append(ManagementConstants.PORT_NAME_PROP).append('=').append(portName).append(',');
+        // the container is replaced when the connection is reestablished
+        buffer.append(ManagementConstants.INSTANCE_ID_PROP).append('=').append(container.hashCode());
+        return new ObjectName(buffer.toString());
+    }
+}
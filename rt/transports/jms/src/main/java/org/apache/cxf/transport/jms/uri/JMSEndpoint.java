@@ -86,9 +86,14 @@ public class JMSEndpoint {
     private boolean useConduitIdSelector = true;
     private String username;
     private int concurrentConsumers = 1;
+    private int maxConcurrentConsumers;
+    private int receiveBatchSize = 1;
     private String messageSelector;
     private int retryInterval = 5000;
     private boolean oneSessionPerConnection;
+    private int sessionCacheSize = 10;
+    private int oneWayBatchSize;
+    private long oneWayBatchTimeout = 100;
 
     /**
      * @param uri
@@ -379,6 +384,30 @@ public class JMSEndpoint {
         this.concurrentConsumers = Integer.parseInt(concurrentConsumers);
     }
 
+    public int getMaxConcurrentConsumers() {
+        return maxConcurrentConsumers;
+    }
+
+    public void setMaxConcurrentConsumers(int maxConcurrentConsumers) {
+        this.maxConcurrentConsumers = maxConcurrentConsumers;
+    }
+
+    public void setMaxConcurrentConsumers(String maxConcurrentConsumers) {
+        this.maxConcurrentConsumers = Integer.parseInt(maxConcurrentConsumers);
+    }
+
+    public int getReceiveBatchSize() {
+        return receiveBatchSize;
+    }
+
+    public void setReceiveBatchSize(int receiveBatchSize) {
+        this.receiveBatchSize = receiveBatchSize;
+    }
+
+    public void setReceiveBatchSize(String receiveBatchSize) {
+        this.receiveBatchSize = Integer.parseInt(receiveBatchSize);
+    }
+
     public String getPassword() {
         return password;
     }
@@ -512,4 +541,40 @@ public class JMSEndpoint {
         this.oneSessionPerConnection = oneSessionPerConnection;
     }
 
+    public int getSessionCacheSize() {
+        return sessionCacheSize;
+    }
+
+    public void setSessionCacheSize(int sessionCacheSize) {
+        this.sessionCacheSize = sessionCacheSize;
+    }
+
+    public void setSessionCacheSize(String sessionCacheSize) {
+        this.sessionCacheSize = Integer.parseInt(sessionCacheSize);
+    }
+
+    public int getOneWayBatchSize() {
+        return oneWayBatchSize;
+    }
+
+    public void setOneWayBatchSize(int oneWayBatchSize) {
+        this.oneWayBatchSize = oneWayBatchSize;
+    }
+
+    public void setOneWayBatchSize(String oneWayBatchSize) {
+        this.oneWayBatchSize = Integer.parseInt(oneWayBatchSize);
+    }
+
+    public long getOneWayBatchTimeout() {
+        return oneWayBatchTimeout;
+    }
+
+    public void setOneWayBatchTimeout(long oneWayBatchTimeout) {
+        this.oneWayBatchTimeout = oneWayBatchTimeout;
+    }
+
+    public void setOneWayBatchTimeout(String oneWayBatchTimeout) {
+        this.oneWayBatchTimeout = Long.parseLong(oneWayBatchTimeout);
+    }
+
 }
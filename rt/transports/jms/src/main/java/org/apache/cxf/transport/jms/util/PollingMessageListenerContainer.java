@@ -18,6 +18,8 @@
  */
 package org.apache.cxf.transport.jms.util;
 
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -43,6 +45,11 @@ public class PollingMessageListenerContainer extends AbstractMessageListenerCont
 
     private JMSConfiguration jmsConfig;
     private boolean reply;
+    private int receiveBatchSize = 1;
+    private int maxIdleReceives = 5;
+    private final AtomicInteger activeConsumers = new AtomicInteger();
+    private final AtomicInteger idleConsumers = new AtomicInteger();
+    private final AtomicInteger inFlightMessages = new AtomicInteger();
 
     public PollingMessageListenerContainer(JMSConfiguration jmsConfig, boolean isReply,
                                            MessageListener listenerHandler) {
@@ -59,10 +66,83 @@ public class PollingMessageListenerContainer extends AbstractMessageListenerCont
         this.exceptionListener = exceptionListener;
     }
 
-    private class Poller implements Runnable {
+    /**
+     * Counts the consumers and retires the ones above the minimum which found the
+     * destination empty for maxIdleReceives receives in a row.
+     */
+    private abstract class AbstractPoller implements Runnable {
+        private int idleReceives;
+        private boolean retired;
 
         @Override
         public void run() {
+            try {
+                poll();
+            } finally {
+                if (!retired) {
+                    activeConsumers.decrementAndGet();
+                }
+            }
+        }
+
+        protected abstract void poll();
+
+        /**
+         * Waits for the first message of a batch, the following messages are only taken
+         * if they are available right away.
+         */
+        protected Message receive(MessageConsumer consumer, boolean first) throws JMSException {
+            idleConsumers.incrementAndGet();
+            try {
+                return first ? consumer.receive(1000) : consumer.receiveNoWait();
+            } finally {
+                idleConsumers.decrementAndGet();
+            }
+        }
+
+        protected void process(Message message) {
+            inFlightMessages.incrementAndGet();
+            try {
+                listenerHandler.onMessage(message);
+            } finally {
+                inFlightMessages.decrementAndGet();
+            }
+        }
+
+        /**
+         * Adapts the number of consumers to the result of the last receive.
+         *
+         * @return true if this consumer should stop
+         */
+        protected boolean scale(boolean received) {
+            if (received) {
+                idleReceives = 0;
+                if (idleConsumers.get() == 0) {
+                    startConsumer();
+                }
+                return false;
+            }
+            if (++idleReceives < maxIdleReceives) {
+                return false;
+            }
+            idleReceives = 0;
+            while (true) {
+                int active = activeConsumers.get();
+                if (active <= getConcurrentConsumers()) {
+                    return false;
+                }
+                if (activeConsumers.compareAndSet(active, active - 1)) {
+                    retired = true;
+                    return true;
+                }
+            }
+        }
+    }
+
+    private class Poller extends AbstractPoller {
+
+        @Override
+        protected void poll() {
             Session session = null;
             while (running) {
                 try (ResourceCloser closer = new ResourceCloser()) {
@@ -77,18 +157,28 @@ public class PollingMessageListenerContainer extends AbstractMessageListenerCont
                     session = closer.register(connection.createSession(transacted, acknowledgeMode));
                     MessageConsumer consumer = closer.register(createConsumer(connection, session));
 
+                    int received = 0;
                     while (running) {
-                        Message message = consumer.receive(1000);
+                        Message message = receive(consumer, received == 0);
                         try {
                             if (message != null) {
-                                listenerHandler.onMessage(message);
+                                process(message);
+                                received++;
                             }
-                            if (session.getTransacted()) {
-                                session.commit();
+                            // a transaction spans up to receiveBatchSize messages
+                            if (message == null || received >= receiveBatchSize) {
+                                if (session.getTransacted() && received > 0) {
+                                    session.commit();
+                                }
+                                received = 0;
                             }
                         } catch (Throwable e) {
                             LOG.log(Level.WARNING, "Exception while processing jms message in cxf. Rolling back", e);
                             safeRollBack(session);
+                            received = 0;
+                        }
+                        if (received <= 1 && scale(message != null)) {
+                            return;
                         }
                     }
                 } catch (Throwable e) {
@@ -114,11 +204,12 @@ public class PollingMessageListenerContainer extends AbstractMessageListenerCont
 
     }
 
-    private class XAPoller implements Runnable {
+    private class XAPoller extends AbstractPoller {
 
         @Override
-        public void run() {
+        protected void poll() {
             while (running) {
+                boolean received = false;
                 try (ResourceCloser closer = new ResourceCloser()) {
                     closer.register(createInitialContext());
                     final Transaction externalTransaction = transactionManager.getTransaction();
@@ -141,10 +232,14 @@ public class PollingMessageListenerContainer extends AbstractMessageListenerCont
                      */
                     Session session = closer.register(connection.createSession(transacted, acknowledgeMode));
                     MessageConsumer consumer = closer.register(createConsumer(connection, session));
-                    Message message = consumer.receive(1000);
                     try {
-                        if (message != null) {
-                            listenerHandler.onMessage(message);
+                        for (int i = 0; i < receiveBatchSize; i++) {
+                            Message message = receive(consumer, i == 0);
+                            if (message == null) {
+                                break;
+                            }
+                            received = true;
+                            process(message);
                         }
                         transactionManager.commit();
                     } catch (Throwable e) {
@@ -154,6 +249,9 @@ public class PollingMessageListenerContainer extends AbstractMessageListenerCont
                 } catch (Throwable e) {
                     handleException(e);
                 }
+                if (scale(received)) {
+                    return;
+                }
             }
 
         }
@@ -232,11 +330,70 @@ public class PollingMessageListenerContainer extends AbstractMessageListenerCont
         }
         running = true;
         for (int c = 0; c < getConcurrentConsumers(); c++) {
-            Runnable poller = (transactionManager != null) ? new XAPoller() : new Poller();
+            activeConsumers.incrementAndGet();
+            execute();
+        }
+    }
+
+    /**
+     * Starts another consumer as all of them are busy, unless the maximum is reached.
+     */
+    private void startConsumer() {
+        while (running) {
+            int active = activeConsumers.get();
+            if (active >= getMaxConcurrentConsumers()) {
+                return;
+            }
+            if (activeConsumers.compareAndSet(active, active + 1)) {
+                LOG.fine("Starting additional consumer, now " + (active + 1));
+                execute();
+                return;
+            }
+        }
+    }
+
+    private void execute() {
+        Runnable poller = (transactionManager != null) ? new XAPoller() : new Poller();
+        try {
             getExecutor().execute(poller);
+        } catch (RejectedExecutionException e) {
+            activeConsumers.decrementAndGet();
+            LOG.log(Level.WARNING, "Could not start JMS consumer", e);
         }
     }
 
+    /**
+     * @param receiveBatchSize The number of messages a consumer takes in one transaction if they
+     *        are available without waiting. A failure rolls back all of them.
+     */
+    public void setReceiveBatchSize(int receiveBatchSize) {
+        this.receiveBatchSize = Math.max(1, receiveBatchSize);
+    }
+
+    public int getReceiveBatchSize() {
+        return receiveBatchSize;
+    }
+
+    /**
+     * @param maxIdleReceives The number of receives in a row that have to time out before a
+     *        consumer above the concurrentConsumers minimum stops.
+     */
+    public void setMaxIdleReceives(int maxIdleReceives) {
+        this.maxIdleReceives = maxIdleReceives;
+    }
+
+    public int getActiveConsumers() {
+        return activeConsumers.get();
+    }
+
+    public int getIdleConsumers() {
+        return idleConsumers.get();
+    }
+
+    public int getInFlightMessages() {
+        return inFlightMessages.get();
+    }
+
     @Override
     public void stop() {
         LOG.fine("Shuttting down " + this.getClass().getSimpleName());
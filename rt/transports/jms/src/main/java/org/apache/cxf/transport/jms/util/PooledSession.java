@@ -0,0 +1,109 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.transport.jms.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.jms.Destination;
+import javax.jms.JMSException;
+import javax.jms.MessageProducer;
+import javax.jms.Session;
+
+/**
+ * A session together with the producers it created, keyed by their destination.
+ * The producers are created with the default delivery settings, a {@link JMSSender}
+ * with explicit QoS passes its settings with every send, so they can be shared by
+ * senders with different settings.  The least recently used producer is closed once
+ * more than {@link #MAX_PRODUCERS} destinations have been sent to.
+ */
+public class PooledSession {
+    static final int MAX_PRODUCERS = 16;
+
+    private final SessionPool pool;
+    private final Session session;
+    private final Map<Destination, MessageProducer> producers;
+
+    /**
+     * Wraps a session which is not pooled, releasing it closes the session.
+     */
+    public PooledSession(Session session) {
+        this(null, session);
+    }
+
+    PooledSession(SessionPool pool, Session session) {
+        this.pool = pool;
+        this.session = session;
+        this.producers = new LinkedHashMap<Destination, MessageProducer>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Destination, MessageProducer> eldest) {
+                if (size() > MAX_PRODUCERS) {
+                    ResourceCloser.close(eldest.getValue());
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public Session getSession() {
+        return session;
+    }
+
+    /**
+     * Returns the producer for the destination, creating it on first use.
+     */
+    public MessageProducer getProducer(Destination destination) throws JMSException {
+        MessageProducer producer = producers.get(destination);
+        if (producer == null) {
+            producer = session.createProducer(destination);
+            producers.put(destination, producer);
+        }
+        return producer;
+    }
+
+    /**
+     * Returns the session to its pool for the next sender.
+     */
+    public void release() {
+        if (pool != null) {
+            pool.release(this);
+        } else {
+            close();
+        }
+    }
+
+    /**
+     * Closes the session instead of returning it to the pool, to be called after it
+     * failed as it may no longer be usable.
+     */
+    public void invalidate() {
+        close();
+    }
+
+    void close() {
+        for (MessageProducer producer : producers.values()) {
+            ResourceCloser.close(producer);
+        }
+        producers.clear();
+        ResourceCloser.close(session);
+    }
+}
@@ -0,0 +1,92 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.transport.jms.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+import javax.jms.Connection;
+import javax.jms.JMSException;
+import javax.jms.Session;
+
+/**
+ * Non transacted sessions of a single connection which are kept open between sends.
+ * A session is handed out to one thread at a time and returned to the pool once the
+ * thread is done with it, so the producers it created can be used again by the next
+ * borrower.  At most maxIdle sessions are kept, additional ones are closed on release.
+ */
+public class SessionPool {
+    private final Connection connection;
+    private final int maxIdle;
+    private final Deque<PooledSession> idle = new ArrayDeque<>();
+    private boolean closed;
+
+    public SessionPool(Connection connection, int maxIdle) {
+        this.connection = connection;
+        this.maxIdle = maxIdle;
+    }
+
+    /**
+     * Returns an idle session or creates a new one.
+     */
+    public PooledSession borrow() throws JMSException {
+        synchronized (this) {
+            if (closed) {
+                throw new JMSException("Session pool has been closed");
+            }
+            PooledSession session = idle.pollFirst();
+            if (session != null) {
+                return session;
+            }
+        }
+        return new PooledSession(this, connection.createSession(false, Session.AUTO_ACKNOWLEDGE));
+    }
+
+    void release(PooledSession session) {
+        synchronized (this) {
+            if (!closed && idle.size() < maxIdle) {
+                idle.addFirst(session);
+                return;
+            }
+        }
+        session.close();
+    }
+
+    public synchronized int getIdleCount() {
+        return idle.size();
+    }
+
+    /**
+     * Closes the idle sessions.  Sessions which are currently borrowed are closed when
+     * they are released.
+     */
+    public void close() {
+        List<PooledSession> sessions;
+        synchronized (this) {
+            closed = true;
+            sessions = new ArrayList<>(idle);
+            idle.clear();
+        }
+        for (PooledSession session : sessions) {
+            session.close();
+        }
+    }
+}
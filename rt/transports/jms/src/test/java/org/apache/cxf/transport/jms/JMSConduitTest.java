@@ -21,7 +21,13 @@ package org.apache.cxf.transport.jms;
 
 import java.io.OutputStream;
 import java.io.Writer;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import javax.jms.Connection;
+import javax.jms.MessageConsumer;
+import javax.jms.Session;
+
+import org.apache.cxf.message.Exchange;
 import org.apache.cxf.message.Message;
 import org.apache.cxf.message.MessageImpl;
 import org.apache.cxf.service.model.EndpointInfo;
@@ -81,6 +87,80 @@ public class JMSConduitTest extends AbstractJMSTester {
         }
     }
 
+    @Test
+    public void testOneWayMessagesAreBatched() throws Exception {
+        EndpointInfo ei = setupServiceInfo("http://cxf.apache.org/hello_world_jms", WSDL,
+                         "HelloWorldService", "HelloWorldPort");
+        JMSConduit conduit = setupJMSConduit(ei);
+        conduit.getJmsConfig().setTargetDestination("test.jmstransport.oneway.batch");
+        conduit.getJmsConfig().setOneWayBatchSize(3);
+        conduit.getJmsConfig().setOneWayBatchTimeout(60000);
+        CountingCompletionListener listener = new CountingCompletionListener();
 
+        Connection connection = cf.createConnection();
+        try {
+            connection.start();
+            Session session = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+            MessageConsumer consumer = session.createConsumer(session.createQueue("test.jmstransport.oneway.batch"));
+
+            sendOneWayMessage(conduit, createMessage(listener));
+            sendOneWayMessage(conduit, createMessage(listener));
+            assertNull("Messages of an uncommitted batch must not be delivered", consumer.receive(500));
+            assertEquals(0, listener.completed.get());
 
+            sendOneWayMessage(conduit, createMessage(listener));
+            for (int i = 0; i < 3; i++) {
+                assertNotNull(consumer.receive(5000));
+            }
+            assertEquals(3, listener.completed.get());
+            assertEquals(0, listener.failed.get());
+        } finally {
+            connection.close();
+            conduit.close();
+        }
+    }
+
+    @Test
+    public void testOneWayBatchIsCommittedAfterTimeout() throws Exception {
+        EndpointInfo ei = setupServiceInfo("http://cxf.apache.org/hello_world_jms", WSDL,
+                         "HelloWorldService", "HelloWorldPort");
+        JMSConduit conduit = setupJMSConduit(ei);
+        conduit.getJmsConfig().setTargetDestination("test.jmstransport.oneway.timeout");
+        conduit.getJmsConfig().setOneWayBatchSize(100);
+        conduit.getJmsConfig().setOneWayBatchTimeout(100);
+        CountingCompletionListener listener = new CountingCompletionListener();
+
+        Connection connection = cf.createConnection();
+        try {
+            connection.start();
+            Session session = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+            MessageConsumer consumer = session.createConsumer(session.createQueue("test.jmstransport.oneway.timeout"));
+
+            sendOneWayMessage(conduit, createMessage(listener));
+            assertNotNull(consumer.receive(5000));
+            assertEquals(1, listener.completed.get());
+        } finally {
+            connection.close();
+            conduit.close();
+        }
+    }
+
+    private static Message createMessage(OneWayCompletionListener listener) {
+        Message message = new MessageImpl();
+        message.put(OneWayCompletionListener.ONE_WAY_COMPLETION_LISTENER, listener);
+        return message;
+    }
+
+    private static class CountingCompletionListener implements OneWayCompletionListener {
+        private final AtomicInteger completed = new AtomicInteger();
+        private final AtomicInteger failed = new AtomicInteger();
+
+        public void onCompletion(Exchange exchange) {
+            completed.incrementAndGet();
+        }
+
+        public void onException(Exchange exchange, Exception exception) {
+            failed.incrementAndGet();
+        }
+    }
 }
@@ -18,6 +18,9 @@
  */
 package org.apache.cxf.transport.jms.util;
 
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import javax.jms.Connection;
 import javax.jms.Destination;
 import javax.jms.ExceptionListener;
@@ -175,6 +178,72 @@ public class MessageListenerTest {
         connection.close();
     }
 
+    @Test
+    public void testLocalTransactionWithReceiveBatch() throws JMSException, XAException, InterruptedException {
+        Connection connection = createConnection("brokerLocalTransactionBatch");
+        Queue dest = JMSUtil.createQueue(connection, "test");
+        PollingMessageListenerContainer container =
+            new PollingMessageListenerContainer(connection, dest, new TestMessageListener(), null);
+        container.setTransacted(true);
+        container.setAcknowledgeMode(Session.SESSION_TRANSACTED);
+        container.setReceiveBatchSize(5);
+        container.start();
+
+        testTransactionalBehaviour(connection, dest);
+        container.stop();
+        connection.close();
+    }
+
+    @Test
+    public void testConsumersScaleWithLoad() throws Exception {
+        // without prefetching the messages are spread over all consumers
+        ActiveMQConnectionFactory cf = new ActiveMQConnectionFactory("vm://brokerScaling?broker.persistent=false"
+                                                                     + "&jms.prefetchPolicy.queuePrefetch=0");
+        final Connection connection = cf.createConnection();
+        connection.start();
+        Queue dest = JMSUtil.createQueue(connection, "test");
+
+        final AtomicInteger processed = new AtomicInteger();
+        final AtomicInteger concurrent = new AtomicInteger();
+        final AtomicInteger maxConcurrent = new AtomicInteger();
+        MessageListener slowListener = new MessageListener() {
+            public void onMessage(Message message) {
+                int current = concurrent.incrementAndGet();
+                maxConcurrent.set(Math.max(maxConcurrent.get(), current));
+                try {
+                    Thread.sleep(100);
+                } catch (InterruptedException e) {
+                    // Ignore
+                }
+                concurrent.decrementAndGet();
+                processed.incrementAndGet();
+            }
+        };
+        final PollingMessageListenerContainer container =
+            new PollingMessageListenerContainer(connection, dest, slowListener, null);
+        container.setConcurrentConsumers(1);
+        container.setMaxConcurrentConsumers(4);
+        container.setMaxIdleReceives(1);
+        container.start();
+
+        Session session = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+        MessageProducer producer = session.createProducer(dest);
+        for (int i = 0; i < 40; i++) {
+            producer.send(session.createTextMessage(OK));
+        }
+        session.close();
+
+        Awaitility.await().atMost(30, TimeUnit.SECONDS).until(() -> processed.get() == 40);
+        Assert.assertTrue("Consumers used: " + maxConcurrent.get(), maxConcurrent.get() > 1);
+        Assert.assertTrue("Consumers used: " + maxConcurrent.get(), maxConcurrent.get() <= 4);
+        Assert.assertEquals(0, container.getInFlightMessages());
+
+        // the additional consumers stop once the queue is empty
+        Awaitility.await().atMost(10, TimeUnit.SECONDS).until(() -> container.getActiveConsumers() == 1);
+        container.stop();
+        connection.close();
+    }
+
     private void testTransactionalBehaviour(Connection connection, Queue dest) throws JMSException,
         InterruptedException {
         Queue dlq = JMSUtil.createQueue(connection, "ActiveMQ.DLQ");
@@ -0,0 +1,149 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.transport.jms.util;
+
+import javax.jms.Connection;
+import javax.jms.Destination;
+import javax.jms.MessageProducer;
+import javax.jms.Session;
+
+import org.easymock.EasyMock;
+import org.easymock.IMocksControl;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class SessionPoolTest extends Assert {
+    private IMocksControl control;
+    private Connection connection;
+
+    @Before
+    public void setUp() {
+        control = EasyMock.createNiceControl();
+        connection = control.createMock(Connection.class);
+    }
+
+    @Test
+    public void testSessionAndProducerAreReused() throws Exception {
+        Session session = control.createMock(Session.class);
+        Destination destination = control.createMock(Destination.class);
+        MessageProducer producer = control.createMock(MessageProducer.class);
+        EasyMock.expect(connection.createSession(false, Session.AUTO_ACKNOWLEDGE)).andReturn(session).once();
+        EasyMock.expect(session.createProducer(destination)).andReturn(producer).once();
+        control.replay();
+
+        SessionPool pool = new SessionPool(connection, 2);
+        for (int i = 0; i < 3; i++) {
+            PooledSession pooled = pool.borrow();
+            assertSame(session, pooled.getSession());
+            assertSame(producer, pooled.getProducer(destination));
+            pooled.release();
+        }
+        assertEquals(1, pool.getIdleCount());
+        control.verify();
+    }
+
+    @Test
+    public void testConcurrentBorrowersGetDifferentSessions() throws Exception {
+        Session session1 = control.createMock(Session.class);
+        Session session2 = control.createMock(Session.class);
+        EasyMock.expect(connection.createSession(false, Session.AUTO_ACKNOWLEDGE)).andReturn(session1);
+        EasyMock.expect(connection.createSession(false, Session.AUTO_ACKNOWLEDGE)).andReturn(session2);
+        session2.close();
+        EasyMock.expectLastCall().once();
+        control.replay();
+
+        SessionPool pool = new SessionPool(connection, 1);
+        PooledSession pooled1 = pool.borrow();
+        PooledSession pooled2 = pool.borrow();
+        assertNotSame(pooled1.getSession(), pooled2.getSession());
+        pooled1.release();
+        // only one idle session is kept
+        pooled2.release();
+        assertEquals(1, pool.getIdleCount());
+        control.verify();
+    }
+
+    @Test
+    public void testInvalidatedSessionIsClosed() throws Exception {
+        Session session = control.createMock(Session.class);
+        Destination destination = control.createMock(Destination.class);
+        MessageProducer producer = control.createMock(MessageProducer.class);
+        EasyMock.expect(connection.createSession(false, Session.AUTO_ACKNOWLEDGE)).andReturn(session);
+        EasyMock.expect(session.createProducer(destination)).andReturn(producer);
+        producer.close();
+        EasyMock.expectLastCall().once();
+        session.close();
+        EasyMock.expectLastCall().once();
+        control.replay();
+
+        SessionPool pool = new SessionPool(connection, 2);
+        PooledSession pooled = pool.borrow();
+        pooled.getProducer(destination);
+        pooled.invalidate();
+        assertEquals(0, pool.getIdleCount());
+        control.verify();
+    }
+
+    @Test
+    public void testCloseClosesIdleAndReleasedSessions() throws Exception {
+        Session session1 = control.createMock(Session.class);
+        Session session2 = control.createMock(Session.class);
+        EasyMock.expect(connection.createSession(false, Session.AUTO_ACKNOWLEDGE)).andReturn(session1);
+        EasyMock.expect(connection.createSession(false, Session.AUTO_ACKNOWLEDGE)).andReturn(session2);
+        session1.close();
+        EasyMock.expectLastCall().once();
+        session2.close();
+        EasyMock.expectLastCall().once();
+        control.replay();
+
+        SessionPool pool = new SessionPool(connection, 2);
+        PooledSession pooled1 = pool.borrow();
+        PooledSession pooled2 = pool.borrow();
+        pooled1.release();
+        pool.close();
+        pooled2.release();
+        assertEquals(0, pool.getIdleCount());
+        control.verify();
+    }
+
+    @Test
+    public void testLeastRecentlyUsedProducerIsClosed() throws Exception {
+        Session session = control.createMock(Session.class);
+        MessageProducer first = control.createMock(MessageProducer.class);
+        Destination[] destinations = new Destination[PooledSession.MAX_PRODUCERS + 1];
+        for (int i = 0; i < destinations.length; i++) {
+            destinations[i] = control.createMock(Destination.class);
+        }
+        EasyMock.expect(connection.createSession(false, Session.AUTO_ACKNOWLEDGE)).andReturn(session);
+        EasyMock.expect(session.createProducer(EasyMock.<Destination>anyObject()))
+            .andReturn(first).once();
+        EasyMock.expect(session.createProducer(EasyMock.<Destination>anyObject()))
+            .andReturn(control.createMock(MessageProducer.class)).anyTimes();
+        first.close();
+        EasyMock.expectLastCall().once();
+        control.replay();
+
+        PooledSession pooled = new SessionPool(connection, 1).borrow();
+        for (Destination destination : destinations) {
+            pooled.getProducer(destination);
+        }
+        control.verify();
+    }
+}
@@ -125,19 +125,37 @@ public class LocalConduit extends AbstractConduit {
     public static final String DIRECT_DISPATCH = LocalConduit.class.getName() + ".directDispatch";
     public static final String MESSAGE_FILTER_PROPERTIES = LocalTransportFactory.MESSAGE_FILTER_PROPERTIES;
 
+    /**
+     * Hands the parameter and response objects to the service instead of writing them to
+     * a stream when client and service use the same data binding and parameter classes.
+     * Calls which cannot be dispatched this way fall back to {@link #DIRECT_DISPATCH} or
+     * the piped dispatch.
+     */
+    public static final String OBJECT_PASSING = LocalConduit.class.getName() + ".objectPassing";
+
+    /**
+     * An {@link ObjectCloner} which copies the objects passed with {@link #OBJECT_PASSING}.
+     */
+    public static final String OBJECT_CLONER = LocalConduit.class.getName() + ".objectCloner";
+
     private static final Logger LOG = LogUtils.getL7dLogger(LocalConduit.class);
 
     private LocalDestination destination;
     private LocalTransportFactory transportFactory;
+    private LocalObjectDispatcher objectDispatcher;
 
     public LocalConduit(LocalTransportFactory transportFactory, LocalDestination destination) {
         super(destination.getAddress());
         this.destination = destination;
         this.transportFactory = transportFactory;
+        this.objectDispatcher = new LocalObjectDispatcher(transportFactory, destination);
     }
 
     public void prepare(final Message message) throws IOException {
-        if (!MessageUtils.getContextualBoolean(message, DIRECT_DISPATCH)) {
+        if (MessageUtils.getContextualBoolean(message, OBJECT_PASSING)
+            && objectDispatcher.dispatch(message)) {
+            return;
+        } else if (!MessageUtils.getContextualBoolean(message, DIRECT_DISPATCH)) {
             dispatchViaPipe(message);
         } else {
             // prepare the stream here
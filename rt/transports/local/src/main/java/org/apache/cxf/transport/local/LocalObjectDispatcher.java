@@ -0,0 +1,335 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.transport.local;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.apache.cxf.Bus;
+import org.apache.cxf.BusFactory;
+import org.apache.cxf.binding.Binding;
+import org.apache.cxf.common.logging.LogUtils;
+import org.apache.cxf.endpoint.Client;
+import org.apache.cxf.endpoint.ClientImpl;
+import org.apache.cxf.endpoint.Endpoint;
+import org.apache.cxf.interceptor.Fault;
+import org.apache.cxf.interceptor.Interceptor;
+import org.apache.cxf.interceptor.InterceptorProvider;
+import org.apache.cxf.message.Exchange;
+import org.apache.cxf.message.ExchangeImpl;
+import org.apache.cxf.message.Message;
+import org.apache.cxf.message.MessageContentsList;
+import org.apache.cxf.phase.Phase;
+import org.apache.cxf.phase.PhaseInterceptor;
+import org.apache.cxf.phase.PhaseInterceptorChain;
+import org.apache.cxf.phase.PhaseManager;
+import org.apache.cxf.service.Service;
+import org.apache.cxf.service.invoker.MethodDispatcher;
+import org.apache.cxf.service.model.BindingMessageInfo;
+import org.apache.cxf.service.model.BindingOperationInfo;
+import org.apache.cxf.service.model.MessageInfo;
+import org.apache.cxf.service.model.MessagePartInfo;
+import org.apache.cxf.transport.ChainInitiationObserver;
+import org.apache.cxf.transport.MessageObserver;
+
+/**
+ * Hands the parameters of a call to a service in the same JVM without writing them to
+ * a stream.  Like the collocated binding only the logical phases run: the client out
+ * chain is aborted once it reaches the conduit, the service runs its in chain up to the
+ * invocation and its out chain down to the logical phases, and the response objects are
+ * passed to the logical phases of the client in chain.  This requires that client and
+ * service use the same data binding and the same parameter classes for the operation.
+ */
+class LocalObjectDispatcher {
+    private static final Logger LOG = LogUtils.getL7dLogger(LocalObjectDispatcher.class);
+
+    private final LocalTransportFactory transportFactory;
+    private final LocalDestination destination;
+
+    LocalObjectDispatcher(LocalTransportFactory transportFactory, LocalDestination destination) {
+        this.transportFactory = transportFactory;
+        this.destination = destination;
+    }
+
+    /**
+     * Dispatches the message if the objects it contains can be handed to the service.
+     *
+     * @return false if the message has to be written to a stream instead
+     */
+    boolean dispatch(Message message) {
+        Exchange exchange = message.getExchange();
+        if (exchange == null || !exchange.isSynchronous()
+            || exchange.get(Client.class) == null
+            || !(message.getContent(List.class) instanceof MessageContentsList)) {
+            return false;
+        }
+        BindingOperationInfo clientOp = wrapped(exchange.getBindingOperationInfo());
+        Endpoint clientEndpoint = exchange.getEndpoint();
+        MessageObserver observer = destination.getMessageObserver();
+        if (clientOp == null || clientEndpoint == null || !(observer instanceof ChainInitiationObserver)) {
+            return false;
+        }
+        Endpoint serverEndpoint = ((ChainInitiationObserver)observer).getEndpoint();
+        BindingOperationInfo serverOp =
+            wrapped(serverEndpoint.getEndpointInfo().getBinding().getOperation(clientOp.getName()));
+        if (serverOp == null || !isCompatible(clientEndpoint, clientOp, serverEndpoint, serverOp)) {
+            return false;
+        }
+        if (LOG.isLoggable(Level.FINE)) {
+            LOG.fine("Operation " + clientOp.getName() + " is dispatched by passing the objects");
+        }
+
+        message.getInterceptorChain().abort();
+        Bus bus = destination.getBus();
+        Bus origBus = BusFactory.getAndSetThreadDefaultBus(bus);
+        try {
+            Exchange serverExchange = invokeService(message, serverEndpoint, serverOp);
+            if (!exchange.isOneWay()) {
+                handleResponse(exchange, clientEndpoint, serverExchange);
+            }
+        } finally {
+            if (origBus != bus) {
+                BusFactory.setThreadDefaultBus(origBus);
+            }
+        }
+        exchange.put(ClientImpl.FINISHED, Boolean.TRUE);
+        return true;
+    }
+
+    private Exchange invokeService(Message message, Endpoint endpoint, BindingOperationInfo op) {
+        Bus bus = destination.getBus();
+        Exchange ex = new ExchangeImpl();
+        ex.put(Bus.class, bus);
+        ex.put(Endpoint.class, endpoint);
+        ex.put(Service.class, endpoint.getService());
+        ex.put(Binding.class, endpoint.getBinding());
+        ex.put(BindingOperationInfo.class, op);
+        ex.put(LocalConduit.IN_EXCHANGE, message.getExchange());
+        ex.setDestination(destination);
+
+        Message inMsg = endpoint.getBinding().createMessage();
+        transportFactory.copy(message, inMsg);
+        inMsg.setContent(List.class, copy(message, message.getContent(List.class)));
+        inMsg.put(Message.REQUESTOR_ROLE, Boolean.FALSE);
+        inMsg.put(Message.INBOUND_MESSAGE, Boolean.TRUE);
+        inMsg.put(MessageInfo.class, op.getOperationInfo().getInput());
+        ex.setInMessage(inMsg);
+        inMsg.setExchange(ex);
+
+        SortedSet<Phase> phases = getPhases(bus.getExtension(PhaseManager.class).getInPhases(),
+                                            Phase.USER_LOGICAL, Phase.INVOKE);
+        PhaseInterceptorChain chain = new PhaseInterceptorChain(phases);
+        add(chain, phases, true, endpoint, endpoint.getService(), bus, endpoint.getService().getDataBinding());
+        inMsg.setInterceptorChain(chain);
+        chain.doIntercept(inMsg);
+
+        Message outMsg = ex.getOutMessage();
+        if (inMsg.getContent(Exception.class) == null && outMsg != null && !message.getExchange().isOneWay()) {
+            phases = getPhases(bus.getExtension(PhaseManager.class).getOutPhases(),
+                               Phase.SETUP, Phase.USER_LOGICAL);
+            chain = new PhaseInterceptorChain(phases);
+            add(chain, phases, false, endpoint, endpoint.getService(), bus,
+                endpoint.getService().getDataBinding());
+            outMsg.put(MessageInfo.class, op.getOperationInfo().getOutput());
+            outMsg.put(Message.INBOUND_MESSAGE, Boolean.FALSE);
+            outMsg.setInterceptorChain(chain);
+            chain.doIntercept(outMsg);
+        }
+        return ex;
+    }
+
+    private void handleResponse(Exchange exchange, Endpoint endpoint, Exchange serverExchange) {
+        Message serverMsg = serverExchange.getOutMessage();
+        Exception fault = serverExchange.getInMessage().getContent(Exception.class);
+        if (fault == null && serverMsg != null) {
+            fault = serverMsg.getContent(Exception.class);
+        }
+
+        Message inMsg = endpoint.getBinding().createMessage();
+        if (serverMsg != null) {
+            transportFactory.copy(serverMsg, inMsg);
+            List<?> content = serverMsg.getContent(List.class);
+            if (content != null) {
+                inMsg.setContent(List.class, copy(exchange.getOutMessage(), content));
+            }
+        }
+        inMsg.put(Message.REQUESTOR_ROLE, Boolean.TRUE);
+        inMsg.put(Message.INBOUND_MESSAGE, Boolean.TRUE);
+        inMsg.setExchange(exchange);
+
+        if (fault != null) {
+            inMsg.setContent(Exception.class, getDeclaredException(exchange, fault));
+            exchange.setInFaultMessage(inMsg);
+            return;
+        }
+        exchange.setInMessage(inMsg);
+
+        Bus bus = exchange.getBus();
+        SortedSet<Phase> phases = getPhases(bus.getExtension(PhaseManager.class).getInPhases(),
+                                            Phase.USER_LOGICAL, Phase.PRE_INVOKE);
+        PhaseInterceptorChain chain = new PhaseInterceptorChain(phases);
+        add(chain, phases, true, exchange.get(Client.class), endpoint, endpoint.getService(), bus,
+            endpoint.getService().getDataBinding());
+        inMsg.setInterceptorChain(chain);
+        chain.doIntercept(inMsg);
+    }
+
+    /**
+     * Returns the exception thrown by the service implementation if the client method
+     * declares it, as it would have been unmarshalled from the fault details.
+     */
+    private static Exception getDeclaredException(Exchange exchange, Exception fault) {
+        if (!(fault instanceof Fault) || !(fault.getCause() instanceof Exception)
+            || fault.getCause() instanceof RuntimeException) {
+            return fault;
+        }
+        MethodDispatcher md = (MethodDispatcher)exchange.getService().get(MethodDispatcher.class.getName());
+        BindingOperationInfo op = exchange.getBindingOperationInfo();
+        Method method = null;
+        if (md != null && op != null) {
+            method = md.getMethod(op);
+            if (method == null && op.getUnwrappedOperation() != null) {
+                method = md.getMethod(op.getUnwrappedOperation());
+            }
+        }
+        if (method != null) {
+            for (Class<?> cls : method.getExceptionTypes()) {
+                if (cls.isInstance(fault.getCause())) {
+                    return (Exception)fault.getCause();
+                }
+            }
+        }
+        return fault;
+    }
+
+    private static boolean isCompatible(Endpoint clientEndpoint, BindingOperationInfo clientOp,
+                                        Endpoint serverEndpoint, BindingOperationInfo serverOp) {
+        Object clientBinding = clientEndpoint.getService().getDataBinding();
+        Object serverBinding = serverEndpoint.getService().getDataBinding();
+        if (clientBinding == null || serverBinding == null
+            || clientBinding.getClass() != serverBinding.getClass()) {
+            return false;
+        }
+        if (!isCompatible(clientOp.getInput(), serverOp.getInput(), true)
+            || !isCompatible(clientOp.getOutput(), serverOp.getOutput(), true)) {
+            return false;
+        }
+        if (isCompatible(clientOp.getInput(), serverOp.getInput(), false)
+            && isCompatible(clientOp.getOutput(), serverOp.getOutput(), false)) {
+            return true;
+        }
+        // without wrapper classes the parameters are passed in their unwrapped form
+        BindingOperationInfo clientUnwrapped = clientOp.getUnwrappedOperation();
+        BindingOperationInfo serverUnwrapped = serverOp.getUnwrappedOperation();
+        return clientUnwrapped != null && serverUnwrapped != null
+            && isCompatible(clientUnwrapped.getInput(), serverUnwrapped.getInput(), false)
+            && isCompatible(clientUnwrapped.getOutput(), serverUnwrapped.getOutput(), false);
+    }
+
+    private static boolean isCompatible(BindingMessageInfo client, BindingMessageInfo server,
+                                        boolean allowUnknown) {
+        if (client == null || server == null) {
+            return client == server;
+        }
+        List<MessagePartInfo> clientParts = client.getMessageParts();
+        List<MessagePartInfo> serverParts = server.getMessageParts();
+        if (clientParts.size() != serverParts.size()) {
+            return false;
+        }
+        for (int i = 0; i < clientParts.size(); i++) {
+            Class<?> cls = clientParts.get(i).getTypeClass();
+            if (cls != serverParts.get(i).getTypeClass() || cls == null && !allowUnknown) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static BindingOperationInfo wrapped(BindingOperationInfo op) {
+        if (op != null && op.isUnwrapped()) {
+            return op.getWrappedOperation();
+        }
+        return op;
+    }
+
+    private static MessageContentsList copy(Message message, List<?> objects) {
+        ObjectCloner cloner = (ObjectCloner)message.getContextualProperty(LocalConduit.OBJECT_CLONER);
+        MessageContentsList copy = new MessageContentsList(objects);
+        if (cloner != null) {
+            for (int i = 0; i < copy.size(); i++) {
+                Object o = copy.get(i);
+                if (o != null && o != MessageContentsList.REMOVED_MARKER) {
+                    copy.set(i, cloner.copy(o));
+                }
+            }
+        }
+        return copy;
+    }
+
+    private static SortedSet<Phase> getPhases(SortedSet<Phase> all, String start, String end) {
+        SortedSet<Phase> phases = new TreeSet<Phase>(all);
+        Iterator<Phase> it = phases.iterator();
+        boolean include = false;
+        while (it.hasNext()) {
+            String name = it.next().getName();
+            if (name.equals(start)) {
+                include = true;
+            }
+            if (!include) {
+                it.remove();
+            }
+            if (name.equals(end)) {
+                include = false;
+            }
+        }
+        return phases;
+    }
+
+    /**
+     * Adds the interceptors of the providers which belong to one of the phases, the others
+     * would only be skipped with a warning.
+     */
+    private static void add(PhaseInterceptorChain chain, SortedSet<Phase> phases, boolean in,
+                            Object... providers) {
+        List<String> names = new ArrayList<>();
+        for (Phase p : phases) {
+            names.add(p.getName());
+        }
+        for (Object provider : providers) {
+            if (!(provider instanceof InterceptorProvider)) {
+                continue;
+            }
+            InterceptorProvider ip = (InterceptorProvider)provider;
+            List<Interceptor<? extends Message>> interceptors = in ? ip.getInInterceptors()
+                : ip.getOutInterceptors();
+            for (Interceptor<? extends Message> i : interceptors) {
+                if (i instanceof PhaseInterceptor
+                    && names.contains(((PhaseInterceptor<?>)i).getPhase())) {
+                    chain.add(i);
+                }
+            }
+        }
+    }
+}
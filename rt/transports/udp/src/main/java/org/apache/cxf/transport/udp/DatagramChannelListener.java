@@ -0,0 +1,260 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.transport.udp;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Field;
+import java.net.Inet6Address;
+import java.net.InetSocketAddress;
+import java.net.NetworkInterface;
+import java.net.SocketAddress;
+import java.net.SocketOption;
+import java.net.StandardProtocolFamily;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.DatagramChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.apache.cxf.common.logging.LogUtils;
+import org.apache.cxf.helpers.LoadingByteArrayOutputStream;
+import org.apache.cxf.io.DelegatingInputStream;
+import org.apache.cxf.message.Exchange;
+import org.apache.cxf.message.ExchangeImpl;
+import org.apache.cxf.message.MessageImpl;
+import org.apache.cxf.transport.MessageObserver;
+
+/**
+ * Receives datagrams with blocking NIO channels on a number of reader threads and hands
+ * each of them to the work queue as a message of its own.  If the platform supports
+ * SO_REUSEPORT every reader gets a channel of its own and the kernel spreads the
+ * datagrams across them, otherwise the readers share a single channel.  The receive
+ * buffers are pooled, a buffer is returned to the pool once the message has been
+ * processed.
+ */
+class DatagramChannelListener {
+    static final int MAX_DATAGRAM_SIZE = 64 * 1024;
+    private static final Logger LOG = LogUtils.getL7dLogger(DatagramChannelListener.class);
+    private static final SocketOption<Boolean> SO_REUSEPORT = getReusePortOption();
+
+    private final UDPDestination destination;
+    private final Executor executor;
+    private final int readers;
+    private final BlockingQueue<ByteBuffer> buffers;
+    private final List<DatagramChannel> channels = new ArrayList<>();
+    private final List<Thread> threads = new ArrayList<>();
+    private volatile boolean running;
+
+    DatagramChannelListener(UDPDestination destination, Executor executor, int readers) {
+        this.destination = destination;
+        this.executor = executor;
+        this.readers = readers;
+        this.buffers = new ArrayBlockingQueue<>(readers * 4);
+    }
+
+    /**
+     * Binds the channels to a unicast address and starts the readers.
+     */
+    void bind(InetSocketAddress address) throws IOException {
+        DatagramChannel channel = openChannel(address);
+        if (readers > 1 && SO_REUSEPORT != null && channel.supportedOptions().contains(SO_REUSEPORT)) {
+            for (int i = 0; i < readers; i++) {
+                if (i > 0) {
+                    channel = openChannel(address);
+                }
+                channel.setOption(SO_REUSEPORT, Boolean.TRUE);
+                channel.bind(address);
+                start(channel, 1);
+            }
+        } else {
+            channel.bind(address);
+            start(channel, readers);
+        }
+    }
+
+    /**
+     * Joins the multicast group on the network interface and starts the readers.  Every
+     * channel joined to the group would receive every datagram, so the readers always
+     * share a single channel.
+     */
+    void join(InetSocketAddress group, NetworkInterface ni) throws IOException {
+        DatagramChannel channel = openChannel(group);
+        channel.bind(new InetSocketAddress(group.getPort()));
+        channel.setOption(StandardSocketOptions.IP_MULTICAST_IF, ni);
+        channel.setOption(StandardSocketOptions.IP_MULTICAST_TTL, 1);
+        channel.setOption(StandardSocketOptions.IP_MULTICAST_LOOP, Boolean.TRUE);
+        channel.join(group.getAddress(), ni);
+        start(channel, readers);
+    }
+
+    private static DatagramChannel openChannel(InetSocketAddress address) throws IOException {
+        DatagramChannel channel = address.getAddress() instanceof Inet6Address
+            ? DatagramChannel.open(StandardProtocolFamily.INET6)
+            : DatagramChannel.open(StandardProtocolFamily.INET);
+        channel.setOption(StandardSocketOptions.SO_REUSEADDR, Boolean.TRUE);
+        channel.setOption(StandardSocketOptions.SO_RCVBUF, MAX_DATAGRAM_SIZE * 4);
+        channel.setOption(StandardSocketOptions.SO_SNDBUF, MAX_DATAGRAM_SIZE);
+        return channel;
+    }
+
+    private void start(final DatagramChannel channel, int count) {
+        running = true;
+        channels.add(channel);
+        for (int i = 0; i < count; i++) {
+            Thread t = new Thread(new Runnable() {
+                public void run() {
+                    read(channel);
+                }
+            }, "cxf-udp-reader-" + threads.size());
+            t.setDaemon(true);
+            threads.add(t);
+            t.start();
+        }
+    }
+
+    int getChannelCount() {
+        return channels.size();
+    }
+
+    void close() {
+        running = false;
+        for (DatagramChannel channel : channels) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                //ignore
+            }
+        }
+        channels.clear();
+        threads.clear();
+        buffers.clear();
+    }
+
+    private void read(DatagramChannel channel) {
+        while (running) {
+            ByteBuffer buffer = acquire();
+            try {
+                SocketAddress from = channel.receive(buffer);
+                buffer.flip();
+                dispatch(channel, buffer, from);
+            } catch (ClosedChannelException e) {
+                return;
+            } catch (IOException e) {
+                release(buffer);
+                LOG.log(Level.WARNING, "Could not receive a datagram: " + e.getMessage(), e);
+            }
+        }
+    }
+
+    private void dispatch(DatagramChannel channel, ByteBuffer buffer, SocketAddress from) {
+        Runnable r = new Dispatch(channel, buffer, from);
+        try {
+            executor.execute(r);
+        } catch (RejectedExecutionException e) {
+            // the work queue is full, slow the reader down by processing it here
+            r.run();
+        }
+    }
+
+    private ByteBuffer acquire() {
+        ByteBuffer buffer = buffers.poll();
+        return buffer != null ? buffer : ByteBuffer.allocate(MAX_DATAGRAM_SIZE);
+    }
+
+    private void release(ByteBuffer buffer) {
+        buffer.clear();
+        buffers.offer(buffer);
+    }
+
+    private static SocketOption<Boolean> getReusePortOption() {
+        try {
+            // Java 9 and later
+            Field f = StandardSocketOptions.class.getField("SO_REUSEPORT");
+            @SuppressWarnings("unchecked")
+            SocketOption<Boolean> option = (SocketOption<Boolean>)f.get(null);
+            return option;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private final class Dispatch implements Runnable {
+        private final DatagramChannel channel;
+        private final ByteBuffer buffer;
+        private final SocketAddress from;
+
+        Dispatch(DatagramChannel channel, ByteBuffer buffer, SocketAddress from) {
+            this.channel = channel;
+            this.buffer = buffer;
+            this.from = from;
+        }
+
+        public void run() {
+            MessageObserver observer = destination.getMessageObserver();
+            if (observer == null) {
+                release(buffer);
+                LOG.fine("Discarding a datagram, the destination has no message observer");
+                return;
+            }
+            DelegatingInputStream in = new DelegatingInputStream(
+                new ByteArrayInputStream(buffer.array(), buffer.position(), buffer.remaining()));
+            LoadingByteArrayOutputStream out = new LoadingByteArrayOutputStream() {
+                public void close() throws IOException {
+                    super.close();
+                    send(getRawBytes(), size());
+                }
+            };
+
+            MessageImpl m = new MessageImpl();
+            Exchange exchange = new ExchangeImpl();
+            exchange.setDestination(destination);
+            m.setDestination(destination);
+            exchange.setInMessage(m);
+            m.setContent(DelegatingInputStream.class, in);
+            m.setContent(InputStream.class, in);
+            m.put(UDPDestination.UDPConnectionInfo.class, new UDPDestination.UDPConnectionInfo(null, out, in));
+            try {
+                observer.onMessage(m);
+            } catch (RuntimeException e) {
+                // this may run on a reader thread, which has to keep receiving
+                LOG.log(Level.WARNING, "Could not process a datagram: " + e.getMessage(), e);
+            } finally {
+                // the rest of a one way chain may still be reading the request
+                in.cacheInput();
+                release(buffer);
+            }
+        }
+
+        private void send(byte[] bytes, int length) throws IOException {
+            int max = MAX_DATAGRAM_SIZE - 42;
+            for (int off = 0; off < length; off += max) {
+                channel.send(ByteBuffer.wrap(bytes, off, Math.min(max, length - off)), from);
+            }
+        }
+    }
+}
@@ -63,6 +63,12 @@ import org.apache.mina.transport.socket.nio.NioDatagramAcceptor;
  */
 public class UDPDestination extends AbstractDestination {
     public static final String NETWORK_INTERFACE = UDPDestination.class.getName() + ".NETWORK_INTERFACE";
+    /**
+     * The number of threads which receive datagrams with NIO channels.  If it is not set
+     * the datagrams are received with MINA, which also allows requests to span several
+     * datagrams.  Each datagram is a request of its own if it is set.
+     */
+    public static final String READER_THREADS = UDPDestination.class.getName() + ".READER_THREADS";
 
     private static final Logger LOG = LogUtils.getL7dLogger(UDPDestination.class);
     private static final AttributeKey KEY_IN = new AttributeKey(StreamIoHandler.class, "in");
@@ -71,6 +77,7 @@ public class UDPDestination extends AbstractDestination {
     NioDatagramAcceptor acceptor;
     AutomaticWorkQueue queue;
     volatile MulticastSocket mcast;
+    DatagramChannelListener channelListener;
 
     public UDPDestination(Bus b, EndpointReferenceType ref, EndpointInfo ei) {
         super(b, ref, ei);
@@ -165,7 +172,15 @@ public class UDPDestination extends AbstractDestination {
             } else {
                 isa = new InetSocketAddress(uri.getHost(), uri.getPort());
             }
-            if (isa.getAddress().isMulticastAddress()) {
+            int readers = getReaderThreads();
+            if (readers > 0) {
+                channelListener = new DatagramChannelListener(this, queue, readers);
+                if (isa.getAddress().isMulticastAddress()) {
+                    channelListener.join(isa, findNetworkInterface());
+                } else {
+                    channelListener.bind(isa);
+                }
+            } else if (isa.getAddress().isMulticastAddress()) {
                 //ouch...
                 MulticastSocket socket = new MulticastSocket(null);
                 socket.setReuseAddress(true);
@@ -195,6 +210,16 @@ public class UDPDestination extends AbstractDestination {
             throw new RuntimeException(ex);
         }
     }
+    private int getReaderThreads() {
+        Object value = this.getEndpointInfo().getProperty(UDPDestination.READER_THREADS);
+        if (value == null) {
+            value = bus.getProperty(UDPDestination.READER_THREADS);
+        }
+        if (value instanceof Number) {
+            return ((Number)value).intValue();
+        }
+        return value == null ? 0 : Integer.parseInt(value.toString().trim());
+    }
     private NetworkInterface findNetworkInterface() throws SocketException {
         String name = (String)this.getEndpointInfo().getProperty(UDPDestination.NETWORK_INTERFACE);
         NetworkInterface ret = null;
@@ -229,6 +254,10 @@ public class UDPDestination extends AbstractDestination {
             acceptor.dispose();
         }
         acceptor = null;
+        if (channelListener != null) {
+            channelListener.close();
+            channelListener = null;
+        }
         if (mcast != null) {
             mcast.close();
             mcast = null;
@@ -0,0 +1,162 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.transport.udp;
+
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+import org.apache.cxf.Bus;
+import org.apache.cxf.BusFactory;
+import org.apache.cxf.common.logging.LogUtils;
+import org.apache.cxf.endpoint.Server;
+import org.apache.cxf.helpers.IOUtils;
+import org.apache.cxf.jaxws.JaxWsProxyFactoryBean;
+import org.apache.cxf.jaxws.JaxWsServerFactoryBean;
+import org.apache.cxf.message.Message;
+import org.apache.cxf.service.model.EndpointInfo;
+import org.apache.cxf.testutil.common.TestUtil;
+import org.apache.cxf.transport.MessageObserver;
+import org.apache.hello_world.Greeter;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class UDPDestinationTest extends Assert {
+    static final String PORT = TestUtil.getPortNumber(UDPDestinationTest.class, 1);
+    static final String LOAD_PORT = TestUtil.getPortNumber(UDPDestinationTest.class, 2);
+    static final String FAULT_PORT = TestUtil.getPortNumber(UDPDestinationTest.class, 3);
+    private static final Logger LOG = LogUtils.getL7dLogger(UDPDestinationTest.class);
+
+    private Bus bus;
+
+    @Before
+    public void setUp() {
+        bus = BusFactory.newInstance().createBus();
+        bus.setProperty(UDPDestination.READER_THREADS, "4");
+    }
+
+    @After
+    public void tearDown() {
+        bus.shutdown(true);
+    }
+
+    @Test
+    public void testRequestResponseWithReaderThreads() throws Exception {
+        JaxWsServerFactoryBean factory = new JaxWsServerFactoryBean();
+        factory.setBus(bus);
+        factory.setAddress("udp://:" + PORT);
+        factory.setServiceBean(new UDPTransportTest.GreeterImpl());
+        Server server = factory.create();
+        try {
+            UDPDestination destination = (UDPDestination)server.getDestination();
+            assertNotNull(destination.channelListener);
+            assertNull(destination.acceptor);
+
+            JaxWsProxyFactoryBean fact = new JaxWsProxyFactoryBean();
+            fact.setBus(bus);
+            fact.setAddress("udp://localhost:" + PORT);
+            Greeter g = fact.create(Greeter.class);
+            for (int x = 0; x < 5; x++) {
+                assertEquals("Hello World" + x, g.greetMe("World" + x));
+            }
+            ((java.io.Closeable)g).close();
+        } finally {
+            server.stop();
+        }
+    }
+
+    @Test
+    public void testLoopbackLoad() throws Exception {
+        EndpointInfo ei = new EndpointInfo();
+        ei.setAddress("udp://localhost:" + LOAD_PORT);
+        UDPDestination destination = (UDPDestination)new UDPTransportFactory().getDestination(ei, bus);
+        final AtomicInteger received = new AtomicInteger();
+        destination.setMessageObserver(new MessageObserver() {
+            public void onMessage(Message message) {
+                try {
+                    IOUtils.readBytesFromStream(message.getContent(InputStream.class));
+                    received.incrementAndGet();
+                } catch (Exception e) {
+                    throw new RuntimeException(e);
+                }
+            }
+        });
+        try {
+            InetSocketAddress address = new InetSocketAddress("localhost", Integer.parseInt(LOAD_PORT));
+            // batches stay well below the receive buffer so that no datagram gets dropped
+            int batches = 10;
+            int batchSize = 100;
+            byte[] payload = new byte[512];
+            long start = System.nanoTime();
+            try (DatagramChannel client = DatagramChannel.open()) {
+                for (int b = 1; b <= batches; b++) {
+                    for (int i = 0; i < batchSize; i++) {
+                        client.send(ByteBuffer.wrap(payload), address);
+                    }
+                    waitFor(received, b * batchSize);
+                }
+            }
+            long millis = Math.max(1, (System.nanoTime() - start) / 1000000);
+            LOG.info("UDP destination handled " + received.get() + " datagrams, "
+                     + (received.get() * 1000L / millis) + " datagrams/s");
+            assertEquals(batches * batchSize, received.get());
+        } finally {
+            destination.setMessageObserver(null);
+        }
+    }
+
+    @Test
+    public void testFaultingObserverDoesNotStopReaders() throws Exception {
+        EndpointInfo ei = new EndpointInfo();
+        ei.setAddress("udp://localhost:" + FAULT_PORT);
+        UDPDestination destination = (UDPDestination)new UDPTransportFactory().getDestination(ei, bus);
+        final AtomicInteger received = new AtomicInteger();
+        destination.setMessageObserver(new MessageObserver() {
+            public void onMessage(Message message) {
+                received.incrementAndGet();
+                throw new IllegalStateException("expected");
+            }
+        });
+        try {
+            InetSocketAddress address = new InetSocketAddress("localhost", Integer.parseInt(FAULT_PORT));
+            int count = 20;
+            try (DatagramChannel client = DatagramChannel.open()) {
+                for (int i = 1; i <= count; i++) {
+                    client.send(ByteBuffer.wrap(new byte[16]), address);
+                    waitFor(received, i);
+                }
+            }
+            assertEquals(count, received.get());
+        } finally {
+            destination.setMessageObserver(null);
+        }
+    }
+
+    private static void waitFor(AtomicInteger received, int count) throws InterruptedException {
+        for (int i = 0; i < 500 && received.get() < count; i++) {
+            Thread.sleep(20);
+        }
+    }
+}